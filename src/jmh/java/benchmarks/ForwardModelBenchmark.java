@@ -0,0 +1,118 @@
+package benchmarks;
+
+import core.AbstractForwardModel;
+import core.AbstractGameState;
+import core.Game;
+import core.actions.AbstractAction;
+import games.GameType;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micro-benchmarks of the operations that search-based players call most often: copying a game state,
+ * computing the available actions, applying an action, and the heuristic score.
+ * <p>
+ * Each trial plays some random games of the chosen game and keeps a sample of the states it passes through, so that
+ * the figures are an average over the whole game and not only the start. The sample is fixed by the seed.
+ * Each benchmark invocation works on the next state of the sample, in turn. The figures are operations per second.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ForwardModelBenchmark {
+
+    @Param({"TicketToRide"})
+    public String gameType;
+
+    @Param({"4"})
+    public int nPlayers;
+
+    @Param({"100"})
+    public int nSampleStates;
+
+    @Param({"9731"})
+    public long seed;
+
+    AbstractForwardModel forwardModel;
+    AbstractGameState[] states;
+    List<AbstractAction>[] actions;
+    int next;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        Random rnd = new Random(seed);
+        List<AbstractGameState> sample = new ArrayList<>();
+        List<List<AbstractAction>> sampleActions = new ArrayList<>();
+        // record every state of some random games, then keep an evenly spaced sample of them
+        List<AbstractGameState> visited = new ArrayList<>();
+        while (visited.size() < nSampleStates * 10) {
+            Game game = GameType.valueOf(gameType).createGameInstance(nPlayers, rnd.nextLong());
+            forwardModel = game.getForwardModel();
+            AbstractGameState state = game.getGameState();
+            int before = visited.size();
+            while (state.isNotTerminal() && visited.size() - before < nSampleStates * 10) {
+                visited.add(state.copy());
+                List<AbstractAction> available = forwardModel.computeAvailableActions(state);
+                forwardModel.next(state, available.get(rnd.nextInt(available.size())));
+            }
+        }
+        int step = visited.size() / nSampleStates;
+        for (int i = 0; i < nSampleStates; i++) {
+            AbstractGameState state = visited.get(i * step);
+            sample.add(state);
+            sampleActions.add(forwardModel.computeAvailableActions(state));
+        }
+        states = sample.toArray(new AbstractGameState[0]);
+        actions = sampleActions.toArray(new List[0]);
+    }
+
+    private int nextState() {
+        int index = next;
+        next = (next + 1) % states.length;
+        return index;
+    }
+
+    @Benchmark
+    public AbstractGameState copy() {
+        return states[nextState()].copy();
+    }
+
+    @Benchmark
+    public AbstractGameState copyForPlayer() {
+        AbstractGameState state = states[nextState()];
+        return state.copy(state.getCurrentPlayer());
+    }
+
+    @Benchmark
+    public List<AbstractAction> computeAvailableActions() {
+        return forwardModel.computeAvailableActions(states[nextState()]);
+    }
+
+    /**
+     * Applies the first available action to a copy of the state, so this includes the time of {@link #copy()}.
+     */
+    @Benchmark
+    public AbstractGameState copyAndNext() {
+        int index = nextState();
+        AbstractGameState state = states[index].copy();
+        forwardModel.next(state, actions[index].get(0).copy());
+        return state;
+    }
+
+    @Benchmark
+    public void heuristicScore(Blackhole bh) {
+        AbstractGameState state = states[nextState()];
+        for (int p = 0; p < state.getNPlayers(); p++) {
+            bh.consume(state.getHeuristicScore(p));
+        }
+    }
+}
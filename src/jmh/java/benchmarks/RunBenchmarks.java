@@ -0,0 +1,49 @@
+package benchmarks;
+
+import games.GameType;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Arrays;
+import java.util.TreeSet;
+
+/**
+ * Runs {@link ForwardModelBenchmark} with the GC profiler, so that the allocation rate per operation
+ * (gc.alloc.rate.norm) is reported next to the operations per second.
+ * <p>
+ * Arguments: a comma-separated list of game types (from {@link GameType}), or "all" for every game type,
+ * then optionally a comma-separated list of player counts (default 4) and a regular expression to select some
+ * of the benchmark methods (e.g. "copy"). Each player count is clamped to the players each game allows, so
+ * a game is run with its nearest player counts rather than failing.
+ * <p>
+ * e.g. {@code mvn -Pbenchmarks compile exec:exec -Dbenchmarks.args="TicketToRide,Connect4 2 copy"}
+ */
+public class RunBenchmarks {
+
+    public static void main(String[] args) throws RunnerException {
+        String[] games = args.length > 0 ? args[0].split(",") : new String[]{"TicketToRide"};
+        if (games.length == 1 && games[0].equalsIgnoreCase("all")) {
+            games = Arrays.stream(GameType.values()).map(Enum::name).toArray(String[]::new);
+        }
+        String[] players = args.length > 1 ? args[1].split(",") : new String[]{"4"};
+        String methods = args.length > 2 ? "." + args[2] : "";
+
+        // JMH runs every combination of the parameters, so each game is run on its own with its own player counts
+        for (String game : games) {
+            GameType gameType = GameType.valueOf(game);
+            TreeSet<Integer> nPlayers = new TreeSet<>();
+            for (String p : players) {
+                nPlayers.add(Math.max(gameType.getMinPlayers(), Math.min(gameType.getMaxPlayers(), Integer.parseInt(p))));
+            }
+            ChainedOptionsBuilder options = new OptionsBuilder()
+                    .include(ForwardModelBenchmark.class.getSimpleName() + methods)
+                    .param("gameType", game)
+                    .param("nPlayers", nPlayers.stream().map(String::valueOf).toArray(String[]::new))
+                    .addProfiler(GCProfiler.class);
+            new Runner(options.build()).run();
+        }
+    }
+}
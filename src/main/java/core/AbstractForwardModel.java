@@ -53,6 +53,7 @@ public abstract class AbstractForwardModel {
 
         _setup(firstState);
         firstState.addAllComponents();
+        firstState.resetZobristKey();
     }
 
     /* Methods to be implemented by subclasses, unavailable to AI players */
@@ -162,6 +163,44 @@ public abstract class AbstractForwardModel {
         currentState.advanceGameTick();
     }
 
+    /**
+     * @return true if this forward model can reverse an action with {@link #undo(AbstractGameState)}. This lets a
+     * search apply an action, look at the result and then take the action back, on the one state rather than
+     * on a copy of the state for each action. Forward models that return true must record every change that their
+     * actions and rules make to the state (other than to the fields of {@link AbstractGameState} itself) in the
+     * state's {@link UndoLog}, and must not use the state's random number generator in next().
+     */
+    public boolean supportsUndo() {
+        return false;
+    }
+
+    /**
+     * Applies the given action as {@link #next(AbstractGameState, AbstractAction)} does, and records the changes made
+     * so that they can be reversed by {@link #undo(AbstractGameState)}. All changes to the state until then are
+     * recorded (including any made when computing the available actions), so every call to this must be
+     * matched by a call to undo().
+     *
+     * @param currentState - current game state, to be modified by the action.
+     * @param action       - action requested to be played by a player.
+     */
+    public final void nextWithUndo(AbstractGameState currentState, AbstractAction action) {
+        if (!supportsUndo()) {
+            throw new UnsupportedOperationException(getClass().getSimpleName() + " does not support undo");
+        }
+        currentState.startUndoFrame();
+        next(currentState, action);
+    }
+
+    /**
+     * Puts the state back as it was before the last action applied to it with
+     * {@link #nextWithUndo(AbstractGameState, AbstractAction)}.
+     *
+     * @param currentState - game state to restore.
+     */
+    public final void undo(AbstractGameState currentState) {
+        currentState.undoLastFrame();
+    }
+
     /**
      * Computes the available actions and updates the game state accordingly.
      *
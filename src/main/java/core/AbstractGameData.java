@@ -4,21 +4,60 @@ import core.components.*;
 import core.components.Component;
 
 import java.io.File;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
-import java.util.Objects;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 public class AbstractGameData {
 
+    // Parsed data for each data directory (and class of data), shared by all games in the JVM. See getTemplate().
+    private static final Map<String, AbstractGameData> templates = new ConcurrentHashMap<>();
+
     private List<GraphBoard> graphBoards = new ArrayList<>();
     private List<GraphBoardWithEdges> graphBoardsWithEdges = new ArrayList<>();
     private List<GridBoard> gridBoards = new ArrayList<>();
     private List<Deck<Card>> decks = new ArrayList<>();
     private List<Counter> counters = new ArrayList<>();
     private List<Token> tokens = new ArrayList<>();
+    private boolean template;
+
+    /**
+     * Returns the game data in dataPath. This is only read from disk and parsed the first time it is asked for;
+     * after that the same parsed data is returned to every caller in the JVM, so setting up a game does not need
+     * any file access.
+     * The data returned is shared, and must not be changed. All the find...() methods return copies of the components.
+     */
+    public static AbstractGameData getTemplate(String dataPath) {
+        return getTemplate(dataPath, AbstractGameData::new);
+    }
+
+    /**
+     * As getTemplate(dataPath), for games that have their own sub-class of AbstractGameData.
+     *
+     * @param newData - creates an empty instance of the sub-class, into which the data is loaded the first time
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends AbstractGameData> T getTemplate(String dataPath, Supplier<T> newData) {
+        T data = newData.get();
+        String key = data.getClass().getName() + "|" + new File(dataPath).getAbsoluteFile().toPath().normalize();
+        return (T) templates.computeIfAbsent(key, k -> {
+            data.load(dataPath);
+            ((AbstractGameData) data).template = true;
+            return data;
+        });
+    }
+
+    /**
+     * Removes all cached data, so that the next call to getTemplate() reads the files again.
+     * This is only needed if the data files are changed while the JVM is running.
+     */
+    public static void clearTemplates() {
+        templates.clear();
+    }
 
     public void load(String dataPath) {
+        if (template)
+            throw new IllegalStateException("Game data from getTemplate() is shared, and cannot be reloaded");
         File dir = new File(dataPath);
         if (dir.isDirectory()) {
             List<String> files = Arrays.asList(Objects.requireNonNull(dir.list()));
@@ -100,6 +139,9 @@ public class AbstractGameData {
         retValue.graphBoards = new ArrayList<>();
         for (GraphBoard b : graphBoards) retValue.graphBoards.add(b.copy());
 
+        retValue.graphBoardsWithEdges = new ArrayList<>();
+        for (GraphBoardWithEdges b : graphBoardsWithEdges) retValue.graphBoardsWithEdges.add(b.copy());
+
         retValue.gridBoards = new ArrayList<>();
         for (GridBoard b : gridBoards) retValue.gridBoards.add(b.copy());
 
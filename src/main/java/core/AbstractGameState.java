@@ -10,10 +10,11 @@ import core.interfaces.IExtendedSequence;
 import core.interfaces.IGameEvent;
 import core.interfaces.IGamePhase;
 import evaluation.listeners.IGameListener;
-import evaluation.metrics.Event;
 import games.GameType;
 import utilities.ElapsedCpuChessTimer;
 import utilities.Pair;
+import utilities.SplitRandom;
+import utilities.Zobrist;
 
 import java.util.*;
 import java.util.function.BiFunction;
@@ -35,7 +36,8 @@ import static core.CoreConstants.GameResult.GAME_ONGOING;
 public abstract class AbstractGameState {
 
     // Parameters, forward model and turn order for the game
-    protected final AbstractParameters gameParameters;
+    // Once frozen (when the game is set up), these are shared with all copies of the state
+    protected AbstractParameters gameParameters;
     // Game being played
     protected final GameType gameType = _getGameType();
     private Area allComponents;
@@ -54,9 +56,9 @@ public abstract class AbstractGameState {
 
     // A record of all actions taken to reach this game state
     // The history is stored as a list of pairs, where the first element is the player who took the action
-    // this is in chronological order
-    private List<Pair<Integer, AbstractAction>> history = new ArrayList<>();
-    private List<String> historyText = new ArrayList<>();
+    // this is in chronological order. Copies of the state share the history recorded so far (see HistoryLog)
+    private HistoryLog<Pair<Integer, AbstractAction>> history = new HistoryLog<>(0);
+    private HistoryLog<String> historyText = new HistoryLog<>(0);
 
     // Status of the game, and status for each player (in cooperative games, the game status is also each player's status)
     protected CoreConstants.GameResult gameStatus;
@@ -67,11 +69,17 @@ public abstract class AbstractGameState {
     protected Stack<IExtendedSequence> actionsInProgress = new Stack<>();
     CoreParameters coreGameParameters;
     private int gameID;
+    // Changes made since the actions applied with AbstractForwardModel.nextWithUndo(); not copied with the state
+    private UndoLog undoLog;
+    // Zobrist key of the game-specific part of the state, kept up to date by the game (see hasZobristKey())
+    private long zobristKey;
+    private static final int ZOBRIST_CORE = -1;
     // rnd is used for all random number generation in the game - for events within the game
     protected Random rnd;
     // redeterminisationRnd is used for redeterminisation only - this is to ensure that the main game is not affected
-    // this is not initialised from any seed, as redeterminisation is used to hide data from players and cannot affect the game itself
-    protected Random redeterminisationRnd = new Random();
+    // this is a separate stream split from the game seed, so cannot affect the game itself
+    protected Random redeterminisationRnd = new SplitRandom(new SplittableRandom().nextLong());
+    private static final long REDETERMINISATION_STREAM = -2;
 
     /**
      * @param gameParameters - game parameters.
@@ -94,8 +102,8 @@ public abstract class AbstractGameState {
         gameStatus = GAME_ONGOING;
         playerResults = new CoreConstants.GameResult[getNPlayers()];
         Arrays.fill(playerResults, GAME_ONGOING);
-        history = new ArrayList<>();
-        historyText = new ArrayList<>();
+        history = new HistoryLog<>(coreGameParameters.historyLength);
+        historyText = new HistoryLog<>(coreGameParameters.historyLength);
         playerTimer = new ElapsedCpuChessTimer[getNPlayers()];
         tick = 0;
         turnOwner = 0;
@@ -103,14 +111,22 @@ public abstract class AbstractGameState {
         roundCounter = 0;
         firstPlayer = 0;
         actionsInProgress.clear();
-        rnd = new Random(gameParameters.randomSeed);
+        undoLog = null;
+        zobristKey = 0;
+        rnd = new SplitRandom(gameParameters.randomSeed);
+        redeterminisationRnd = new SplitRandom(SplitRandom.seedFor(gameParameters.randomSeed, REDETERMINISATION_STREAM));
     }
 
     /**
      * Resets variables initialised for this game state.
      */
     void reset(long seed) {
-        gameParameters.randomSeed = seed;
+        // the parameters of the last game are frozen, and may be shared with copies of its states that are still in
+        // use, so a new seed goes in a copy of its own rather than changing them. Keeping the seed needs no copy, which
+        // matters as copy() only carries over what the parameters themselves copy (and not, say, a field set directly)
+        if (seed != gameParameters.randomSeed) {
+            getMutableGameParameters().randomSeed = seed;
+        }
         reset();
     }
 
@@ -124,6 +140,20 @@ public abstract class AbstractGameState {
     public final AbstractParameters getGameParameters() {
         return this.gameParameters;
     }
+    /**
+     * Use this to change the parameters of a game that has started. Its parameters are frozen, and may be shared with
+     * copies of this state, so this state is first given its own (mutable) copy of them, with the same random seed.
+     *
+     * @return - the game parameters, which can now be changed
+     */
+    public final AbstractParameters getMutableGameParameters() {
+        if (gameParameters.isFrozen()) {
+            long seed = gameParameters.randomSeed;
+            gameParameters = gameParameters.copy();
+            gameParameters.randomSeed = seed;
+        }
+        return gameParameters;
+    }
     public int getNPlayers() { return nPlayers; }
     public int getNTeams() { return nTeams; }
     /**
@@ -166,10 +196,23 @@ public abstract class AbstractGameState {
     }
     /**
      * @return All actions that have been executed on this state since reset()/initialisation
+     * (or just the most recent ones, if CoreParameters.historyLength is set)
      */
-    public List<Pair<Integer, AbstractAction>> getHistory() { return new ArrayList<>(history);}
+    public List<Pair<Integer, AbstractAction>> getHistory() { return history.toList();}
     public List<String> getHistoryAsText() {
-        return new ArrayList<>(historyText);
+        return historyText.toList();
+    }
+    /**
+     * @return The number of actions executed on this state, without the cost of building the list of them
+     */
+    public int getHistorySize() {
+        return history.size();
+    }
+    /**
+     * @return The player and the last action executed on this state, or null if there is none
+     */
+    public Pair<Integer, AbstractAction> getLastAction() {
+        return history.last();
     }
     public int getGameID() {
         return gameID;
@@ -306,20 +349,34 @@ public abstract class AbstractGameState {
         s.turnCounter = turnCounter;
         s.turnOwner = turnOwner;
         s.firstPlayer = firstPlayer;
+        // a copy for one player may have had hidden information redeterminised, and so needs its own key
+        if (playerId == -1) {
+            s.zobristKey = zobristKey;
+        } else {
+            s.resetZobristKey();
+        }
         // If we are copying from a player's perspective, then we branch the RNG so that the master copy
         // is not called an arbitrary number of times. This is to ensure that all shuffles in the main game are
         // the same if we start with the same seed
-        s.rnd = playerId == -1 ? rnd : new Random(System.currentTimeMillis());
+        s.rnd = playerId == -1 ? rnd : branchRnd(rnd, playerId);
+        s.redeterminisationRnd = branchRnd(redeterminisationRnd, playerId);
+        // and the player must not see the seed of the game, from which they could reconstruct hidden information
+        if (playerId != -1 && s.gameParameters == gameParameters && gameParameters.isFrozen())
+            s.gameParameters = gameParameters.hiddenSeedCopy(coreGameParameters.competitionMode);
 
         if (!coreGameParameters.competitionMode) {
-            s.history = new ArrayList<>(history);
-            s.historyText = new ArrayList<>(historyText);
+            // this is constant time, as the copy shares the history recorded so far
+            s.history = history.copy();
+            s.historyText = historyText.copy();
             // we do not copy individual actions in history, as these are now dead and should not change
             // History is for debugging and spectation of games. There is a risk that History might contain information
             // formally hidden to some participants. For this reason, in COMPETITION_MODE we explicitly do not copy
             // any history over in case a sneaky agent tries to take advantage of it.
             // If there is any information only available in History that could legitimately be used, then this should
             // be incorporated in the game-specific data in GameState where the correct hiding protocols can be enforced.
+        } else {
+            s.history = new HistoryLog<>(coreGameParameters.historyLength);
+            s.historyText = new HistoryLog<>(coreGameParameters.historyLength);
         }
 
         s.actionsInProgress = new Stack<>();
@@ -337,6 +394,20 @@ public abstract class AbstractGameState {
         return s;
     }
 
+    /**
+     * A new random number generator for a copy of this state. This is split from the given one (without using any
+     * of its numbers), keyed on the player and game tick, so that runs with the same seed are reproducible. A copy
+     * for a player is split with a one-way hash, so that the player cannot work back from it to the stream of the
+     * game. In competition mode it is instead seeded unpredictably.
+     */
+    private Random branchRnd(Random from, int playerId) {
+        if (coreGameParameters.competitionMode)
+            return new SplitRandom(new SplittableRandom().nextLong());
+        if (from instanceof SplitRandom split)
+            return playerId == -1 ? split.split(playerId, tick) : split.hiddenSplit(playerId, tick);
+        return new SplitRandom(from.nextLong());
+    }
+
     /**
      * Used by ForwardModel.next() to log history (very useful for debugging)
      *
@@ -351,29 +422,152 @@ public abstract class AbstractGameState {
     // helper function to avoid time-consuming string manipulations if the message is not actually
     // going to be logged anywhere
     public void logEvent(IGameEvent event, Supplier<String> eventText) {
-        if (listeners.isEmpty() && !getCoreGameParameters().recordEventHistory)
+        if (!hasListenerFor(event) && !getCoreGameParameters().recordEventHistory)
             return; // to avoid expensive string manipulations
         logEvent(event, eventText.get());
     }
     public void logEvent(IGameEvent event, String eventText) {
-        LogEvent logAction = new LogEvent(eventText);
-        listeners.forEach(l -> l.onEvent(Event.createEvent(event, this, logAction)));
+        if (hasListenerFor(event))
+            IGameListener.sendEvent(listeners, event, this, new LogEvent(eventText), -1);
         if (getCoreGameParameters().recordEventHistory) {
             recordHistory(eventText);
         }
     }
     public void logEvent(IGameEvent event) {
-        LogEvent logAction = new LogEvent(event.name());
-        listeners.forEach(l -> l.onEvent(Event.createEvent(event, this, logAction)));
+        if (hasListenerFor(event))
+            IGameListener.sendEvent(listeners, event, this, new LogEvent(event.name()), -1);
         if (getCoreGameParameters().recordEventHistory) {
             recordHistory(event.name());
         }
     }
 
+    /**
+     * @return true if any listener attached to this game listens to events of this type, so that code that
+     * would need to do some work to describe the event can skip it when no-one will see it
+     */
+    public final boolean hasListenerFor(IGameEvent eventType) {
+        return IGameListener.anyListensTo(listeners, eventType);
+    }
+
     public void recordHistory(String history) {
         historyText.add(history);
     }
 
+    /**
+     * @return true if this game keeps the Zobrist key returned by {@link #getZobristKey()} up to date. Games that
+     * do must override {@link #_computeZobristKey()}, and call {@link #updateZobristKey(long)} whenever they change
+     * anything that is part of the key.
+     */
+    public boolean hasZobristKey() {
+        return false;
+    }
+
+    /**
+     * Computes the game-specific part of the Zobrist key from scratch. This is called once the game has been set up,
+     * after which the key is updated incrementally as the state changes.
+     * See {@link utilities.Zobrist} for how keys are made.
+     */
+    protected long _computeZobristKey() {
+        return 0;
+    }
+
+    void resetZobristKey() {
+        zobristKey = hasZobristKey() ? _computeZobristKey() : 0;
+    }
+
+    /**
+     * Applies a change to the Zobrist key, from {@link utilities.Zobrist#change(int, int, int, int)} or the XOR
+     * of the keys added and removed. This is called by the game (and by actions) as they change the state.
+     */
+    public final void updateZobristKey(long change) {
+        zobristKey ^= change;
+    }
+
+    /**
+     * @return a 64-bit hash of the state (for use in a transposition table for example), which is only meaningful if
+     * {@link #hasZobristKey()} is true. This covers the turn owner, round and turn counters, game status, phase and
+     * results, as well as everything the game includes in its part of the key.
+     */
+    public final long getZobristKey() {
+        long key = zobristKey
+                ^ Zobrist.key(ZOBRIST_CORE, 0, turnOwner)
+                ^ Zobrist.key(ZOBRIST_CORE, 1, turnCounter)
+                ^ Zobrist.key(ZOBRIST_CORE, 2, roundCounter)
+                ^ Zobrist.key(ZOBRIST_CORE, 3, gameStatus.ordinal())
+                ^ Zobrist.key(ZOBRIST_CORE, 4, gamePhase.toString().hashCode())
+                ^ Zobrist.key(ZOBRIST_CORE, 5, actionsInProgress.size());
+        for (int p = 0; p < playerResults.length; p++) {
+            key ^= Zobrist.key(ZOBRIST_CORE, 6 + p, playerResults[p].ordinal());
+        }
+        return key;
+    }
+
+    /**
+     * @return the log that any change to this state must be recorded in, so that it can be reversed by
+     * {@link AbstractForwardModel#undo(AbstractGameState)}; or null if there is nothing to undo, in which case
+     * changes do not need to be recorded. See {@link UndoLog}.
+     */
+    public final UndoLog getUndoLog() {
+        return undoLog != null && undoLog.getDepth() > 0 ? undoLog : null;
+    }
+
+    /**
+     * Starts a new frame of the undo log, saving the core state
+     */
+    void startUndoFrame() {
+        if (undoLog == null) {
+            undoLog = new UndoLog();
+        }
+        undoLog.pushInt(tick);
+        undoLog.pushInt(roundCounter);
+        undoLog.pushInt(turnCounter);
+        undoLog.pushInt(turnOwner);
+        undoLog.pushInt(firstPlayer);
+        undoLog.pushInt(history.size());
+        undoLog.pushInt(historyText.size());
+        undoLog.pushInt(actionsInProgress.size());
+        undoLog.pushInt((int) (zobristKey >>> 32));
+        undoLog.pushInt((int) zobristKey);
+        undoLog.pushObject(gameStatus);
+        undoLog.pushObject(gamePhase);
+        for (CoreConstants.GameResult result : playerResults) {
+            undoLog.pushObject(result);
+        }
+        undoLog.startFrame();
+    }
+
+    /**
+     * Reverses all the changes recorded in the last frame of the undo log, and restores the core state saved at its start.
+     * Extended actions that were completed since then cannot be put back on the stack, so games that use extended
+     * actions need to record these themselves. The player timers are not restored.
+     */
+    void undoLastFrame() {
+        if (undoLog == null) {
+            throw new IllegalStateException("There is no action to undo");
+        }
+        undoLog.undoEntries(this);
+        for (int p = playerResults.length - 1; p >= 0; p--) {
+            playerResults[p] = undoLog.popObject();
+        }
+        gamePhase = undoLog.popObject();
+        gameStatus = undoLog.popObject();
+        zobristKey = undoLog.popInt() & 0xFFFFFFFFL;
+        zobristKey |= (long) undoLog.popInt() << 32;
+        int nActionsInProgress = undoLog.popInt();
+        while (actionsInProgress.size() > nActionsInProgress) {
+            actionsInProgress.pop();
+        }
+        int nHistoryText = undoLog.popInt();
+        historyText.truncate(nHistoryText);
+        int nHistory = undoLog.popInt();
+        history.truncate(nHistory);
+        firstPlayer = undoLog.popInt();
+        turnOwner = undoLog.popInt();
+        turnCounter = undoLog.popInt();
+        roundCounter = undoLog.popInt();
+        tick = undoLog.popInt();
+    }
+
     /* Methods dealing with ExtendedActions and the actionStack */
 
     public final IExtendedSequence currentActionInProgress() {
@@ -3,6 +3,7 @@ package core;
 import core.interfaces.ITunableParameters;
 import evaluation.optimisation.TunableParameters;
 import games.GameType;
+import utilities.SplitRandom;
 
 import java.util.*;
 
@@ -23,6 +24,12 @@ public abstract class AbstractParameters {
     long incrementActionS = 0, incrementTurnS = 0, incrementRoundS = 0;
     // Increment in seconds, added after a custom milestone (to be added manually in game implementation). Default 0.
     long incrementMilestoneS = 0;
+    // Set once a game has started with these parameters; they are then shared by all copies of the game state
+    private boolean frozen;
+    // Frozen copy with a different random seed, shared by the copies of the game state given to players
+    private AbstractParameters hiddenSeedCopy;
+    // key the seed of hiddenSeedCopy is derived with
+    private static final long HIDDEN_SEED_STREAM = -3;
 
 
     public AbstractParameters() {
@@ -63,16 +70,42 @@ public abstract class AbstractParameters {
     }
 
     public void setThinkingTimeMins(long thinkingTimeMins) {
+        checkNotFrozen();
         this.thinkingTimeMins = thinkingTimeMins;
     }
 
     public void setMaxRounds(int max) {
+        checkNotFrozen();
         maxRounds = max;
     }
     public void setTimeoutRounds(int max) {
+        checkNotFrozen();
         timeoutRounds = max;
     }
 
+    /**
+     * Seals these parameters, so that they can be shared by reference between copies of a game state rather than
+     * copied. This is done by Game once a game is set up. After this any attempt to change them throws an
+     * IllegalStateException; to change the parameters of a game in progress use
+     * AbstractGameState.getMutableGameParameters(), which gives the state its own copy first.
+     * This is enforced by the setters that call checkNotFrozen(); parameters that are public fields of a subclass
+     * must equally not be written once frozen.
+     * The random seed is not covered, as it is not part of the value of the parameters (see equals()), but a
+     * game that is reset with a new seed is given its own copy of the parameters rather than changing these.
+     */
+    public final void freeze() {
+        frozen = true;
+    }
+
+    public final boolean isFrozen() {
+        return frozen;
+    }
+
+    protected final void checkNotFrozen() {
+        if (frozen)
+            throw new IllegalStateException("Parameters cannot be changed once a game has started with them; copy them first");
+    }
+
     /**
      * Retrieve total thinking time for the game, in minutes
      *
@@ -149,10 +182,39 @@ public abstract class AbstractParameters {
         return copy;
     }
 
+    /**
+     * The parameters for a copy of a game state. Frozen parameters cannot change, so are shared with the copy;
+     * otherwise the copy has its own (as from copy()).
+     *
+     * @return - this object if frozen, otherwise a new one
+     */
+    public final AbstractParameters copyIfMutable() {
+        return frozen ? this : copy();
+    }
+
+    /**
+     * Frozen parameters are shared with copies of the game state, but players must not see the seed of the game.
+     * So the copies for players share one frozen copy of them with a different seed. This is derived from the seed
+     * of the game with a one-way hash (so it does not reveal it), so that an agent that seeds itself from it is still
+     * reproducible. In competition mode it is instead chosen unpredictably.
+     */
+    final AbstractParameters hiddenSeedCopy(boolean competitionMode) {
+        if (hiddenSeedCopy == null) {
+            AbstractParameters copy = copy();
+            copy.randomSeed = competitionMode ? new SplittableRandom().nextLong()
+                    : SplitRandom.hiddenSeedFor(randomSeed, HIDDEN_SEED_STREAM);
+            copy.freeze();
+            copy.hiddenSeedCopy = copy;
+            hiddenSeedCopy = copy;
+        }
+        return hiddenSeedCopy;
+    }
+
     /**
      * Randomizes the set of parameters, if this is a class that implements the TunableParameters interface.
      */
     public void randomize() {
+        checkNotFrozen();
         if (this instanceof ITunableParameters params) {
             Random rnd = new Random(randomSeed);
             params.getParameterNames().forEach(name -> {
@@ -172,6 +234,7 @@ public abstract class AbstractParameters {
      * interface.
      */
     public void reset() {
+        checkNotFrozen();
         if (this instanceof ITunableParameters) {
             Map<String, Object> defaultValues = ((ITunableParameters) this).getDefaultParameterValues();
             ((ITunableParameters) this).setParameterValues(defaultValues);
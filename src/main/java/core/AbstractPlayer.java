@@ -4,6 +4,7 @@ import core.actions.AbstractAction;
 import core.interfaces.IPlayerDecorator;
 import evaluation.metrics.Event;
 import players.PlayerParameters;
+import utilities.SplitRandom;
 
 import java.util.*;
 
@@ -12,7 +13,8 @@ public abstract class AbstractPlayer {
     // ID of this player, assigned by the game - this is intentionally package-private. Do not change it!
     int playerID;
     String name;
-    protected Random rnd = new Random(System.currentTimeMillis());
+    // seeded from the player's parameters, so that the decisions of a player with a fixed seed are reproducible
+    protected Random rnd;
     // Forward model for the game
     private AbstractForwardModel forwardModel;
     public PlayerParameters parameters;
@@ -21,6 +23,7 @@ public abstract class AbstractPlayer {
     public AbstractPlayer(PlayerParameters params, String name) {
         this.parameters = params != null ? params : new PlayerParameters();
         this.name = name;
+        this.rnd = new SplitRandom(parameters.getRandomSeed());
         // We may have one Decorator defined in the Parameters
         // others can then be added by calling addDecorator()
         decorators = new ArrayList<>();
@@ -175,4 +178,12 @@ public abstract class AbstractPlayer {
     public Random getRnd() {
         return rnd;
     }
+
+    /**
+     * Reseeds the random number generator of the player, for example so that copies of one player that play
+     * different games do not make the same random choices
+     */
+    public void setRandomSeed(long seed) {
+        rnd = new SplitRandom(seed);
+    }
 }
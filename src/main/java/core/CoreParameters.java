@@ -16,6 +16,7 @@ public class CoreParameters extends TunableParameters {
     public boolean alwaysDisplayFullObservable = false;
     public boolean alwaysDisplayCurrentPlayer = false;
     public long frameSleepMS = 100L;
+    public int historyLength = 0;  // number of most recent actions kept in the history, or 0 to keep all of them
 
     // Action space type for this game
     public ActionSpace actionSpace = new ActionSpace(ActionSpace.Structure.Flat, ActionSpace.Flexibility.Default, ActionSpace.Context.Dependent);
@@ -30,6 +31,7 @@ public class CoreParameters extends TunableParameters {
         addTunableParameter("always display full observable", alwaysDisplayFullObservable, Arrays.asList(false, true));
         addTunableParameter("always display current player", alwaysDisplayCurrentPlayer, Arrays.asList(false, true));
         addTunableParameter("frame sleep MS", frameSleepMS, Arrays.asList(0L, 100L, 500L, 1000L, 5000L));
+        addTunableParameter("historyLength", historyLength, Arrays.asList(0, 10, 100, 1000));
         addTunableParameter("actionSpaceStructure", ActionSpace.Structure.Default, Arrays.asList(ActionSpace.Structure.values()));
         addTunableParameter("actionSpaceFlexibility", ActionSpace.Flexibility.Default, Arrays.asList(ActionSpace.Flexibility.values()));
         addTunableParameter("actionSpaceContext", ActionSpace.Context.Default, Arrays.asList(ActionSpace.Context.values()));
@@ -46,12 +48,12 @@ public class CoreParameters extends TunableParameters {
         if (!(o instanceof CoreParameters)) return false;
         if (!super.equals(o)) return false;
         CoreParameters that = (CoreParameters) o;
-        return verbose == that.verbose && recordEventHistory == that.recordEventHistory && partialObservable == that.partialObservable && competitionMode == that.competitionMode && disqualifyPlayerOnIllegalActionPlayed == that.disqualifyPlayerOnIllegalActionPlayed && disqualifyPlayerOnTimeout == that.disqualifyPlayerOnTimeout && alwaysDisplayFullObservable == that.alwaysDisplayFullObservable && alwaysDisplayCurrentPlayer == that.alwaysDisplayCurrentPlayer && frameSleepMS == that.frameSleepMS && Objects.equals(actionSpace, that.actionSpace);
+        return verbose == that.verbose && recordEventHistory == that.recordEventHistory && partialObservable == that.partialObservable && competitionMode == that.competitionMode && disqualifyPlayerOnIllegalActionPlayed == that.disqualifyPlayerOnIllegalActionPlayed && disqualifyPlayerOnTimeout == that.disqualifyPlayerOnTimeout && alwaysDisplayFullObservable == that.alwaysDisplayFullObservable && alwaysDisplayCurrentPlayer == that.alwaysDisplayCurrentPlayer && frameSleepMS == that.frameSleepMS && historyLength == that.historyLength && Objects.equals(actionSpace, that.actionSpace);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(super.hashCode(), verbose, recordEventHistory, partialObservable, competitionMode, disqualifyPlayerOnIllegalActionPlayed, disqualifyPlayerOnTimeout, alwaysDisplayFullObservable, alwaysDisplayCurrentPlayer, frameSleepMS, actionSpace);
+        return Objects.hash(super.hashCode(), verbose, recordEventHistory, partialObservable, competitionMode, disqualifyPlayerOnIllegalActionPlayed, disqualifyPlayerOnTimeout, alwaysDisplayFullObservable, alwaysDisplayCurrentPlayer, frameSleepMS, historyLength, actionSpace);
     }
 
     @Override
@@ -70,6 +72,7 @@ public class CoreParameters extends TunableParameters {
         alwaysDisplayFullObservable = (boolean) getParameterValue("always display full observable");
         alwaysDisplayCurrentPlayer = (boolean) getParameterValue("always display current player");
         frameSleepMS = Long.parseLong(String.valueOf(getParameterValue("frame sleep MS")));
+        historyLength = (int) getParameterValue("historyLength");
         actionSpace = new ActionSpace ((ActionSpace.Structure) getParameterValue("actionSpaceStructure"),
                 (ActionSpace.Flexibility) getParameterValue("actionSpaceFlexibility"),
                 (ActionSpace.Context) getParameterValue("actionSpaceContext"));
@@ -55,6 +55,8 @@ public class Game {
     private JFrame frame;
     // Timers for various function calls
     private double nextTime, copyTime, agentTime, actionComputeTime;
+    // Histograms of the times (and bytes allocated) of all actions, only kept if a listener records a profile
+    private GameProfiler profiler;
     // Keeps track of action spaces for each game tick, pairs of (player ID, #actions)
     private ArrayList<Pair<Integer, Integer>> actionSpaceSize;
     // Number of times an agent is asked for decisions
@@ -361,6 +363,8 @@ public class Game {
     public final void reset(List<AbstractPlayer> players, long newRandomSeed) {
         gameState.reset(newRandomSeed);
         forwardModel.abstractSetup(gameState);
+        // from now on copies of the state share the parameters, rather than each having a copy
+        gameState.gameParameters.freeze();
         if (players.size() == gameState.getNPlayers()) {
             this.players = players;
         } else if (players.isEmpty()) {
@@ -404,6 +408,8 @@ public class Game {
         agentTime = 0;
         actionComputeTime = 0;
         nDecisions = 0;
+        if (profiler != null)
+            profiler.reset();
         actionSpaceSize = new ArrayList<>();
         nActionsPerTurnSum = 0;
         nActionsPerTurn = 1;
@@ -416,7 +422,7 @@ public class Game {
      */
     public final void run() {
 
-        listeners.forEach(l -> l.onEvent(Event.createEvent(Event.GameEvent.ABOUT_TO_START, gameState)));
+        IGameListener.sendEvent(listeners, Event.GameEvent.ABOUT_TO_START, gameState, null, -1);
 
         boolean firstEnd = true;
 
@@ -521,14 +527,17 @@ public class Game {
 
         // Get player observation, and time how long it takes
         double s = System.nanoTime();
+        long bytes = profiler == null ? -1 : profiler.allocatedBytes();
         // copying the gamestate also copies the game parameters and resets the random seed (so agents cannot use this
         // to reconstruct the starting hands etc.)
         AbstractGameState observation = gameState.copy(activePlayer);
         copyTime = (System.nanoTime() - s);
+        if (profiler != null) profiler.record(GameProfiler.Phase.Copy, (long) copyTime, bytes);
         //      System.out.printf("Total copyTime in ms = %.2f at tick %d (Avg %.3f) %n", copyTime / 1e6, tick, copyTime / (tick +1.0) / 1e6);
 
         // Get actions for the player
         s = System.nanoTime();
+        if (profiler != null) bytes = profiler.allocatedBytes();
         List<AbstractAction> observedActions = forwardModel.computeAvailableActions(observation, currentPlayer.getParameters().actionSpace);
         if (observedActions.isEmpty()) {
             Stack<IExtendedSequence> actionsInProgress = gameState.getActionsInProgress();
@@ -537,8 +546,8 @@ public class Game {
             if (!actionsInProgress.isEmpty()) {
                 topOfStack = actionsInProgress.peek();
             }
-            if (gameState.getHistory().size() > 1) {
-                lastAction = gameState.getHistory().get(gameState.getHistory().size() - 1).b;
+            if (gameState.getHistorySize() > 1) {
+                lastAction = gameState.getLastAction().b;
             }
             throw new AssertionError("No actions available for player " + activePlayer
                     + (lastAction != null ? ". Last action: " + lastAction.getClass().getSimpleName() + " (" + lastAction + ")" : ". No actions in history")
@@ -547,6 +556,7 @@ public class Game {
 
         }
         actionComputeTime = (System.nanoTime() - s);
+        if (profiler != null) profiler.record(GameProfiler.Phase.ActionCompute, (long) actionComputeTime, bytes);
         actionSpaceSize.add(new Pair<>(activePlayer, observedActions.size()));
 
         if (gameState.coreGameParameters.verbose) {
@@ -570,6 +580,7 @@ public class Game {
             } else {
                 // Get action from player, and time it
                 s = System.nanoTime();
+                if (profiler != null) bytes = profiler.allocatedBytes();
                 if (debug)
                     System.out.printf("About to get action for player %d%n", gameState.getCurrentPlayer());
                 action = currentPlayer.getAction(observation, observedActions);
@@ -581,6 +592,7 @@ public class Game {
                     System.out.printf("Game: %2d Tick: %3d\t%s%n", gameState.getGameID(), getTick(), action.getString(gameState));
 
                 agentTime = (System.nanoTime() - s);
+                if (profiler != null) profiler.record(GameProfiler.Phase.Agent, (long) agentTime, bytes);
                 nDecisions++;
             }
             if (gameState.coreGameParameters.competitionMode && action != null && !observedActions.contains(action)) {
@@ -588,8 +600,7 @@ public class Game {
                 action = null;
             }
             // We publish an ACTION_CHOSEN message before we implement the action, so that observers can record the state that led to the decision
-            AbstractAction finalAction = action;
-            listeners.forEach(l -> l.onEvent(Event.createEvent(Event.GameEvent.ACTION_CHOSEN, gameState, finalAction, activePlayer)));
+            IGameListener.sendEvent(listeners, Event.GameEvent.ACTION_CHOSEN, gameState, action, activePlayer);
 
         } else {
             currentPlayer.registerUpdatedObservation(observation);
@@ -611,17 +622,19 @@ public class Game {
         } else {
             // Resolve action and game rules, time it
             s = System.nanoTime();
+            if (profiler != null) bytes = profiler.allocatedBytes();
             // we copy the action before using it..so that the action returned by oneAction() does not have a state link
             forwardModel.next(gameState, action.copy());
             nextTime = (System.nanoTime() - s);
+            if (profiler != null) profiler.record(GameProfiler.Phase.Next, (long) nextTime, bytes);
         }
 
         lastPlayer = activePlayer;
 
         // We publish an ACTION_TAKEN message once the action is taken so that observers can record the result of the action
         // (such as the next player)
-        AbstractAction finalAction1 = action;
-        listeners.forEach(l -> l.onEvent(Event.createEvent(Event.GameEvent.ACTION_TAKEN, gameState, finalAction1.copy(), activePlayer)));
+        // (the listeners share one copy of the action, and no copy is made if there are none)
+        IGameListener.sendEvent(listeners, Event.GameEvent.ACTION_TAKEN, gameState, action, true, activePlayer);
 
         if (debug) System.out.printf("Finishing oneAction for player %s%n", activePlayer);
         return action;
@@ -638,7 +651,7 @@ public class Game {
 
         // Perform any end of game computations as required by the game
         forwardModel.endGame(gameState);
-        listeners.forEach(l -> l.onEvent(Event.createEvent(Event.GameEvent.GAME_OVER, gameState)));
+        IGameListener.sendEvent(listeners, Event.GameEvent.GAME_OVER, gameState, null, -1);
         if (gameState.coreGameParameters.recordEventHistory) {
             gameState.recordHistory(Event.GameEvent.GAME_OVER.name());
             for (int i = 0; i < gameState.getNPlayers(); i++) {
@@ -711,6 +724,16 @@ public class Game {
         return actionComputeTime;
     }
 
+    /**
+     * Retrieves the histograms of the time taken (and bytes allocated) by each phase of every action since the game
+     * was reset. These are only kept if one of the listeners records a profile.
+     *
+     * @return - the profile of this game, or null if none is kept
+     */
+    public GameProfiler getProfiler() {
+        return profiler;
+    }
+
     /**
      * Retrieves the number of game loop repetitions performed in this game.
      *
@@ -761,6 +784,8 @@ public class Game {
             listeners.add(listener);
             gameState.addListener(listener);
             listener.setGame(this);
+            if (profiler == null && listener.recordsProfile())
+                profiler = new GameProfiler();
         }
     }
 
@@ -0,0 +1,106 @@
+package core;
+
+import utilities.Histogram;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Records how long each phase of {@link Game#oneAction()} takes, and how many bytes the game's thread allocates
+ * during it, in a histogram for each phase. These cover all the actions since the game was last reset.
+ * <p>
+ * The bytes allocated are only recorded if the JVM supports measuring this (as HotSpot does), and only count the
+ * thread running the game; an agent that uses other threads for its search allocates more than is recorded here.
+ * <p>
+ * A game only records a profile if one of its listeners asks for one (see
+ * {@link evaluation.listeners.IGameListener#recordsProfile()}).
+ */
+public class GameProfiler {
+
+    public enum Phase {
+        // the copy of the game state given to the player
+        Copy,
+        // computing the available actions
+        ActionCompute,
+        // the player choosing an action (only when there is more than one to choose from)
+        Agent,
+        // the forward model applying the action
+        Next
+    }
+
+    private static final com.sun.management.ThreadMXBean allocationBean = allocationBean();
+
+    private final Histogram[] times = new Histogram[Phase.values().length];
+    private final Histogram[] bytes = new Histogram[Phase.values().length];
+
+    public GameProfiler() {
+        for (int i = 0; i < times.length; i++) {
+            times[i] = new Histogram();
+            bytes[i] = new Histogram();
+        }
+    }
+
+    private static com.sun.management.ThreadMXBean allocationBean() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean sunBean && sunBean.isThreadAllocatedMemorySupported()) {
+            if (!sunBean.isThreadAllocatedMemoryEnabled())
+                sunBean.setThreadAllocatedMemoryEnabled(true);
+            return sunBean;
+        }
+        return null;
+    }
+
+    /**
+     * @return true if the bytes allocated in each phase are recorded
+     */
+    public static boolean recordsAllocation() {
+        return allocationBean != null;
+    }
+
+    /**
+     * @return the total bytes allocated by the current thread so far, or -1 if this cannot be measured. This is
+     * called at the start of a phase, and passed to {@link #record(Phase, long, long)} at its end.
+     */
+    public long allocatedBytes() {
+        return allocationBean == null ? -1 : allocationBean.getCurrentThreadAllocatedBytes();
+    }
+
+    /**
+     * @param phase                - the phase that has just finished
+     * @param nanos                - how long it took
+     * @param allocatedBytesAtStart - the value of {@link #allocatedBytes()} at the start of the phase
+     */
+    public void record(Phase phase, long nanos, long allocatedBytesAtStart) {
+        times[phase.ordinal()].add(nanos);
+        if (allocatedBytesAtStart >= 0)
+            bytes[phase.ordinal()].add(allocatedBytes() - allocatedBytesAtStart);
+    }
+
+    /**
+     * @return times in nanoseconds
+     */
+    public Histogram getTimes(Phase phase) {
+        return times[phase.ordinal()];
+    }
+
+    public Histogram getAllocatedBytes(Phase phase) {
+        return bytes[phase.ordinal()];
+    }
+
+    /**
+     * Adds all the values recorded by another profiler to this one.
+     */
+    public void merge(GameProfiler other) {
+        for (int i = 0; i < times.length; i++) {
+            times[i].merge(other.times[i]);
+            bytes[i].merge(other.bytes[i]);
+        }
+    }
+
+    public void reset() {
+        for (int i = 0; i < times.length; i++) {
+            times[i].reset();
+            bytes[i].reset();
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Append-only record of the history of a game, that can be copied in constant time.
+ * <p>
+ * The items are held in a persistent linked list: each item points back to the one before it, and is never changed
+ * once added. A copy of the log shares all the items of the original, and when either adds an item it just points
+ * back to the shared items. So copying a game state no longer costs time proportional to the length of the game.
+ * <p>
+ * With a positive capacity the log is bounded, and only keeps the most recent capacity items. The items that are
+ * kept are rebuilt into a new list once twice that number are held, which drops the older ones (so adding an item is
+ * still constant time on average).
+ * Indices are always the position of the item in the whole history, including any items that have been dropped.
+ */
+public final class HistoryLog<T> {
+
+    private record Node<T>(T item, Node<T> previous) {
+    }
+
+    private final int capacity;
+    // the most recent item
+    private Node<T> last;
+    // number of items added (and not removed by truncate()), including any dropped from a bounded log
+    private int size;
+    // number of items in the linked list that ends at last
+    private int held;
+
+    /**
+     * @param capacity - the maximum number of items kept, or 0 to keep all of them
+     */
+    public HistoryLog(int capacity) {
+        if (capacity < 0)
+            throw new IllegalArgumentException("History capacity must not be negative: " + capacity);
+        this.capacity = capacity;
+    }
+
+    private HistoryLog(HistoryLog<T> other) {
+        capacity = other.capacity;
+        last = other.last;
+        size = other.size;
+        held = other.held;
+    }
+
+    /**
+     * @return a copy of this log, which shares the items added so far
+     */
+    public HistoryLog<T> copy() {
+        return new HistoryLog<>(this);
+    }
+
+    public void add(T item) {
+        last = new Node<>(item, last);
+        size++;
+        held++;
+        if (capacity > 0 && held >= 2 * capacity)
+            rebuild(capacity);
+    }
+
+    /**
+     * Replaces the items held with a new list of the most recent n of them
+     */
+    private void rebuild(int n) {
+        List<T> items = toList(n);
+        last = null;
+        for (T item : items)
+            last = new Node<>(item, last);
+        held = items.size();
+    }
+
+    /**
+     * @return the number of items added, including any no longer kept by a bounded log
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the index of the first item that is kept (always 0 if the log is not bounded)
+     */
+    public int firstIndex() {
+        return size - visible();
+    }
+
+    // number of items that can be seen
+    private int visible() {
+        return capacity > 0 ? Math.min(held, capacity) : held;
+    }
+
+    /**
+     * @return the most recent item, or null if there is none
+     */
+    public T last() {
+        return last == null ? null : last.item;
+    }
+
+    /**
+     * Removes all items from the given index onwards (so that the log has the given size).
+     */
+    public void truncate(int newSize) {
+        while (size > newSize && last != null) {
+            last = last.previous;
+            size--;
+            held--;
+        }
+        size = Math.min(size, newSize);
+    }
+
+    /**
+     * Replaces an item. The items after it are re-linked to the new one, so this costs time proportional to their number.
+     */
+    public void set(int index, T item) {
+        if (index < firstIndex() || index >= size)
+            throw new IndexOutOfBoundsException("Index " + index + " is not in the history kept, from "
+                    + firstIndex() + " to " + size);
+        List<T> after = new ArrayList<>(size - index - 1);
+        Node<T> node = last;
+        for (int i = size - 1; i > index; i--) {
+            after.add(node.item);
+            node = node.previous;
+        }
+        node = new Node<>(item, node.previous);
+        for (int i = after.size() - 1; i >= 0; i--)
+            node = new Node<>(after.get(i), node);
+        last = node;
+    }
+
+    /**
+     * @return a new list with the items kept, in chronological order
+     */
+    public List<T> toList() {
+        return toList(visible());
+    }
+
+    private List<T> toList(int n) {
+        // filled in from the most recent item backwards
+        List<T> list = new ArrayList<>(Collections.nCopies(n, null));
+        Node<T> node = last;
+        for (int i = n - 1; i >= 0; i--) {
+            list.set(i, node.item);
+            node = node.previous;
+        }
+        return list;
+    }
+}
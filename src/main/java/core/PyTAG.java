@@ -11,6 +11,7 @@ import games.diamant.DiamantFeatures;
 import games.loveletter.features.LLStateFeaturesReduced;
 import games.stratego.StrategoFeatures;
 import games.sushigo.SGFeatures;
+import games.tickettoride.TicketToRideFeatures;
 import games.tictactoe.TTTFeatures;
 import org.json.simple.JSONObject;
 import players.human.HumanGUIPlayer;
@@ -21,6 +22,12 @@ import utilities.ActionTreeNode;
 import games.explodingkittens.*;
 
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
@@ -34,7 +41,8 @@ enum FeatureExtractors {
     Stratego(StrategoFeatures.class, null),
     SushiGo(null, SGFeatures.class),
     TicTacToe(TTTFeatures.class, TTTFeatures.class),
-    Diamant(DiamantFeatures.class, DiamantFeatures.class);
+    Diamant(DiamantFeatures.class, DiamantFeatures.class),
+    TicketToRide(TicketToRideFeatures.class, null);
     Class<? extends IStateFeatureVector> stateFeatureVector;
     Class<? extends IStateFeatureJSON> stateFeatureJSON;
     FeatureExtractors(Class<? extends IStateFeatureVector> stateFeatureVector, Class<? extends IStateFeatureJSON> stateFeatureJSON) {
@@ -69,6 +77,23 @@ enum FeatureExtractors {
 }
 
 public class PyTAG {
+
+    /*
+     * Layout of the observation record written by writeObservation(), so that Python can read it without copying
+     * (for example with numpy.frombuffer). All values are little-endian.
+     *   REWARD_OFFSET    float64  the reward, as getReward()
+     *   PLAYER_OFFSET    int32    the player to decide next
+     *   DONE_OFFSET      int32    1 if the game is over, else 0
+     *   FEATURES_OFFSET  float64  x getObservationSpace(), the observation vector
+     *   then             uint8    x getActionSpace(), the action mask
+     * The record is padded to a multiple of 8 bytes (getObservationRecordSize()), so that records written one after
+     * another keep the float64 values aligned.
+     */
+    public static final int REWARD_OFFSET = 0;
+    public static final int PLAYER_OFFSET = 8;
+    public static final int DONE_OFFSET = 12;
+    public static final int FEATURES_OFFSET = 16;
+
     private Game game;
     // root of the action tree
     private ActionTreeNode root;
@@ -88,6 +113,11 @@ public class PyTAG {
 
     private Random seedRandom; // Random used for setting the seed for each episode
     private long lastSeed;
+    // the state as seen by the player to decide, from the last reset, step or query; only used while the game is
+    // still at the same tick, as anything that plays an action (executeAction(), nextDecision()...) advances that
+    private AbstractGameState observation;
+    // reused by writeObservation()
+    private double[] featureBuffer;
 
     public static String getSupportedGames(){
         /* returns the supported games with the corresponding feature extractors */
@@ -152,7 +182,7 @@ public class PyTAG {
 
     // Gets observations in JSON
     public String getObservationJson() throws Exception {
-        AbstractGameState gs = gameState.copy(gameState.getCurrentPlayer());
+        AbstractGameState gs = getObservation();
         if (stateJSONiser != null){
             return stateJSONiser.getObservationJson(gs, gs.getCurrentPlayer());
         }
@@ -170,7 +200,7 @@ public class PyTAG {
     }
 
     public double[] getObservationVector() throws Exception {
-        AbstractGameState gs = gameState.copy(gameState.getCurrentPlayer());
+        AbstractGameState gs = getObservation();
         if (stateVectoriser != null){
             return stateVectoriser.featureVector(gs, gs.getCurrentPlayer());
         }
@@ -205,6 +235,76 @@ public class PyTAG {
         return this.root.getTreeShape();
     }
 
+    /**
+     * @return the size in bytes of the record written by writeObservation(); only known once the environment has
+     * been reset, as the number of actions comes from the action tree
+     */
+    public int getObservationRecordSize() {
+        return FEATURES_OFFSET + getObservationSpace() * Double.BYTES + (getActionSpace() + 7) / 8 * 8;
+    }
+
+    /**
+     * Writes the reward, current player, whether the game is over, the observation vector and the action mask into
+     * the buffer, in the layout given at the top of this class. The buffer can be a direct buffer, or a file mapped
+     * into memory (see mapObservationFile()), that the Python side then reads in place. Nothing is allocated if
+     * the game's feature vector can write into a buffer.
+     * Only the bytes of the record are written, with absolute puts, so several environments can write to different
+     * records of one buffer at the same time.
+     *
+     * @param buffer - must be little-endian
+     * @param offset - where the record starts in the buffer
+     */
+    public void writeObservation(ByteBuffer buffer, int offset) throws Exception {
+        if (stateVectoriser == null)
+            throw new Exception("Observation vectoriser function is not implemented");
+        if (buffer.order() != ByteOrder.LITTLE_ENDIAN)
+            throw new IllegalArgumentException("The observation buffer must be little-endian");
+        if (offset < 0 || offset + getObservationRecordSize() > buffer.capacity())
+            throw new IndexOutOfBoundsException("An observation record of " + getObservationRecordSize() +
+                    " bytes at " + offset + " does not fit in a buffer of " + buffer.capacity());
+        int nFeatures = getObservationSpace();
+        if (featureBuffer == null || featureBuffer.length < nFeatures)
+            featureBuffer = new double[nFeatures];
+        AbstractGameState gs = getObservation();
+        stateVectoriser.featureVector(gs, gs.getCurrentPlayer(), featureBuffer);
+
+        buffer.putDouble(offset + REWARD_OFFSET, getReward());
+        buffer.putInt(offset + PLAYER_OFFSET, getPlayerID());
+        buffer.putInt(offset + DONE_OFFSET, isDone() ? 1 : 0);
+        for (int i = 0; i < nFeatures; i++)
+            buffer.putDouble(offset + FEATURES_OFFSET + i * Double.BYTES, featureBuffer[i]);
+        int maskOffset = offset + FEATURES_OFFSET + nFeatures * Double.BYTES;
+        for (int i = 0; i < leaves.size(); i++)
+            buffer.put(maskOffset + i, (byte) leaves.get(i).getValue());
+    }
+
+    /**
+     * @return a direct little-endian buffer for writeObservation()
+     */
+    public static ByteBuffer allocateObservationBuffer(int bytes) {
+        return ByteBuffer.allocateDirect(bytes).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Maps the file (created, and grown to the given size, if needed) into memory as a little-endian buffer for
+     * writeObservation(), so that another process can read the observations with numpy.memmap
+     */
+    public static ByteBuffer mapObservationFile(String path, int bytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(Path.of(path), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // the mapping stays valid once the channel is closed
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes).order(ByteOrder.LITTLE_ENDIAN);
+        }
+    }
+
+    // the state as seen by the current player, copied only if one has not already been made since the last action
+    private AbstractGameState getObservation() {
+        if (observation == null || observation.getGameTick() != gameState.getGameTick()
+                || observation.getCurrentPlayer() != gameState.getCurrentPlayer())
+            observation = gameState.copy(gameState.getCurrentPlayer());
+        return observation;
+    }
+
     // Plays an action given an actionID
     public void executeAction(int actionID) throws Exception {
         if (forwardModel instanceof ITreeActionSpace) {
@@ -220,13 +320,12 @@ public class PyTAG {
 
     public void reset(){
         // Reset game instance, run built-in agents until a python agent is required to make a decision
-        this.game.reset(players);
+        this.lastSeed = seedRandom.nextLong();
+        this.game.reset(players, this.lastSeed);
         this.turnPause = 0;
         this.tick = 0;
         this.game.setTurnPause(turnPause);
         this.gameState = game.getGameState();
-        this.lastSeed = seedRandom.nextLong();
-        gameState.gameParameters.setRandomSeed(this.lastSeed);
         this.forwardModel = game.getForwardModel();
         this.availableActions = forwardModel.computeAvailableActions(gameState);
 
@@ -239,7 +338,7 @@ public class PyTAG {
         }
         // update with initial actions
         // Compute the updated available actions and the action tree
-        AbstractGameState observation = gameState.copy(gameState.getCurrentPlayer());
+        this.observation = gameState.copy(gameState.getCurrentPlayer());
         this.availableActions = forwardModel.computeAvailableActions(observation);
         this.root = ((ITreeActionSpace)this.forwardModel).updateActionTree(this.root, this.gameState);
         this.leaves = root.getLeafNodes();
@@ -327,18 +426,18 @@ public class PyTAG {
         if (isDone()){
             // check if the game has just ended
             // game is over
-            return gameState.copy(gameState.getCurrentPlayer());
+            return getObservation();
         }
 
         // update game until RL agent is required to make a decision - if game is over in the mean time returns isTerminal
         boolean isTerminal = nextDecision();
         if (isTerminal){
             // game is over
-            return gameState.copy(gameState.getCurrentPlayer());
+            return getObservation();
         }
 
         int activePlayer = gameState.getCurrentPlayer();
-        AbstractGameState observation = gameState.copy(activePlayer);
+        this.observation = gameState.copy(activePlayer);
 
         // Compute the updated available actions and the action tree
         this.availableActions = forwardModel.computeAvailableActions(observation);
@@ -0,0 +1,94 @@
+package core;
+
+import java.util.Arrays;
+
+/**
+ * <p>Record of the changes made to a game state since it was last given an action with
+ * {@link AbstractForwardModel#nextWithUndo}, so that
+ * {@link AbstractForwardModel#undo(AbstractGameState)} can put the state back as it was.</p>
+ * <p>The log is a stack of frames, one for each action applied with nextWithUndo() and not yet undone. Each frame holds
+ * the core state (turn, round, game status and so on), followed by an entry for every game-specific change. Code that
+ * changes the game state checks {@link AbstractGameState#getUndoLog()}, and if this is not null pushes the values
+ * it needs to reverse the change, followed by an {@link Entry} that pops them again and makes the reverse change.
+ * The values go on two stacks of primitives and references that are re-used, so recording a change does not need
+ * to allocate anything.</p>
+ */
+public final class UndoLog {
+
+    /**
+     * Reverses one change to the game state. This must pop exactly the values that were pushed before it was
+     * recorded, in reverse order. Entries are usually static constants, and take anything else they need from the log.
+     */
+    @FunctionalInterface
+    public interface Entry {
+        void undo(AbstractGameState state, UndoLog log);
+    }
+
+    private int[] ints = new int[64];
+    private int nInts;
+    private Object[] objects = new Object[64];
+    private int nObjects;
+    // for each open frame, the number of objects on the stack once the core state had been pushed
+    private int[] frames = new int[16];
+    private int nFrames;
+
+    public void pushInt(int value) {
+        if (nInts == ints.length) {
+            ints = Arrays.copyOf(ints, nInts * 2);
+        }
+        ints[nInts++] = value;
+    }
+
+    public int popInt() {
+        return ints[--nInts];
+    }
+
+    public void pushObject(Object value) {
+        if (nObjects == objects.length) {
+            objects = Arrays.copyOf(objects, nObjects * 2);
+        }
+        objects[nObjects++] = value;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T popObject() {
+        T value = (T) objects[--nObjects];
+        objects[nObjects] = null;
+        return value;
+    }
+
+    /**
+     * Records a change, after the values the entry needs have been pushed.
+     */
+    public void record(Entry entry) {
+        pushObject(entry);
+    }
+
+    /**
+     * @return the number of actions that can be undone
+     */
+    public int getDepth() {
+        return nFrames;
+    }
+
+    void startFrame() {
+        if (nFrames == frames.length) {
+            frames = Arrays.copyOf(frames, nFrames * 2);
+        }
+        frames[nFrames++] = nObjects;
+    }
+
+    /**
+     * Undoes all the entries in the last frame, leaving the core state that was pushed before them on the stack
+     */
+    void undoEntries(AbstractGameState state) {
+        if (nFrames == 0) {
+            throw new IllegalStateException("There is no action to undo");
+        }
+        int frameStart = frames[--nFrames];
+        while (nObjects > frameStart) {
+            Entry entry = popObject();
+            entry.undo(state, this);
+        }
+    }
+}
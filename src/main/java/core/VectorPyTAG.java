@@ -0,0 +1,269 @@
+package core;
+
+import games.GameType;
+import utilities.SplitRandom;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * <p>A batch of independent {@link PyTAG} environments of the same game, that are all stepped by one call. Each call
+ * from Python to Java has a fixed cost, so with a batch of environments this is paid once per step of all of them
+ * rather than once per step (and once per query of the observation, mask and reward) of each.</p>
+ * <p>{@link #stepAll(int[])} takes one action per environment, and returns the observation, action mask, reward
+ * and whether the episode finished for every environment, each stacked into a single flat array. An environment
+ * whose episode finishes is reset straight away, and its observation and mask are then of the first decision of
+ * the new episode.</p>
+ * <p>The results can instead be written into a direct (or memory-mapped) buffer with
+ * {@link #stepAll(int[], ByteBuffer)}, one {@link PyTAG#writeObservation(ByteBuffer, int)} record per environment,
+ * which numpy can read without a copy.</p>
+ * <p>The environments can be stepped in parallel on a pool of threads. Each has its own game, players and random
+ * seed, so the results are the same whether or not threads are used.</p>
+ */
+public class VectorPyTAG implements AutoCloseable {
+
+    /**
+     * The result of stepping (or resetting) all the environments. The arrays are reused by the next step, so must be
+     * copied if they are to be kept.
+     */
+    public static class StepResult {
+        // [env * observationSpace + feature]
+        public final double[] observations;
+        // [env * actionSpace + action], 1 if the action is available
+        public final int[] masks;
+        // the reward of each environment (see stepAll())
+        public final double[] rewards;
+        // true if the episode of the environment finished in this step (it has since been reset)
+        public final boolean[] dones;
+        // the player to decide next in each environment
+        public final int[] playerIDs;
+
+        StepResult(int nEnvs, int observationSpace, int actionSpace) {
+            observations = new double[nEnvs * observationSpace];
+            masks = new int[nEnvs * actionSpace];
+            rewards = new double[nEnvs];
+            dones = new boolean[nEnvs];
+            playerIDs = new int[nEnvs];
+        }
+    }
+
+    private final List<PyTAG> envs = new ArrayList<>();
+    private final ExecutorService executor;
+    private int observationSpace;
+    private int actionSpace;
+    private int recordSize;
+    private StepResult result;
+    // the number of episodes finished by each environment
+    private final int[] episodes;
+
+    /**
+     * @param players  - the players of each environment (one list per environment); the decisions of any
+     *                 {@link players.python.PythonAgent} are those given to stepAll()
+     * @param seed     - the seed of each environment is derived from this and the index of the environment
+     * @param nThreads - the number of threads to step the environments on; 1 (or less) to step them in turn
+     */
+    public VectorPyTAG(GameType gameToPlay, String parameterConfigFile, List<List<AbstractPlayer>> players,
+                       long seed, boolean isNormalized, int nThreads) throws Exception {
+        for (int i = 0; i < players.size(); i++) {
+            envs.add(new PyTAG(gameToPlay, parameterConfigFile, players.get(i), SplitRandom.seedFor(seed, i), isNormalized));
+        }
+        observationSpace = envs.get(0).getObservationSpace();
+        if (observationSpace == 0)
+            throw new IllegalArgumentException(gameToPlay + " does not implement the state feature vector interface");
+        episodes = new int[envs.size()];
+        executor = nThreads > 1 ? Executors.newFixedThreadPool(nThreads, r -> {
+            Thread thread = new Thread(r, "PyTAG environment");
+            thread.setDaemon(true);  // so that an environment that is not closed does not stop the JVM from exiting
+            return thread;
+        }) : null;
+    }
+
+    /**
+     * Resets every environment, and runs each until a Python agent has to make a decision
+     */
+    public StepResult resetAll() throws Exception {
+        resetEnvs();
+        forAllEnvs(i -> {
+            result.rewards[i] = 0.0;
+            result.dones[i] = false;
+            record(i);
+        }, false);
+        return result;
+    }
+
+    /**
+     * As {@link #resetAll()}, but writes the record of each environment into the buffer (see
+     * {@link #stepAll(int[], ByteBuffer)}) rather than returning them
+     */
+    public void resetAll(ByteBuffer buffer) throws Exception {
+        resetEnvs();
+        checkBuffer(buffer);
+        forAllEnvs(i -> envs.get(i).writeObservation(buffer, i * recordSize), false);
+    }
+
+    private void resetEnvs() throws Exception {
+        forAllEnvs(i -> {
+            PyTAG env = envs.get(i);
+            env.reset();
+            if (result == null) {
+                actionSpace = env.getActionSpace();
+            }
+        }, true);
+        if (result == null) {
+            result = new StepResult(envs.size(), observationSpace, actionSpace);
+            recordSize = envs.get(0).getObservationRecordSize();
+        }
+    }
+
+    /**
+     * Plays the action given for each environment, and then runs it until a Python agent has to make a decision
+     * (or the game ends, when it is reset).
+     * The reward of an environment is the score of the player to decide next (as {@link PyTAG#getReward()}), except
+     * when the episode has finished, when it is the result (see {@link CoreConstants.GameResult#value}) of the
+     * player who took the action.
+     *
+     * @param actions - the index of the action (leaf of the action tree) for each environment
+     */
+    public StepResult stepAll(int[] actions) throws Exception {
+        checkActions(actions);
+        forAllEnvs(i -> {
+            stepEnv(i, actions[i]);
+            record(i);
+        }, false);
+        return result;
+    }
+
+    /**
+     * As {@link #stepAll(int[])}, but writes the result for each environment into the buffer, which Python can read
+     * in place rather than having the arrays copied across. Environment i writes the record of
+     * {@link PyTAG#writeObservation(ByteBuffer, int)} at i * {@link #getRecordSize()}; its reward and done flag are
+     * those of stepAll(int[]).
+     *
+     * @param buffer - a little-endian buffer of at least getNEnvs() * getRecordSize() bytes, such as
+     *               {@link PyTAG#allocateObservationBuffer(int)} or {@link PyTAG#mapObservationFile(String, int)}
+     */
+    public void stepAll(int[] actions, ByteBuffer buffer) throws Exception {
+        checkActions(actions);
+        checkBuffer(buffer);
+        forAllEnvs(i -> {
+            stepEnv(i, actions[i]);
+            int offset = i * recordSize;
+            envs.get(i).writeObservation(buffer, offset);
+            buffer.putDouble(offset + PyTAG.REWARD_OFFSET, result.rewards[i]);
+            buffer.putInt(offset + PyTAG.DONE_OFFSET, result.dones[i] ? 1 : 0);
+        }, false);
+    }
+
+    private void checkActions(int[] actions) {
+        if (result == null)
+            throw new IllegalStateException("resetAll() must be called before stepAll()");
+        if (actions.length != envs.size())
+            throw new IllegalArgumentException("Expected " + envs.size() + " actions, but was given " + actions.length);
+    }
+
+    private void checkBuffer(ByteBuffer buffer) {
+        if (buffer.capacity() < envs.size() * recordSize)
+            throw new IllegalArgumentException("The buffer must be at least " + envs.size() * recordSize + " bytes");
+    }
+
+    // plays the action, and resets the environment if its game is then over
+    private void stepEnv(int i, int action) throws Exception {
+        PyTAG env = envs.get(i);
+        int player = env.getPlayerID();
+        env.step(action);
+        if (env.isDone()) {
+            result.rewards[i] = env.getPlayerResults()[player].value;
+            result.dones[i] = true;
+            episodes[i]++;
+            env.reset();
+        } else {
+            result.rewards[i] = env.getReward();
+            result.dones[i] = false;
+        }
+    }
+
+    private void record(int i) throws Exception {
+        PyTAG env = envs.get(i);
+        double[] observation = env.getObservationVector();
+        System.arraycopy(observation, 0, result.observations, i * observationSpace, observationSpace);
+        int[] mask = env.getActionMask();
+        System.arraycopy(mask, 0, result.masks, i * actionSpace, actionSpace);
+        result.playerIDs[i] = env.getPlayerID();
+    }
+
+    private interface EnvTask {
+        void run(int env) throws Exception;
+    }
+
+    /**
+     * Runs the task for every environment, on the thread pool if there is one (and parallel is allowed)
+     */
+    private void forAllEnvs(EnvTask task, boolean sequential) throws Exception {
+        if (executor == null || sequential) {
+            for (int i = 0; i < envs.size(); i++)
+                task.run(i);
+            return;
+        }
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < envs.size(); i++) {
+            int env = i;
+            futures.add(executor.submit(() -> {
+                task.run(env);
+                return null;
+            }));
+        }
+        try {
+            for (Future<?> future : futures)
+                future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception cause)
+                throw cause;
+            throw e;
+        }
+    }
+
+    public int getNEnvs() {
+        return envs.size();
+    }
+
+    public PyTAG getEnv(int env) {
+        return envs.get(env);
+    }
+
+    public int getObservationSpace() {
+        return observationSpace;
+    }
+
+    /**
+     * @return the number of actions (leaves of the action tree); only known once resetAll() has been called
+     */
+    public int getActionSpace() {
+        return actionSpace;
+    }
+
+    /**
+     * @return the bytes used by each environment in the buffer of {@link #stepAll(int[], ByteBuffer)}; only known
+     * once resetAll() has been called
+     */
+    public int getRecordSize() {
+        return recordSize;
+    }
+
+    /**
+     * @return the number of episodes each environment has finished
+     */
+    public int[] getEpisodes() {
+        return episodes;
+    }
+
+    @Override
+    public void close() {
+        if (executor != null)
+            executor.shutdown();
+    }
+}
@@ -1,6 +1,7 @@
 package core.actions;
 
 import core.AbstractGameState;
+import core.UndoLog;
 import core.components.Component;
 import core.interfaces.IPrintable;
 import core.components.GridBoard;
@@ -26,9 +27,27 @@ public class SetGridValueAction<T extends Component> extends AbstractAction impl
         System.out.println("Set " + value.toString() + " at pos (" + x + ", " + y + ")");
     }
 
+    // Puts back the element that was in the cell before this action set it
+    private static final UndoLog.Entry UNDO_SET = (state, log) -> {
+        Component previous = log.popObject();
+        int y = log.popInt();
+        int x = log.popInt();
+        ((GridBoard<Component>) state.getComponentById(log.popInt())).setElement(x, y, previous);
+    };
+
     @Override
     public boolean execute(AbstractGameState gs) {
-        return ((GridBoard<T>)gs.getComponentById(gridBoard)).setElement(x, y, value);
+        GridBoard<T> board = (GridBoard<T>) gs.getComponentById(gridBoard);
+        UndoLog log = gs.getUndoLog();
+        if (log != null) {
+            log.pushInt(gridBoard);
+            log.pushInt(x);
+            log.pushInt(y);
+            log.pushObject(board.getElement(x, y));
+            log.record(UNDO_SET);
+        }
+        gs.updateZobristKey(board.getZobristKey(x, y, board.getElement(x, y)) ^ board.getZobristKey(x, y, value));
+        return board.setElement(x, y, value);
     }
 
     @Override
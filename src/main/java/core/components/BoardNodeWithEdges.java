@@ -86,7 +86,13 @@ public class BoardNodeWithEdges extends Component {
         if (!(o instanceof BoardNodeWithEdges)) return false;
         if (!super.equals(o)) return false;
         BoardNodeWithEdges that = (BoardNodeWithEdges) o;
-        return Objects.equals(neighbourEdgeMapping, that.neighbourEdgeMapping);
+        if (neighbourEdgeMapping.size() != that.neighbourEdgeMapping.size()) return false;
+        // neighbours are compared by ID, as comparing them in full would go round the graph forever
+        for (Map.Entry<Edge, BoardNodeWithEdges> e : neighbourEdgeMapping.entrySet()) {
+            BoardNodeWithEdges neighbour = that.neighbourEdgeMapping.get(e.getKey());
+            if (neighbour == null || neighbour.componentID != e.getValue().componentID) return false;
+        }
+        return true;
     }
 
     @Override
@@ -6,9 +6,12 @@ import org.json.simple.JSONObject;
 import core.CoreConstants.ComponentType;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public abstract class Component {
-    private static int ID = 0;  // All components receive a unique and final ID from this always increasing counter
+    // All components receive a unique and final ID from this always increasing counter
+    // This is atomic so that several games (or search threads) can create components in the same JVM at once
+    private static final AtomicInteger ID = new AtomicInteger(0);
 
     protected transient final int componentID;  // Unique ID of this component
     protected final ComponentType type;  // Type of this component
@@ -16,15 +19,21 @@ public abstract class Component {
     protected transient int ownerId = -1;  // By default belongs to the game
     protected String componentName;  // Name of this component
 
+    // Optional typed storage for the properties named in the schema (see PropertySchema). Null if not used.
+    protected PropertySchema schema;
+    protected int[] intSlots;
+    protected long[] longSlots;
+    protected boolean[] booleanSlots;
+
     public Component(ComponentType type, String name) {
-        this.componentID = ID++;
+        this.componentID = ID.getAndIncrement();
         this.type = type;
         this.componentName = name;
         this.properties = new HashMap<>();
     }
 
     public Component(ComponentType type) {
-        this.componentID = ID++;
+        this.componentID = ID.getAndIncrement();
         this.type = type;
         this.componentName = type.toString();
         this.properties = new HashMap<>();
@@ -64,7 +73,7 @@ public abstract class Component {
      */
     public int getNumProperties()
     {
-        return properties.size();
+        return properties.size() + (schema == null ? 0 : schema.size());
     }
 
     /**
@@ -103,10 +112,17 @@ public abstract class Component {
 
     /**
      * Get the full map of properties.
+     * If a {@link PropertySchema} is in use, this is a new map which also holds Property objects for the
+     * values in the typed slots, so changes to the map will not affect this component.
      * @return - mapping from property integer key to property objects.
      */
     public HashMap<Integer, Property> getProperties() {
-        return properties;
+        if (schema == null) return properties;
+        HashMap<Integer, Property> all = new HashMap<>(properties);
+        for (int entry = 0; entry < schema.size(); entry++) {
+            all.put(schema.getHashKey(entry), getSlotProperty(entry));
+        }
+        return all;
     }
 
     /**
@@ -116,6 +132,10 @@ public abstract class Component {
      */
     public Property getProperty(int propId)
     {
+        if (schema != null) {
+            int entry = schema.getEntry(propId);
+            if (entry != -1) return getSlotProperty(entry);
+        }
         return properties.get(propId);
     }
 
@@ -125,6 +145,13 @@ public abstract class Component {
      */
     public void setProperty(Property prop)
     {
+        if (schema != null) {
+            int entry = schema.getEntry(prop.getHashKey());
+            if (entry != -1) {
+                setSlotProperty(entry, prop);
+                return;
+            }
+        }
         properties.put(prop.getHashKey(), prop);
     }
 
@@ -134,6 +161,86 @@ public abstract class Component {
         }
     }
 
+    /**
+     * Moves the properties named in the schema out of the properties map and into typed slots, which can then
+     * be accessed directly with getInt(slot), setInt(slot, value) etc.
+     * Properties in the schema that this component does not have start as 0 / false.
+     * @param schema - the layout to use. This is shared, not copied.
+     */
+    public void setSchema(PropertySchema schema) {
+        if (this.schema != null) {
+            throw new IllegalStateException("Component " + componentID + " already has a property schema");
+        }
+        this.schema = schema;
+        intSlots = new int[schema.getNInts()];
+        longSlots = new long[schema.getNLongs()];
+        booleanSlots = new boolean[schema.getNBooleans()];
+        for (int entry = 0; entry < schema.size(); entry++) {
+            Property prop = properties.remove(schema.getHashKey(entry));
+            if (prop != null) {
+                setSlotProperty(entry, prop);
+            }
+        }
+    }
+
+    public PropertySchema getSchema() {
+        return schema;
+    }
+
+    public int getInt(int slot) {
+        return intSlots[slot];
+    }
+
+    public void setInt(int slot, int value) {
+        intSlots[slot] = value;
+    }
+
+    public long getLong(int slot) {
+        return longSlots[slot];
+    }
+
+    public void setLong(int slot, long value) {
+        longSlots[slot] = value;
+    }
+
+    public boolean getBoolean(int slot) {
+        return booleanSlots[slot];
+    }
+
+    public void setBoolean(int slot, boolean value) {
+        booleanSlots[slot] = value;
+    }
+
+    private Property getSlotProperty(int entry) {
+        int slot = schema.getSlotOfEntry(entry);
+        return switch (schema.getType(entry)) {
+            case INT -> new PropertyInt(schema.getName(entry), schema.getHashKey(entry), intSlots[slot]);
+            case LONG -> new PropertyLong(schema.getName(entry), schema.getHashKey(entry), longSlots[slot]);
+            case BOOLEAN -> new PropertyBoolean(schema.getName(entry), schema.getHashKey(entry), booleanSlots[slot]);
+        };
+    }
+
+    private void setSlotProperty(int entry, Property prop) {
+        int slot = schema.getSlotOfEntry(entry);
+        switch (schema.getType(entry)) {
+            case INT -> intSlots[slot] = ((PropertyInt) prop).value;
+            case LONG -> longSlots[slot] = ((PropertyLong) prop).value;
+            case BOOLEAN -> booleanSlots[slot] = ((PropertyBoolean) prop).value;
+        }
+    }
+
+    /**
+     * Copies the schema (shared) and slot values (copied) to another component.
+     */
+    protected void copySlotsTo(Component copyTo) {
+        copyTo.schema = schema;
+        if (schema != null) {
+            copyTo.intSlots = intSlots.clone();
+            copyTo.longSlots = longSlots.clone();
+            copyTo.booleanSlots = booleanSlots.clone();
+        }
+    }
+
     public static Component parseComponent(Component c, JSONObject obj) {
         return parseComponent(c, obj, new HashSet<>());
     }
@@ -210,6 +317,7 @@ public abstract class Component {
             Property newProp = this.properties.get(prop_key).copy();
             copyTo.setProperty(newProp);
         }
+        copySlotsTo(copyTo);
         copyTo.ownerId = ownerId;
         copyTo.componentName = componentName;
     }
@@ -221,7 +329,7 @@ public abstract class Component {
                 ", type=" + type +
                 ", ownerId=" + ownerId +
                 ", componentName='" + componentName + '\'' +
-                ", properties=" + properties +
+                ", properties=" + getProperties() +
                 '}';
     }
 
@@ -21,7 +21,8 @@ public class Edge extends Component {
 
     public Edge copy() {
         Edge copy = new Edge(ownerId, componentID);
-        copy.setProperties(this.getProperties());
+        copy.properties.putAll(properties);
+        copySlotsTo(copy);
         return copy;
     }
 
@@ -59,21 +59,24 @@ public class GraphBoardWithEdges extends Component implements IComponentContaine
     public GraphBoardWithEdges copy()
     {
         GraphBoardWithEdges b = new GraphBoardWithEdges(componentName, componentID);
+        // Each edge is copied once, and the same copy is used in boardEdges and by the nodes it connects
+        HashMap<Integer, Edge> edgeCopies = new HashMap<>();
         HashSet<Edge> newEdges = new HashSet<>();
         for (Edge edge : this.boardEdges) {
-            newEdges.add(edge.copy());
+            Edge edgeCopy = edge.copy();
+            edgeCopies.put(edge.componentID, edgeCopy);
+            newEdges.add(edgeCopy);
         }
         HashMap<Integer, BoardNodeWithEdges> nodeCopies = new HashMap<>();
-        HashMap<Integer, Edge> edgeCopies = new HashMap<>();
         // Copy board nodes
         for (BoardNodeWithEdges bn: boardNodes.values()) {
             BoardNodeWithEdges bnCopy = bn.copy();
             if (bnCopy == null) bnCopy = new BoardNodeWithEdges(bn.ownerId, bn.getComponentID());
             bn.copyComponentTo(bnCopy);
             nodeCopies.put(bn.getComponentID(), bnCopy);
-            // Copy edges
+            // Copy any edges that are not in boardEdges
             for (Edge e: bn.neighbourEdgeMapping.keySet()) {
-                edgeCopies.put(e.componentID, e.copy());
+                edgeCopies.computeIfAbsent(e.componentID, id -> e.copy());
             }
         }
         // Assign neighbours and edges
@@ -10,6 +10,7 @@ import org.json.simple.parser.JSONParser;
 import org.json.simple.parser.ParseException;
 import utilities.Pair;
 import utilities.Vector2D;
+import utilities.Zobrist;
 
 import java.io.FileReader;
 import java.io.IOException;
@@ -140,6 +141,27 @@ public class GridBoard<T extends Component> extends Component implements ICompon
             return false;
     }
 
+    /**
+     * @return the Zobrist key for the given element being in cell (x, y) of this board. Elements are told apart by
+     * their name (e.g. the token type), so that copies of an element have the same key.
+     */
+    public long getZobristKey(int x, int y, T element) {
+        return Zobrist.key(componentID, y * width + x, element == null ? 0 : element.getComponentName().hashCode());
+    }
+
+    /**
+     * @return the Zobrist key of the whole board, the XOR of the keys of all its cells
+     */
+    public long getZobristKey() {
+        long key = 0;
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                key ^= getZobristKey(x, y, getElement(x, y));
+            }
+        }
+        return key;
+    }
+
     public boolean setElement(Vector2D pos, T value){
         return setElement(pos.getX(), pos.getY(), value);
     }
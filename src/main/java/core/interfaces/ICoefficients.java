@@ -33,6 +33,27 @@ public interface ICoefficients {
         return retValue;
     }
 
+    /**
+     * Applies the coefficients to each row of phi, as applyCoefficients(double[]) would. The coefficient arrays are
+     * fetched once, so this is cheaper than calling that for each row when evaluating many states.
+     */
+    default double[] applyCoefficients(double[][] phi) {
+        double[] coefficients = coefficients();
+        double[] interactionCoefficients = interactionCoefficients();
+        double[] retValue = new double[phi.length];
+        for (int row = 0; row < phi.length; row++) {
+            double[] x = phi[row];
+            double value = coefficients[0];
+            for (int i = 0; i < x.length; i++) {
+                value += x[i] * coefficients[i + 1];
+            }
+            if (interactionCoefficients != null)
+                value += calculateInteractionEffects(x);
+            retValue[row] = value;
+        }
+        return retValue;
+    }
+
     default double calculateInteractionEffects(double[] phi) {
         double retValue = 0;
         int[][] interactions = interactions();
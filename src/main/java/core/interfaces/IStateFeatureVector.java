@@ -8,6 +8,29 @@ public interface IStateFeatureVector extends IStateKey {
 
     String[] names();
 
+    /**
+     * Writes the feature vector of the state into the buffer, for callers that encode many states and do not want
+     * a new array for each. Feature vectors that can fill the buffer directly should override this.
+     *
+     * @param buffer - at least names().length long
+     */
+    default void featureVector(AbstractGameState state, int playerID, double[] buffer) {
+        double[] features = featureVector(state, playerID);
+        System.arraycopy(features, 0, buffer, 0, features.length);
+    }
+
+    /**
+     * @return the feature vector of the state for each player, indexed by player id. Feature vectors that compute
+     * something shared by all players can override this to do so once.
+     */
+    default double[][] featureVectors(AbstractGameState state) {
+        double[][] retValue = new double[state.getNPlayers()][];
+        for (int p = 0; p < retValue.length; p++) {
+            retValue[p] = featureVector(state, p);
+        }
+        return retValue;
+    }
+
     @Override
     default Integer getKey(AbstractGameState state, int p) {
         int retValue = state.getCurrentPlayer();
@@ -1,8 +1,9 @@
-
 package core.interfaces;
 
 import core.AbstractGameState;
 
+import java.util.List;
+
 public interface IStateHeuristic {
 
     /**
@@ -14,6 +15,35 @@ public interface IStateHeuristic {
      */
     double evaluateState(AbstractGameState gs, int playerId);
 
+    /**
+     * Returns the score of the state for every player, as evaluateState() would for each of them.
+     * Heuristics that compute something for all players anyway (e.g. to compare a player with the others) should
+     * override this so that the work is done once rather than once per player.
+     * @param gs - game state to evaluate and score.
+     * @return - value of given state, indexed by player id.
+     */
+    default double[] evaluateAllPlayers(AbstractGameState gs) {
+        double[] values = new double[gs.getNPlayers()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = evaluateState(gs, i);
+        }
+        return values;
+    }
+
+    /**
+     * Returns the scores of several states for every player, as evaluateAllPlayers() would for each of them.
+     * This allows heuristics to evaluate many leaves of a search in one go (e.g. a linear model as one matrix product).
+     * @param states - game states to evaluate and score.
+     * @return - values of the states, indexed by position in the list and then by player id.
+     */
+    default double[][] evaluateStates(List<? extends AbstractGameState> states) {
+        double[][] values = new double[states.size()][];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = evaluateAllPlayers(states.get(i));
+        }
+        return values;
+    }
+
     default double minValue() {
         return -1;
     }
@@ -21,4 +51,4 @@ public interface IStateHeuristic {
         return +1;
     }
 
-}
\ No newline at end of file
+}
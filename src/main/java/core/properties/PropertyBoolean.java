@@ -17,7 +17,7 @@ public class PropertyBoolean extends Property
         this.value = value;
     }
 
-    private PropertyBoolean(String hashString, int hashKey, boolean value)
+    public PropertyBoolean(String hashString, int hashKey, boolean value)
     {
         super(hashString, hashKey);
         this.value = value;
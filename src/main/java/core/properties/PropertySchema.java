@@ -0,0 +1,126 @@
+package core.properties;
+
+import utilities.Hash;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>A fixed layout for some of the properties of a {@link core.components.Component}. Each property named in the
+ * schema is given a slot in a primitive int, long or boolean array held by the component, instead of an entry
+ * in its properties map.</p>
+ * <p>Code that knows the schema can look up the slot index once (e.g. in a static final field) and then read and
+ * write the value with {@code getInt(slot)}/{@code setInt(slot, value)} etc. on the component, which is
+ * an array access with no hashing and no allocation. Code that does not know about the schema can still use
+ * {@code getProperty()} and {@code setProperty()} as before; these convert to and from the slots.</p>
+ * <p>A schema is immutable, and is normally shared by all the components of one kind in a game.</p>
+ */
+public class PropertySchema {
+
+    public enum SlotType {
+        INT, LONG, BOOLEAN
+    }
+
+    private final String[] names;
+    private final int[] hashKeys;
+    private final SlotType[] types;
+    private final int[] slots;
+    private final Map<Integer, Integer> entryByHashKey = new HashMap<>();
+    private final int nInts, nLongs, nBooleans;
+
+    private PropertySchema(Builder builder) {
+        int n = builder.names.size();
+        names = builder.names.toArray(new String[0]);
+        types = builder.types.toArray(new SlotType[0]);
+        hashKeys = new int[n];
+        slots = new int[n];
+        int[] counts = new int[SlotType.values().length];
+        for (int i = 0; i < n; i++) {
+            hashKeys[i] = Hash.GetInstance().hash(names[i]);
+            slots[i] = counts[types[i].ordinal()]++;
+            if (entryByHashKey.put(hashKeys[i], i) != null) {
+                throw new IllegalArgumentException("Property " + names[i] + " is in the schema more than once");
+            }
+        }
+        nInts = counts[SlotType.INT.ordinal()];
+        nLongs = counts[SlotType.LONG.ordinal()];
+        nBooleans = counts[SlotType.BOOLEAN.ordinal()];
+    }
+
+    /**
+     * @return the entry number of the property with the given hash key, or -1 if it is not in the schema
+     */
+    public int getEntry(int hashKey) {
+        Integer entry = entryByHashKey.get(hashKey);
+        return entry == null ? -1 : entry;
+    }
+
+    /**
+     * @return the slot index of the named property (in the array for its type), or -1 if it is not in the schema
+     */
+    public int getSlot(String name) {
+        int entry = getEntry(Hash.GetInstance().hash(name));
+        return entry == -1 ? -1 : slots[entry];
+    }
+
+    public int size() {
+        return names.length;
+    }
+
+    public String getName(int entry) {
+        return names[entry];
+    }
+
+    public int getHashKey(int entry) {
+        return hashKeys[entry];
+    }
+
+    public SlotType getType(int entry) {
+        return types[entry];
+    }
+
+    public int getSlotOfEntry(int entry) {
+        return slots[entry];
+    }
+
+    public int getNInts() {
+        return nInts;
+    }
+
+    public int getNLongs() {
+        return nLongs;
+    }
+
+    public int getNBooleans() {
+        return nBooleans;
+    }
+
+    public static class Builder {
+        private final List<String> names = new ArrayList<>();
+        private final List<SlotType> types = new ArrayList<>();
+
+        public Builder addInt(String name) {
+            return add(name, SlotType.INT);
+        }
+
+        public Builder addLong(String name) {
+            return add(name, SlotType.LONG);
+        }
+
+        public Builder addBoolean(String name) {
+            return add(name, SlotType.BOOLEAN);
+        }
+
+        private Builder add(String name, SlotType type) {
+            names.add(name);
+            types.add(type);
+            return this;
+        }
+
+        public PropertySchema build() {
+            return new PropertySchema(this);
+        }
+    }
+}
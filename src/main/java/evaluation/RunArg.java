@@ -121,6 +121,11 @@ public enum RunArg {
     nPlayers("The number of players in each game. Overrides playerRange.",
             -1,
             new Usage[]{Usage.ParameterSearch, Usage.RunGames}),
+    nThreads("The number of games to run in parallel within a tournament (default is 1).\n" +
+            "\t If greater than 1, each game is run on its own Game instance with copies of the players,\n" +
+            "\t and results are collated in the same order as a sequential run.",
+            1,
+            new Usage[]{Usage.RunGames}),
     neighbourhood("The size of neighbourhood to look at in NTBEA. Default is min(50, |searchSpace|/100) ",
             50,
             new Usage[]{Usage.ParameterSearch}),
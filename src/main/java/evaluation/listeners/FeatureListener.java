@@ -2,6 +2,7 @@ package evaluation.listeners;
 
 import core.*;
 import core.actions.AbstractAction;
+import core.interfaces.IGameEvent;
 import core.interfaces.IStatisticLogger;
 import evaluation.loggers.FileStatsLogger;
 import evaluation.metrics.Event;
@@ -37,6 +38,11 @@ public abstract class FeatureListener implements IGameListener {
         this.logger = logger;
     }
 
+    @Override
+    public boolean listensTo(IGameEvent eventType) {
+        return eventType == frequency || eventType == Event.GameEvent.GAME_OVER;
+    }
+
     @Override
     public void onEvent(Event event) {
 
@@ -1,6 +1,9 @@
 package evaluation.listeners;
 
+import core.AbstractGameState;
 import core.Game;
+import core.actions.AbstractAction;
+import core.interfaces.IGameEvent;
 import evaluation.metrics.AbstractMetric;
 import evaluation.metrics.Event;
 import evaluation.metrics.GameMetrics;
@@ -12,6 +15,7 @@ import java.io.File;
 import java.lang.reflect.Constructor;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Set;
 
 public interface IGameListener {
@@ -24,6 +28,28 @@ public interface IGameListener {
      */
     void onEvent(Event event);
 
+    /**
+     * The game only creates an event, and calls {@link #onEvent(Event)}, for the types of event that at least one of
+     * its listeners listens to. Listeners that only need some events should override this, so that games (and
+     * tournaments that only record the result of each game) do not pay for building events for every action.
+     *
+     * @param eventType - type of event
+     * @return true if this listener needs to be sent events of this type. By default, it listens to all events.
+     */
+    default boolean listensTo(IGameEvent eventType) {
+        return true;
+    }
+
+    /**
+     * A game only keeps a profile of the time taken (and memory allocated) by each phase of its actions if one of
+     * its listeners asks for it, as measuring the memory allocated has a cost.
+     *
+     * @return true if this listener uses {@link Game#getProfiler()}
+     */
+    default boolean recordsProfile() {
+        return false;
+    }
+
 
     /**
      * This is called when all processing is finished, for example after running a sequence of games
@@ -66,6 +92,43 @@ public interface IGameListener {
     default void reset() {
     }
 
+    /**
+     * @return true if any of the listeners listens to events of this type
+     */
+    static boolean anyListensTo(List<IGameListener> listeners, IGameEvent eventType) {
+        for (int i = 0; i < listeners.size(); i++) {
+            if (listeners.get(i).listensTo(eventType))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Sends an event to each of the listeners that listens to its type. The event is created for the first of them,
+     * and shared by the rest; none is created if no listener listens to it.
+     */
+    static void sendEvent(List<IGameListener> listeners, IGameEvent eventType, AbstractGameState state,
+                          AbstractAction action, int playerID) {
+        sendEvent(listeners, eventType, state, action, false, playerID);
+    }
+
+    /**
+     * As {@link #sendEvent(List, IGameEvent, AbstractGameState, AbstractAction, int)}, but if copyAction is true
+     * the event holds a copy of the action (made once, and only if a listener listens to the event)
+     */
+    static void sendEvent(List<IGameListener> listeners, IGameEvent eventType, AbstractGameState state,
+                          AbstractAction action, boolean copyAction, int playerID) {
+        Event event = null;
+        for (int i = 0; i < listeners.size(); i++) {
+            IGameListener listener = listeners.get(i);
+            if (listener.listensTo(eventType)) {
+                if (event == null)
+                    event = Event.createEvent(eventType, state, copyAction ? action.copy() : action, playerID);
+                listener.onEvent(event);
+            }
+        }
+    }
+
     default void init(Game game, int nPlayersPerGame, Set<String> playerNames) {}
 
 }
@@ -6,6 +6,7 @@ import evaluation.metrics.AbstractMetric;
 import evaluation.metrics.Event;
 import evaluation.metrics.IDataLogger;
 import evaluation.metrics.IMetricsCollection;
+import evaluation.metrics.columnar.ColumnarDataLogger;
 import evaluation.metrics.tablessaw.DataTableSaw;
 import utilities.Utils;
 
@@ -15,6 +16,7 @@ import java.util.*;
 import static evaluation.metrics.Event.GameEvent.*;
 import static evaluation.metrics.IDataLogger.ReportDestination.*;
 import static evaluation.metrics.IDataLogger.ReportType.*;
+import static evaluation.metrics.IDataLogger.Storage.*;
 
 /**
  * Main Game Listener class. An instance can be attached to a game, which will then cause registered metrics in this
@@ -57,17 +59,35 @@ public class MetricsGameListener implements IGameListener {
     }
 
     public MetricsGameListener(IDataLogger.ReportDestination logTo, IDataLogger.ReportType[] dataTypes, AbstractMetric[] metrics) {
+        this(logTo, dataTypes, metrics, InMemory);
+    }
+
+    /**
+     * @param storage - how the metrics keep their data until it is reported. Streaming keeps memory use fixed however
+     *                many events are recorded, for long runs with metrics recorded every action.
+     */
+    public MetricsGameListener(IDataLogger.ReportDestination logTo, IDataLogger.ReportType[] dataTypes, AbstractMetric[] metrics,
+                               IDataLogger.Storage storage) {
         reportDestinations = Collections.singletonList(logTo);
         this.reportTypes = Arrays.asList(dataTypes);
         this.metrics = new LinkedHashMap<>();
         for (AbstractMetric m : metrics) {
-            m.setDataLogger(new DataTableSaw(m)); //todo this logger needs to be read from JSON
+            m.setDataLogger(storage == Streaming ? new ColumnarDataLogger(m) : new DataTableSaw(m));
             this.metrics.put(m.getName(), m);
             eventsOfInterest.addAll(m.getEventTypes());
         }
         eventsOfInterest.add(Event.GameEvent.GAME_OVER);
     }
 
+    /**
+     * Listens to the events of interest to at least one of its metrics, and GAME_OVER.
+     * Subclasses that override onEvent() to respond to other events must also override this.
+     */
+    @Override
+    public boolean listensTo(IGameEvent eventType) {
+        return eventsOfInterest.contains(eventType);
+    }
+
     /**
      * Manages all events.
      *
@@ -0,0 +1,163 @@
+package evaluation.listeners;
+
+import core.Game;
+import core.GameProfiler;
+import core.interfaces.IGameEvent;
+import evaluation.metrics.Event;
+import evaluation.metrics.IDataLogger;
+import org.json.simple.JSONObject;
+import utilities.Histogram;
+import utilities.Utils;
+
+import java.io.*;
+import java.util.*;
+
+import static evaluation.metrics.IDataLogger.ReportDestination.*;
+
+/**
+ * Collects the profile of every game it is attached to (see {@link GameProfiler}): histograms of the time taken by
+ * each phase of an action (copying the state for the player, computing the actions available, the player's decision
+ * and the forward model's next()), and of the bytes the game's thread allocated in each.
+ * These are combined over all games of the same type and number of players, and reported at the end as the
+ * count, mean, median (p50), 99th percentile and maximum of each.
+ * <p>
+ * Reports to file write Profile.csv (one row per game type and number of players, phase and measure, over all the
+ * games of that type and number of players), and Profile.json with the same data.
+ */
+public class ProfileListener implements IGameListener {
+
+    private record Key(String game, int nPlayers) {
+    }
+
+    private final Map<Key, GameProfiler> profiles = new LinkedHashMap<>();
+    private final IDataLogger.ReportDestination reportDestination;
+    private String destDir = "metrics/out/";
+    private Game game;
+
+    public ProfileListener() {
+        this(ToFile);
+    }
+
+    public ProfileListener(IDataLogger.ReportDestination reportDestination) {
+        this.reportDestination = reportDestination;
+    }
+
+    @Override
+    public boolean recordsProfile() {
+        return true;
+    }
+
+    @Override
+    public boolean listensTo(IGameEvent eventType) {
+        return eventType == Event.GameEvent.GAME_OVER;
+    }
+
+    @Override
+    public void onEvent(Event event) {
+        if (event.type != Event.GameEvent.GAME_OVER || game.getProfiler() == null)
+            return;
+        Key key = new Key(game.getGameType().name(), event.state.getNPlayers());
+        profiles.computeIfAbsent(key, k -> new GameProfiler()).merge(game.getProfiler());
+    }
+
+    /**
+     * @return the profile of all the games of this type and number of players, or null if there were none
+     */
+    public GameProfiler getProfile(String gameName, int nPlayers) {
+        return profiles.get(new Key(gameName, nPlayers));
+    }
+
+    @Override
+    public boolean setOutputDirectory(String... nestedDirectories) {
+        if (reportDestination == ToFile || reportDestination == ToBoth) {
+            String folder = Utils.createDirectory(nestedDirectories);
+            destDir = new File(folder).getAbsolutePath() + File.separator;
+        }
+        return true;
+    }
+
+    @Override
+    public void report() {
+        if (reportDestination == ToConsole || reportDestination == ToBoth) {
+            for (Map.Entry<Key, GameProfiler> entry : profiles.entrySet()) {
+                System.out.printf("%nProfile of %s with %d players%n", entry.getKey().game, entry.getKey().nPlayers);
+                for (GameProfiler.Phase phase : GameProfiler.Phase.values()) {
+                    System.out.printf("\t%-14s time (ns): %s%n", phase, entry.getValue().getTimes(phase));
+                    if (GameProfiler.recordsAllocation())
+                        System.out.printf("\t%-14s bytes:     %s%n", phase, entry.getValue().getAllocatedBytes(phase));
+                }
+            }
+        }
+        if (reportDestination == ToFile || reportDestination == ToBoth) {
+            File folder = new File(destDir);
+            if (!folder.exists() && !folder.mkdirs())
+                throw new AssertionError("Unable to create output directory " + folder.getAbsolutePath());
+            writeCSV(new File(folder, "Profile.csv"));
+            writeJSON(new File(folder, "Profile.json"));
+        }
+    }
+
+    private List<String> measures() {
+        return GameProfiler.recordsAllocation() ? List.of("Time (ns)", "Allocated (bytes)") : List.of("Time (ns)");
+    }
+
+    private Histogram histogram(GameProfiler profile, GameProfiler.Phase phase, String measure) {
+        return measure.startsWith("Time") ? profile.getTimes(phase) : profile.getAllocatedBytes(phase);
+    }
+
+    private void writeCSV(File file) {
+        try (PrintWriter writer = new PrintWriter(new BufferedWriter(new FileWriter(file)))) {
+            writer.println("Game,Players,Phase,Measure,Count,Mean,P50,P99,Max");
+            for (Map.Entry<Key, GameProfiler> entry : profiles.entrySet()) {
+                for (GameProfiler.Phase phase : GameProfiler.Phase.values()) {
+                    for (String measure : measures()) {
+                        Histogram h = histogram(entry.getValue(), phase, measure);
+                        writer.printf(Locale.ROOT, "%s,%d,%s,%s,%d,%.1f,%d,%d,%d%n", entry.getKey().game,
+                                entry.getKey().nPlayers, phase, measure, h.getCount(), h.getMean(),
+                                h.getPercentile(50), h.getPercentile(99), h.getMax());
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write profile to " + file, e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void writeJSON(File file) {
+        JSONObject json = new JSONObject();
+        for (Map.Entry<Key, GameProfiler> entry : profiles.entrySet()) {
+            JSONObject phases = new JSONObject();
+            for (GameProfiler.Phase phase : GameProfiler.Phase.values()) {
+                JSONObject measures = new JSONObject();
+                for (String measure : measures()) {
+                    Histogram h = histogram(entry.getValue(), phase, measure);
+                    JSONObject summary = new JSONObject();
+                    summary.put("count", h.getCount());
+                    summary.put("mean", h.getMean());
+                    summary.put("p50", h.getPercentile(50));
+                    summary.put("p99", h.getPercentile(99));
+                    summary.put("max", h.getMax());
+                    measures.put(measure, summary);
+                }
+                phases.put(phase.name(), measures);
+            }
+            json.put(entry.getKey().game + "-" + entry.getKey().nPlayers, phases);
+        }
+        try (FileWriter writer = new FileWriter(file)) {
+            writer.write(json.toJSONString());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write profile to " + file, e);
+        }
+    }
+
+    @Override
+    public void setGame(Game game) {
+        this.game = game;
+    }
+
+    @Override
+    public Game getGame() {
+        return game;
+    }
+}
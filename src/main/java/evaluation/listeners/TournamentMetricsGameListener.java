@@ -27,7 +27,12 @@ public class TournamentMetricsGameListener extends MetricsGameListener {
     }
 
     public TournamentMetricsGameListener(IDataLogger.ReportDestination logTo, IDataLogger.ReportType[] dataTypes, AbstractMetric[] metrics) {
-        super(logTo, dataTypes, Arrays.stream(metrics).map(TournamentMetric::new).toArray(AbstractMetric[]::new));
+        this(logTo, dataTypes, metrics, IDataLogger.Storage.InMemory);
+    }
+
+    public TournamentMetricsGameListener(IDataLogger.ReportDestination logTo, IDataLogger.ReportType[] dataTypes, AbstractMetric[] metrics,
+                                         IDataLogger.Storage storage) {
+        super(logTo, dataTypes, Arrays.stream(metrics).map(TournamentMetric::new).toArray(AbstractMetric[]::new), storage);
     }
 
     public void tournamentInit(Game game, int nPlayersPerGame, Set<String> playerNames, Set<AbstractPlayer> matchup) {
@@ -19,6 +19,11 @@ public interface IDataLogger
         ToBoth
     }
 
+    enum Storage {
+        InMemory,  // all data is kept in memory until reported, see DataTableSaw
+        Streaming  // data is written to disk in chunks as it is recorded, see ColumnarDataLogger
+    }
+
     /**
      * Resets this data logger. This will be called when the number of players for a given game changes, which
      * can potentially change the number of columns in the data logger.
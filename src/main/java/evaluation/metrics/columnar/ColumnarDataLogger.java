@@ -0,0 +1,312 @@
+package evaluation.metrics.columnar;
+
+import core.Game;
+import evaluation.metrics.AbstractMetric;
+import evaluation.metrics.IDataLogger;
+import evaluation.metrics.IDataProcessor;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Data logger that streams its rows to a file on disk, rather than keeping them all in memory as
+ * {@link evaluation.metrics.tablessaw.DataTableSaw} does. Only the current chunk of rows is held in memory, one
+ * primitive array per column, so memory use does not grow with the number of events recorded.
+ * <p>
+ * The file is only ever appended to, and holds a sequence of records:
+ * <ul>
+ *     <li>SCHEMA: new columns (name and type). Any rows already written have no value for these.</li>
+ *     <li>CHUNK: the number of rows, any new strings for the string dictionary, and then the values of each
+ *     column in turn (ints, doubles, bytes for booleans, and dictionary codes for strings).</li>
+ * </ul>
+ * Missing values are written as Integer.MIN_VALUE, NaN, -1 and -1 respectively. The file is read back with
+ * {@link ColumnarDataReader}, which {@link ColumnarDataProcessor} uses to write the reports.
+ * <p>
+ * By default the file is a temporary file, deleted when the JVM exits.
+ */
+public class ColumnarDataLogger implements IDataLogger {
+
+    public enum ColumnType {
+        INT, DOUBLE, BOOLEAN, STRING;
+
+        static ColumnType of(Class<?> c) {
+            if (c == String.class)
+                return STRING;
+            else if (c == Integer.class)
+                return INT;
+            else if (c == Double.class)
+                return DOUBLE;
+            else if (c == Boolean.class)
+                return BOOLEAN;
+            else
+                throw new AssertionError("Unknown column type");
+        }
+    }
+
+    static final int MAGIC = 0x54414743;
+    static final byte SCHEMA = 1;
+    static final byte CHUNK = 2;
+    static final long MISSING_INT = Integer.MIN_VALUE;
+    static final long MISSING_DOUBLE = Double.doubleToRawLongBits(Double.NaN);
+    static final long MISSING_CODE = -1;
+
+    public static final int DEFAULT_CHUNK_SIZE = 1024;
+
+    final AbstractMetric metric;
+    final int chunkSize;
+    private final File directory;
+    private File file;
+
+    final List<String> columnNames = new ArrayList<>();
+    final List<ColumnType> columnTypes = new ArrayList<>();
+    private final Map<String, Integer> columnIndex = new HashMap<>();
+    // columns added since the last SCHEMA record was written
+    private int nColumnsWritten;
+
+    // the current chunk; all values are held as longs, whatever the type of the column
+    private long[][] values = new long[0][];
+    private int[] counts = new int[0];
+    private int nFullColumns;
+
+    // string dictionary, shared by all columns
+    private final Map<String, Integer> dictionary = new HashMap<>();
+    private final List<String> newStrings = new ArrayList<>();
+
+    private long rowsWritten;
+
+    public ColumnarDataLogger(AbstractMetric metric) {
+        this(metric, null, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * @param metric    - the metric whose data is logged
+     * @param directory - directory for the data file, or null for the system's temporary directory
+     * @param chunkSize - number of rows held in memory before they are written to the file
+     */
+    public ColumnarDataLogger(AbstractMetric metric, File directory, int chunkSize) {
+        if (chunkSize < 1)
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+        this.metric = metric;
+        this.directory = directory;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public void reset() {
+        if (file != null && !file.delete())
+            file.deleteOnExit();
+        file = null;
+        columnNames.clear();
+        columnTypes.clear();
+        columnIndex.clear();
+        nColumnsWritten = 0;
+        values = new long[0][];
+        counts = new int[0];
+        nFullColumns = 0;
+        dictionary.clear();
+        newStrings.clear();
+        rowsWritten = 0;
+    }
+
+    @Override
+    public void init(Game game, int nPlayersPerGame, Set<String> playerNames) {
+        // Add default columns
+        for (Map.Entry<String, Class<?>> entry : metric.getDefaultColumns().entrySet()) {
+            if (!columnIndex.containsKey(entry.getKey()))
+                addColumn(entry.getKey(), ColumnType.of(entry.getValue()));
+        }
+        // Add metric-defined columns
+        for (Map.Entry<String, Class<?>> entry : metric.getColumns(nPlayersPerGame, playerNames).entrySet()) {
+            if (!columnIndex.containsKey(entry.getKey())) {
+                addColumn(entry.getKey(), ColumnType.of(entry.getValue()));
+                // Keep the name of the column
+                metric.addColumnName(entry.getKey());
+            }
+        }
+    }
+
+    private void addColumn(String name, ColumnType type) {
+        // rows in the current chunk must not span a change of schema
+        if (maxCount() > 0)
+            flush();
+        columnIndex.put(name, columnNames.size());
+        columnNames.add(name);
+        columnTypes.add(type);
+        values = Arrays.copyOf(values, columnNames.size());
+        values[values.length - 1] = newColumnChunk(type);
+        counts = Arrays.copyOf(counts, columnNames.size());
+    }
+
+    private long[] newColumnChunk(ColumnType type) {
+        long[] chunk = new long[chunkSize];
+        Arrays.fill(chunk, missing(type));
+        return chunk;
+    }
+
+    static long missing(ColumnType type) {
+        return switch (type) {
+            case INT -> MISSING_INT;
+            case DOUBLE -> MISSING_DOUBLE;
+            case BOOLEAN, STRING -> MISSING_CODE;
+        };
+    }
+
+    /**
+     * Add a piece of data to a specific column. Once every column has a full chunk of values, the chunk is written
+     * to the file.
+     * @param columnName - name of column to add data to
+     * @param data - data to add
+     */
+    @Override
+    public void addData(String columnName, Object data) {
+        Integer col = columnIndex.get(columnName);
+        if (col == null)
+            throw new IllegalArgumentException("Unknown column " + columnName + " for metric " + metric.getName());
+        if (counts[col] == chunkSize)
+            throw new IllegalStateException("Column " + columnName + " has more values than other columns");
+        values[col][counts[col]++] = encode(columnTypes.get(col), data);
+        if (counts[col] == chunkSize && ++nFullColumns == columnNames.size())
+            flush();
+    }
+
+    private long encode(ColumnType type, Object data) {
+        if (data == null)
+            return missing(type);
+        return switch (type) {
+            case INT -> ((Number) data).intValue();
+            case DOUBLE -> Double.doubleToRawLongBits(((Number) data).doubleValue());
+            case BOOLEAN -> (Boolean) data ? 1 : 0;
+            case STRING -> dictionary.computeIfAbsent(data.toString(), s -> {
+                newStrings.add(s);
+                return dictionary.size();
+            });
+        };
+    }
+
+    private int maxCount() {
+        int max = 0;
+        for (int count : counts)
+            max = Math.max(max, count);
+        return max;
+    }
+
+    /**
+     * Writes any rows held in memory to the file. Columns with fewer values than the longest are padded with missing
+     * values.
+     */
+    public void flush() {
+        int nRows = maxCount();
+        if (nRows == 0 && nColumnsWritten == columnNames.size())
+            return;
+        try (DataOutputStream out = openForAppend()) {
+            if (nColumnsWritten < columnNames.size()) {
+                out.writeByte(SCHEMA);
+                out.writeInt(columnNames.size() - nColumnsWritten);
+                for (int c = nColumnsWritten; c < columnNames.size(); c++) {
+                    out.writeUTF(columnNames.get(c));
+                    out.writeByte(columnTypes.get(c).ordinal());
+                }
+                nColumnsWritten = columnNames.size();
+            }
+            if (nRows > 0) {
+                out.writeByte(CHUNK);
+                out.writeInt(nRows);
+                out.writeInt(newStrings.size());
+                for (String s : newStrings)
+                    out.writeUTF(s);
+                newStrings.clear();
+                for (int c = 0; c < columnNames.size(); c++) {
+                    long[] column = values[c];
+                    switch (columnTypes.get(c)) {
+                        case INT, STRING -> {
+                            for (int r = 0; r < nRows; r++) out.writeInt((int) column[r]);
+                        }
+                        case DOUBLE -> {
+                            for (int r = 0; r < nRows; r++) out.writeLong(column[r]);
+                        }
+                        case BOOLEAN -> {
+                            for (int r = 0; r < nRows; r++) out.writeByte((int) column[r]);
+                        }
+                    }
+                    Arrays.fill(column, 0, nRows, missing(columnTypes.get(c)));
+                }
+                rowsWritten += nRows;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write metric data for " + metric.getName() + " to " + file, e);
+        }
+        Arrays.fill(counts, 0);
+        nFullColumns = 0;
+    }
+
+    private DataOutputStream openForAppend() throws IOException {
+        boolean newFile = file == null;
+        if (newFile) {
+            file = File.createTempFile("TAG-" + metric.getName() + "-", ".tagc", directory);
+            file.deleteOnExit();
+        }
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, true), 1 << 16));
+        if (newFile)
+            out.writeInt(MAGIC);
+        return out;
+    }
+
+    /**
+     * Flushes any rows held in memory, and returns the file with all the data logged so far.
+     * @return - the data file, or null if nothing has been logged yet
+     */
+    public File getFile() {
+        flush();
+        return file;
+    }
+
+    /**
+     * @return - the number of rows logged (including those not yet written to the file)
+     */
+    public long getRowCount() {
+        return rowsWritten + maxCount();
+    }
+
+    public AbstractMetric getMetric() {
+        return metric;
+    }
+
+    @Override
+    public IDataProcessor getDefaultProcessor() {
+        return new ColumnarDataProcessor();
+    }
+
+    @Override
+    public IDataLogger copy() {
+        ColumnarDataLogger copy = emptyCopy();
+        File source = getFile();
+        if (source != null) {
+            try (DataOutputStream out = copy.openForAppend()) {
+                // the magic number is already in the new file
+                try (InputStream in = new BufferedInputStream(new FileInputStream(source))) {
+                    in.skipNBytes(Integer.BYTES);
+                    in.transferTo(out);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not copy metric data from " + source, e);
+            }
+            copy.nColumnsWritten = nColumnsWritten;
+            copy.dictionary.putAll(dictionary);
+            copy.rowsWritten = rowsWritten;
+        }
+        return copy;
+    }
+
+    @Override
+    public ColumnarDataLogger emptyCopy() {
+        ColumnarDataLogger copy = new ColumnarDataLogger(metric, directory, chunkSize);
+        for (int c = 0; c < columnNames.size(); c++)
+            copy.addColumn(columnNames.get(c), columnTypes.get(c));
+        return copy;
+    }
+
+    @Override
+    public IDataLogger create() {
+        return new ColumnarDataLogger(metric, directory, chunkSize);
+    }
+}
@@ -0,0 +1,153 @@
+package evaluation.metrics.columnar;
+
+import evaluation.metrics.AbstractMetric;
+import evaluation.metrics.IDataLogger;
+import evaluation.metrics.columnar.ColumnarDataLogger.ColumnType;
+import evaluation.metrics.tablessaw.DataTableSaw;
+import evaluation.metrics.tablessaw.TableSawDataProcessor;
+import tech.tablesaw.api.DoubleColumn;
+import tech.tablesaw.api.IntColumn;
+import tech.tablesaw.api.StringColumn;
+import tech.tablesaw.api.Table;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Reports the data of a {@link ColumnarDataLogger}.
+ * Raw data and summaries are computed by reading the data one chunk at a time, so need no more memory than the
+ * summaries themselves: a running count, sum, sum of squares, min and max for numeric columns, and a count for each
+ * value of categorical (String and Boolean) columns. Summaries are over all the data recorded, rather than per game.
+ * Plots need all the data at once, so it is read into a table and plotted as {@link TableSawDataProcessor} does.
+ */
+public class ColumnarDataProcessor extends TableSawDataProcessor {
+
+    @Override
+    public void processRawDataToFile(IDataLogger logger, String folderName) {
+        ColumnarDataLogger cdl = (ColumnarDataLogger) logger;
+        File file = new File(folderName + "/" + cdl.getMetric().getName() + ".csv");
+        try (PrintWriter writer = new PrintWriter(new BufferedWriter(new FileWriter(file)))) {
+            writeCSV(cdl, writer);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write raw data to " + file, e);
+        }
+    }
+
+    @Override
+    public void processRawDataToConsole(IDataLogger logger) {
+        System.out.println();
+        PrintWriter writer = new PrintWriter(System.out);
+        writeCSV((ColumnarDataLogger) logger, writer);
+        writer.flush();
+    }
+
+    private void writeCSV(ColumnarDataLogger logger, PrintWriter writer) {
+        try (ColumnarDataReader reader = new ColumnarDataReader(logger)) {
+            // the header has all the columns, including any added after the first rows
+            int nColumns = logger.columnNames.size();
+            writer.println(String.join(",", logger.columnNames.stream().map(this::escape).toList()));
+            while (reader.nextChunk()) {
+                for (int r = 0; r < reader.getRowCount(); r++) {
+                    StringBuilder row = new StringBuilder();
+                    for (int c = 0; c < nColumns; c++) {
+                        if (c > 0) row.append(',');
+                        Object value = c < reader.getColumnCount() ? reader.get(c, r) : null;
+                        if (value != null) row.append(escape(value.toString()));
+                    }
+                    writer.println(row);
+                }
+            }
+        }
+    }
+
+    private String escape(String value) {
+        if (value.indexOf(',') == -1 && value.indexOf('"') == -1 && value.indexOf('\n') == -1)
+            return value;
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    @Override
+    public void processSummaryToConsole(IDataLogger logger) {
+        for (Table t : summarise((ColumnarDataLogger) logger)) {
+            System.out.println();
+            System.out.println(t + "\n");
+        }
+    }
+
+    @Override
+    public void processSummaryToFile(IDataLogger logger, String folderName) {
+        ColumnarDataLogger cdl = (ColumnarDataLogger) logger;
+        File summaryFolderMetric = new File(folderName + "/summaries/" + cdl.getMetric().getName());
+        if (!summaryFolderMetric.exists() && !summaryFolderMetric.mkdirs())
+            return;
+        for (Table t : summarise(cdl)) {
+            t.write().csv(summaryFolderMetric + "/" + t.name() + ".csv");
+        }
+    }
+
+    @Override
+    public void processPlotToFile(IDataLogger logger, String folderName) {
+        ColumnarDataLogger cdl = (ColumnarDataLogger) logger;
+        super.processPlotToFile(new DataTableSaw(cdl.getMetric(), ColumnarDataReader.readTable(cdl)), folderName);
+    }
+
+    /**
+     * Summarises each of the metric's columns, reading the data one chunk at a time.
+     * @return - one table for each column with any data
+     */
+    public List<Table> summarise(ColumnarDataLogger logger) {
+        AbstractMetric metric = logger.getMetric();
+        Map<String, double[]> numeric = new LinkedHashMap<>();
+        Map<String, Map<String, Integer>> categorical = new LinkedHashMap<>();
+        try (ColumnarDataReader reader = new ColumnarDataReader(logger)) {
+            while (reader.nextChunk()) {
+                for (int c = 0; c < reader.getColumnCount(); c++) {
+                    String name = reader.getColumnName(c);
+                    if (!metric.getColumnNames().contains(name))
+                        continue;
+                    ColumnType type = reader.getColumnType(c);
+                    if (type == ColumnType.INT || type == ColumnType.DOUBLE) {
+                        // count, sum, sum of squares, min, max
+                        double[] stats = numeric.computeIfAbsent(name,
+                                k -> new double[]{0, 0, 0, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY});
+                        for (int r = 0; r < reader.getRowCount(); r++) {
+                            if (reader.isMissing(c, r)) continue;
+                            double x = reader.getDouble(c, r);
+                            stats[0]++;
+                            stats[1] += x;
+                            stats[2] += x * x;
+                            stats[3] = Math.min(stats[3], x);
+                            stats[4] = Math.max(stats[4], x);
+                        }
+                    } else {
+                        Map<String, Integer> counts = categorical.computeIfAbsent(name, k -> new TreeMap<>());
+                        for (int r = 0; r < reader.getRowCount(); r++) {
+                            Object value = reader.get(c, r);
+                            if (value != null)
+                                counts.merge(value.toString(), 1, Integer::sum);
+                        }
+                    }
+                }
+            }
+        }
+        List<Table> summaries = new ArrayList<>();
+        for (Map.Entry<String, double[]> e : numeric.entrySet()) {
+            double[] stats = e.getValue();
+            if (stats[0] == 0) continue;
+            double n = stats[0], mean = stats[1] / n;
+            double variance = n > 1 ? Math.max(0, (stats[2] - n * mean * mean) / (n - 1)) : 0;
+            Table summary = Table.create(metric.getName() + "_" + e.getKey(),
+                    StringColumn.create("Measure", "Count", "sum", "Mean", "Min", "Max", "Range", "Variance", "Std. Dev"),
+                    DoubleColumn.create("Value", n, stats[1], mean, stats[3], stats[4], stats[4] - stats[3], variance, Math.sqrt(variance)));
+            summaries.add(summary);
+        }
+        for (Map.Entry<String, Map<String, Integer>> e : categorical.entrySet()) {
+            if (e.getValue().isEmpty()) continue;
+            Table summary = Table.create(metric.getName() + "_" + e.getKey(),
+                    StringColumn.create("Category", e.getValue().keySet()),
+                    IntColumn.create("Count", e.getValue().values().stream().mapToInt(Integer::intValue).toArray()));
+            summaries.add(summary);
+        }
+        return summaries;
+    }
+}
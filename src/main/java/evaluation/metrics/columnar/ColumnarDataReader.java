@@ -0,0 +1,226 @@
+package evaluation.metrics.columnar;
+
+import evaluation.metrics.columnar.ColumnarDataLogger.ColumnType;
+import tech.tablesaw.api.*;
+import tech.tablesaw.columns.Column;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+
+import static evaluation.metrics.columnar.ColumnarDataLogger.*;
+
+/**
+ * Reads back the data written by a {@link ColumnarDataLogger}, one chunk at a time, so that summaries can be computed
+ * with only one chunk in memory. Call {@link #nextChunk()} to move to each chunk in turn, and then read the values
+ * of its rows.
+ * <p>
+ * A column added after some rows were written has no value in those rows, and nor does a column that had no value
+ * added in a row.
+ */
+public class ColumnarDataReader implements Closeable {
+
+    private final DataInputStream in;
+    private final List<String> columnNames = new ArrayList<>();
+    private final List<ColumnType> columnTypes = new ArrayList<>();
+    private final List<String> dictionary = new ArrayList<>();
+    private long[][] values = new long[0][];
+    private int nRows;
+
+    /**
+     * @param file - the data file of the logger; if this is null, there is no data to read
+     */
+    public ColumnarDataReader(File file) {
+        try {
+            if (file == null) {
+                in = new DataInputStream(InputStream.nullInputStream());
+            } else {
+                in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 1 << 16));
+                if (in.readInt() != MAGIC)
+                    throw new IllegalArgumentException(file + " is not a metrics data file");
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read metric data from " + file, e);
+        }
+    }
+
+    public ColumnarDataReader(ColumnarDataLogger logger) {
+        this(logger.getFile());
+    }
+
+    /**
+     * Reads the next chunk of rows.
+     * @return - false if there are no more rows to read
+     */
+    public boolean nextChunk() {
+        try {
+            while (true) {
+                int record = in.read();
+                if (record == -1) {
+                    nRows = 0;
+                    return false;
+                } else if (record == SCHEMA) {
+                    int nNew = in.readInt();
+                    for (int i = 0; i < nNew; i++) {
+                        columnNames.add(in.readUTF());
+                        columnTypes.add(ColumnType.values()[in.readByte()]);
+                    }
+                } else if (record == CHUNK) {
+                    readChunk();
+                    return true;
+                } else {
+                    throw new IllegalStateException("Unknown record type " + record + " in metrics data file");
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read metric data", e);
+        }
+    }
+
+    private void readChunk() throws IOException {
+        nRows = in.readInt();
+        int nNewStrings = in.readInt();
+        for (int i = 0; i < nNewStrings; i++)
+            dictionary.add(in.readUTF());
+        if (values.length != columnNames.size())
+            values = new long[columnNames.size()][];
+        for (int c = 0; c < values.length; c++) {
+            if (values[c] == null || values[c].length < nRows)
+                values[c] = new long[nRows];
+            long[] column = values[c];
+            switch (columnTypes.get(c)) {
+                case INT, STRING -> {
+                    for (int r = 0; r < nRows; r++) column[r] = in.readInt();
+                }
+                case DOUBLE -> {
+                    for (int r = 0; r < nRows; r++) column[r] = in.readLong();
+                }
+                case BOOLEAN -> {
+                    for (int r = 0; r < nRows; r++) column[r] = in.readByte();
+                }
+            }
+        }
+    }
+
+    public int getColumnCount() {
+        return columnNames.size();
+    }
+
+    public String getColumnName(int column) {
+        return columnNames.get(column);
+    }
+
+    public ColumnType getColumnType(int column) {
+        return columnTypes.get(column);
+    }
+
+    /**
+     * @return - the index of the column, or -1 if there is no such column (yet)
+     */
+    public int getColumnIndex(String name) {
+        return columnNames.indexOf(name);
+    }
+
+    /**
+     * @return - the number of rows in the current chunk
+     */
+    public int getRowCount() {
+        return nRows;
+    }
+
+    public boolean isMissing(int column, int row) {
+        long value = values[column][row];
+        return switch (columnTypes.get(column)) {
+            case INT -> value == MISSING_INT;
+            case DOUBLE -> Double.isNaN(Double.longBitsToDouble(value));
+            case BOOLEAN, STRING -> value == MISSING_CODE;
+        };
+    }
+
+    public int getInt(int column, int row) {
+        return (int) values[column][row];
+    }
+
+    public double getDouble(int column, int row) {
+        long value = values[column][row];
+        return columnTypes.get(column) == ColumnType.DOUBLE ? Double.longBitsToDouble(value) : value;
+    }
+
+    public boolean getBoolean(int column, int row) {
+        return values[column][row] == 1;
+    }
+
+    public String getString(int column, int row) {
+        return dictionary.get((int) values[column][row]);
+    }
+
+    /**
+     * @return - the value in the current chunk, or null if it is missing
+     */
+    public Object get(int column, int row) {
+        if (isMissing(column, row))
+            return null;
+        return switch (columnTypes.get(column)) {
+            case INT -> getInt(column, row);
+            case DOUBLE -> getDouble(column, row);
+            case BOOLEAN -> getBoolean(column, row);
+            case STRING -> getString(column, row);
+        };
+    }
+
+    @Override
+    public void close() {
+        try {
+            in.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Reads all the data logged into a Tablesaw table, with the same column types as
+     * {@link evaluation.metrics.tablessaw.DataTableSaw} would have used.
+     * This holds all the data in memory, so is only used for the reports that need all of it at once (plots and
+     * combining the data of several metrics).
+     */
+    public static Table readTable(ColumnarDataLogger logger) {
+        Table table = Table.create(logger.getMetric().getName());
+        try (ColumnarDataReader reader = new ColumnarDataReader(logger)) {
+            while (reader.nextChunk()) {
+                addNewColumns(table, reader);
+                for (int c = 0; c < reader.getColumnCount(); c++) {
+                    Column<Object> column = (Column<Object>) table.column(c);
+                    for (int r = 0; r < reader.getRowCount(); r++) {
+                        Object value = reader.get(c, r);
+                        if (value == null)
+                            column.appendMissing();
+                        else
+                            column.append(value);
+                    }
+                }
+            }
+        }
+        // columns that have had no data yet
+        for (int c = table.columnCount(); c < logger.columnNames.size(); c++)
+            table.addColumns(buildColumn(logger.columnNames.get(c), logger.columnTypes.get(c)));
+        return table;
+    }
+
+    private static void addNewColumns(Table table, ColumnarDataReader reader) {
+        for (int c = table.columnCount(); c < reader.getColumnCount(); c++) {
+            Column<?> column = buildColumn(reader.getColumnName(c), reader.getColumnType(c));
+            for (int r = 0; r < table.rowCount(); r++)
+                column.appendMissing();
+            table.addColumns(column);
+        }
+    }
+
+    private static Column<?> buildColumn(String name, ColumnType type) {
+        return switch (type) {
+            case INT -> IntColumn.create(name);
+            case DOUBLE -> DoubleColumn.create(name);
+            case BOOLEAN -> BooleanColumn.create(name);
+            case STRING -> StringColumn.create(name);
+        };
+    }
+}
@@ -5,6 +5,8 @@ import core.interfaces.IGameEvent;
 import evaluation.metrics.AbstractMetric;
 import evaluation.metrics.IDataLogger;
 import evaluation.metrics.IDataProcessor;
+import evaluation.metrics.columnar.ColumnarDataLogger;
+import evaluation.metrics.columnar.ColumnarDataReader;
 import tech.tablesaw.api.*;
 import tech.tablesaw.columns.Column;
 
@@ -24,7 +26,11 @@ public class DataTableSaw implements IDataLogger {
         this.metric = metric;
         this.data = Table.create(metric.getName());
     }
-    private DataTableSaw(AbstractMetric metric, Table data) {
+    /**
+     * Wraps a table of data already recorded for the metric, e.g. one read back from a
+     * {@link evaluation.metrics.columnar.ColumnarDataLogger}.
+     */
+    public DataTableSaw(AbstractMetric metric, Table data) {
         this.metric = metric;
         this.data = data;
     }
@@ -153,7 +159,8 @@ public class DataTableSaw implements IDataLogger {
         // TODO: Apply same filtering for all other data processing, separate table into different events before reporting
         Map<AbstractMetric, Table> metricTables = new HashMap<>();
         for (AbstractMetric m : metricGroup) {
-            Table metricData = ((DataTableSaw)m.getDataLogger()).data;
+            Table metricData = m.getDataLogger() instanceof ColumnarDataLogger columnar ?
+                    ColumnarDataReader.readTable(columnar) : ((DataTableSaw) m.getDataLogger()).data;
             if (m.filterByEventTypeWhenReporting()) {
                 metricTables.put(m, metricData.where(metricData.stringColumn("Event").isEqualTo(event.name())));
             } else {
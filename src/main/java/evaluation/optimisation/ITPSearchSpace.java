@@ -1,5 +1,6 @@
 package evaluation.optimisation;
 
+import core.AbstractParameters;
 import core.interfaces.ITunableParameters;
 import evodef.AgentSearchSpace;
 import org.jetbrains.annotations.NotNull;
@@ -184,6 +185,9 @@ public class ITPSearchSpace extends AgentSearchSpace<Object> {
     }
 
     private void setTo(int[] settings) {
+        // game parameters are frozen once a game has been created with them, so we continue with a copy
+        if (itp instanceof AbstractParameters params && params.isFrozen())
+            itp = (ITunableParameters) params.copy();
         for (int i = 0; i < settings.length; i++) {
             String pName = tunedIndexToParameterName.get(i);
             Object value = value(i, settings[i]);
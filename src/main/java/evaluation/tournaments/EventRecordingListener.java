@@ -0,0 +1,86 @@
+package evaluation.tournaments;
+
+import core.Game;
+import core.interfaces.IGameEvent;
+import evaluation.listeners.IGameListener;
+import evaluation.metrics.Event;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Used by {@link RoundRobinTournament} when games are run on a worker pool.
+ * Instead of forwarding events to the tournament listeners from a worker thread (which would interleave events
+ * from different games in an arbitrary order), this records a snapshot of every event. The snapshots are replayed
+ * to the real listeners on the tournament thread once the game is finished, in the order the games were scheduled.
+ * <p>
+ * The state in each event is a full copy taken at the time of the event, so listeners see exactly the same data
+ * as they would if the game had been run on the tournament thread.
+ */
+class EventRecordingListener implements IGameListener {
+
+    private final List<Event> events = new ArrayList<>();
+    private final List<IGameListener> listeners;
+    private Game game;
+
+    /**
+     * @param listeners - the listeners the events will be replayed to; only the events they listen to are recorded
+     */
+    EventRecordingListener(List<IGameListener> listeners) {
+        this.listeners = listeners;
+    }
+
+    @Override
+    public boolean listensTo(IGameEvent eventType) {
+        for (IGameListener listener : listeners) {
+            if (listener.listensTo(eventType))
+                return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean recordsProfile() {
+        for (IGameListener listener : listeners) {
+            if (listener.recordsProfile())
+                return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void onEvent(Event event) {
+        events.add(Event.createEvent(event.type,
+                event.state == null ? null : event.state.copy(),
+                event.action == null ? null : event.action.copy(),
+                event.playerID));
+    }
+
+    /**
+     * Sends all recorded events to the listener, with the listener temporarily pointed at the game that
+     * generated them (so that metrics that query the Game, for example for player names, get the right answer).
+     */
+    void replayTo(IGameListener listener, Game tournamentGame) {
+        listener.setGame(game);
+        for (Event e : events) {
+            if (listener.listensTo(e.type))
+                listener.onEvent(e);
+        }
+        listener.setGame(tournamentGame);
+    }
+
+    @Override
+    public void report() {
+        // nothing to report, the recorded events are replayed to the real listeners
+    }
+
+    @Override
+    public void setGame(Game game) {
+        this.game = game;
+    }
+
+    @Override
+    public Game getGame() {
+        return game;
+    }
+}
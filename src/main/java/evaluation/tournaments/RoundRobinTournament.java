@@ -2,6 +2,7 @@ package evaluation.tournaments;
 
 import core.AbstractParameters;
 import core.AbstractPlayer;
+import core.Game;
 import evaluation.RunArg;
 import evaluation.listeners.IGameListener;
 import evaluation.listeners.TournamentMetricsGameListener;
@@ -15,6 +16,10 @@ import utilities.*;
 import java.io.File;
 import java.io.FileWriter;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -55,6 +60,11 @@ public class RoundRobinTournament extends AbstractTournament {
     String seedFile;
     Random seedRnd;
 
+    // Number of games run concurrently; with more than one, every game is played on its own Game instance
+    int nThreads;
+    ExecutorService executor;
+    Deque<ScheduledGame> scheduledGames = new ArrayDeque<>();
+
     /**
      * Create a round robin tournament, which plays all agents against all others.
      *
@@ -142,6 +152,7 @@ public class RoundRobinTournament extends AbstractTournament {
         this.randomSeed = ((Number) config.getOrDefault(RunArg.seed, System.currentTimeMillis())).longValue();
         this.seedRnd = new Random(randomSeed);
         this.randomGameParams = (boolean) config.getOrDefault(RunArg.randomGameParams, false);
+        this.nThreads = (int) config.getOrDefault(RunArg.nThreads, 1);
 
         this.name = String.format("Game: %s, Players: %d, Mode: %s, TotalGames: %d, GamesPerMatchup: %d",
                 gameToPlay.name(), playersPerGame, tournamentMode, actualGames, gamesPerMatchup);
@@ -165,7 +176,9 @@ public class RoundRobinTournament extends AbstractTournament {
 
         for (IGameListener gameTracker : listeners) {
             gameTracker.init(game, nPlayers, agentNames);
-            game.addListener(gameTracker);
+            // games run in parallel are played on their own Game instances, and their events replayed to the listeners
+            if (nThreads <= 1)
+                game.addListener(gameTracker);
         }
 
         LinkedList<Integer> matchUp = new LinkedList<>();
@@ -183,6 +196,7 @@ public class RoundRobinTournament extends AbstractTournament {
             }
             createAndRunMatchUp(matchUp);
         }
+        finishScheduledGames();
         reportResults();
 
         for (IGameListener listener : listeners)
@@ -300,12 +314,6 @@ public class RoundRobinTournament extends AbstractTournament {
             throw new AssertionError("Not enough seeds for the number of games requested");
         if (debug)
             System.out.printf("Evaluate %s at %tT%n", agentIDsInThisGame.toString(), System.currentTimeMillis());
-        LinkedList<AbstractPlayer> matchUpPlayers = new LinkedList<>();
-
-        // If we are in self-play mode, we need to create a copy of the player to avoid them sharing the same state
-        // If not in self-play mode then this is unnecessary, as the same agent will never be in the same game twice
-        for (int agentID : agentIDsInThisGame)
-            matchUpPlayers.add(tournamentMode == EXHAUSTIVE_SELF_PLAY ? this.agents.get(agentID).copy() : this.agents.get(agentID));
 
         if (verbose) {
             StringBuffer sb = new StringBuffer();
@@ -316,88 +324,189 @@ public class RoundRobinTournament extends AbstractTournament {
             System.out.println(sb);
         }
 
-        // TODO : Not sure this is the ideal place for this...ask Raluca
-        Set<String> agentNames = agents.stream().map(AbstractPlayer::toString).collect(Collectors.toSet());
-        for (IGameListener listener : listeners) {
-            if (listener instanceof TournamentMetricsGameListener) {
-                ((TournamentMetricsGameListener) listener).tournamentInit(game, nPlayers, agentNames, new HashSet<>(matchUpPlayers));
-            }
+        // Run the game N = gamesPerMatchUp times with these players
+        // if tournamentSeeds > 0, then we are running this many tournaments, each with a different random seed fixed
+        // for the whole tournament, so the seeds given override the standard random seeds
+        if (nThreads > 1) {
+            for (int i = 0; i < nGames; i++)
+                scheduleGame(agentIDsInThisGame, seeds.get(i));
+            return;
         }
 
-        // Run the game N = gamesPerMatchUp times with these players
+        LinkedList<AbstractPlayer> matchUpPlayers = new LinkedList<>();
+        // If we are in self-play mode, we need to create a copy of the player to avoid them sharing the same state
+        // If not in self-play mode then this is unnecessary, as the same agent will never be in the same game twice
+        for (int agentID : agentIDsInThisGame)
+            matchUpPlayers.add(tournamentMode == EXHAUSTIVE_SELF_PLAY ? this.agents.get(agentID).copy() : this.agents.get(agentID));
+        initTournamentListeners(matchUpPlayers);
+
         for (int i = 0; i < nGames; i++) {
-            // if tournamentSeeds > 0, then we are running this many tournaments, each with a different random seed fixed for the whole tournament
-            // so we override the standard random seeds
             game.reset(matchUpPlayers, seeds.get(i));
 
             // Randomize parameters
             if (randomGameParams) {
-                game.getGameState().getGameParameters().randomize();
+                game.getGameState().getMutableGameParameters().randomize();
                 System.out.println("Game parameters: " + game.getGameState().getGameParameters());
             }
 
             game.run();  // Always running tournaments without visuals
-            GameResult[] results = game.getGameState().getPlayerResults();
-
-            int numDraws = 0;
-            for (int j = 0; j < matchUpPlayers.size(); j++) {
-                nGamesPlayed[agentIDsInThisGame.get(j)] += 1;
-                for (int k = 0; k < matchUpPlayers.size(); k++) {
-                    if (k != j) {
-                        nGamesPlayedPerOpponent[agentIDsInThisGame.get(j)][agentIDsInThisGame.get(k)] += 1;
-                    }
+            recordResults(game, agentIDsInThisGame);
+        }
+    }
+
+    private void initTournamentListeners(Collection<AbstractPlayer> matchUpPlayers) {
+        // TODO : Not sure this is the ideal place for this...ask Raluca
+        Set<String> agentNames = agents.stream().map(AbstractPlayer::toString).collect(Collectors.toSet());
+        for (IGameListener listener : listeners) {
+            if (listener instanceof TournamentMetricsGameListener) {
+                ((TournamentMetricsGameListener) listener).tournamentInit(game, nPlayers, agentNames, new HashSet<>(matchUpPlayers));
+            }
+        }
+    }
+
+    /**
+     * Sets up a new, independent Game for the given matchup and runs it on the worker pool (used when there is more
+     * than one thread).
+     * The Game is created and reset on the tournament thread so that set up (and the game IDs allocated) happen in
+     * the same order on every run; only Game.run() happens on a worker thread.
+     * Each game has its own copy of the game parameters and of every player, so no state is shared between games
+     * running at the same time. The random seed of each player copy is derived from the seed of the game, so the
+     * games are independent of each other.
+     * Results are recorded strictly in the order games were scheduled, which keeps the tournament statistics
+     * (and anything the listeners write out) independent of the number of threads and of thread scheduling.
+     */
+    private void scheduleGame(List<Integer> agentIDsInThisGame, int seed) {
+        if (executor == null)
+            executor = Executors.newFixedThreadPool(nThreads);
+
+        AbstractParameters params = game.getGameState().getGameParameters().copy();
+        Game workerGame = game.getGameType().createGameInstance(nPlayers, seed, params);
+        EventRecordingListener recorder = new EventRecordingListener(listeners);
+        if (!listeners.isEmpty())
+            workerGame.addListener(recorder);
+
+        List<AbstractPlayer> workerPlayers = new ArrayList<>();
+        for (int i = 0; i < agentIDsInThisGame.size(); i++) {
+            AbstractPlayer player = this.agents.get(agentIDsInThisGame.get(i)).copy();
+            player.setRandomSeed(SplitRandom.seedFor(seed, i));
+            workerPlayers.add(player);
+        }
+        workerGame.reset(workerPlayers, seed);
+
+        if (randomGameParams) {
+            workerGame.getGameState().getMutableGameParameters().randomize();
+            System.out.println("Game parameters: " + workerGame.getGameState().getGameParameters());
+        }
+
+        List<Integer> agentIDs = new ArrayList<>(agentIDsInThisGame);
+        // Always running tournaments without visuals
+        scheduledGames.add(new ScheduledGame(agentIDs, workerGame, recorder, executor.submit(workerGame::run)));
+
+        // we keep a bounded number of games in flight, so that finished games (and their recorded events) do not
+        // accumulate in memory while we wait for a slow game earlier in the queue
+        while (scheduledGames.size() > 2 * nThreads)
+            recordNextScheduledGame();
+    }
+
+    /**
+     * Waits for all scheduled games to finish, records their results and shuts down the worker pool.
+     */
+    private void finishScheduledGames() {
+        while (!scheduledGames.isEmpty())
+            recordNextScheduledGame();
+        if (executor != null) {
+            executor.shutdown();
+            executor = null;
+        }
+    }
+
+    private void recordNextScheduledGame() {
+        ScheduledGame next = scheduledGames.poll();
+        try {
+            next.result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for tournament game", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Error in tournament game " + next.agentIDs, e.getCause());
+        }
+        if (!listeners.isEmpty()) {
+            initTournamentListeners(next.agentIDs.stream().map(id -> (AbstractPlayer) agents.get(id)).toList());
+            for (IGameListener listener : listeners)
+                next.recorder.replayTo(listener, game);
+        }
+        recordResults(next.game, next.agentIDs);
+    }
+
+    private record ScheduledGame(List<Integer> agentIDs, Game game, EventRecordingListener recorder, Future<?> result) {
+    }
+
+    /**
+     * Updates the tournament statistics with the result of one finished game.
+     *
+     * @param finishedGame       - the game, after it has been run to completion.
+     * @param agentIDsInThisGame - IDs of agents participating in this run.
+     */
+    protected void recordResults(Game finishedGame, List<Integer> agentIDsInThisGame) {
+        GameResult[] results = finishedGame.getGameState().getPlayerResults();
+
+        int numDraws = 0;
+        for (int j = 0; j < agentIDsInThisGame.size(); j++) {
+            nGamesPlayed[agentIDsInThisGame.get(j)] += 1;
+            for (int k = 0; k < agentIDsInThisGame.size(); k++) {
+                if (k != j) {
+                    nGamesPlayedPerOpponent[agentIDsInThisGame.get(j)][agentIDsInThisGame.get(k)] += 1;
                 }
+            }
 
-                // now we need to be careful if we have a team game, as the agents are indexed by Team, not player
-                if (byTeam) {
-                    for (int player = 0; player < game.getGameState().getNPlayers(); player++) {
-                        if (game.getGameState().getTeam(player) == j) {
-                            numDraws += updatePoints(results, agentIDsInThisGame, agentIDsInThisGame.get(j), player);
-                            break; // we stop after one player on the team to avoid double counting
-                        }
+            // now we need to be careful if we have a team game, as the agents are indexed by Team, not player
+            if (byTeam) {
+                for (int player = 0; player < finishedGame.getGameState().getNPlayers(); player++) {
+                    if (finishedGame.getGameState().getTeam(player) == j) {
+                        numDraws += updatePoints(finishedGame, results, agentIDsInThisGame, agentIDsInThisGame.get(j), player);
+                        break; // we stop after one player on the team to avoid double counting
                     }
-                } else {
-                    numDraws += updatePoints(results, agentIDsInThisGame, agentIDsInThisGame.get(j), j);
                 }
+            } else {
+                numDraws += updatePoints(finishedGame, results, agentIDsInThisGame, agentIDsInThisGame.get(j), j);
             }
+        }
 
-            if (numDraws > 0) {
-                double pointsPerDraw = 1.0 / numDraws;
-                for (int j = 0; j < matchUpPlayers.size(); j++) {
-                    if (results[j] == GameResult.DRAW_GAME) pointsPerPlayer[agentIDsInThisGame.get(j)] += pointsPerDraw;
-                    if (results[j] == GameResult.DRAW_GAME)
-                        pointsPerPlayerSquared[agentIDsInThisGame.get(j)] += pointsPerDraw * pointsPerDraw;
-                }
+        if (numDraws > 0) {
+            double pointsPerDraw = 1.0 / numDraws;
+            for (int j = 0; j < agentIDsInThisGame.size(); j++) {
+                if (results[j] == GameResult.DRAW_GAME) pointsPerPlayer[agentIDsInThisGame.get(j)] += pointsPerDraw;
+                if (results[j] == GameResult.DRAW_GAME)
+                    pointsPerPlayerSquared[agentIDsInThisGame.get(j)] += pointsPerDraw * pointsPerDraw;
             }
+        }
 
-            if (verbose) {
-                StringBuffer sb = new StringBuffer();
-                sb.append("[");
-                for (int j = 0; j < matchUpPlayers.size(); j++) {
-                    for (int player = 0; player < game.getGameState().getNPlayers(); player++) {
-                        if (game.getGameState().getTeam(player) == j) {
-                            sb.append(results[player]).append(",");
-                            break; // we stop after one player on the team to avoid double counting
-                        }
+        if (verbose) {
+            StringBuffer sb = new StringBuffer();
+            sb.append("[");
+            for (int j = 0; j < agentIDsInThisGame.size(); j++) {
+                for (int player = 0; player < finishedGame.getGameState().getNPlayers(); player++) {
+                    if (finishedGame.getGameState().getTeam(player) == j) {
+                        sb.append(results[player]).append(",");
+                        break; // we stop after one player on the team to avoid double counting
                     }
                 }
-                sb.setCharAt(sb.length() - 1, ']');
-                System.out.println(sb);
             }
-
+            sb.setCharAt(sb.length() - 1, ']');
+            System.out.println(sb);
         }
-        totalGamesRun += nGames;
+        totalGamesRun++;
     }
 
-    private int updatePoints(GameResult[] results, List<Integer> matchUpPlayers, int j, int player) {
+    private int updatePoints(Game finishedGame, GameResult[] results, List<Integer> matchUpPlayers, int j, int player) {
         // j is the index of the agent in the matchup; player is the corresponding player number in the game
-        int ordinalPos = game.getGameState().getOrdinalPosition(player);
+        int ordinalPos = finishedGame.getGameState().getOrdinalPosition(player);
         rankPerPlayer[j] += ordinalPos;
         rankPerPlayerSquared[j] += ordinalPos * ordinalPos;
 
-        for (int playerPos = 0; playerPos < game.getGameState().getNPlayers(); playerPos++) {
+        for (int playerPos = 0; playerPos < finishedGame.getGameState().getNPlayers(); playerPos++) {
             if (playerPos != player) {
-                int ordinalOther = game.getGameState().getOrdinalPosition(playerPos);
+                int ordinalOther = finishedGame.getGameState().getOrdinalPosition(playerPos);
                 ordinalDeltaPerOpponent[j][matchUpPlayers.get(playerPos)] += ordinalOther - ordinalPos;
             }
         }
@@ -1,5 +1,6 @@
 package games.battlelore;
 
+import core.AbstractGameData;
 import core.AbstractGameState;
 import core.StandardForwardModel;
 import core.actions.AbstractAction;
@@ -22,8 +23,7 @@ public class BattleloreForwardModel extends StandardForwardModel {
     protected void _setup(AbstractGameState initialState) {
         BattleloreGameParameters gameParams = (BattleloreGameParameters) initialState.getGameParameters();
         BattleloreGameState gameState = (BattleloreGameState) initialState;
-        BattleloreData _data = new BattleloreData();
-        _data.load(gameParams.getDataPath());
+        BattleloreData _data = AbstractGameData.getTemplate(gameParams.getDataPath(), BattleloreData::new);
 
         if (gameState.getNPlayers() != 2) {
             throw new IllegalArgumentException("3 or more players are not supported");
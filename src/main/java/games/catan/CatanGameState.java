@@ -395,7 +395,7 @@ public class CatanGameState extends AbstractGameState {
 
     @Override
     protected CatanGameState _copy(int playerId) {
-        CatanGameState copy = new CatanGameState(getGameParameters().copy(), getNPlayers());
+        CatanGameState copy = new CatanGameState(getGameParameters().copyIfMutable(), getNPlayers());
         copy.gamePhase = gamePhase;
         copy.board = copyBoard();
         copy.catanGraph = catanGraph.copy();
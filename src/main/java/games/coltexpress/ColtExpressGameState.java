@@ -85,7 +85,7 @@ public class ColtExpressGameState extends AbstractGameStateWithTurnOrder impleme
 
     @Override
     protected AbstractGameStateWithTurnOrder __copy(int playerId) {
-        ColtExpressGameState copy = new ColtExpressGameState(gameParameters.copy(), getNPlayers());
+        ColtExpressGameState copy = new ColtExpressGameState(gameParameters.copyIfMutable(), getNPlayers());
 
         ColtExpressParameters cep = (ColtExpressParameters) gameParameters;
         // These are always visible
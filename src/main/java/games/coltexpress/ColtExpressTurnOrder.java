@@ -1,6 +1,7 @@
 package games.coltexpress;
 
 import core.AbstractGameState;
+import evaluation.listeners.IGameListener;
 import evaluation.metrics.Event;
 import games.coltexpress.cards.RoundCard;
 import core.turnorders.TurnOrder;
@@ -161,7 +162,7 @@ public class ColtExpressTurnOrder extends TurnOrder {
 
         gameState.getPlayerTimer()[getCurrentPlayer(gameState)].incrementTurn();
 
-        listeners.forEach(l -> l.onEvent(Event.createEvent(Event.GameEvent.TURN_OVER, gameState, getCurrentPlayer(gameState))));
+        IGameListener.sendEvent(listeners, Event.GameEvent.TURN_OVER, gameState, null, getCurrentPlayer(gameState));
 
         turnCounter++;
         ColtExpressGamePhase phase = (ColtExpressGamePhase) cegs.getGamePhase();
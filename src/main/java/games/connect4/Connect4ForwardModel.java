@@ -50,6 +50,11 @@ public class Connect4ForwardModel extends SequentialActionForwardModel {
         return actions;
     }
 
+    @Override
+    public boolean supportsUndo() {
+        return true;
+    }
+
     @Override
     protected void _afterAction(AbstractGameState currentState, AbstractAction action) {
         Connect4GameState c4gs = (Connect4GameState) currentState;
@@ -3,6 +3,7 @@ package games.connect4;
 import core.AbstractGameState;
 import core.AbstractGameStateWithTurnOrder;
 import core.AbstractParameters;
+import core.UndoLog;
 import core.components.Component;
 import core.components.GridBoard;
 import core.components.Token;
@@ -43,7 +44,7 @@ public class Connect4GameState extends AbstractGameState implements IPrintable,
 
     @Override
     protected AbstractGameState _copy(int playerId) {
-        Connect4GameState s = new Connect4GameState(gameParameters.copy(), getNPlayers());
+        Connect4GameState s = new Connect4GameState(gameParameters.copyIfMutable(), getNPlayers());
         s.gridBoard = gridBoard.copy();
 
         s.winnerCells.clear();
@@ -53,6 +54,16 @@ public class Connect4GameState extends AbstractGameState implements IPrintable,
         return s;
     }
 
+    @Override
+    public boolean hasZobristKey() {
+        return true;
+    }
+
+    @Override
+    protected long _computeZobristKey() {
+        return gridBoard.getZobristKey();
+    }
+
     @Override
     protected double _getHeuristicScore(int playerId) {
         return new Connect4Heuristic().evaluateState(this, playerId);
@@ -75,7 +86,6 @@ public class Connect4GameState extends AbstractGameState implements IPrintable,
     protected boolean _equals(Object o) {
         if (this == o) return true;
         if (!(o instanceof Connect4GameState)) return false;
-        if (!super.equals(o)) return false;
         Connect4GameState that = (Connect4GameState) o;
         return Objects.equals(gridBoard, that.gridBoard);
     }
@@ -114,7 +124,15 @@ public class Connect4GameState extends AbstractGameState implements IPrintable,
         System.out.println(gridBoard.toString());
     }
 
+    private static final UndoLog.Entry UNDO_WINNING_CELLS =
+            (state, log) -> ((Connect4GameState) state).winnerCells = log.popObject();
+
     void registerWinningCells(LinkedList<Pair<Integer, Integer>> winnerCells) {
+        UndoLog log = getUndoLog();
+        if (log != null) {
+            log.pushObject(this.winnerCells);
+            log.record(UNDO_WINNING_CELLS);
+        }
         this.winnerCells = winnerCells;
     }
 
@@ -88,7 +88,7 @@ public class DiamantGameState extends AbstractGameState implements IPrintable {
     @Override
     protected AbstractGameState _copy(int playerId)
     {
-        DiamantGameState dgs = new DiamantGameState(gameParameters.copy(), getNPlayers());
+        DiamantGameState dgs = new DiamantGameState(gameParameters.copyIfMutable(), getNPlayers());
 
         dgs.mainDeck    = mainDeck.copy();
         dgs.discardDeck = discardDeck.copy();
@@ -56,7 +56,7 @@ public class ExplodingKittensGameState extends AbstractGameStateWithTurnOrder im
 
     @Override
     protected AbstractGameStateWithTurnOrder __copy(int playerId) {
-        ExplodingKittensGameState ekgs = new ExplodingKittensGameState(gameParameters.copy(), getNPlayers());
+        ExplodingKittensGameState ekgs = new ExplodingKittensGameState(gameParameters.copyIfMutable(), getNPlayers());
         ekgs.discardPile = discardPile.copy();
         ekgs.playerGettingAFavor = playerGettingAFavor;
         ekgs.actionStack = new Stack<>();
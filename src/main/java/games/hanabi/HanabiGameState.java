@@ -50,7 +50,7 @@ public class HanabiGameState extends AbstractGameState implements IPrintable {
 
     @Override
     protected AbstractGameState _copy(int playerId) {
-        HanabiGameState copy = new HanabiGameState(gameParameters.copy(), getNPlayers());
+        HanabiGameState copy = new HanabiGameState(gameParameters.copyIfMutable(), getNPlayers());
         copy.playerDecks = new ArrayList<>();
         for (PartialObservableDeck<HanabiCard> d : playerDecks) {
             copy.playerDecks.add(d.copy(playerId));
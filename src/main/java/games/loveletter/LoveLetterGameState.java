@@ -28,7 +28,6 @@ public class LoveLetterGameState extends AbstractGameState implements IPrintable
     // Cards in the reserve
     Deck<LoveLetterCard> reserveCards;
     LoveLetterCard removedCard;
-    Random redeterminisationRnd = new Random(System.currentTimeMillis());
 
     // If true: player cannot be effected by any card effects
     boolean[] effectProtection;
@@ -67,7 +66,7 @@ public class LoveLetterGameState extends AbstractGameState implements IPrintable
 
     @Override
     protected AbstractGameState _copy(int playerId) {
-        LoveLetterGameState llgs = new LoveLetterGameState(gameParameters.copy(), getNPlayers());
+        LoveLetterGameState llgs = new LoveLetterGameState(gameParameters.copyIfMutable(), getNPlayers());
         llgs.drawPile = drawPile.copy();
         llgs.reserveCards = reserveCards.copy();
         llgs.removedCard = removedCard.copy();
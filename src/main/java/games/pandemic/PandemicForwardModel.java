@@ -149,8 +149,7 @@ public class PandemicForwardModel extends AbstractRuleBasedForwardModel {
         state._reset();
         PandemicParameters pp = (PandemicParameters) state.getGameParameters();
 
-        AbstractGameData _data = new AbstractGameData();
-        _data.load(pp.getDataPath());
+        AbstractGameData _data = AbstractGameData.getTemplate(pp.getDataPath());
 
         state.tempDeck = new Deck<>("Temp Deck", VISIBLE_TO_ALL);
         state.areas = new HashMap<>();
@@ -251,7 +251,7 @@ public class PokerGameState extends AbstractGameState implements IPrintable {
 
     @Override
     protected AbstractGameState _copy(int playerId) {
-        PokerGameState copy = new PokerGameState(gameParameters.copy(), getNPlayers());
+        PokerGameState copy = new PokerGameState(gameParameters.copyIfMutable(), getNPlayers());
         copy.communityCards = communityCards.copy();
         copy.moneyPots = new ArrayList<>();
         for (MoneyPot pot : moneyPots) {
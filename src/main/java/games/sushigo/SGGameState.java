@@ -62,7 +62,7 @@ public class SGGameState extends AbstractGameState {
 
     @Override
     protected SGGameState _copy(int playerId) {
-        SGGameState copy = new SGGameState(gameParameters.copy(), getNPlayers());
+        SGGameState copy = new SGGameState(gameParameters.copyIfMutable(), getNPlayers());
 
         copy.playerScore = new Counter[getNPlayers()];
         copy.playedCardTypes = new HashMap[getNPlayers()];
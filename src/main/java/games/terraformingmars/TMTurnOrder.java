@@ -3,6 +3,7 @@ package games.terraformingmars;
 import core.AbstractGameState;
 import core.turnorders.AlternatingTurnOrder;
 import core.turnorders.TurnOrder;
+import evaluation.listeners.IGameListener;
 import evaluation.metrics.Event;
 import games.terraformingmars.actions.TMAction;
 
@@ -31,7 +32,7 @@ public class TMTurnOrder extends AlternatingTurnOrder {
 
         if (gameState.getGameStatus() != GAME_ONGOING) return;
 
-        listeners.forEach(l -> l.onEvent(Event.createEvent(Event.GameEvent.TURN_OVER, gameState, turnOwner)));
+        IGameListener.sendEvent(listeners, Event.GameEvent.TURN_OVER, gameState, null, turnOwner);
 
         if (nActionsTaken == nActionsPerPlayer || passed[turnOwner]) {
             nActionsTaken = 0;
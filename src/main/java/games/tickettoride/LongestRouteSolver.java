@@ -0,0 +1,71 @@
+package games.tickettoride;
+
+/**
+ * <p>Exact solver for the longest continuous route (the longest trail, where each route may be used at most
+ * once but cities may be revisited) in one player's network.</p>
+ * <p>The network is given as a bitset of edge indices of a {@link RouteGraph}. Search is a depth-first search
+ * from every city touched by the network, marking used edges in a second bitset, and cut off when the current
+ * length plus everything not yet used in the network cannot beat the best found so far.</p>
+ */
+public class LongestRouteSolver {
+
+    private final RouteGraph graph;
+    private final long[] claimed;
+    private final long[] used;
+    private int remaining; // total length of claimed routes not on the current path
+    private int best;
+    private int total;
+
+    private LongestRouteSolver(RouteGraph graph, long[] claimed) {
+        this.graph = graph;
+        this.claimed = claimed;
+        this.used = new long[claimed.length];
+    }
+
+    /**
+     * @param graph   - the map
+     * @param claimed - bitset of edge indices in the player's network
+     * @return the length (in train cars) of the longest continuous route in the network
+     */
+    public static int longestRoute(RouteGraph graph, long[] claimed) {
+        return new LongestRouteSolver(graph, claimed).solve();
+    }
+
+    private int solve() {
+        boolean[] start = new boolean[graph.getNCities()];
+        for (int e = 0; e < graph.getNEdges(); e++) {
+            if (isSet(claimed, e)) {
+                total += graph.getEdgeLength(e);
+                start[graph.getEdgeCity1(e)] = true;
+                start[graph.getEdgeCity2(e)] = true;
+            }
+        }
+        remaining = total;
+        for (int city = 0; city < start.length && best < total; city++) {
+            if (start[city]) {
+                search(city, 0);
+            }
+        }
+        return best;
+    }
+
+    private void search(int city, int length) {
+        if (length > best) best = length;
+        if (length + remaining <= best) return;
+        for (int e : graph.getCityEdges(city)) {
+            if (isSet(claimed, e) && !isSet(used, e)) {
+                int edgeLength = graph.getEdgeLength(e);
+                used[e >>> 6] |= 1L << e;
+                remaining -= edgeLength;
+                search(graph.getOtherCity(e, city), length + edgeLength);
+                remaining += edgeLength;
+                used[e >>> 6] &= ~(1L << e);
+                if (best == total) return;
+            }
+        }
+    }
+
+    private static boolean isSet(long[] bits, int e) {
+        return (bits[e >>> 6] & (1L << e)) != 0;
+    }
+}
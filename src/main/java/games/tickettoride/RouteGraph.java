@@ -0,0 +1,288 @@
+package games.tickettoride;
+
+import core.components.BoardNodeWithEdges;
+import core.components.Edge;
+import core.components.GraphBoardWithEdges;
+import core.properties.PropertyInt;
+import core.properties.PropertyStringArray;
+import games.tickettoride.TicketToRideParameters.TrainCar;
+import games.tickettoride.actions.ClaimRoute;
+
+import java.util.*;
+
+import static core.CoreConstants.colorHash;
+import static core.CoreConstants.nameHash;
+import static games.tickettoride.TicketToRideConstants.claimedByPlayerRoute2Hash;
+import static games.tickettoride.TicketToRideConstants.nodesHash;
+import static games.tickettoride.TicketToRideConstants.trainCardsRequiredHash;
+
+/**
+ * <p>Integer-indexed view of the Ticket to Ride map. Every city and every route on the {@link GraphBoardWithEdges}
+ * is given a dense index, so that connectivity, route length and ownership can be held in flat arrays
+ * instead of being rebuilt from String properties each time they are queried.</p>
+ * <p>The map topology never changes during a game, so this is immutable once built and is shared by reference
+ * between all copies of a game state.
+ * Route ownership (which does change) is held in {@link RouteNetworks}.</p>
+ * <p>Each route has one or two tracks, and a track is identified by a slot number of {@code edge * 2 + track}.
+ * For action generation the claimable slots are indexed by the card colour that pays for them, sorted by length,
+ * so that only the routes a player can afford need to be looked at. One {@link ClaimRoute} per player and slot
+ * is created up front and reused; these are immutable so can be shared between game states.</p>
+ * <p>The shortest distance (in train cars) between every pair of cities is also computed once, with
+ * Floyd-Warshall, as the starting point for the per player distances kept by {@link TicketPlanner}.</p>
+ */
+public class RouteGraph {
+
+    // City name <-> city index
+    private final String[] cityNames;
+    private final Map<String, Integer> cityIndex = new HashMap<>();
+
+    // Per route (edge index) data
+    private final int[] edgeComponentIDs;
+    private final int[] edgeCity1, edgeCity2;
+    private final int[] edgeLength;
+    private final String[][] edgeColors;
+    private final int[] edgeTracks;
+    private final Map<Integer, Integer> edgeIndexByComponentID = new HashMap<>();
+
+    // For each city, the indices of all routes that touch it
+    private final int[][] cityEdges;
+
+    // Slots of coloured tracks, indexed by TrainCar ordinal, sorted by length
+    private final int[][] slotsByColor;
+    // Gray routes (claimable with any colour), sorted by length
+    private final int[] grayEdges;
+    // [player][slot]
+    private final ClaimRoute[][] claimRoutes;
+    // Shortest distance in train cars between each pair of cities, [city1 * nCities + city2]
+    private final int[] distances;
+
+    /**
+     * Distance between cities that cannot be connected. Small enough that the sum of two does not overflow.
+     */
+    public static final int NO_PATH = Integer.MAX_VALUE / 4;
+
+    public RouteGraph(GraphBoardWithEdges world, int nPlayers) {
+        List<String> names = new ArrayList<>();
+        for (BoardNodeWithEdges node : world.getBoardNodes()) {
+            names.add(String.valueOf(node.getProperty(nameHash)));
+        }
+        // sort so that the indices are the same regardless of the iteration order of the board
+        Collections.sort(names);
+        cityNames = names.toArray(new String[0]);
+        for (int i = 0; i < cityNames.length; i++) {
+            cityIndex.put(cityNames[i], i);
+        }
+
+        List<Edge> edges = new ArrayList<>(world.getBoardEdges());
+        edges.sort(Comparator.comparingInt(Edge::getComponentID));
+        int nEdges = edges.size();
+        edgeComponentIDs = new int[nEdges];
+        edgeCity1 = new int[nEdges];
+        edgeCity2 = new int[nEdges];
+        edgeLength = new int[nEdges];
+        edgeColors = new String[nEdges][];
+        edgeTracks = new int[nEdges];
+        List<List<Integer>> adjacency = new ArrayList<>();
+        for (int i = 0; i < cityNames.length; i++) {
+            adjacency.add(new ArrayList<>());
+        }
+        for (int e = 0; e < nEdges; e++) {
+            Edge edge = edges.get(e);
+            String[] nodes = ((PropertyStringArray) edge.getProperty(nodesHash)).getValues();
+            edgeComponentIDs[e] = edge.getComponentID();
+            edgeCity1[e] = cityIndex.get(nodes[0]);
+            edgeCity2[e] = cityIndex.get(nodes[1]);
+            edgeLength[e] = ((PropertyInt) edge.getProperty(trainCardsRequiredHash)).value;
+            edgeColors[e] = ((PropertyStringArray) edge.getProperty(colorHash)).getValues();
+            edgeTracks[e] = edge.getProperty(claimedByPlayerRoute2Hash) == null ? 1 : 2;
+            edgeIndexByComponentID.put(edge.getComponentID(), e);
+            adjacency.get(edgeCity1[e]).add(e);
+            adjacency.get(edgeCity2[e]).add(e);
+        }
+        cityEdges = new int[cityNames.length][];
+        for (int c = 0; c < cityNames.length; c++) {
+            cityEdges[c] = adjacency.get(c).stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        // A coloured route with only one colour can only be claimed on its first track
+        List<List<Integer>> colorSlots = new ArrayList<>();
+        for (int i = 0; i < TrainCar.values().length; i++) {
+            colorSlots.add(new ArrayList<>());
+        }
+        List<Integer> gray = new ArrayList<>();
+        for (int e = 0; e < nEdges; e++) {
+            if (edgeColors[e][0].equals("Gray")) {
+                gray.add(e);
+            } else {
+                for (int track = 0; track < Math.min(edgeColors[e].length, edgeTracks[e]); track++) {
+                    colorSlots.get(TrainCar.valueOf(edgeColors[e][track]).ordinal()).add(e * 2 + track);
+                }
+            }
+        }
+        slotsByColor = new int[colorSlots.size()][];
+        for (int i = 0; i < colorSlots.size(); i++) {
+            slotsByColor[i] = colorSlots.get(i).stream()
+                    .sorted(Comparator.comparingInt((Integer slot) -> edgeLength[slot / 2]).thenComparingInt(slot -> slot))
+                    .mapToInt(Integer::intValue).toArray();
+        }
+        grayEdges = gray.stream()
+                .sorted(Comparator.comparingInt((Integer e) -> edgeLength[e]).thenComparingInt(e -> e))
+                .mapToInt(Integer::intValue).toArray();
+
+        claimRoutes = new ClaimRoute[nPlayers][nEdges * 2];
+        for (int p = 0; p < nPlayers; p++) {
+            for (int e = 0; e < nEdges; e++) {
+                for (int track = 0; track < 2; track++) {
+                    String color = track < edgeColors[e].length ? edgeColors[e][track] : edgeColors[e][0];
+                    claimRoutes[p][e * 2 + track] = new ClaimRoute(edgeComponentIDs[e], p, color, edgeLength[e], track,
+                            cityNames[edgeCity1[e]], cityNames[edgeCity2[e]]);
+                }
+            }
+        }
+
+        distances = shortestDistances(edgeLength);
+    }
+
+    /**
+     * All pairs shortest distances (Floyd-Warshall) between the cities, where each route costs the given number
+     * of train cars. A route with a cost of {@link #NO_PATH} cannot be used.
+     * @return the distances, [city1 * nCities + city2]
+     */
+    int[] shortestDistances(int[] edgeCosts) {
+        int n = cityNames.length;
+        int[] dist = new int[n * n];
+        Arrays.fill(dist, NO_PATH);
+        for (int c = 0; c < n; c++) {
+            dist[c * n + c] = 0;
+        }
+        for (int e = 0; e < edgeCosts.length; e++) {
+            int c1 = edgeCity1[e], c2 = edgeCity2[e];
+            if (edgeCosts[e] < dist[c1 * n + c2]) {
+                dist[c1 * n + c2] = edgeCosts[e];
+                dist[c2 * n + c1] = edgeCosts[e];
+            }
+        }
+        for (int k = 0; k < n; k++) {
+            int kRow = k * n;
+            for (int i = 0; i < n; i++) {
+                int ik = dist[i * n + k];
+                if (ik == NO_PATH) continue;
+                int iRow = i * n;
+                for (int j = 0; j < n; j++) {
+                    int through = ik + dist[kRow + j];
+                    if (through < dist[iRow + j]) {
+                        dist[iRow + j] = through;
+                    }
+                }
+            }
+        }
+        return dist;
+    }
+
+    public int getNCities() {
+        return cityNames.length;
+    }
+
+    public int getNEdges() {
+        return edgeComponentIDs.length;
+    }
+
+    /**
+     * @return the index of the named city, or -1 if it is not on the map
+     */
+    public int getCityIndex(String cityName) {
+        Integer index = cityIndex.get(cityName);
+        return index == null ? -1 : index;
+    }
+
+    public String getCityName(int city) {
+        return cityNames[city];
+    }
+
+    /**
+     * @return the index of the route with the given Edge component ID, or -1 if there is none
+     */
+    public int getEdgeIndex(int edgeComponentID) {
+        Integer index = edgeIndexByComponentID.get(edgeComponentID);
+        return index == null ? -1 : index;
+    }
+
+    public int getEdgeComponentID(int edge) {
+        return edgeComponentIDs[edge];
+    }
+
+    public int getEdgeCity1(int edge) {
+        return edgeCity1[edge];
+    }
+
+    public int getEdgeCity2(int edge) {
+        return edgeCity2[edge];
+    }
+
+    /**
+     * @return the city at the other end of the route from the given city
+     */
+    public int getOtherCity(int edge, int city) {
+        return edgeCity1[edge] == city ? edgeCity2[edge] : edgeCity1[edge];
+    }
+
+    public int getEdgeLength(int edge) {
+        return edgeLength[edge];
+    }
+
+    /**
+     * @return 2 for a double route, otherwise 1
+     */
+    public int getNTracks(int edge) {
+        return edgeTracks[edge];
+    }
+
+    /**
+     * @return the colours of the route, one per track (double routes have two). Do not modify.
+     */
+    public String[] getEdgeColors(int edge) {
+        return edgeColors[edge];
+    }
+
+    /**
+     * @return indices of the routes that touch the given city. Do not modify.
+     */
+    public int[] getCityEdges(int city) {
+        return cityEdges[city];
+    }
+
+    /**
+     * @return slots of the tracks that are paid for with the given colour, shortest first. Do not modify.
+     */
+    public int[] getSlotsPayableBy(TrainCar color) {
+        return slotsByColor[color.ordinal()];
+    }
+
+    /**
+     * @return indices of the gray routes, shortest first. Do not modify.
+     */
+    public int[] getGrayEdges() {
+        return grayEdges;
+    }
+
+    /**
+     * @return the fewest train cars needed to join the two cities on an empty board, or {@link #NO_PATH}
+     */
+    public int getDistance(int city1, int city2) {
+        return distances[city1 * cityNames.length + city2];
+    }
+
+    /**
+     * @return the distances between all pairs of cities on an empty board, [city1 * nCities + city2]. Do not modify.
+     */
+    int[] getDistances() {
+        return distances;
+    }
+
+    /**
+     * @return the (shared, immutable) action for the player to claim the given track
+     */
+    public ClaimRoute getClaimRoute(int playerId, int edge, int track) {
+        return claimRoutes[playerId][edge * 2 + track];
+    }
+}
@@ -0,0 +1,188 @@
+package games.tickettoride;
+
+import java.util.Arrays;
+
+/**
+ * <p>Per player record of claimed routes, indexed by the city and edge indices of a {@link RouteGraph}.</p>
+ * <p>For every player this keeps a union-find (disjoint set) over the cities, so that "are these two cities
+ * connected by this player's routes" is answered in near-constant time rather than by a graph search over
+ * the whole board. Routes are only ever added in Ticket to Ride, never removed, so the union-find only needs
+ * to support union (and taking back the last union, for undo). Union is by size, which keeps the trees
+ * shallow without path compression.</p>
+ * <p>The owner of each track of each route is kept, so that the claimable routes can be found without
+ * reading the board properties.</p>
+ * <p>A bitset of the claimed edge indices is also kept per player. The longest continuous route of each
+ * player is computed from this by {@link LongestRouteSolver} the first time it is asked for, and cached until the
+ * player's routes change.</p>
+ * <p>Only {@link #addRoute(int, int, int)} and {@link #removeRoute(int, int, int, int)} change the routes. The
+ * cache of the longest route is filled in as for String.hashCode(): the whole value is computed into a local and
+ * then written in one int store, and it depends only on the routes. So threads that read the same structure at
+ * once at worst each compute it, and never see a partial value.</p>
+ */
+public class RouteNetworks {
+
+    private final RouteGraph graph;
+    private final int[][] parent;
+    private final int[][] size;
+    private final long[][] claimedEdges;
+    private final int[] longestRoute; // NOT_COMPUTED until asked for after a change of the player's routes
+    private final int[] trackOwner; // [edge * 2 + track], -1 if unclaimed, NO_TRACK on single routes
+
+    private static final int NO_TRACK = -2;
+    private static final int NOT_COMPUTED = -1;
+
+    public RouteNetworks(RouteGraph graph, int nPlayers) {
+        this.graph = graph;
+        int nCities = graph.getNCities();
+        parent = new int[nPlayers][nCities];
+        size = new int[nPlayers][nCities];
+        claimedEdges = new long[nPlayers][(graph.getNEdges() + 63) / 64];
+        longestRoute = new int[nPlayers];
+        trackOwner = new int[graph.getNEdges() * 2];
+        Arrays.fill(trackOwner, -1);
+        for (int e = 0; e < graph.getNEdges(); e++) {
+            if (graph.getNTracks(e) < 2) {
+                trackOwner[e * 2 + 1] = NO_TRACK;
+            }
+        }
+        for (int p = 0; p < nPlayers; p++) {
+            for (int c = 0; c < nCities; c++) {
+                parent[p][c] = c;
+                size[p][c] = 1;
+            }
+        }
+    }
+
+    private RouteNetworks(RouteNetworks other) {
+        this.graph = other.graph;
+        int nPlayers = other.parent.length;
+        parent = new int[nPlayers][];
+        size = new int[nPlayers][];
+        claimedEdges = new long[nPlayers][];
+        for (int p = 0; p < nPlayers; p++) {
+            parent[p] = other.parent[p].clone();
+            size[p] = other.size[p].clone();
+            claimedEdges[p] = other.claimedEdges[p].clone();
+        }
+        longestRoute = other.longestRoute.clone();
+        trackOwner = other.trackOwner.clone();
+    }
+
+    public RouteNetworks copy() {
+        return new RouteNetworks(this);
+    }
+
+    public RouteGraph getGraph() {
+        return graph;
+    }
+
+    /**
+     * Records that the player has claimed the given track of the route with the given edge index.
+     * @return the city that was the root of the set joined onto another, or -1 if the two cities were already
+     * connected; this is needed by {@link #removeRoute(int, int, int, int)}
+     */
+    public int addRoute(int playerId, int edge, int track) {
+        trackOwner[edge * 2 + track] = playerId;
+        claimedEdges[playerId][edge >>> 6] |= 1L << edge;
+        longestRoute[playerId] = NOT_COMPUTED;
+        int root1 = find(playerId, graph.getEdgeCity1(edge));
+        int root2 = find(playerId, graph.getEdgeCity2(edge));
+        if (root1 == root2) return -1;
+        int[] playerParent = parent[playerId];
+        int[] playerSize = size[playerId];
+        if (playerSize[root1] < playerSize[root2]) {
+            int tmp = root1;
+            root1 = root2;
+            root2 = tmp;
+        }
+        playerParent[root2] = root1;
+        playerSize[root1] += playerSize[root2];
+        return root2;
+    }
+
+    /**
+     * Reverses the last call to {@link #addRoute(int, int, int)}; routes must be removed in the reverse of the
+     * order they were added. As the union-find does not compress paths, this only has to split the one join.
+     * @param joinedRoot - the value returned by addRoute
+     */
+    public void removeRoute(int playerId, int edge, int track, int joinedRoot) {
+        trackOwner[edge * 2 + track] = -1;
+        claimedEdges[playerId][edge >>> 6] &= ~(1L << edge);
+        longestRoute[playerId] = NOT_COMPUTED;
+        if (joinedRoot == -1) return;
+        int[] playerParent = parent[playerId];
+        size[playerId][playerParent[joinedRoot]] -= size[playerId][joinedRoot];
+        playerParent[joinedRoot] = joinedRoot;
+    }
+
+    /**
+     * @return true if the two cities (by city index) are joined by a continuous path of the player's routes.
+     * A city is always considered connected to itself.
+     */
+    public boolean isConnected(int playerId, int city1, int city2) {
+        return find(playerId, city1) == find(playerId, city2);
+    }
+
+    /**
+     * @return the player who has claimed the track, -1 if it is unclaimed, or -2 if the route has no such track
+     */
+    public int getTrackOwner(int edge, int track) {
+        return trackOwner[edge * 2 + track];
+    }
+
+    /**
+     * @param doubleRoutes - true if both tracks of a route may be used (4 or more players); otherwise
+     *                     a route is closed as soon as either track is claimed
+     * @return true if the track is free, and the player may claim it (a player may not claim both tracks of a route)
+     */
+    public boolean isTrackClaimable(int playerId, int edge, int track, boolean doubleRoutes) {
+        int owner1 = trackOwner[edge * 2];
+        int owner2 = trackOwner[edge * 2 + 1];
+        if (!doubleRoutes && (owner1 >= 0 || owner2 >= 0)) return false;
+        return track == 0 ? owner1 == -1 && owner2 != playerId : owner2 == -1 && owner1 != playerId;
+    }
+
+    public boolean hasClaimed(int playerId, int edge) {
+        return (claimedEdges[playerId][edge >>> 6] & (1L << edge)) != 0;
+    }
+
+    /**
+     * @return the bitset of edge indices claimed by the player. Do not modify.
+     */
+    public long[] getClaimedEdges(int playerId) {
+        return claimedEdges[playerId];
+    }
+
+    /**
+     * @return the length (in train cars) of the longest continuous route the player has claimed
+     */
+    public int getLongestRoute(int playerId) {
+        int length = longestRoute[playerId];
+        if (length == NOT_COMPUTED) {
+            length = LongestRouteSolver.longestRoute(graph, claimedEdges[playerId]);
+            longestRoute[playerId] = length;
+        }
+        return length;
+    }
+
+    private int find(int playerId, int city) {
+        int[] playerParent = parent[playerId];
+        while (playerParent[city] != city) {
+            city = playerParent[city];
+        }
+        return city;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof RouteNetworks)) return false;
+        RouteNetworks that = (RouteNetworks) o;
+        return Arrays.equals(trackOwner, that.trackOwner);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(trackOwner);
+    }
+}
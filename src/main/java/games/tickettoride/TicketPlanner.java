@@ -0,0 +1,147 @@
+package games.tickettoride;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static games.tickettoride.RouteGraph.NO_PATH;
+
+/**
+ * <p>Keeps, for each player, the fewest train cars they still need to lay to join each pair of cities, so that
+ * the cost of completing a destination ticket can be read off without a graph search.
+ * A route the player has claimed costs nothing, a route they can still claim costs its length, and a route that
+ * no longer has a track they can claim cannot be used.</p>
+ * <p>At the start of the game every player's distances are the all pairs distances of the {@link RouteGraph}, which
+ * are computed once per board and shared. They are then kept up to date as routes are claimed:</p>
+ * <ul>
+ *     <li>For the player who claims a route its cost falls to zero, and the new distances are found straight away
+ *     by checking for each pair of cities whether a path through the route is now shorter.</li>
+ *     <li>For a player who can no longer claim the route (its cost rises), the distances only change if the
+ *     route was a shortest path between its own two cities. Only then are that player's distances marked stale,
+ *     and they are recomputed the next time they are read.</li>
+ * </ul>
+ * <p>The distance arrays are never changed once made: an update makes a new array for the player, and a stale
+ * player has none. So copies of the planner share the arrays without either having to know about the other. The
+ * arrays are held in an {@link AtomicReferenceArray}, so a thread that reads a planner while another fills in a
+ * stale player sees either no array (and computes its own) or a complete one.</p>
+ */
+public class TicketPlanner {
+
+    private final RouteGraph graph;
+    private final boolean doubleRoutes;
+    // [player] -> [city1 * nCities + city2], or null if stale; the arrays are shared with copies of this planner
+    private final AtomicReferenceArray<int[]> distances;
+
+    /**
+     * @param doubleRoutes - true if both tracks of a route may be used (4 or more players); otherwise
+     *                     a route is closed as soon as either track is claimed
+     */
+    public TicketPlanner(RouteGraph graph, int nPlayers, boolean doubleRoutes) {
+        this.graph = graph;
+        this.doubleRoutes = doubleRoutes;
+        distances = new AtomicReferenceArray<>(nPlayers);
+        for (int p = 0; p < nPlayers; p++) {
+            distances.set(p, graph.getDistances());
+        }
+    }
+
+    private TicketPlanner(TicketPlanner other) {
+        this.graph = other.graph;
+        this.doubleRoutes = other.doubleRoutes;
+        distances = new AtomicReferenceArray<>(other.distances.length());
+        for (int p = 0; p < distances.length(); p++) {
+            distances.set(p, other.distances.get(p));
+        }
+    }
+
+    public TicketPlanner copy() {
+        return new TicketPlanner(this);
+    }
+
+    /**
+     * Updates the distances of all players once the route has been claimed.
+     * Must be called after the route has been added to the networks.
+     * @return the players (one bit each) whose distances were marked stale; to give to
+     * {@link #routeUnclaimed(int, int[], int)} along with the claimer's distances from before the claim
+     */
+    public int routeClaimed(int playerId, int edge, RouteNetworks networks) {
+        int n = graph.getNCities();
+        int city1 = graph.getEdgeCity1(edge);
+        int city2 = graph.getEdgeCity2(edge);
+        int staled = 0;
+        for (int p = 0; p < distances.length(); p++) {
+            int[] dist = distances.get(p);
+            if (dist == null) continue;  // stale, so will be recomputed with the route anyway
+            if (p == playerId) {
+                dist = dist.clone();
+                int[] from1 = Arrays.copyOfRange(dist, city1 * n, city1 * n + n);
+                int[] from2 = Arrays.copyOfRange(dist, city2 * n, city2 * n + n);
+                for (int i = 0; i < n; i++) {
+                    int iRow = i * n;
+                    for (int j = 0; j < n; j++) {
+                        int through = Math.min(from1[i] + from2[j], from2[i] + from1[j]);
+                        if (through < dist[iRow + j]) {
+                            dist[iRow + j] = through;
+                        }
+                    }
+                }
+                distances.set(p, dist);
+            } else if (!networks.hasClaimed(p, edge) && !isClaimable(p, edge, networks)
+                    && dist[city1 * n + city2] >= graph.getEdgeLength(edge)) {
+                distances.set(p, null);
+                staled |= 1 << p;
+            }
+        }
+        return staled;
+    }
+
+    /**
+     * @return the player's distances, to give back to {@link #routeUnclaimed(int, int[], int)}; null if stale
+     */
+    int[] getDistances(int playerId) {
+        return distances.get(playerId);
+    }
+
+    /**
+     * Reverses {@link #routeClaimed(int, int, RouteNetworks)}, once the route has been removed from the networks.
+     * @param claimerDistances - the claimer's distances from before the claim, from {@link #getDistances(int)}
+     * @param staled           - the value returned by routeClaimed()
+     */
+    public void routeUnclaimed(int playerId, int[] claimerDistances, int staled) {
+        distances.set(playerId, claimerDistances);
+        for (int p = 0; p < distances.length(); p++) {
+            if ((staled & (1 << p)) != 0) {
+                distances.set(p, null);
+            }
+        }
+    }
+
+    /**
+     * @return the fewest train cars the player must still lay to join the two cities (by city index) with their
+     * own routes: 0 if they are already joined, or {@link RouteGraph#NO_PATH} if they can no longer be joined
+     */
+    public int getCarsNeeded(int playerId, int city1, int city2, RouteNetworks networks) {
+        int[] dist = distances.get(playerId);
+        if (dist == null) {
+            dist = shortestDistances(playerId, networks);
+            distances.set(playerId, dist);
+        }
+        return dist[city1 * graph.getNCities() + city2];
+    }
+
+    private boolean isClaimable(int playerId, int edge, RouteNetworks networks) {
+        return networks.isTrackClaimable(playerId, edge, 0, doubleRoutes)
+                || networks.isTrackClaimable(playerId, edge, 1, doubleRoutes);
+    }
+
+    private int[] shortestDistances(int playerId, RouteNetworks networks) {
+        int[] costs = new int[graph.getNEdges()];
+        for (int e = 0; e < costs.length; e++) {
+            if (networks.hasClaimed(playerId, e)) {
+                costs[e] = 0;
+            } else {
+                costs[e] = isClaimable(playerId, e, networks) ? graph.getEdgeLength(e) : NO_PATH;
+            }
+        }
+        return graph.shortestDistances(costs);
+    }
+}
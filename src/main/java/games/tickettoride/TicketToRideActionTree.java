@@ -0,0 +1,107 @@
+package games.tickettoride;
+
+import core.actions.AbstractAction;
+import utilities.ActionTreeNode;
+
+import java.util.Arrays;
+
+/**
+ * <p>The action tree of Ticket to Ride, for {@link core.interfaces.ITreeActionSpace}. Its shape depends only on the
+ * map, so is the same throughout a game:</p>
+ * <pre>
+ * root
+ *   DrawTrainCards
+ *   DrawDestinationTickets
+ *   ClaimRoute
+ *     one node per route (city1-city2, in RouteGraph edge order)
+ *       one leaf per track of the route (Track0_colour, and Track1_colour for double routes)
+ * </pre>
+ * <p>This is the root node of the tree. It also indexes the nodes of the tree, and keeps the tracks that were
+ * available at the last update, so that an update only needs to change the leaves whose availability has changed
+ * (as a route is claimed, or a player can or can no longer afford it). The forward model itself then stays stateless.</p>
+ */
+class TicketToRideActionTree extends ActionTreeNode {
+
+    private final RouteGraph graph;
+    private final ActionTreeNode drawTrainCards, drawTickets, claimRoute;
+    private final ActionTreeNode[] routeNodes; // by edge
+    private final ActionTreeNode[] trackLeaves; // by slot (edge * 2 + track), null if the route has no such track
+    private final boolean[] available; // by slot, as at the last update
+    private final boolean[] claimable; // by slot, filled in during an update
+    private final int[] availableTracks; // by edge
+    private int availableRoutes;
+    private int player = -1;
+
+    TicketToRideActionTree(RouteGraph graph) {
+        super(0, "root");
+        this.graph = graph;
+        drawTrainCards = addChild(0, "DrawTrainCards");
+        drawTickets = addChild(0, "DrawDestinationTickets");
+        claimRoute = addChild(0, "ClaimRoute");
+        int nEdges = graph.getNEdges();
+        routeNodes = new ActionTreeNode[nEdges];
+        trackLeaves = new ActionTreeNode[nEdges * 2];
+        for (int e = 0; e < nEdges; e++) {
+            routeNodes[e] = claimRoute.addChild(0,
+                    graph.getCityName(graph.getEdgeCity1(e)) + "-" + graph.getCityName(graph.getEdgeCity2(e)));
+            String[] colors = graph.getEdgeColors(e);
+            for (int track = 0; track < graph.getNTracks(e); track++) {
+                trackLeaves[e * 2 + track] = routeNodes[e].addChild(0, "Track" + track + "_" + colors[Math.min(track, colors.length - 1)]);
+            }
+        }
+        available = new boolean[nEdges * 2];
+        claimable = new boolean[nEdges * 2];
+        availableTracks = new int[nEdges];
+    }
+
+    /**
+     * Starts an update; the tracks that can be claimed are then given to {@link #markClaimable(int)}, before
+     * {@link #endUpdate(int, AbstractAction, AbstractAction)} sets the tree to match
+     */
+    void beginUpdate() {
+        Arrays.fill(claimable, false);
+    }
+
+    void markClaimable(int slot) {
+        claimable[slot] = true;
+    }
+
+    /**
+     * @param drawTrainCardsAction - the action to draw train cards, or null if it is not available
+     * @param drawTicketsAction    - the action to draw destination tickets, or null if it is not available
+     */
+    void endUpdate(int playerId, AbstractAction drawTrainCardsAction, AbstractAction drawTicketsAction) {
+        setAction(drawTrainCards, drawTrainCardsAction);
+        setAction(drawTickets, drawTicketsAction);
+        boolean newPlayer = playerId != player;
+        player = playerId;
+        for (int slot = 0; slot < claimable.length; slot++) {
+            int edge = slot / 2;
+            if (claimable[slot] != available[slot]) {
+                available[slot] = claimable[slot];
+                if (claimable[slot]) {
+                    if (availableTracks[edge]++ == 0) availableRoutes++;
+                    trackLeaves[slot].setAction(graph.getClaimRoute(playerId, edge, slot % 2));
+                } else {
+                    trackLeaves[slot].clearAction();
+                    if (--availableTracks[edge] == 0) {
+                        availableRoutes--;
+                        routeNodes[edge].setValue(0);
+                    }
+                }
+            } else if (claimable[slot] && newPlayer) {
+                // the actions are specific to the player
+                trackLeaves[slot].setAction(graph.getClaimRoute(playerId, edge, slot % 2));
+            }
+        }
+        claimRoute.setValue(availableRoutes > 0 ? 1 : 0);
+    }
+
+    private static void setAction(ActionTreeNode node, AbstractAction action) {
+        if (action == null) {
+            node.clearAction();
+        } else {
+            node.setAction(action);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package games.tickettoride;
 
+import core.properties.PropertySchema;
 import utilities.Hash;
 
 public class TicketToRideConstants {
@@ -32,4 +33,19 @@ public class TicketToRideConstants {
     public final static int location1Hash = Hash.GetInstance().hash("location1");
     public final static int location2Hash = Hash.GetInstance().hash("location2");
 
+    // Typed layout of the claim properties of routes (board edges), which change during the game.
+    // Routes with a second track use doubleRouteSchema; the slots shared by both schemas have the same index.
+    public final static PropertySchema singleRouteSchema = new PropertySchema.Builder()
+            .addInt("claimedByPlayerRoute1")
+            .addBoolean("routeClaimed")
+            .build();
+    public final static PropertySchema doubleRouteSchema = new PropertySchema.Builder()
+            .addInt("claimedByPlayerRoute1")
+            .addBoolean("routeClaimed")
+            .addInt("claimedByPlayerRoute2")
+            .build();
+    public final static int claimedByPlayerRoute1Slot = doubleRouteSchema.getSlot("claimedByPlayerRoute1");
+    public final static int claimedByPlayerRoute2Slot = doubleRouteSchema.getSlot("claimedByPlayerRoute2");
+    public final static int routeClaimedSlot = doubleRouteSchema.getSlot("routeClaimed");
+
 }
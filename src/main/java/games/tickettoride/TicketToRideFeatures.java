@@ -0,0 +1,184 @@
+package games.tickettoride;
+
+import core.AbstractGameData;
+import core.AbstractGameState;
+import core.components.Card;
+import core.components.Deck;
+import core.interfaces.IStateFeatureVector;
+import core.properties.PropertyString;
+import games.tickettoride.TicketToRideParameters.TrainCar;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static games.tickettoride.TicketToRideConstants.*;
+
+/**
+ * <p>Fixed width feature vector for Ticket to Ride, for use by PyTAG and by learners such as
+ * {@link evaluation.features.StateKeyFromFeatureVector}. The width depends only on the map, not on the number of
+ * players, so the same network can be trained on games with any number of players.</p>
+ * <p>Players are given relative to the observing player: player 0 in the features is the observer, player 1 is the
+ * next to play after them, and so on, up to {@link #MAX_PLAYERS}. Features of players not in the game are 0.
+ * The features are, in order:</p>
+ * <ul>
+ *     <li>Route ownership: for every route and relative player, 1 if that player has claimed a track of it</li>
+ *     <li>The number of train cards of each colour in the observer's hand</li>
+ *     <li>The train cars each player has left</li>
+ *     <li>For every destination ticket of the map: 1 if the observer holds it, and 1 if they have completed it</li>
+ *     <li>The length of each player's longest continuous route</li>
+ *     <li>Each player's score</li>
+ * </ul>
+ * <p>{@link #featureVector(TicketToRideGameState, int, double[])} writes into a buffer, so that a caller that
+ * encodes many states (for example during RL training) need not allocate a new array for each.</p>
+ */
+public class TicketToRideFeatures implements IStateFeatureVector {
+
+    public static final int MAX_PLAYERS = 5;
+
+    private final int nRoutes;
+    private final int nCities;
+    // [city1 * nCities + city2] (in both orders) -> index of the destination ticket between the cities, or -1
+    private final int[] ticketIndex;
+    private final int nTickets;
+    private final String[] names;
+
+    // offsets of each block of features
+    private final int handOffset, trainCarsOffset, ticketOffset, longestRouteOffset, scoreOffset;
+
+    public TicketToRideFeatures() {
+        this("data/tickettoride/");
+    }
+
+    /**
+     * @param dataPath - the directory of the game data, from which the map and destination tickets are read
+     */
+    public TicketToRideFeatures(String dataPath) {
+        AbstractGameData data = AbstractGameData.getTemplate(dataPath);
+        RouteGraph graph = new RouteGraph(data.findGraphBoardWithEdges("locations"), 0);
+        nRoutes = graph.getNEdges();
+        nCities = graph.getNCities();
+
+        List<String> featureNames = new ArrayList<>();
+        for (int e = 0; e < nRoutes; e++) {
+            String route = graph.getCityName(graph.getEdgeCity1(e)) + "-" + graph.getCityName(graph.getEdgeCity2(e));
+            for (int p = 0; p < MAX_PLAYERS; p++) {
+                featureNames.add("ROUTE_" + route + "_P" + p);
+            }
+        }
+        handOffset = featureNames.size();
+        for (TrainCar color : TrainCar.values()) {
+            featureNames.add("HAND_" + color.name().toUpperCase());
+        }
+        trainCarsOffset = featureNames.size();
+        for (int p = 0; p < MAX_PLAYERS; p++) {
+            featureNames.add("TRAIN_CARS_P" + p);
+        }
+        ticketOffset = featureNames.size();
+        ticketIndex = new int[nCities * nCities];
+        Arrays.fill(ticketIndex, -1);
+        int tickets = 0;
+        Deck<Card> destinationTickets = data.findDeck("DestinationTickets");
+        for (Card ticket : destinationTickets.getComponents()) {
+            int city1 = graph.getCityIndex(((PropertyString) ticket.getProperty(location1Hash)).value);
+            int city2 = graph.getCityIndex(((PropertyString) ticket.getProperty(location2Hash)).value);
+            ticketIndex[city1 * nCities + city2] = tickets;
+            ticketIndex[city2 * nCities + city1] = tickets;
+            String name = graph.getCityName(city1) + "-" + graph.getCityName(city2);
+            featureNames.add("TICKET_HELD_" + name);
+            featureNames.add("TICKET_COMPLETE_" + name);
+            tickets++;
+        }
+        nTickets = tickets;
+        longestRouteOffset = featureNames.size();
+        for (int p = 0; p < MAX_PLAYERS; p++) {
+            featureNames.add("LONGEST_ROUTE_P" + p);
+        }
+        scoreOffset = featureNames.size();
+        for (int p = 0; p < MAX_PLAYERS; p++) {
+            featureNames.add("SCORE_P" + p);
+        }
+        names = featureNames.toArray(new String[0]);
+    }
+
+    @Override
+    public String[] names() {
+        return names;
+    }
+
+    public int getObservationSpace() {
+        return names.length;
+    }
+
+    @Override
+    public double[] featureVector(AbstractGameState state, int playerID) {
+        double[] retValue = new double[names.length];
+        featureVector((TicketToRideGameState) state, playerID, retValue);
+        return retValue;
+    }
+
+    @Override
+    public void featureVector(AbstractGameState state, int playerID, double[] buffer) {
+        featureVector((TicketToRideGameState) state, playerID, buffer);
+    }
+
+    /**
+     * Writes the features of the state, as seen by the player, into the buffer (which is overwritten)
+     *
+     * @param buffer - at least {@link #getObservationSpace()} long
+     */
+    public void featureVector(TicketToRideGameState state, int playerID, double[] buffer) {
+        RouteGraph graph = state.getRouteGraph();
+        if (graph.getNEdges() != nRoutes || graph.getNCities() != nCities) {
+            throw new IllegalArgumentException("The state is of a different map to the one these features were made for");
+        }
+        Arrays.fill(buffer, 0, names.length, 0.0);
+        int nPlayers = state.getNPlayers();
+
+        RouteNetworks networks = state.getRouteNetworks();
+        for (int e = 0; e < nRoutes; e++) {
+            for (int track = 0; track < 2; track++) {
+                int owner = networks.getTrackOwner(e, track);
+                if (owner >= 0) {
+                    buffer[e * MAX_PLAYERS + relativePlayer(owner, playerID, nPlayers)] = 1.0;
+                }
+            }
+        }
+
+        int[] hand = state.getTrainCardCounts(playerID);
+        for (int c = 0; c < hand.length; c++) {
+            buffer[handOffset + c] = hand[c];
+        }
+
+        Deck<Card> tickets = (Deck<Card>) state.getComponentActingPlayer(playerID, playerDestinationHandHash);
+        for (Card ticket : tickets.getComponents()) {
+            int city1 = graph.getCityIndex(((PropertyString) ticket.getProperty(location1Hash)).value);
+            int city2 = graph.getCityIndex(((PropertyString) ticket.getProperty(location2Hash)).value);
+            int index = city1 == -1 || city2 == -1 ? -1 : ticketIndex[city1 * nCities + city2];
+            if (index == -1) continue;
+            buffer[ticketOffset + index * 2] = 1.0;
+            if (networks.isConnected(playerID, city1, city2)) {
+                buffer[ticketOffset + index * 2 + 1] = 1.0;
+            }
+        }
+
+        int[] scores = state.getScores();
+        for (int p = 0; p < nPlayers && p < MAX_PLAYERS; p++) {
+            int relative = relativePlayer(p, playerID, nPlayers);
+            buffer[trainCarsOffset + relative] = state.getTrainCars(p);
+            buffer[longestRouteOffset + relative] = state.getLongestRouteLength(p);
+            buffer[scoreOffset + relative] = scores[p];
+        }
+    }
+
+    /**
+     * @return the number of destination tickets on the map (each has two features)
+     */
+    public int getNTickets() {
+        return nTickets;
+    }
+
+    private static int relativePlayer(int player, int observer, int nPlayers) {
+        return (player - observer + nPlayers) % nPlayers;
+    }
+}
@@ -5,10 +5,13 @@ import core.AbstractGameState;
 import core.StandardForwardModel;
 import core.actions.AbstractAction;
 import core.actions.DrawCard;
+import core.interfaces.ITreeActionSpace;
 import core.components.*;
 import core.properties.*;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
 
 import static core.CoreConstants.VisibilityMode.HIDDEN_TO_ALL;
 import static core.CoreConstants.VisibilityMode.VISIBLE_TO_ALL;
@@ -19,6 +22,7 @@ import static games.tickettoride.TicketToRideConstants.*;
 import games.tickettoride.actions.ClaimRoute;
 import games.tickettoride.actions.DrawDestinationTicketCards;
 import games.tickettoride.actions.DrawTrainCards;
+import utilities.ActionTreeNode;
 import utilities.Hash;
 
 /**
@@ -32,7 +36,7 @@ import utilities.Hash;
  */
 
 
-public class TicketToRideForwardModel extends StandardForwardModel {
+public class TicketToRideForwardModel extends StandardForwardModel implements ITreeActionSpace {
 
     /**
      * Initializes all variables in the given game state. Performs initial game setup according to game rules, e.g.:
@@ -55,8 +59,8 @@ public class TicketToRideForwardModel extends StandardForwardModel {
         state.areas = new HashMap<>();
         state.scores = new int[state.getNPlayers()];
         state.trainCars = new int[state.getNPlayers()];
-        AbstractGameData _data = new AbstractGameData();
-        _data.load(tp.getDataPath());
+        state.trainCardCounts = new int[state.getNPlayers()][TicketToRideParameters.TrainCar.values().length];
+        AbstractGameData _data = AbstractGameData.getTemplate(tp.getDataPath());
 
         for (int i = 0; i < state.getNPlayers(); i++) {
             state.setTrainCars(i,tp.nInitialTrainCars); //default amount of train cars(35) per player, used to dictate end of game when <= 2
@@ -80,7 +84,14 @@ public class TicketToRideForwardModel extends StandardForwardModel {
         state.areas.put(-1, gameArea);
 
         state.world = _data.findGraphBoardWithEdges("locations");
+        state.worldUsers = new AtomicInteger(1);
         gameArea.putComponent(ticketToRideBoardHash, state.world);
+        for (Edge edge : state.world.getBoardEdges()) { //claims are held in typed slots, see TicketToRideConstants
+            edge.setSchema(edge.getProperty(claimedByPlayerRoute2Hash) == null ? singleRouteSchema : doubleRouteSchema);
+        }
+        state.routeGraph = new RouteGraph(state.world, state.getNPlayers());
+        state.routeNetworks = new RouteNetworks(state.routeGraph, state.getNPlayers());
+        state.ticketPlanner = new TicketPlanner(state.routeGraph, state.getNPlayers(), state.getNPlayers() >= 4);
 
 
 
@@ -113,7 +124,7 @@ public class TicketToRideForwardModel extends StandardForwardModel {
             Deck<Card> playerTrainCardHandDeck = (Deck<Card>) playerArea.getComponent(playerHandHash);
             Deck<Card> playerDestinationCardHandDeck = (Deck<Card>) playerArea.getComponent(TicketToRideConstants.playerDestinationHandHash);
             for (int j = 0; j < tp.nInitialTrainCards; j++) {
-                new DrawCard(trainCardDeck.getComponentID(), playerTrainCardHandDeck.getComponentID()).execute(state);
+                state.drawTrainCard(i);
             }
             for (int j = 0; j < tp.nInitialDestinationCards; j++) {
                 new DrawCard(destinationCardDeck.getComponentID(), playerDestinationCardHandDeck.getComponentID()).execute(state);
@@ -167,25 +178,13 @@ public class TicketToRideForwardModel extends StandardForwardModel {
     @Override
     protected List<AbstractAction> _computeAvailableActions(AbstractGameState gameState) {
         TicketToRideGameState tg = (TicketToRideGameState) gameState;
-        int trainCardsRequiredHashKey = Hash.GetInstance().hash("trainCardsRequired");
-        int colorHashKey = Hash.GetInstance().hash("color");
 
         List<AbstractAction> actions = new ArrayList<>();
         int playerId = tg.getCurrentPlayer();
-        Deck<Card> playerTrainCardDeck = (Deck<Card>) tg.getComponent(trainCardDeckHash);
         Deck<Card> playerDestinationCardDeck = (Deck<Card>) tg.getComponent(destinationCardDeckHash);
-        Deck<Card> trainCardDiscardDeck = (Deck<Card>) tg.getComponent(trainCardDeckDiscardHash);
-
-        if (playerTrainCardDeck.getSize() < 2){ // shuffle discard into deck
-            //System.out.println("Shuffle discard into deck before" + " train card size:" + playerTrainCardDeck.getSize() + " discard size: " + trainCardDiscardDeck.getSize());
-            trainCardDiscardDeck.shuffle(tg.getRnd());
-            playerTrainCardDeck.add(trainCardDiscardDeck);
-            trainCardDiscardDeck.clear();
-
-        }
 
-        int deckSize = playerTrainCardDeck.getSize();
-        if (playerTrainCardDeck.getSize() >= 2){ //to do: shuffle discard into deck
+        // the discard pile is shuffled back into the deck by DrawTrainCards when the deck runs short
+        if (tg.getTrainCardsToDraw() >= 2){
             actions.add(new DrawTrainCards(playerId));
         } else {
             actions.removeIf(a -> a instanceof DrawTrainCards);
@@ -195,63 +194,93 @@ public class TicketToRideForwardModel extends StandardForwardModel {
             actions.add(new DrawDestinationTicketCards(playerId));
         }
 
-        //System.out.println(playerId + " in compute action");
-
-        List<Edge> allRoutesAvailable = tg.getAvailableRoutes();
-        HashMap<Edge, List<Integer>> routesAvailableToBuy = tg.getAffordableRoutes(allRoutesAvailable);  //key of edges, indexs of which color to buy
-
-        if (!routesAvailableToBuy.isEmpty()) {
-
-            for (Map.Entry<Edge, List<Integer>> currentRoute : routesAvailableToBuy.entrySet()) { //add every route available to list of actions
-
-                Edge currentEdge = currentRoute.getKey();
-
-                Property nodeProp = currentEdge.getProperty(nodesHash);
-                String[] nodes = ((PropertyStringArray) nodeProp).getValues();
-
-                Property trainCardsRequiredProp = currentEdge.getProperty(trainCardsRequiredHashKey);
-                int trainCardsRequired = ((PropertyInt) trainCardsRequiredProp).value;
-
-                List<Integer> indexesOfColors = routesAvailableToBuy.get(currentEdge);
-                Property colorProp = currentEdge.getProperty(colorHashKey);
-                int edgeId = currentEdge.getComponentID();
-                String[] colorsOfRoute = ((PropertyStringArray) colorProp).getValues();
-//                System.out.println(colorsOfRoute + " is the colors");
-//                System.out.println(indexesOfColors  + " indexs of color");
-                boolean firstAdded = false; //prevent both gray actions  going into action list for double route
-                for (int i = 0; i < indexesOfColors.size(); i++){
-                    String colorOfRoute;
-                    if (i < colorsOfRoute.length && indexesOfColors.get(i) < colorsOfRoute.length ){ //need to check because gray double routes, colorsOfRoute would be len = 1 but 2 of them could be available
-                        colorOfRoute = colorsOfRoute[indexesOfColors.get(i)];
-                        firstAdded = true;
-                        actions.add(new ClaimRoute(edgeId,playerId, colorOfRoute, trainCardsRequired, indexesOfColors.get(i), nodes[0], nodes[1]));
-                    } else{
-                        if (!firstAdded){ //if true, means one of the grey routes has been added, so dont add it again
-                            firstAdded = true;
-                            colorOfRoute = colorsOfRoute[0];
-                            actions.add(new ClaimRoute(edgeId,playerId, colorOfRoute, trainCardsRequired, indexesOfColors.get(i), nodes[0], nodes[1]));
-
-                        }
-
-                    }
-
-//
-//                    System.out.println("In for loop for routes available to buy " + currentEdge.getProperties());
-
+        addClaimRouteActions(tg, playerId, actions);
 
+        return actions;
+    }
 
+    /**
+     * Adds an action for every route track the player can currently claim.
+     * The actions themselves are shared instances, created once per game.
+     */
+    private void addClaimRouteActions(TicketToRideGameState tg, int playerId, List<AbstractAction> actions) {
+        RouteGraph graph = tg.getRouteGraph();
+        forEachClaimableTrack(tg, playerId, slot -> actions.add(graph.getClaimRoute(playerId, slot / 2, slot % 2)));
+    }
 
-                   /* ClaimRoute claimRouteAction = new ClaimRoute(currentEdge,playerId, colorOfRoute, trainCardsRequired, indexesOfColors.get(i));
-                    if (!actions.contains(claimRouteAction)){
-                        actions.add(claimRouteAction);
-                    }*/
+    /**
+     * Gives the slot ({@code edge * 2 + track}) of every route track the player can currently claim. Only the tracks
+     * the player can afford are looked at, using the per-colour index in {@link RouteGraph} (sorted by length, so
+     * each list is cut off at the first route that is too long), and track ownership from {@link RouteNetworks}.
+     */
+    private void forEachClaimableTrack(TicketToRideGameState tg, int playerId, IntConsumer slots) {
+        RouteGraph graph = tg.getRouteGraph();
+        RouteNetworks networks = tg.getRouteNetworks();
+        int[] playerTrainCards = tg.getTrainCardCounts(playerId);
+        int locomotives = playerTrainCards[TicketToRideParameters.TrainCar.Locomotive.ordinal()];
+        int playerTrainCars = tg.getTrainCars(playerId); //players must have sufficient train cars
+        boolean doubleRoutes = tg.getNPlayers() >= 4; //in 4+ players, double routes open up
+
+        for (TicketToRideParameters.TrainCar color : TicketToRideParameters.TrainCar.values()) {
+            if (color == TicketToRideParameters.TrainCar.Locomotive) continue;
+            int affordableLength = Math.min(playerTrainCars, playerTrainCards[color.ordinal()] + locomotives);
+            for (int slot : graph.getSlotsPayableBy(color)) {
+                int edge = slot / 2;
+                if (graph.getEdgeLength(edge) > affordableLength) break;
+                if (networks.isTrackClaimable(playerId, edge, slot % 2, doubleRoutes)) {
+                    slots.accept(slot);
                 }
+            }
+        }
 
+        // gray routes can be claimed with any one colour; only one action is given per route, for the first free track
+        int affordableGrayLength = Math.min(playerTrainCars, tg.getMostCardsForGrayRoute(playerId));
+        for (int edge : graph.getGrayEdges()) {
+            if (graph.getEdgeLength(edge) > affordableGrayLength) break;
+            if (networks.isTrackClaimable(playerId, edge, 0, doubleRoutes)) {
+                slots.accept(edge * 2);
+            } else if (networks.isTrackClaimable(playerId, edge, 1, doubleRoutes)) {
+                slots.accept(edge * 2 + 1);
             }
+        }
+    }
+
+    @Override
+    public ActionTreeNode initActionTree(AbstractGameState gameState) {
+        return new TicketToRideActionTree(((TicketToRideGameState) gameState).getRouteGraph());
+    }
 
+    /**
+     * Sets the tree to the actions available to the current player. Only the leaves of the tracks whose
+     * availability has changed since the last update of the tree are changed (or all of them when the
+     * player changes, as the actions are specific to the player).
+     * @param root - a tree from {@link #initActionTree(AbstractGameState)}
+     */
+    @Override
+    public ActionTreeNode updateActionTree(ActionTreeNode root, AbstractGameState gameState) {
+        TicketToRideGameState tg = (TicketToRideGameState) gameState;
+        if (!(root instanceof TicketToRideActionTree actionTree)) {
+            throw new IllegalArgumentException("The action tree must be one made by initActionTree()");
         }
+        int playerId = tg.getCurrentPlayer();
+        Deck<Card> destinationCardDeck = (Deck<Card>) tg.getComponent(destinationCardDeckHash);
+        actionTree.beginUpdate();
+        forEachClaimableTrack(tg, playerId, actionTree::markClaimable);
+        actionTree.endUpdate(playerId,
+                tg.getTrainCardsToDraw() >= 2 ? new DrawTrainCards(playerId) : null,
+                destinationCardDeck.getSize() > 1 ? new DrawDestinationTicketCards(playerId) : null);
+        return root;
+    }
 
-        return actions;
+    /**
+     * All changes made by the actions and by the end of turn and end of game rules are recorded by the
+     * game state methods that make them. The one random event, shuffling the discard pile back into the train card
+     * deck, records the pile it shuffled, so undo restores it exactly. The state's random number generator is not
+     * wound back, so an action that is undone and played again is a new draw of the shuffle.
+     */
+    @Override
+    public boolean supportsUndo() {
+        return true;
     }
 
     @Override
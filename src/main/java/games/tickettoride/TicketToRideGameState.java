@@ -2,20 +2,19 @@ package games.tickettoride;
 
 import core.AbstractGameState;
 import core.AbstractParameters;
+import core.UndoLog;
 import core.components.*;
 import core.interfaces.IGamePhase;
-import core.properties.Property;
-import core.properties.PropertyBoolean;
 import core.properties.PropertyInt;
-import core.properties.PropertyStringArray;
 import games.GameType;
+import games.tickettoride.TicketToRideParameters.TrainCar;
 
-import utilities.Hash;
+import utilities.Zobrist;
 
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
-import static core.CoreConstants.colorHash;
 import static core.CoreConstants.playerHandHash;
 import static games.tickettoride.TicketToRideConstants.*;
 import static games.tickettoride.TicketToRideConstants.trainCardsRequiredHash;
@@ -37,9 +36,20 @@ public class  TicketToRideGameState extends AbstractGameState {
 
     HashMap<Integer, Area> areas;
     GraphBoardWithEdges world;
+    // The number of copies of this state that may reference world, shared by all of them. The board is copied before
+    // a route is claimed if there is more than one. Copying only ever increments it, so copying does not otherwise
+    // write to the state copied, and concurrent copies of one state are safe. It may count copies that have since
+    // been discarded, which only means that a board is copied when it need not have been.
+    AtomicInteger worldUsers;
+    RouteGraph routeGraph; // immutable, shared between copies
+    RouteNetworks routeNetworks; // routes claimed by each player, kept up to date by ClaimRoute
+    TicketPlanner ticketPlanner; // train cars each player needs to join two cities, kept up to date with routeNetworks
 
     protected int[] scores;
     protected int[] trainCars;
+    // Number of train cards of each colour in each player's hand, indexed [player][TrainCar.ordinal()].
+    // Kept in step with the player's hand Deck, so that affordability checks do not need to count the Deck.
+    protected int[][] trainCardCounts;
 
     public enum TicketToRideGamePhase  implements IGamePhase {
         NormalGameRound,
@@ -55,6 +65,14 @@ public class  TicketToRideGameState extends AbstractGameState {
         return world;
     }
 
+    public RouteGraph getRouteGraph() {
+        return routeGraph;
+    }
+
+    public RouteNetworks getRouteNetworks() {
+        return routeNetworks;
+    }
+
 
     public TicketToRideGameState(AbstractParameters gameParameters, int nPlayers) {
         super(gameParameters, nPlayers);
@@ -107,22 +125,63 @@ public class  TicketToRideGameState extends AbstractGameState {
      */
     @Override
     protected TicketToRideGameState _copy(int playerId) {
-        TicketToRideGameState copy = new TicketToRideGameState(gameParameters.copy(), getNPlayers());
+        TicketToRideGameState copy = new TicketToRideGameState(gameParameters.copyIfMutable(), getNPlayers());
 
         copy.areas = new HashMap<>();
         for (int key : areas.keySet()) {
-            copy.areas.put(key, areas.get(key).copy());
+            if (key == -1) {
+                copy.areas.put(key, copyGameArea());
+            } else {
+                copy.areas.put(key, areas.get(key).copy());
+            }
         }
 
-        copy.world = world.copy();
+        // The board is only changed when a route is claimed, so is shared until then (see getRouteForUpdate)
+        copy.world = world;
+        copy.worldUsers = worldUsers;
+        worldUsers.incrementAndGet();
+        copy.routeGraph = routeGraph;
+        copy.routeNetworks = routeNetworks.copy();
+        copy.ticketPlanner = ticketPlanner.copy();
         copy.scores = Arrays.copyOf(scores, scores.length);
         copy.trainCars = Arrays.copyOf(trainCars, trainCars.length);
+        copy.trainCardCounts = new int[trainCardCounts.length][];
+        for (int i = 0; i < trainCardCounts.length; i++) {
+            copy.trainCardCounts[i] = trainCardCounts[i].clone();
+        }
         copy.currentFinalRoundTurn = currentFinalRoundTurn;
 
 
         return copy;
     }
 
+    // Copies the game area, except for the board which is shared
+    private Area copyGameArea() {
+        Area gameArea = areas.get(-1);
+        Area copy = gameArea.emptyCopy();
+        for (Map.Entry<Integer, Component> entry : gameArea.getComponentsMap().entrySet()) {
+            Component c = entry.getValue();
+            copy.putComponent(entry.getKey(), c == world ? world : c.copy());
+        }
+        return copy;
+    }
+
+    /**
+     * Returns the route (Edge) with the given component ID, so that its properties can be changed.
+     * If the board is shared with another copy of the state, this first gives this state its own copy of the board.
+     * Any other Edge or board references held from before this call must not be used afterwards.
+     */
+    public Edge getRouteForUpdate(int edgeComponentId) {
+        if (worldUsers.get() > 1) {
+            world = world.copy();
+            areas.get(-1).putComponent(ticketToRideBoardHash, world);
+            worldUsers.decrementAndGet();
+            worldUsers = new AtomicInteger(1);
+            addAllComponents();
+        }
+        return (Edge) getComponentById(edgeComponentId);
+    }
+
     /**
      * @param playerId - player observing the state.
      * @return a score for the given player approximating how well they are doing (e.g. how close they are to winning
@@ -150,17 +209,132 @@ public class  TicketToRideGameState extends AbstractGameState {
         return scores;
     }
 
+    // Features of the Zobrist key, which the methods below keep up to date. The order of the face-down decks is not
+    // included, so states that differ only in the order of hidden cards have the same key.
+    private static final int ZOBRIST_SCORE = 1, ZOBRIST_TRAIN_CARS = 2, ZOBRIST_TRAIN_CARDS = 3, ZOBRIST_DECK_SIZE = 4,
+            ZOBRIST_DESTINATION = 5, ZOBRIST_TRACK = 6, ZOBRIST_FINAL_ROUND = 7;
+    private static final int TRAIN_DECK = 0, DISCARD_DECK = 1, DESTINATION_DECK = 2;
+
+    @Override
+    public boolean hasZobristKey() {
+        return true;
+    }
+
+    @Override
+    protected long _computeZobristKey() {
+        long key = Zobrist.key(ZOBRIST_FINAL_ROUND, 0, currentFinalRoundTurn);
+        for (int p = 0; p < getNPlayers(); p++) {
+            key ^= Zobrist.key(ZOBRIST_SCORE, p, scores[p]) ^ Zobrist.key(ZOBRIST_TRAIN_CARS, p, trainCars[p]);
+            for (int c = 0; c < trainCardCounts[p].length; c++) {
+                key ^= Zobrist.key(ZOBRIST_TRAIN_CARDS, p * trainCardCounts[p].length + c, trainCardCounts[p][c]);
+            }
+            for (Card card : (Deck<Card>) getComponentActingPlayer(p, playerDestinationHandHash)) {
+                key ^= Zobrist.key(ZOBRIST_DESTINATION, card.getComponentID(), p);
+            }
+        }
+        key ^= Zobrist.key(ZOBRIST_DECK_SIZE, TRAIN_DECK, getDeckSize(trainCardDeckHash))
+                ^ Zobrist.key(ZOBRIST_DECK_SIZE, DISCARD_DECK, getDeckSize(trainCardDeckDiscardHash))
+                ^ Zobrist.key(ZOBRIST_DECK_SIZE, DESTINATION_DECK, getDeckSize(destinationCardDeckHash));
+        for (int e = 0; e < routeGraph.getNEdges(); e++) {
+            for (int t = 0; t < 2; t++) {
+                int owner = routeNetworks.getTrackOwner(e, t);
+                if (owner >= 0) {
+                    key ^= Zobrist.key(ZOBRIST_TRACK, e * 2 + t, owner);
+                }
+            }
+        }
+        return key;
+    }
+
+    private int getDeckSize(int deckHash) {
+        Deck<?> deck = (Deck<?>) getArea(-1).getComponent(deckHash);
+        return deck == null ? 0 : deck.getSize();
+    }
+
+    // called after the deck has changed size by the given amount
+    private void updateDeckSizeKey(int deck, int newSize, int change) {
+        updateZobristKey(Zobrist.change(ZOBRIST_DECK_SIZE, deck, newSize - change, newSize));
+    }
+
+    private void changeTrainCardCount(int playerId, int color, int change) {
+        int count = trainCardCounts[playerId][color];
+        updateZobristKey(Zobrist.change(ZOBRIST_TRAIN_CARDS, playerId * trainCardCounts[playerId].length + color, count, count + change));
+        trainCardCounts[playerId][color] = count + change;
+    }
+
+    // Changes made by the methods below are recorded in the undo log (if there is one), using these entries
+    private static final UndoLog.Entry UNDO_SCORE = (state, log) -> {
+        int score = log.popInt();
+        ((TicketToRideGameState) state).scores[log.popInt()] -= score;
+    };
+    private static final UndoLog.Entry UNDO_TRAIN_CARS = (state, log) -> {
+        int trainCars = log.popInt();
+        ((TicketToRideGameState) state).trainCars[log.popInt()] = trainCars;
+    };
+    private static final UndoLog.Entry UNDO_FINAL_ROUND_TURN =
+            (state, log) -> ((TicketToRideGameState) state).currentFinalRoundTurn = log.popInt();
+    private static final UndoLog.Entry UNDO_DRAW_TRAIN_CARD =
+            (state, log) -> ((TicketToRideGameState) state).undoDrawTrainCard(log.popInt());
+    private static final UndoLog.Entry UNDO_DISCARD_TRAIN_CARD = (state, log) -> {
+        int index = log.popInt();
+        ((TicketToRideGameState) state).undoDiscardTrainCard(log.popInt(), index);
+    };
+    private static final UndoLog.Entry UNDO_DRAW_DESTINATION_CARD =
+            (state, log) -> ((TicketToRideGameState) state).undoDrawDestinationCard(log.popInt());
+    private static final UndoLog.Entry UNDO_SHUFFLE_DISCARD =
+            (state, log) -> ((TicketToRideGameState) state).undoShuffleDiscard(log.popObject());
+    private static final UndoLog.Entry UNDO_CLAIMED_ROUTE = (state, log) -> {
+        int staled = log.popInt();
+        int[] claimerDistances = log.popObject();
+        int joinedRoot = log.popInt();
+        int track = log.popInt();
+        int edge = log.popInt();
+        int playerId = log.popInt();
+        TicketToRideGameState ttrState = (TicketToRideGameState) state;
+        ttrState.routeNetworks.removeRoute(playerId, edge, track, joinedRoot);
+        ttrState.ticketPlanner.routeUnclaimed(playerId, claimerDistances, staled);
+    };
+    private static final UndoLog.Entry UNDO_ROUTE_SLOTS = (state, log) -> {
+        boolean closed = log.popInt() == 1;
+        int owner2 = log.popInt();
+        int owner1 = log.popInt();
+        Edge edge = ((TicketToRideGameState) state).getRouteForUpdate(log.popInt());
+        edge.setInt(claimedByPlayerRoute1Slot, owner1);
+        if (edge.getSchema() == doubleRouteSchema) {
+            edge.setInt(claimedByPlayerRoute2Slot, owner2);
+        }
+        edge.setBoolean(routeClaimedSlot, closed);
+    };
+
     public void addScore(int playerID, int score) {
         if (playerID < scores.length) {
+            UndoLog log = getUndoLog();
+            if (log != null) {
+                log.pushInt(playerID);
+                log.pushInt(score);
+                log.record(UNDO_SCORE);
+            }
+            updateZobristKey(Zobrist.change(ZOBRIST_SCORE, playerID, scores[playerID], scores[playerID] + score));
             scores[playerID] += score;
         }
     }
 
     public void setTrainCars(int playerId, int defaultTrainCarAmount) {
         if (playerId < trainCars.length) {
+            recordTrainCars(playerId);
+            updateZobristKey(Zobrist.change(ZOBRIST_TRAIN_CARS, playerId, trainCars[playerId], defaultTrainCarAmount));
             trainCars[playerId] = defaultTrainCarAmount;
         }
     }
+
+    private void recordTrainCars(int playerId) {
+        UndoLog log = getUndoLog();
+        if (log != null) {
+            log.pushInt(playerId);
+            log.pushInt(trainCars[playerId]);
+            log.record(UNDO_TRAIN_CARS);
+        }
+    }
     public int getTrainCars(int playerId) {
         if (trainCars != null) {
             return trainCars[playerId];
@@ -175,184 +349,176 @@ public class  TicketToRideGameState extends AbstractGameState {
 
     public void deductTrainCars(int playerID, int numberOfTrainCars) { //train cars only reduce
         if (playerID < trainCars.length) {
+            recordTrainCars(playerID);
+            updateZobristKey(Zobrist.change(ZOBRIST_TRAIN_CARS, playerID, trainCars[playerID], trainCars[playerID] - numberOfTrainCars));
             trainCars[playerID] -= numberOfTrainCars;
         }
     }
     public int  getCurrentFinalRoundTurn() { return currentFinalRoundTurn;}
 
-    public void setCurrentFinalRoundTurn(int newCurrentFinalRoundTurn) { currentFinalRoundTurn = newCurrentFinalRoundTurn;}
-
-    public List<Edge> getAvailableRoutes() { //all unclaimed routes
-        List<Edge> availableRoutes = new ArrayList<>();
-
-        HashSet<Edge> boardEdges = (HashSet<Edge>) world.getBoardEdges();
-
-
-        int routeClaimedHashKey = Hash.GetInstance().hash("routeClaimed");
-        int nodesHashKey = Hash.GetInstance().hash("nodes");
-        for (Edge edge : boardEdges) {
-            HashMap<Integer, Property> allProps = edge.getProperties();
-            Property nodeProp = edge.getProperty(nodesHashKey);
-
-            String nodes = Arrays.toString(((PropertyStringArray) nodeProp).getValues());
-
-
-            Property routeClaimedProp = edge.getProperty(routeClaimedHashKey);
-            if (routeClaimedProp instanceof PropertyBoolean) {
-                boolean routeClaimed = ((PropertyBoolean) routeClaimedProp).value;
+    public void setCurrentFinalRoundTurn(int newCurrentFinalRoundTurn) {
+        UndoLog log = getUndoLog();
+        if (log != null) {
+            log.pushInt(currentFinalRoundTurn);
+            log.record(UNDO_FINAL_ROUND_TURN);
+        }
+        updateZobristKey(Zobrist.change(ZOBRIST_FINAL_ROUND, 0, currentFinalRoundTurn, newCurrentFinalRoundTurn));
+        currentFinalRoundTurn = newCurrentFinalRoundTurn;
+    }
 
-                if (!routeClaimed) {
-                    availableRoutes.add(edge);
-                }
+    /**
+     * @return the longest gray route the player can pay for, using their most common colour plus all locomotives
+     */
+    public int getMostCardsForGrayRoute(int playerId) {
+        int[] playerTrainCards = trainCardCounts[playerId];
+        int locomotives = playerTrainCards[TrainCar.Locomotive.ordinal()];
+        int most = locomotives;
+        for (TrainCar color : TrainCar.values()) {
+            if (color != TrainCar.Locomotive) {
+                most = Math.max(most, playerTrainCards[color.ordinal()] + locomotives);
             }
         }
-
-        return availableRoutes;
-
+        return most;
     }
 
-    HashMap<Edge, List<Integer>> getAffordableRoutes(List<Edge> allEdges) {
-
-        HashMap<Edge, List<Integer>> routesAvailableToBuy = new HashMap<Edge, List<Integer>>();
-
-        int currentPlayer = this.getCurrentPlayer();
-
-        int playerTrainCars = this.getTrainCars(currentPlayer); //players must have sufficient train cars
-
-        Deck<Card> playerTrainCardHandDeck = (Deck<Card>) this.getComponentActingPlayer(currentPlayer,playerHandHash);
-
-        for (Edge edge : allEdges) {
-
-            List<Integer> colorIndexesAvailable = new ArrayList<>();
-
-            Property colorProp = edge.getProperty(colorHash);
-
-            boolean route1Added = false;
-            boolean route2Added = false;
-            Property claimedByPlayerRoute1Prop = edge.getProperty(claimedByPlayerRoute1Hash);
-            Property claimedByPlayerRoute2Prop = edge.getProperty(claimedByPlayerRoute2Hash);
-
-            int claimedByPlayerRoute1 = ((PropertyInt) claimedByPlayerRoute1Prop).value;
-            int claimedByPlayerRoute2 = -2;
-            if (claimedByPlayerRoute2Prop != null) { //if one track route, this would not exist
-                claimedByPlayerRoute2 = ((PropertyInt) claimedByPlayerRoute2Prop).value;
+    /**
+     * Draws the top card of the train card deck into the player's hand.
+     * @return the card drawn, or null if the deck is empty
+     */
+    public Card drawTrainCard(int playerId) {
+        Deck<Card> trainCardDeck = (Deck<Card>) getArea(-1).getComponent(trainCardDeckHash);
+        Card card = trainCardDeck.draw();
+        if (card != null) {
+            ((Deck<Card>) getComponentActingPlayer(playerId, playerHandHash)).add(card);
+            changeTrainCardCount(playerId, TrainCar.valueOf(card.toString()).ordinal(), 1);
+            updateDeckSizeKey(TRAIN_DECK, trainCardDeck.getSize(), -1);
+            UndoLog log = getUndoLog();
+            if (log != null) {
+                log.pushInt(playerId);
+                log.record(UNDO_DRAW_TRAIN_CARD);
             }
+        }
+        return card;
+    }
 
-            Property trainCardsRequiredProp = edge.getProperty(trainCardsRequiredHash);
-
-
-            if (trainCardsRequiredProp instanceof PropertyInt) {
-
-                int trainCardsRequired = ((PropertyInt) trainCardsRequiredProp).value;
+    private void undoDrawTrainCard(int playerId) {
+        Card card = ((Deck<Card>) getComponentActingPlayer(playerId, playerHandHash)).draw();
+        ((Deck<Card>) getArea(-1).getComponent(trainCardDeckHash)).add(card);
+        trainCardCounts[playerId][TrainCar.valueOf(card.toString()).ordinal()]--;
+    }
 
-                if (playerTrainCars < trainCardsRequired) { //check player has enough train cars
-                    continue;
+    /**
+     * Moves the given number of cards of one colour from the player's hand to the train card discard pile.
+     * The player must hold at least that many.
+     */
+    public void discardTrainCards(int playerId, TrainCar color, int amount) {
+        if (amount <= 0) return;
+        Deck<Card> playerTrainCardHandDeck = (Deck<Card>) getComponentActingPlayer(playerId, playerHandHash);
+        Deck<Card> trainCardDiscardDeck = (Deck<Card>) getArea(-1).getComponent(trainCardDeckDiscardHash);
+        String colorName = color.name();
+        UndoLog log = getUndoLog();
+        int toRemove = amount;
+        for (int i = 0; i < playerTrainCardHandDeck.getSize() && toRemove > 0; i++) {
+            Card currentCard = playerTrainCardHandDeck.get(i);
+            if (currentCard.toString().equals(colorName)) {
+                trainCardDiscardDeck.add(currentCard);
+                playerTrainCardHandDeck.remove(i);
+                if (log != null) {
+                    log.pushInt(playerId);
+                    log.pushInt(i);
+                    log.record(UNDO_DISCARD_TRAIN_CARD);
                 }
+                i--;
+                toRemove--;
+            }
+        }
+        changeTrainCardCount(playerId, color.ordinal(), toRemove - amount);
+        updateDeckSizeKey(DISCARD_DECK, trainCardDiscardDeck.getSize(), amount - toRemove);
+    }
 
-                Map<String, Integer> playerTrainCards = this.getTrainCarCardAmounts(playerTrainCardHandDeck);
-                int currentAmountOfLocomotivesInHand = playerTrainCards.getOrDefault("Locomotive", 0);
-                if (colorProp instanceof PropertyStringArray) {
-                    String[] colorsOfRoute = (((PropertyStringArray) colorProp).getValues());
-//                    System.out.println("colors of route: " + colorsOfRoute);
-//                    System.out.println("color of route: " + colorsOfRoute[0]);
-
-                    if (colorsOfRoute[0].equals("Gray")) { //gray route claimable by any colour, so check every colour
-
-                        for (String color : playerTrainCards.keySet()) {
-
-                            int colorCount = playerTrainCards.get(color);
-
-                            if ((colorCount + currentAmountOfLocomotivesInHand) >= trainCardsRequired) {
-                                //System.out.println("Gray route affordable " + color);
-                                if (claimedByPlayerRoute1 == -1) {
-                                    if (claimedByPlayerRoute2Prop != null) {
-                                        if (claimedByPlayerRoute2 != currentPlayer && !route1Added) { //check other route not claimed by same player
-                                            colorIndexesAvailable.add(0);
-                                            route1Added = true;
-                                            //System.out.println("Gray route route 1 able");
-                                        }
-                                    } else {
-                                        if(!route1Added){
-                                            route1Added = true;
-                                            colorIndexesAvailable.add(0);
-                                            //System.out.println("Gray route route 1 able");
-                                        }
-
-                                    }
-
-                                }
-                                if (claimedByPlayerRoute2Prop != null && !route2Added) {
-                                    if (claimedByPlayerRoute2 == -1 && claimedByPlayerRoute1 != currentPlayer) {
-                                        route2Added = true;
-                                        colorIndexesAvailable.add(1);
-                                        //System.out.println("Gray route route 2 able");
-                                    }
-                                }
-                            }
-                        }
-                    } else { //any other colour
-
-                        for (int i = 0; i < colorsOfRoute.length; i++) { //
-                            int numberOfRequiredColor = playerTrainCards.getOrDefault(colorsOfRoute[i], 0);
-//                            System.out.println("Train Cards Required: " + trainCardsRequired + " for color " + colorsOfRoute[i] + " which is index " + i);
-//                            System.out.println("Player has Train Cards: " + numberOfRequiredColor);
-                            if ((numberOfRequiredColor + currentAmountOfLocomotivesInHand) >= trainCardsRequired) {
-                                if (claimedByPlayerRoute1 == -1 && i == 0 && !route1Added) {
-                                    if (claimedByPlayerRoute2Prop != null) {
-                                        if (claimedByPlayerRoute2 != currentPlayer) { //check other route not claimed by same player
-                                            route1Added = true;
-                                            colorIndexesAvailable.add(0);
-                                            //System.out.println("Other route route 1 able");
-                                        }
-                                    } else {
-                                        route1Added = true;
-                                        colorIndexesAvailable.add(0);
-                                        //System.out.println("Other route route 1 able");
-                                    }
-                                }
-                                if (claimedByPlayerRoute2Prop != null && i == 1 && claimedByPlayerRoute1 != currentPlayer && !route2Added) {
-                                    if (claimedByPlayerRoute2 == -1) {
-                                        route2Added = true;
-                                        colorIndexesAvailable.add(1);
-                                        //System.out.println("Any colour route 1 able");
-                                    }
-                                }
-
-                            } else {
-                                //System.out.println("Player ID " + currentPlayer + " cant buy this route");
-                            }
-                        }
-                    }
-
-                    if (!colorIndexesAvailable.isEmpty()) { //means atleast one of the routes was purchasable
-                        routesAvailableToBuy.put(edge, colorIndexesAvailable);
-                    }
-
-                }
+    private void undoDiscardTrainCard(int playerId, int handIndex) {
+        Card card = ((Deck<Card>) getArea(-1).getComponent(trainCardDeckDiscardHash)).draw();
+        ((Deck<Card>) getComponentActingPlayer(playerId, playerHandHash)).add(card, handIndex);
+        trainCardCounts[playerId][TrainCar.valueOf(card.toString()).ordinal()]++;
+    }
 
+    /**
+     * Moves the top card of the destination ticket deck into the player's hand.
+     */
+    public void drawDestinationCard(int playerId) {
+        Deck<Card> destinationCardDeck = (Deck<Card>) getArea(-1).getComponent(destinationCardDeckHash);
+        Deck<Card> playerDestinationCardHandDeck = (Deck<Card>) getComponentActingPlayer(playerId, playerDestinationHandHash);
+        Card card = destinationCardDeck.draw();
+        if (card != null) {
+            playerDestinationCardHandDeck.add(card);
+            updateZobristKey(Zobrist.key(ZOBRIST_DESTINATION, card.getComponentID(), playerId));
+            updateDeckSizeKey(DESTINATION_DECK, destinationCardDeck.getSize(), -1);
+            UndoLog log = getUndoLog();
+            if (log != null) {
+                log.pushInt(playerId);
+                log.record(UNDO_DRAW_DESTINATION_CARD);
             }
         }
-        return routesAvailableToBuy;
     }
 
-    // Gives map of colours and the amount a player has of it
-    Map<String, Integer> getTrainCarCardAmounts(Deck trainCards){
+    private void undoDrawDestinationCard(int playerId) {
+        Card card = ((Deck<Card>) getComponentActingPlayer(playerId, playerDestinationHandHash)).draw();
+        ((Deck<Card>) getArea(-1).getComponent(destinationCardDeckHash)).add(card);
+    }
 
-        Map<String, Integer> trainCardCount = new HashMap<>();
+    /**
+     * @return the number of train cards that can still be drawn: those in the deck and those in the discard pile,
+     * which is shuffled back into the deck when it runs short
+     */
+    public int getTrainCardsToDraw() {
+        return getDeckSize(trainCardDeckHash) + getDeckSize(trainCardDeckDiscardHash);
+    }
 
-        for (Object card : trainCards) {
-            String cardColor = card.toString();
-            trainCardCount.put(cardColor, trainCardCount.getOrDefault(cardColor, 0) + 1);
+    /**
+     * Shuffles the train card discard pile, and puts it on top of the train card deck.
+     * The undo log records the discard pile as it was, so undo puts back exactly those cards in that order. The
+     * random number generator is not wound back, so playing the action again (or on a copy) shuffles afresh.
+     */
+    public void shuffleDiscardIntoTrainCardDeck() {
+        Deck<Card> trainCardDeck = (Deck<Card>) getArea(-1).getComponent(trainCardDeckHash);
+        Deck<Card> trainCardDiscardDeck = (Deck<Card>) getArea(-1).getComponent(trainCardDeckDiscardHash);
+        UndoLog log = getUndoLog();
+        if (log != null) {
+            log.pushObject(new ArrayList<>(trainCardDiscardDeck.getComponents()));
+            log.record(UNDO_SHUFFLE_DISCARD);
+        }
+        int nDiscarded = trainCardDiscardDeck.getSize();
+        trainCardDiscardDeck.shuffle(getRnd());
+        trainCardDeck.add(trainCardDiscardDeck);
+        trainCardDiscardDeck.clear();
+        updateDeckSizeKey(TRAIN_DECK, trainCardDeck.getSize(), nDiscarded);
+        updateDeckSizeKey(DISCARD_DECK, 0, -nDiscarded);
+    }
+
+    private void undoShuffleDiscard(List<Card> discarded) {
+        Deck<Card> trainCardDeck = (Deck<Card>) getArea(-1).getComponent(trainCardDeckHash);
+        Deck<Card> trainCardDiscardDeck = (Deck<Card>) getArea(-1).getComponent(trainCardDeckDiscardHash);
+        for (int i = 0; i < discarded.size(); i++) {
+            trainCardDeck.draw();
         }
+        trainCardDiscardDeck.setComponents(discarded);
+    }
 
-        return trainCardCount;
+    public int getNumberOfSpecificTrainCard(int playerId, TrainCar color) {
+        return trainCardCounts[playerId][color.ordinal()];
+    }
+
+    /**
+     * @return the number of train cards of each colour in the player's hand, indexed by {@link TrainCar#ordinal()}. Do not modify.
+     */
+    public int[] getTrainCardCounts(int playerId) {
+        return trainCardCounts[playerId];
     }
 
     @Override
     protected boolean _equals(Object o) {
         if (this == o) return true;
         if (!(o instanceof TicketToRideGameState)) return false;
-        if (!super.equals(o)) return false;
         TicketToRideGameState that = (TicketToRideGameState) o;
         return currentFinalRoundTurn == that.currentFinalRoundTurn &&
                 Objects.equals(areas, that.areas) &&
@@ -380,7 +546,12 @@ public class  TicketToRideGameState extends AbstractGameState {
         areas = null;
         scores = null;
         world = null;
+        worldUsers = null;
+        routeGraph = null;
+        routeNetworks = null;
+        ticketPlanner = null;
         trainCars = null;
+        trainCardCounts = null;
         currentFinalRoundTurn = 0;
 
     }
@@ -389,18 +560,12 @@ public class  TicketToRideGameState extends AbstractGameState {
     }
 
     public int getNumberOfSpecificTrainCard(int playerId, String cardColor){
-        Area gameArea = this.getArea(-1);
-        Deck<Card> playerTrainCardHandDeck = (Deck<Card>) this.getComponentActingPlayer(playerId, playerHandHash);
-        int count = 0;
-
-        for (Card card : playerTrainCardHandDeck) {
-            if (card.toString().equalsIgnoreCase(cardColor)) {
-                count++;
+        for (TrainCar color : TrainCar.values()) {
+            if (color.name().equalsIgnoreCase(cardColor)) {
+                return getNumberOfSpecificTrainCard(playerId, color);
             }
         }
-
-        return count;
-
+        return 0;
     }
 
     //go through all of the destination cards a player has and return score
@@ -410,18 +575,14 @@ public class  TicketToRideGameState extends AbstractGameState {
         Deck<Card> destinationCardDeck = (Deck<Card>) gameArea.getComponent(TicketToRideConstants.destinationCardDeckHash);
 
 
-        HashSet<Edge> boardEdges = (HashSet<Edge>) world.getBoardEdges();
-
         int scoreToAddOrSubtract = 0;  //based on if players completed or didnt complete destination ticket cards
 
         Deck<Card> playerDestinationCardHandDeck = (Deck<Card>) this.getComponentActingPlayer(playerId,TicketToRideConstants.playerDestinationHandHash);
-        Map<String, List<String>> graphForSearch = getSearchGraph(boardEdges, playerId);
-        //System.out.println("search graph:  "+ graphForSearch + " for player  " + currentPlayer);
 
         for (Card currentCard : playerDestinationCardHandDeck) {
             String location1 = String.valueOf(currentCard.getProperty(location1Hash));
             String location2 = String.valueOf(currentCard.getProperty(location2Hash));
-            boolean isConnected = checkIfConnectedCity(graphForSearch,location1,location2);
+            boolean isConnected = isConnected(playerId, location1, location2);
             //System.out.println("IN FOR LOOP for cards "+ location1 + " " + location2 + " isConnected: " + isConnected);
             int pointsOnDestinationCard = ((PropertyInt)(currentCard.getProperty(pointsHash))).value;
             if (isConnected){
@@ -447,137 +608,103 @@ public class  TicketToRideGameState extends AbstractGameState {
 
     }
 
-    //creates graph that contains nodes that a player has claimed
-    public Map<String, List<String>> getSearchGraph(HashSet<Edge> edges, int playerId) {
-        Map<String, List<String>> searchGraph = new HashMap<>();
-
-        for (Edge currentEdge : edges) {
-
-            //System.out.println(routeClaimed +" route claimed in getsearch");
-
-            PropertyInt claimedByRoute1Prop =  (PropertyInt)(currentEdge.getProperty(claimedByPlayerRoute1Hash));
-            PropertyInt claimedByRoute2Prop =  (PropertyInt)(currentEdge.getProperty(claimedByPlayerRoute2Hash));
-
-
-            // some edges have 2 different routes (colors), so either can be null
-            int claimedByRoute1 = -1;
-            int claimedByRoute2 = -1;
-
-            if (claimedByRoute1Prop != null) {
-                claimedByRoute1 = claimedByRoute1Prop.value;
-            }
-
-            if (claimedByRoute2Prop != null) {
-                claimedByRoute2 = claimedByRoute2Prop.value;
-            }
-
-
-            if ((claimedByRoute1 == playerId) || (claimedByRoute2 == playerId))  { //check a player has claimed atleast one of the routes
-
-                Property nodeProp = currentEdge.getProperty(nodesHash);
-                String[] nodes = ((PropertyStringArray) nodeProp).getValues();
-
-                //System.out.println("Edge has nodes om getsearch: " + Arrays.toString(nodes));
-
-                String node1 = nodes[0];
-                String node2 = nodes[1];
-
-                searchGraph.putIfAbsent(node1, new ArrayList<>());
-                searchGraph.putIfAbsent(node2, new ArrayList<>());
-                searchGraph.get(node1).add(node2);
-                searchGraph.get(node2).add(node1);
-            }
+    /**
+     * Records that the player has claimed a track (0 or 1) of the route (Edge) with the given component ID.
+     * Called by {@link games.tickettoride.actions.ClaimRoute} so that connectivity queries and action generation
+     * do not need to re-read the board.
+     */
+    public void addClaimedRoute(int playerId, int edgeComponentId, int track) {
+        int edge = routeGraph.getEdgeIndex(edgeComponentId);
+        if (edge == -1) {
+            throw new IllegalArgumentException("No route with component ID " + edgeComponentId);
+        }
+        UndoLog log = getUndoLog();
+        int[] claimerDistances = ticketPlanner.getDistances(playerId);
+        int joinedRoot = routeNetworks.addRoute(playerId, edge, track);
+        int staled = ticketPlanner.routeClaimed(playerId, edge, routeNetworks);
+        updateZobristKey(Zobrist.key(ZOBRIST_TRACK, edge * 2 + track, playerId));
+        if (log != null) {
+            log.pushInt(playerId);
+            log.pushInt(edge);
+            log.pushInt(track);
+            log.pushInt(joinedRoot);
+            log.pushObject(claimerDistances);
+            log.pushInt(staled);
+            log.record(UNDO_CLAIMED_ROUTE);
         }
-
-        return searchGraph;
-    }
-
-    public boolean checkIfConnectedCity(Map<String, List<String>> searchGraph, String location1, String location2) {
-        Set<String> locationsVisited = new HashSet<>();
-        return graphSearch(searchGraph, location1, location2, locationsVisited);
     }
 
-    private boolean graphSearch(Map<String, List<String>> searchGraph, String currentLocation, String target, Set<String> locationsVisited) {
-        if (currentLocation.equals(target)) { //found node
-            return true;
-        }
-        if (locationsVisited.contains(currentLocation)){
-            return false;
+    /**
+     * Marks the track (0 or 1) of the route as claimed by the player on the board, and closes the route if no
+     * more tracks of it can be claimed.
+     * @param edge - the route, from {@link #getRouteForUpdate(int)}
+     */
+    public void markRouteClaimed(Edge edge, int track, int playerId) {
+        boolean doubleRoute = edge.getSchema() == doubleRouteSchema;
+        UndoLog log = getUndoLog();
+        if (log != null) {
+            log.pushInt(edge.getComponentID());
+            log.pushInt(edge.getInt(claimedByPlayerRoute1Slot));
+            log.pushInt(doubleRoute ? edge.getInt(claimedByPlayerRoute2Slot) : -2);
+            log.pushInt(edge.getBoolean(routeClaimedSlot) ? 1 : 0);
+            log.record(UNDO_ROUTE_SLOTS);
         }
 
-        locationsVisited.add(currentLocation);
-
-        //traverse adjacent locations of the current location
-        List<String> adjacentLocations = searchGraph.getOrDefault(currentLocation, new ArrayList<>());
-        for (String currentAdjacentLocation : adjacentLocations) {
-            if (graphSearch(searchGraph, currentAdjacentLocation, target, locationsVisited)) {
-                return true;
-            }
+        //Needed to differentiate which route they used (if theres 2 diff colours on same route)
+        if (track == 0) {
+            edge.setInt(claimedByPlayerRoute1Slot, playerId);
+        } else if (track == 1 && doubleRoute) {
+            edge.setInt(claimedByPlayerRoute2Slot, playerId);
         }
 
-        return false;
-    }
-
+        int claimedByPlayerRoute1 = edge.getInt(claimedByPlayerRoute1Slot);
+        int claimedByPlayerRoute2 = doubleRoute ? edge.getInt(claimedByPlayerRoute2Slot) : -2;
 
-
-        public int getLongestRouteLength(int playerId) {
-
-        Map<String, List<Object[]>> claimedRoutesGraph = new HashMap<>(); //get players routes in an array
-        HashSet<Edge> routes = (HashSet<Edge>) getWorld().getBoardEdges();
-
-        for (Edge currentRoute : routes) { //go through every route
-
-            PropertyInt route1 = (PropertyInt) currentRoute.getProperty(TicketToRideConstants.claimedByPlayerRoute1Hash);
-            PropertyInt route2 = (PropertyInt) currentRoute.getProperty(TicketToRideConstants.claimedByPlayerRoute2Hash);
-
-            boolean isClaimedByCurrentPlayer = (route1.value == playerId || (route2 != null && route2.value == playerId));
-
-            String[] locationsInRoute = ((PropertyStringArray) currentRoute.getProperty(TicketToRideConstants.nodesHash)).getValues(); //get the 2 locations in route
-
-            if (isClaimedByCurrentPlayer) { //building graph of routes a player has claimed, bidirectional
-                int currentRouteLength = ((PropertyInt) currentRoute.getProperty(TicketToRideConstants.trainCardsRequiredHash)).value;
-                claimedRoutesGraph.computeIfAbsent(locationsInRoute[0], k -> new ArrayList<>()).add(new Object[]{locationsInRoute[1], currentRouteLength});
-                claimedRoutesGraph.computeIfAbsent(locationsInRoute[1], k -> new ArrayList<>()).add(new Object[]{locationsInRoute[0], currentRouteLength});
+        if (getNPlayers() >= 4) { //in 4+ players, double routes open up
+            if (claimedByPlayerRoute1 != -1 && claimedByPlayerRoute2 != -1) { //if both routes taken and double route enabled, its now completely closed off
+                edge.setBoolean(routeClaimedSlot, true);
             }
+        } else {
+            edge.setBoolean(routeClaimedSlot, true);
         }
-
-        int highestRouteLength = 0;
-        for (String currentLocation : claimedRoutesGraph.keySet()) {
-            highestRouteLength = Math.max(highestRouteLength, longestPathSearch(currentLocation, claimedRoutesGraph)); //call bfs to get the highest route length
-        }
-        return highestRouteLength;
     }
 
+    /**
+     * @return true if the two named cities are joined by a continuous path of the player's claimed routes
+     */
+    public boolean isConnected(int playerId, String location1, String location2) {
+        if (location1.equals(location2)) return true;
+        int city1 = routeGraph.getCityIndex(location1);
+        int city2 = routeGraph.getCityIndex(location2);
+        if (city1 == -1 || city2 == -1) return false;
+        return routeNetworks.isConnected(playerId, city1, city2);
+    }
 
-    //uses bfs to get longest path in their claimed routes graph
-    private int longestPathSearch(String startingLocation, Map<String, List<Object[]>> claimedRoutesGraph) {
-        int maxPath = 0;
-        Queue<List<Object>> queue = new LinkedList<>();
-        queue.add(Arrays.asList(startingLocation, 0, new HashSet<>())); //holds current location, current length, and seen edges
-
-        while (!queue.isEmpty()) {
-            List<Object> currentPath = queue.poll();
-            String currentLocation = (String) currentPath.get(0);
-            int currentLength = (Integer) currentPath.get(1);
-            Set<String> traversedRoute = (Set<String>) currentPath.get(2);
-
-            maxPath = Math.max(maxPath, currentLength); //tracks the longest route encountered with  max function
-
-            for (Object[] connection : claimedRoutesGraph.getOrDefault(currentLocation, new ArrayList<>())) { //explore neigbours
-                String neighbour = (String) connection[0];
-                int routeLength = (Integer) connection[1];
+    /**
+     * @return the fewest train cars the player still needs to lay to join the two named cities with their own
+     * routes: 0 if they are already joined, or -1 if they can no longer be joined (or a city is not on the map)
+     */
+    public int getCarsToConnect(int playerId, String location1, String location2) {
+        int city1 = routeGraph.getCityIndex(location1);
+        int city2 = routeGraph.getCityIndex(location2);
+        if (city1 == -1 || city2 == -1) return -1;
+        return getCarsToConnect(playerId, city1, city2);
+    }
 
-                // unique edge Id
-                String edgeId = currentLocation.compareTo(neighbour) < 0 ? currentLocation + "-" + neighbour : neighbour + "-" + currentLocation;
+    /**
+     * As {@link #getCarsToConnect(int, String, String)}, with cities given by their {@link RouteGraph} index
+     */
+    public int getCarsToConnect(int playerId, int city1, int city2) {
+        int cars = ticketPlanner.getCarsNeeded(playerId, city1, city2, routeNetworks);
+        return cars == RouteGraph.NO_PATH ? -1 : cars;
+    }
 
-                if (!traversedRoute.contains(edgeId)) {
-                    Set<String> newTraversedRoute = new HashSet<>(traversedRoute);
-                    newTraversedRoute.add(edgeId);
-                    queue.add(Arrays.asList(neighbour, currentLength + routeLength, newTraversedRoute));
-                }
-            }
-        }
-        return maxPath;
+    /**
+     * @return the length (in train cars) of the longest continuous route the player has claimed.
+     * This is cached per player, and only recomputed after that player claims a new route.
+     */
+    public int getLongestRouteLength(int playerId) {
+        return routeNetworks.getLongestRoute(playerId);
     }
 
 
@@ -16,6 +16,24 @@ public class TicketToRideHeuristic implements IStateHeuristic {
     @Override
     public double evaluateState(AbstractGameState gs, int playerId) {
         TicketToRideGameState state = (TicketToRideGameState) gs;
+        return evaluate(state, playerId, longestRouteHolder(state) == playerId);
+    }
+
+    /**
+     * Evaluates the state for all players, finding who holds the longest route once rather than once per player
+     */
+    @Override
+    public double[] evaluateAllPlayers(AbstractGameState gs) {
+        TicketToRideGameState state = (TicketToRideGameState) gs;
+        int holder = longestRouteHolder(state);
+        double[] values = new double[state.getNPlayers()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = evaluate(state, i, holder == i);
+        }
+        return values;
+    }
+
+    private double evaluate(TicketToRideGameState state, int playerId, boolean hasLongestRoute) {
         CoreConstants.GameResult playerResult = state.getPlayerResults()[playerId];
 
         if (playerResult == CoreConstants.GameResult.LOSE_GAME) return -1.0;
@@ -23,7 +41,6 @@ public class TicketToRideHeuristic implements IStateHeuristic {
 
         int baseScore = state.getScores()[playerId]; //i.e. just from claiming routes
         int destinationPoints = calculateDestinationCardRewardPoints(state, playerId); //reward system
-        boolean hasLongestRoute = isLongestRoute(state, playerId);
 
 
         int totalScore = baseScore + destinationPoints + (hasLongestRoute ? 10 : 0);
@@ -43,20 +60,37 @@ public class TicketToRideHeuristic implements IStateHeuristic {
             if (location1Prop != null && location2Prop != null) {
                 String location1 = ((PropertyString) location1Prop).value;
                 String location2 = ((PropertyString) location2Prop).value;
-                boolean completed = state.checkIfConnectedCity(state.getSearchGraph(state.getWorld().getBoardEdges(), playerId), location1, location2);
-                rewardPoints += completed ? 2 * points : -points;
+                int carsNeeded = state.getCarsToConnect(playerId, location1, location2);
+                if (carsNeeded == 0) {
+                    rewardPoints += 2 * points;
+                } else if (carsNeeded < 0 || carsNeeded > state.getTrainCars(playerId)) {
+                    rewardPoints -= points;
+                } else {
+                    // the penalty for an incomplete ticket falls as the player's routes get closer to completing it
+                    RouteGraph graph = state.getRouteGraph();
+                    int distance = graph.getDistance(graph.getCityIndex(location1), graph.getCityIndex(location2));
+                    rewardPoints -= points * Math.min(carsNeeded, distance) / distance;
+                }
             }
         }
         return rewardPoints;
     }
 
-    private boolean isLongestRoute(TicketToRideGameState state, int playerId) {
-        int playerRoute = state.getLongestRouteLength(playerId);
+    /**
+     * @return the player whose longest route is strictly longer than everyone else's, or -1 if it is tied
+     */
+    private int longestRouteHolder(TicketToRideGameState state) {
+        int holder = -1;
+        int longest = -1;
         for (int i = 0; i < state.getNPlayers(); i++) {
-            if (i != playerId && state.getLongestRouteLength(i) >= playerRoute) {
-                return false;
+            int length = state.getLongestRouteLength(i);
+            if (length > longest) {
+                longest = length;
+                holder = i;
+            } else if (length == longest) {
+                holder = -1;
             }
         }
-        return true;
+        return holder;
     }
 }
\ No newline at end of file
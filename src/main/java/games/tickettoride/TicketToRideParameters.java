@@ -55,8 +55,9 @@ public class TicketToRideParameters extends AbstractParameters {
     }
 
 
+    // Names match the card names in data/tickettoride/decks.json
     public enum TrainCar {
-        Red, Green, Blue, Black, White, Purple, Yellow, Orange, Locomotive
+        Red, Green, Blue, Black, White, Pink, Yellow, Orange, Locomotive
     }
 
 
@@ -66,8 +67,8 @@ public class TicketToRideParameters extends AbstractParameters {
 
     @Override
     protected AbstractParameters _copy() {
-        // TODO: deep copy of all variables.
-        return this;
+        // A new object is required, as AbstractParameters.copy() sets a new random seed on the returned value
+        return new TicketToRideParameters(this);
     }
 
     @Override
@@ -89,10 +90,17 @@ public class TicketToRideParameters extends AbstractParameters {
 
     public TicketToRideParameters(TicketToRideParameters ticketToRideParameters) {
         this(ticketToRideParameters.dataPath);
-        this.pointsPerRoute = new HashMap<>();
-        for(int key : TicketToRideParameters.pointsPerRoute.keySet())
-            this.pointsPerRoute.put(key, TicketToRideParameters.pointsPerRoute.get(key));
-
-
+        this.nLocomotiveCards = ticketToRideParameters.nLocomotiveCards;
+        this.nCardsPerColor = ticketToRideParameters.nCardsPerColor;
+        this.nTrainCardsDraw = ticketToRideParameters.nTrainCardsDraw;
+        this.nDestinationCardsDraw = ticketToRideParameters.nDestinationCardsDraw;
+        this.nMaxPlayers = ticketToRideParameters.nMaxPlayers;
+        this.nInitialTrainCards = ticketToRideParameters.nInitialTrainCards;
+        this.nInitialDestinationCards = ticketToRideParameters.nInitialDestinationCards;
+        this.nInitialTrainCars = ticketToRideParameters.nInitialTrainCars;
+        this.totalDestinationTickets = ticketToRideParameters.totalDestinationTickets;
+        this.nTotalTrainCards = ticketToRideParameters.nTotalTrainCards;
+        this.nTotalDestinationCards = ticketToRideParameters.nTotalDestinationCards;
+        // pointsPerRoute is static and never modified, so is shared by all copies
     }
 }
\ No newline at end of file
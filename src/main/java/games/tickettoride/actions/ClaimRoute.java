@@ -11,6 +11,7 @@ import games.catan.CatanGameState;
 import games.catan.CatanParameters;
 import games.tickettoride.TicketToRideGameState;
 import games.tickettoride.TicketToRideParameters;
+import games.tickettoride.TicketToRideParameters.TrainCar;
 import utilities.Hash;
 
 import java.util.HashMap;
@@ -71,99 +72,53 @@ public class ClaimRoute extends AbstractAction {
         TicketToRideGameState tgs = (TicketToRideGameState) gs;
         TicketToRideParameters tp = (TicketToRideParameters) gs.getGameParameters();
 
-        Edge edge = (Edge) tgs.getComponentById(edgeID);
+        Edge edge = tgs.getRouteForUpdate(edgeID);
 
         int amountToRemove = costOfRoute; //may also change because they can supplement with locomotive
         int amountOfLocomotiveToRemove = 0;
 
-        String colorOfRouteToRemove = colorOfRoute; // could change incase of gray route
+        int[] playerTrainCards = tgs.getTrainCardCounts(playerID);
+        int currentAmountOfLocomotivesInHand = playerTrainCards[TrainCar.Locomotive.ordinal()];
 
-        //System.out.println("PLAYER " + playerID + " DOING ACTION: CLAIMING ROUTE" );
-        //System.out.println("route properties before : " + edge.getProperties());
-        Deck<Card> playerTrainCardHandDeck = (Deck<Card>) tgs.getComponentActingPlayer(playerID,playerHandHash);
-        Deck<Card> trainCardDiscardDeck = (Deck<Card>) tgs.getComponent(trainCardDeckDiscardHash);
-
-        //System.out.println("player hand before " + playerTrainCardHandDeck);
-
-        Map<String, Integer>  playerTrainCards = this.getTrainCarCardAmounts(playerTrainCardHandDeck);
-
-        int currentAmountOfLocomotivesInHand = playerTrainCards.getOrDefault("Locomotive",0);
+        TrainCar colorOfRouteToRemove = null; // could be any colour in case of gray route
         //when its gray colour route, any colour can be used
         if (colorOfRoute.equals("Gray")) {
-            // Find the first color that has enough cards (excluding wildcards for now)
-            for (String color : playerTrainCards.keySet()) {
-                if (playerTrainCards.get(color)  >= costOfRoute) { //correct amount
+            // Find the first color that has enough cards (locomotives are last, so are only used on their own if nothing else will do)
+            for (TrainCar color : TrainCar.values()) {
+                int currentColorAmount = playerTrainCards[color.ordinal()];
+                if (currentColorAmount >= costOfRoute) { //correct amount
                     colorOfRouteToRemove = color;  // Use this color to claim the route
-                    //System.out.println("in gray route claiming route, removing " + colorOfRouteToRemove);
                     break;
-                } else if ((playerTrainCards.get(color) + currentAmountOfLocomotivesInHand >= costOfRoute) && !color.equals("Locomotive")) { //has enough locomotive to finish route
+                } else if (currentColorAmount + currentAmountOfLocomotivesInHand >= costOfRoute && color != TrainCar.Locomotive) { //has enough locomotive to finish route
                     colorOfRouteToRemove = color;  // Use this color to claim the route
-                    int currentColorAmount = playerTrainCards.get(color);
                     amountOfLocomotiveToRemove = costOfRoute - currentColorAmount;
                     amountToRemove = currentColorAmount;
-                    //System.out.println("in gray route claiming route with locomotive, removing # of " + amountToRemove + colorOfRouteToRemove + " with # of locomotives: " + amountOfLocomotiveToRemove);
                     break;
                 }
             }
-            removeTrainCarCards(playerTrainCardHandDeck, amountToRemove, colorOfRouteToRemove, amountOfLocomotiveToRemove,trainCardDiscardDeck);
-        } else if (playerTrainCards.getOrDefault(colorOfRoute,0)  >= costOfRoute){ //color of route in hand has correct amount
-            //System.out.println("color of route in hand has correct amount");
-            removeTrainCarCards(playerTrainCardHandDeck, costOfRoute, colorOfRoute, amountOfLocomotiveToRemove,trainCardDiscardDeck);
-
-        } else if (playerTrainCards.getOrDefault(colorOfRoute,0) +  currentAmountOfLocomotivesInHand >= costOfRoute){ //use locomotive to supplement
-            int currentColorAmount = playerTrainCards.getOrDefault(colorOfRouteToRemove,0);
-            amountOfLocomotiveToRemove = costOfRoute - currentColorAmount;
-            amountToRemove = currentColorAmount;
-            //System.out.println("Using Locomotive to claim route");
-            removeTrainCarCards(playerTrainCardHandDeck, amountToRemove, colorOfRouteToRemove, amountOfLocomotiveToRemove, trainCardDiscardDeck);
+        } else {
+            colorOfRouteToRemove = TrainCar.valueOf(colorOfRoute);
+            int currentColorAmount = playerTrainCards[colorOfRouteToRemove.ordinal()];
+            if (currentColorAmount < costOfRoute) { //use locomotive to supplement
+                amountOfLocomotiveToRemove = costOfRoute - currentColorAmount;
+                amountToRemove = currentColorAmount;
+            }
         }
-
-        {
-
+        if (colorOfRouteToRemove == null || amountOfLocomotiveToRemove > currentAmountOfLocomotivesInHand) {
+            throw new AssertionError("Player " + playerID + " cannot afford " + this);
         }
+        tgs.discardTrainCards(playerID, colorOfRouteToRemove, amountToRemove);
+        tgs.discardTrainCards(playerID, TrainCar.Locomotive, amountOfLocomotiveToRemove);
 
 
 
-        tgs.deductTrainCars(playerID, costOfRoute);
-
-
 
-        //Needed to differentiate which route they used (if theres 2 diff colours on same route)
-        if (indexOfColor == 0){
-            Property claimedByPlayerProp = new PropertyInt("claimedByPlayerRoute1", (Integer) playerID);
-            edge.setProperty(claimedByPlayerProp);
-        } else if (indexOfColor == 1) {
-            Property claimedByPlayerProp = new PropertyInt("claimedByPlayerRoute2", (Integer) playerID);
-            edge.setProperty(claimedByPlayerProp);
-        }
-
-        Property claimedByPlayerRoute1Prop = edge.getProperty(claimedByPlayerRoute1Hash);
-        Property claimedByPlayerRoute2Prop = edge.getProperty(claimedByPlayerRoute2Hash);
-
-        Property routeClaimedProp = new PropertyBoolean("routeClaimed", (Boolean) true);
+        tgs.deductTrainCars(playerID, costOfRoute);
+        tgs.addClaimedRoute(playerID, edgeID, indexOfColor);
 
-        int claimedByPlayerRoute1 = ((PropertyInt) claimedByPlayerRoute1Prop).value;
-        //System.out.println("route1 claimed: " + claimedByPlayerRoute1);
-        int claimedByPlayerRoute2 = -2;
-        if (claimedByPlayerRoute2Prop != null){
-            claimedByPlayerRoute2  = ((PropertyInt) claimedByPlayerRoute2Prop).value;
-        }
-        //System.out.println("route2 claimed: " + claimedByPlayerRoute2);
 
 
-        //note to self: gray ones not setting properly cuz its always editing route1
-        if (tgs.getNPlayers() >= 4){ //in 4+ players, double routes open up
-            //System.out.println(tgs.getNPlayers() + " more than 4 players");
-            if (claimedByPlayerRoute1 != -1 && claimedByPlayerRoute2 != -1) { //if both routes taken and double route enabled, its now completely closed off
-                edge.setProperty(routeClaimedProp);
-                //System.out.println(" double route claimed more than 4 players");
-            } else {
-                //System.out.println(" double route not claimed more than 4 players");
-            }
-        } else{
-            //System.out.println("less than 4 players");
-            edge.setProperty(routeClaimedProp);
-        }
+        tgs.markRouteClaimed(edge, indexOfColor, playerID);
 
 
 //        System.out.println(tgs.getGameScore(playerID) + " points before");
@@ -178,44 +133,6 @@ public class ClaimRoute extends AbstractAction {
     }
 
 
-    Map<String, Integer> getTrainCarCardAmounts(Deck<Card> trainCards){
-
-        Map<String, Integer> trainCardCount = new HashMap<>();
-
-        for (Object card : trainCards) {
-            String cardColor = card.toString();
-            trainCardCount.put(cardColor, trainCardCount.getOrDefault(cardColor, 0) + 1);
-        }
-
-
-        return trainCardCount;
-    }
-
-    void removeTrainCarCards(Deck<Card> playerTrainCardHandDeck ,int amountToRemove, String colorOfRouteToRemove, int amountOfLocomotivesToRemove, Deck<Card> trainCardDiscardDeck){
-
-        for (int i = 0; i < playerTrainCardHandDeck.getSize() && amountToRemove > 0; i ++) { //remove colour cards
-            Card currentCard = playerTrainCardHandDeck.get(i);
-            if (currentCard.toString().equals(colorOfRouteToRemove)){
-                trainCardDiscardDeck.add(currentCard);
-                playerTrainCardHandDeck.remove(i);
-
-                i--;
-                amountToRemove--;
-            }
-        }
-
-        for (int i = 0; i < playerTrainCardHandDeck.getSize() && amountOfLocomotivesToRemove > 0; i++) { //remove locomotives
-            Card currentCard = playerTrainCardHandDeck.get(i);
-            if (currentCard.toString().equals("Locomotive")) {
-                trainCardDiscardDeck.add(currentCard);
-                playerTrainCardHandDeck.remove(i);
-                i--;
-                amountOfLocomotivesToRemove--;
-            }
-        }
-
-
-    }
     /**
      * @return Make sure to return an exact <b>deep</b> copy of the object, including all of its variables.
      * Make sure the return type is this class (e.g. GTAction) and NOT the super class AbstractAction.
@@ -224,7 +141,7 @@ public class ClaimRoute extends AbstractAction {
      */
     @Override
     public ClaimRoute copy() {
-        return new ClaimRoute(edgeID, playerID, colorOfRoute, costOfRoute, indexOfColor, location1, location2);
+        return this; // immutable, and shared between states by RouteGraph
     }
 
     @Override
@@ -53,14 +53,7 @@ public class DrawDestinationTicketCards extends AbstractAction {
         TicketToRideGameState tgs = (TicketToRideGameState) gs;
         TicketToRideParameters tp = (TicketToRideParameters) gs.getGameParameters();
 
-        Area gameArea = tgs.getArea(-1);
-        Deck<Card> destinationCardDeck = (Deck<Card>) gameArea.getComponent(TicketToRideConstants.destinationCardDeckHash);
-
-        Deck<Card> playerDestinationCardHandDeck = (Deck<Card>) tgs.getComponentActingPlayer(playerID,TicketToRideConstants.playerDestinationHandHash);
-
-//        System.out.println( playerID + " has these destination ticket cards before drawing: " + playerDestinationCardHandDeck);
-
-        new DrawCard(destinationCardDeck.getComponentID(), playerDestinationCardHandDeck.getComponentID()).execute(tgs);
+        tgs.drawDestinationCard(playerID);
 
 
 //        System.out.println( playerID + " now has these destination ticket cards after drawing: "  + playerDestinationCardHandDeck);
@@ -2,8 +2,6 @@ package games.tickettoride.actions;
 
 import core.AbstractGameState;
 import core.actions.AbstractAction;
-import core.actions.DrawCard;
-import core.components.Area;
 import core.components.Card;
 import core.components.Component;
 import core.components.Deck;
@@ -54,19 +52,15 @@ public class DrawTrainCards extends AbstractAction {
         TicketToRideGameState tgs = (TicketToRideGameState) gs;
         TicketToRideParameters tp = (TicketToRideParameters) gs.getGameParameters();
 
-        Area gameArea = tgs.getArea(-1);
-        Deck<Card> trainCardDeck = (Deck<Card>) gameArea.getComponent(TicketToRideConstants.trainCardDeckHash);
-
-        Deck<Card> playerTrainCardHandDeck = (Deck<Card>) tgs.getComponentActingPlayer(playerID,playerHandHash);
-
-//        System.out.println( playerID + " has these cards before drawing: " + playerTrainCardHandDeck);
+        Deck<Card> trainCardDeck = (Deck<Card>) tgs.getComponent(TicketToRideConstants.trainCardDeckHash);
+        if (trainCardDeck.getSize() < 2) { // shuffle discard into deck
+            tgs.shuffleDiscardIntoTrainCardDeck();
+        }
 
         //draw twice
-        new DrawCard(trainCardDeck.getComponentID(), playerTrainCardHandDeck.getComponentID()).execute(tgs);
-        new DrawCard(trainCardDeck.getComponentID(), playerTrainCardHandDeck.getComponentID()).execute(tgs);
+        tgs.drawTrainCard(playerID);
+        tgs.drawTrainCard(playerID);
 
-//
-//        System.out.println( playerID + " now has these cards after drawing: "  + playerTrainCardHandDeck);
         return true;
     }
 
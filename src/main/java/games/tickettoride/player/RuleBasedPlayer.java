@@ -3,6 +3,10 @@ package games.tickettoride.player;
 import core.AbstractGameState;
 import core.AbstractPlayer;
 import core.actions.AbstractAction;
+import core.components.Card;
+import core.components.Deck;
+import core.properties.PropertyInt;
+import games.tickettoride.RouteGraph;
 import games.tickettoride.TicketToRideGameState;
 import games.tickettoride.actions.ClaimRoute;
 import games.tickettoride.actions.DrawDestinationTicketCards;
@@ -13,6 +17,8 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 
+import static games.tickettoride.TicketToRideConstants.*;
+
 public class RuleBasedPlayer extends AbstractPlayer {
 
     private final Random rnd;
@@ -51,7 +57,8 @@ public class RuleBasedPlayer extends AbstractPlayer {
             return drawTrainCardAction;
         }
 
-        ClaimRoute claimRoutebestAction = null;
+        // go towards completing a destination ticket if possible, otherwise choose a route by its length
+        ClaimRoute claimRoutebestAction = ticketRoute(state, claimRouteActions);
 
         for (ClaimRoute action : claimRouteActions) {
 
@@ -87,6 +94,41 @@ public class RuleBasedPlayer extends AbstractPlayer {
         return claimRoutebestAction;
     }
 
+    /**
+     * @return a route that lies on a cheapest path to complete the most valuable destination ticket the player
+     * can still complete, or null if there is none
+     */
+    private ClaimRoute ticketRoute(TicketToRideGameState state, List<ClaimRoute> claimRouteActions) {
+        int playerId = getPlayerID();
+        Deck<Card> tickets = (Deck<Card>) state.getComponentActingPlayer(playerId, playerDestinationHandHash);
+        ClaimRoute bestAction = null;
+        int bestPoints = 0;
+        for (Card ticket : tickets.getComponents()) {
+            int points = ((PropertyInt) ticket.getProperty(pointsHash)).value;
+            if (points <= bestPoints) continue;
+            String location1 = String.valueOf(ticket.getProperty(location1Hash));
+            String location2 = String.valueOf(ticket.getProperty(location2Hash));
+            int carsNeeded = state.getCarsToConnect(playerId, location1, location2);
+            if (carsNeeded <= 0 || carsNeeded > state.getTrainCars(playerId)) continue;
+            for (ClaimRoute action : claimRouteActions) {
+                int viaRoute = Math.min(
+                        carsBetween(state, location1, action.location1) + carsBetween(state, action.location2, location2),
+                        carsBetween(state, location1, action.location2) + carsBetween(state, action.location1, location2));
+                if (viaRoute + action.costOfRoute == carsNeeded) {
+                    bestAction = action;
+                    bestPoints = points;
+                    break;
+                }
+            }
+        }
+        return bestAction;
+    }
+
+    private int carsBetween(TicketToRideGameState state, String location1, String location2) {
+        int cars = state.getCarsToConnect(getPlayerID(), location1, location2);
+        return cars < 0 ? RouteGraph.NO_PATH : cars;
+    }
+
     @Override
     public String toString() {
         return "RuleBasedPlayer";
@@ -147,7 +147,7 @@ public class TicketToRideMetrics implements IMetricsCollection {
             for (int i = 0; i < gs.getNPlayers(); i++) {
                 Deck<Card> destinationHand = (Deck<Card>) gs.getComponentActingPlayer(i, TicketToRideConstants.playerDestinationHandHash);
                 int iForLambda = i;
-                long completed = destinationHand.getComponents().stream().filter(card -> gs.checkIfConnectedCity(gs.getSearchGraph(gs.getWorld().getBoardEdges(), iForLambda), String.valueOf(card.getProperty(TicketToRideConstants.location1Hash)), String.valueOf(card.getProperty(TicketToRideConstants.location2Hash)))).count();
+                long completed = destinationHand.getComponents().stream().filter(card -> gs.isConnected(iForLambda, String.valueOf(card.getProperty(TicketToRideConstants.location1Hash)), String.valueOf(card.getProperty(TicketToRideConstants.location2Hash)))).count();
 
                 String playerName = listener.getGame().getPlayers().get(i).toString();
                 int totalDestinationCardsInHand = destinationHand.getSize();
@@ -50,6 +50,11 @@ public class TicTacToeForwardModel extends StandardForwardModel implements ITree
         return actions;
         }
 
+    @Override
+    public boolean supportsUndo() {
+        return true;
+    }
+
     @Override
     protected void _afterAction(AbstractGameState currentState, AbstractAction action) {
         if (checkAndProcessGameEnd((TicTacToeGameState) currentState)) {
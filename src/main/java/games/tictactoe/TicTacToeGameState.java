@@ -38,11 +38,21 @@ public class TicTacToeGameState extends AbstractGameState implements IPrintable,
 
     @Override
     protected TicTacToeGameState _copy(int playerId) {
-        TicTacToeGameState s = new TicTacToeGameState(gameParameters.copy(), getNPlayers());
+        TicTacToeGameState s = new TicTacToeGameState(gameParameters.copyIfMutable(), getNPlayers());
         s.gridBoard = gridBoard.copy();
         return s;
     }
 
+    @Override
+    public boolean hasZobristKey() {
+        return true;
+    }
+
+    @Override
+    protected long _computeZobristKey() {
+        return gridBoard.getZobristKey();
+    }
+
     @Override
     protected double _getHeuristicScore(int playerId) {
         return new TicTacToeHeuristic().evaluateState(this, playerId);
@@ -161,7 +161,7 @@ public class UnoGameState extends AbstractGameState implements IPrintable {
 
     @Override
     protected UnoGameState _copy(int playerId) {
-        UnoGameState copy = new UnoGameState(gameParameters.copy(), getNPlayers());
+        UnoGameState copy = new UnoGameState(gameParameters.copyIfMutable(), getNPlayers());
         copy.playerDecks = new ArrayList<>();
 
         for (Deck<UnoCard> d : playerDecks) {
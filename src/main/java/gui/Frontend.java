@@ -297,6 +297,8 @@ public class Frontend extends GUI {
                 gamePanel.removeAll();
                 TunableParameters params = gameParameters[gameOptions.getSelectedIndex()];
                 if (params != null) {
+                    // the game freezes its parameters, so it has a copy, and those here can still be edited
+                    params = params.copy();
                     params.setRandomSeed(seed);
                 }
                 gameRunning = gameType.createGameInstance(players.size(), params);
@@ -4,9 +4,9 @@ import core.AbstractGameState;
 import core.AbstractPlayer;
 import core.actions.AbstractAction;
 import core.interfaces.IStateHeuristic;
+import utilities.SplitRandom;
 
 import java.util.List;
-import java.util.Random;
 
 
 /**
@@ -24,7 +24,7 @@ public class BasicMCTSPlayer extends AbstractPlayer {
         super(new BasicMCTSParams(), "Basic MCTS");
         // for clarity we create a new set of parameters here, but we could just use the default parameters
         parameters.setRandomSeed(seed);
-        rnd = new Random(seed);
+        rnd = new SplitRandom(seed);
 
         // These parameters can be changed, and will impact the Basic MCTS algorithm
         BasicMCTSParams params = getParameters();
@@ -37,7 +37,7 @@ public class BasicMCTSPlayer extends AbstractPlayer {
 
     public BasicMCTSPlayer(BasicMCTSParams params) {
         super(params, "Basic MCTS");
-        rnd = new Random(params.getRandomSeed());
+        rnd = new SplitRandom(params.getRandomSeed());
     }
 
     @Override
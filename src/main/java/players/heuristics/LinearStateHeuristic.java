@@ -39,5 +39,54 @@ public class LinearStateHeuristic extends GLMHeuristic implements IStateHeuristi
         return 0;
     }
 
+    @Override
+    public double[] evaluateAllPlayers(AbstractGameState state) {
+        return evaluateStates(List.of(state))[0];
+    }
+
+    /**
+     * The feature vectors of all the states that the model applies to are stacked into one matrix, with a row for
+     * each player in each state, and the coefficients are applied to all of them at once.
+     */
+    @Override
+    public double[][] evaluateStates(List<? extends AbstractGameState> states) {
+        double[][] retValue = new double[states.size()][];
+        double[][][] phi = new double[states.size()][][];
+        int rows = 0;
+        for (int s = 0; s < states.size(); s++) {
+            AbstractGameState state = states.get(s);
+            if (coefficients != null && (defaultHeuristic == null || state.isNotTerminal())) {
+                phi[s] = features.featureVectors(state);
+                rows += phi[s].length;
+            } else if (defaultHeuristic != null) {
+                retValue[s] = defaultHeuristic.evaluateAllPlayers(state);
+            } else {
+                retValue[s] = new double[state.getNPlayers()];
+            }
+        }
+        if (rows == 0)
+            return retValue;
+        double[][] matrix = new double[rows][];
+        int row = 0;
+        for (double[][] statePhi : phi) {
+            if (statePhi != null)
+                for (double[] playerPhi : statePhi)
+                    matrix[row++] = playerPhi;
+        }
+        double[] linear = applyCoefficients(matrix);
+        row = 0;
+        for (int s = 0; s < states.size(); s++) {
+            if (phi[s] == null)
+                continue;
+            retValue[s] = new double[phi[s].length];
+            for (int p = 0; p < phi[s].length; p++) {
+                double value = inverseLinkFunction.applyAsDouble(linear[row++]);
+                retValue[s][p] = defaultHeuristic == null ? value :
+                        Utils.clamp(value, defaultHeuristic.minValue(), defaultHeuristic.maxValue());
+            }
+        }
+        return retValue;
+    }
+
 
 }
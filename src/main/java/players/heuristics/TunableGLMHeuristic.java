@@ -80,4 +80,18 @@ public class TunableGLMHeuristic extends TunableParameters implements IActionHeu
         throw new AssertionError("Heuristic is not an IStateHeuristic");
     }
 
+    @Override
+    public double[] evaluateAllPlayers(AbstractGameState gs) {
+        if (heuristic instanceof IStateHeuristic stateHeuristic)
+            return stateHeuristic.evaluateAllPlayers(gs);
+        throw new AssertionError("Heuristic is not an IStateHeuristic");
+    }
+
+    @Override
+    public double[][] evaluateStates(List<? extends AbstractGameState> states) {
+        if (heuristic instanceof IStateHeuristic stateHeuristic)
+            return stateHeuristic.evaluateStates(states);
+        throw new AssertionError("Heuristic is not an IStateHeuristic");
+    }
+
 }
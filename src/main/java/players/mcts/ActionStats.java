@@ -26,4 +26,22 @@ public class ActionStats {
         nVisits++;
     }
 
+    /**
+     * Adds n visits with the given value for one player. This is used as a virtual loss by tree parallelisation, and
+     * must be matched by a call to removeVirtualLoss() with the same arguments.
+     */
+    public void addVirtualLoss(int player, int n, double value) {
+        totValue[player] += n * value;
+        squaredTotValue[player] += n * value * value;
+        nVisits += n;
+        validVisits += n;
+    }
+
+    public void removeVirtualLoss(int player, int n, double value) {
+        totValue[player] -= n * value;
+        squaredTotValue[player] -= n * value * value;
+        nVisits -= n;
+        validVisits -= n;
+    }
+
 }
@@ -41,6 +41,19 @@ public class MCTSEnums {
         // END_TURN|ROUND is triggered when the game round/turn changes
     }
 
+    public enum Parallelisation {
+        None, Root, Tree
+        // Root runs nThreads independent searches, each with the full budget, and combines their decisions with the rootMerge policy
+        // Tree runs nThreads workers on a single shared tree. Selection, expansion and back-propagation take turns under a lock on the tree,
+        // while rollouts run concurrently; a virtual loss on the path being rolled out steers the other workers elsewhere in the tree
+    }
+
+    public enum RootMerge {
+        Vote, VisitSum
+        // Vote takes the action chosen by most of the trees (ties are broken by the total visits over all trees)
+        // VisitSum takes the action with the most visits summed over all the trees
+    }
+
     public enum OpponentTreePolicy {
         SelfOnly(true), OneTree(false),
         MultiTree(true),
@@ -72,6 +72,10 @@ public class MCTSParams extends PlayerParameters {
     public double backupLambda = 1.0;
     public int maxBackupThreshold = 1000000;
     public Class<?> instantiationClass;
+    public MCTSEnums.Parallelisation parallelisation = MCTSEnums.Parallelisation.None;
+    public int nThreads = 0;  // the number of trees (Root) or workers (Tree) to use; zero or less uses one per available processor
+    public MCTSEnums.RootMerge rootMerge = MCTSEnums.RootMerge.VisitSum;
+    public int virtualLoss = 1;  // the number of lost visits added to each action on a path while a Tree worker is rolling out from it
 
     public MCTSParams() {
         addTunableParameter("K", Math.sqrt(2), Arrays.asList(0.0, 0.1, 1.0, Math.sqrt(2), 3.0, 10.0));
@@ -120,6 +124,10 @@ public class MCTSParams extends PlayerParameters {
         addTunableParameter("backupLambda", 1.0);
         addTunableParameter("maxBackupThreshold", 1000000);
         addTunableParameter("instantiationClass", "players.mcts.MCTSPlayer");
+        addTunableParameter("parallelisation", MCTSEnums.Parallelisation.None, Arrays.asList(MCTSEnums.Parallelisation.values()));
+        addTunableParameter("nThreads", 0);
+        addTunableParameter("rootMerge", MCTSEnums.RootMerge.VisitSum, Arrays.asList(MCTSEnums.RootMerge.values()));
+        addTunableParameter("virtualLoss", 1, Arrays.asList(0, 1, 3, 10));
     }
 
     @Override
@@ -174,6 +182,10 @@ public class MCTSParams extends PlayerParameters {
         backupPolicy = (MCTSEnums.BackupPolicy) getParameterValue("backupPolicy");
         backupLambda = (double) getParameterValue("backupLambda");
         maxBackupThreshold = (int) getParameterValue("maxBackupThreshold");
+        parallelisation = (MCTSEnums.Parallelisation) getParameterValue("parallelisation");
+        nThreads = (int) getParameterValue("nThreads");
+        rootMerge = (MCTSEnums.RootMerge) getParameterValue("rootMerge");
+        virtualLoss = (int) getParameterValue("virtualLoss");
         try {
             instantiationClass = Class.forName((String) getParameterValue("instantiationClass"));
         } catch (ClassNotFoundException e) {
@@ -229,6 +241,13 @@ public class MCTSParams extends PlayerParameters {
         };
     }
 
+    /**
+     * @return the number of trees or workers to use for parallel search
+     */
+    public int getNThreads() {
+        return nThreads > 0 ? nThreads : Runtime.getRuntime().availableProcessors();
+    }
+
     public IStateHeuristic getHeuristic() {
         return heuristic;
     }
@@ -10,9 +10,14 @@ import core.interfaces.IStateHeuristic;
 import evaluation.metrics.Event;
 import players.IAnyTimePlayer;
 import utilities.Pair;
+import utilities.SplitRandom;
 import utilities.Utils;
 
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -29,6 +34,9 @@ public class MCTSPlayer extends AbstractPlayer implements IAnyTimePlayer {
     protected Pair<Integer, AbstractAction> lastAction;
     List<Map<Object, Pair<Integer, Double>>> MASTStats;
     protected Map<Object, Integer> oldGraphKeys = new HashMap<>();
+    // The players that run the search in parallel, if params.parallelisation is not None. These are created for each game.
+    protected List<MCTSPlayer> workers;
+    private ExecutorService executor;
 
     public MCTSPlayer() {
         this(new MCTSParams());
@@ -40,7 +48,7 @@ public class MCTSPlayer extends AbstractPlayer implements IAnyTimePlayer {
 
     public MCTSPlayer(MCTSParams params, String name) {
         super(params, name);
-        rnd = new Random(parameters.getRandomSeed());
+        rnd = new SplitRandom(parameters.getRandomSeed());
     }
 
     @Override
@@ -51,7 +59,7 @@ public class MCTSPlayer extends AbstractPlayer implements IAnyTimePlayer {
     @Override
     public void initializePlayer(AbstractGameState state) {
         if (getParameters().resetSeedEachGame) {
-            rnd = new Random(parameters.getRandomSeed());
+            rnd = new SplitRandom(parameters.getRandomSeed());
             getParameters().rolloutPolicy = null;
             getParameters().getRolloutStrategy();
             getParameters().opponentModel = null;  // thi swill force reconstruction from random seed
@@ -63,6 +71,7 @@ public class MCTSPlayer extends AbstractPlayer implements IAnyTimePlayer {
         MASTStats = null;
         root = null;
         oldGraphKeys = new HashMap<>();
+        workers = null;
         getParameters().getRolloutStrategy().initializePlayer(state);
         getParameters().getOpponentModel().initializePlayer(state);
     }
@@ -259,12 +268,18 @@ public class MCTSPlayer extends AbstractPlayer implements IAnyTimePlayer {
 
     @Override
     public AbstractAction _getAction(AbstractGameState gameState, List<AbstractAction> actions) {
+        if (getParameters().parallelisation == MCTSEnums.Parallelisation.Root)
+            return rootParallelAction(gameState, actions);
+
         // Search for best action from the root
         long currentTimeNano = System.nanoTime();
         createRootNode(gameState);
         long timeTaken = System.nanoTime() - currentTimeNano;
 
-        root.mctsSearch(timeTaken / 1000000);
+        if (getParameters().parallelisation == MCTSEnums.Parallelisation.Tree)
+            new TreeParallelSearch(root).search(timeTaken / 1000000, getWorkers(gameState), getExecutor());
+        else
+            root.mctsSearch(timeTaken / 1000000);
 
         if (getParameters().actionHeuristic instanceof ITreeProcessor)
             ((ITreeProcessor) getParameters().actionHeuristic).process(root);
@@ -289,8 +304,98 @@ public class MCTSPlayer extends AbstractPlayer implements IAnyTimePlayer {
         return lastAction.b.copy();
     }
 
+    /**
+     * Root parallelisation. Each worker searches its own tree from its own copy of the state, with the full budget,
+     * and the action is then chosen from their results according to params.rootMerge.
+     */
+    protected AbstractAction rootParallelAction(AbstractGameState gameState, List<AbstractAction> actions) {
+        List<MCTSPlayer> rootWorkers = getWorkers(gameState);
+        List<Runnable> tasks = new ArrayList<>();
+        for (MCTSPlayer worker : rootWorkers) {
+            // copies are made here, as copying a state may not be thread-safe
+            AbstractGameState workerState = gameState.copy();
+            tasks.add(() -> worker._getAction(workerState, actions));
+        }
+        runInParallel(getExecutor(), tasks);
+
+        // the total visits of each action over all trees, and the number of trees that chose it
+        Map<AbstractAction, Integer> visits = new LinkedHashMap<>();
+        Map<AbstractAction, Integer> votes = new HashMap<>();
+        for (AbstractAction action : actions) {
+            visits.put(action, rootWorkers.stream().mapToInt(w -> w.root.actionVisits(action)).sum());
+        }
+        for (MCTSPlayer worker : rootWorkers) {
+            votes.merge(worker.lastAction.b, 1, Integer::sum);
+        }
+        Comparator<AbstractAction> byVisits = Comparator.comparingInt(visits::get);
+        Comparator<AbstractAction> order = getParameters().rootMerge == MCTSEnums.RootMerge.Vote ?
+                Comparator.<AbstractAction>comparingInt(a -> votes.getOrDefault(a, 0)).thenComparing(byVisits) : byVisits;
+        AbstractAction bestAction = actions.stream().max(order).orElseThrow(() -> new AssertionError("No actions available"));
+
+        // the first tree stands in for the search as a whole in getDecisionStats() and the MCTS metrics
+        root = rootWorkers.get(0).root;
+        lastAction = new Pair<>(gameState.getCurrentPlayer(), bestAction);
+        // and each tree is told the action that was actually taken, in case it is reused
+        for (MCTSPlayer worker : rootWorkers)
+            worker.lastAction = lastAction;
+        return bestAction.copy();
+    }
+
+    /**
+     * The workers for parallel search. Each has its own copy of the parameters (with a different random seed, and no
+     * parallelisation) and of the forward model, and hence its own rollout and opponent policies.
+     */
+    protected List<MCTSPlayer> getWorkers(AbstractGameState state) {
+        if (workers == null) {
+            workers = new ArrayList<>();
+            for (int i = 0; i < getParameters().getNThreads(); i++) {
+                MCTSParams workerParams = (MCTSParams) getParameters().copy();
+                workerParams.setParameterValue("parallelisation", MCTSEnums.Parallelisation.None);
+                workerParams.setParameterValue("randomSeed", rnd.nextInt());
+                MCTSPlayer worker = new MCTSPlayer(workerParams, this + "_" + i);
+                worker.setForwardModel(getForwardModel().copy());
+                worker.initializePlayer(state);
+                workers.add(worker);
+            }
+        }
+        return workers;
+    }
+
+    protected ExecutorService getExecutor() {
+        if (executor == null) {
+            executor = Executors.newFixedThreadPool(getParameters().getNThreads(), r -> {
+                Thread thread = new Thread(r, "MCTS worker");
+                thread.setDaemon(true);  // so that an unfinished player does not stop the JVM from exiting
+                return thread;
+            });
+        }
+        return executor;
+    }
+
+    /**
+     * Runs all the tasks on the executor, and waits for them to finish
+     */
+    static void runInParallel(ExecutorService executor, List<Runnable> tasks) {
+        List<Future<?>> results = tasks.stream().map(executor::submit).collect(Collectors.toList());
+        try {
+            for (Future<?> result : results)
+                result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for MCTS workers", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Error error)
+                throw error;
+            throw new RuntimeException("Error in MCTS worker", e.getCause());
+        }
+    }
+
     @Override
     public void finalizePlayer(AbstractGameState state) {
+        if (executor != null) {
+            executor.shutdown();
+            executor = null;
+        }
         getParameters().getRolloutStrategy().onEvent(Event.createEvent(Event.GameEvent.GAME_OVER, state));
         getParameters().getOpponentModel().onEvent(Event.createEvent(Event.GameEvent.GAME_OVER, state));
         if (getParameters().heuristic instanceof IGameListener)
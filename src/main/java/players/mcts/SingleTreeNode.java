@@ -40,6 +40,8 @@ public class SingleTreeNode {
     protected AbstractAction actionToReach;
     // Number of visits to this node
     protected int nVisits, inheritedVisits;
+    // visits of this node by tree parallel workers that have yet to back up (counted as the virtual loss on an action)
+    int virtualVisits;
     protected int rolloutActionsTaken;
     // variables to track rollout - these were originally local in rollout(); but
     // having them on the node reduces verbiage in passing to advance() to check rollout termination in some edge cases
@@ -309,9 +311,6 @@ public class SingleTreeNode {
         initialiseRootMetrics();
         initialisationTimeTaken = initialisationTime;
         // Variables for tracking time budget
-        double avgTimeTaken;
-        long remaining;
-        int remainingLimit = params.breakMS;
         ElapsedCpuTimer elapsedTimer = new ElapsedCpuTimer();
         if (params.budgetType == BUDGET_TIME) {
             elapsedTimer.setMaxTimeMillis(params.budget - initialisationTime);
@@ -349,27 +348,37 @@ public class SingleTreeNode {
             numIters++;
             //       System.out.printf("MCTS Iteration %d, timeLeft: %d\n", numIters, elapsedTimer.remainingTimeMillis());
             // Check stopping condition
-            PlayerConstants budgetType = params.budgetType;
-            if (budgetType == BUDGET_TIME) {
-                // Time budget
-                remaining = elapsedTimer.remainingTimeMillis();
-                avgTimeTaken = (double) elapsedTimer.elapsedMillis() / numIters;
-                stop = remaining <= 2 * avgTimeTaken || remaining <= remainingLimit;
-            } else if (budgetType == BUDGET_ITERATIONS) {
-                // Iteration budget
-                stop = numIters >= params.budget;
-            } else if (budgetType == BUDGET_FM_CALLS) {
-                // FM calls budget
-                stop = fmCallsCount > params.budget || numIters > params.budget;
-            } else if (budgetType == BUDGET_COPY_CALLS) {
-                stop = copyCount > params.budget || numIters > params.budget;
-            } else if (budgetType == BUDGET_FMANDCOPY_CALLS) {
-                stop = (copyCount + fmCallsCount) > params.budget || numIters > params.budget;
-            }
+            stop = budgetExhausted(numIters, elapsedTimer);
         }
         timeTaken = elapsedTimer.elapsedMillis();
     }
 
+    /**
+     * The stopping condition for the search, given the number of iterations so far and a timer started at
+     * the beginning of the search (only used with a time budget). FM calls and copies are counted on this node,
+     * which should be the root.
+     */
+    protected boolean budgetExhausted(int numIters, ElapsedCpuTimer elapsedTimer) {
+        PlayerConstants budgetType = params.budgetType;
+        if (budgetType == BUDGET_TIME) {
+            // Time budget
+            long remaining = elapsedTimer.remainingTimeMillis();
+            double avgTimeTaken = (double) elapsedTimer.elapsedMillis() / numIters;
+            return remaining <= 2 * avgTimeTaken || remaining <= params.breakMS;
+        } else if (budgetType == BUDGET_ITERATIONS) {
+            // Iteration budget
+            return numIters >= params.budget;
+        } else if (budgetType == BUDGET_FM_CALLS) {
+            // FM calls budget
+            return fmCallsCount > params.budget || numIters > params.budget;
+        } else if (budgetType == BUDGET_COPY_CALLS) {
+            return copyCount > params.budget || numIters > params.budget;
+        } else if (budgetType == BUDGET_FMANDCOPY_CALLS) {
+            return (copyCount + fmCallsCount) > params.budget || numIters > params.budget;
+        }
+        return false;
+    }
+
     /**
      * oneSearchIteration() implements the strategy for tree search (plus expansion, rollouts, backup and so on)
      * Its result is purely stored in the tree generated from root
@@ -427,7 +436,7 @@ public class SingleTreeNode {
 
     private int validVisitsFor(AbstractAction action) {
         if (params.information == Closed_Loop)
-            return nVisits;
+            return nVisits + virtualVisits;
         ActionStats stats = actionValues.get(action);
         return stats == null ? 1 : stats.validVisits;
     }
@@ -882,22 +891,30 @@ public class SingleTreeNode {
      * @return - value of rollout.
      */
     protected double[] rollout(int lastActor) {
+        AbstractGameState rolloutState = openLoopState;
+        if ((params.rolloutLength > 0 || params.rolloutTermination != DEFAULT) && params.information == Closed_Loop) {
+            // the thinking here is that in openLoop we copy the state right at the root, and then use the forward
+            // model at each action. Hence the current state on the node is the one we have been using up to now.
+            /// Hence we do not need to copy it.
+            rolloutState = state.copy();
+            root.copyCount++;
+        }
+        return rollout(lastActor, rolloutState);
+    }
+
+    /**
+     * Perform a Monte Carlo rollout from the given state, which is advanced (and evaluated) as it is, without a copy.
+     *
+     * @return - value of rollout.
+     */
+    double[] rollout(int lastActor, AbstractGameState rolloutState) {
         lastActorInRollout = lastActor;
-        roundAtStartOfRollout = openLoopState.getRoundCounter();
-        turnAtStartOfRollout = openLoopState.getTurnCounter();
+        roundAtStartOfRollout = rolloutState.getRoundCounter();
+        turnAtStartOfRollout = rolloutState.getTurnCounter();
 
         // If rollouts are enabled, select actions for the rollout in line with the rollout policy
-        AbstractGameState rolloutState = openLoopState;
         if (params.rolloutLength > 0 || params.rolloutTermination != DEFAULT) {
             // even if rollout length is zero, we may rollout a few actions to reach the end of our turn, or the start of our next turn
-            if (params.information == Closed_Loop) {
-                // the thinking here is that in openLoop we copy the state right at the root, and then use the forward
-                // model at each action. Hence the current state on the node is the one we have been using up to now.
-                /// Hence we do not need to copy it.
-                rolloutState = state.copy();
-                root.copyCount++;
-            }
-
             AbstractAction next = null;
             while (!finishRollout(rolloutState)) {
                 List<AbstractAction> availableActions = forwardModel.computeAvailableActions(rolloutState, params.actionSpace);
@@ -911,10 +928,9 @@ public class SingleTreeNode {
             }
         }
         // Evaluate final state and return normalised score
-        double[] retValue = new double[rolloutState.getNPlayers()];
+        double[] retValue = params.heuristic.evaluateAllPlayers(rolloutState);
 
         for (int i = 0; i < retValue.length; i++) {
-            retValue[i] = params.heuristic.evaluateState(rolloutState, i);
             if (Double.isNaN(retValue[i]))
                 throw new AssertionError("Illegal heuristic value - should be a number");
         }
@@ -0,0 +1,194 @@
+package players.mcts;
+
+import core.AbstractGameState;
+import core.actions.AbstractAction;
+import utilities.ElapsedCpuTimer;
+import utilities.Pair;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+import static players.PlayerConstants.BUDGET_TIME;
+import static players.mcts.MCTSEnums.Information.Closed_Loop;
+import static players.mcts.MCTSEnums.OpponentTreePolicy.OneTree;
+import static players.mcts.MCTSEnums.OpponentTreePolicy.SelfOnly;
+
+/**
+ * Tree parallelisation of MCTS: several workers run search iterations on the one tree.
+ * <p>
+ * Selection, expansion and back-propagation all read and write the statistics on the nodes, so these are done while
+ * holding the lock on the root node. The rollout and the evaluation of its final state only use the state reached
+ * in the tree, and these run concurrently. Each worker is an MCTSPlayer with its own copy of the parameters,
+ * forward model, and rollout and opponent policies, so nothing used in a rollout is shared between workers.
+ * <p>
+ * While a worker is rolling out, each action on its path through the tree has a virtual loss of
+ * params.virtualLoss visits at the lowest reward seen so far. This steers the other workers to different
+ * parts of the tree until the real result is backed up, at which point the virtual loss is removed.
+ */
+class TreeParallelSearch {
+
+    private final SingleTreeNode root;
+    private final MCTSParams params;
+    // guarded by the lock on root
+    private int iterations;
+    private boolean stop;
+
+    /**
+     * The parts of one iteration that need to be kept while its rollout runs without the lock on the tree
+     */
+    private record Iteration(SingleTreeNode selected, AbstractGameState rolloutState,
+                             List<SingleTreeNode> trajectory, List<Pair<Integer, AbstractAction>> actionsInTree,
+                             List<List<AbstractAction>> actionsAvailable, int lastActorInTree,
+                             int virtualLoss, double lossValue) {
+    }
+
+    TreeParallelSearch(SingleTreeNode root) {
+        this.root = root;
+        this.params = root.params;
+        if (params.opponentTreePolicy != OneTree && params.opponentTreePolicy != SelfOnly)
+            throw new AssertionError("Tree parallelisation is only supported with OneTree or SelfOnly trees, not " + params.opponentTreePolicy);
+        if (params.rolloutType == MCTSEnums.Strategies.MAST || params.oppModelType == MCTSEnums.Strategies.MAST)
+            throw new AssertionError("Tree parallelisation does not support MAST rollouts, as the MAST statistics are shared");
+    }
+
+    /**
+     * Runs the search on the tree from root with the given workers, until the budget is used up.
+     * The budget is shared between all workers, and a time budget is measured in wall-clock time.
+     */
+    void search(long initialisationTime, List<MCTSPlayer> workers, ExecutorService executor) {
+        root.initialiseRootMetrics();
+        root.initialisationTimeTaken = initialisationTime;
+        if (root.redeterminisationPlayer == -1)
+            root.redeterminisationPlayer = root.decisionPlayer;
+        // time spent waiting for the lock must count against the budget, so we cannot use the thread CPU time
+        ElapsedCpuTimer elapsedTimer = new ElapsedCpuTimer() {
+            @Override
+            protected long getTime() {
+                return System.nanoTime();
+            }
+        };
+        if (params.budgetType == BUDGET_TIME)
+            elapsedTimer.setMaxTimeMillis(params.budget - initialisationTime);
+
+        List<Runnable> tasks = new ArrayList<>();
+        for (MCTSPlayer worker : workers) {
+            // each worker starts from its own copy of the root state, made here as copying a state may not be thread-safe
+            AbstractGameState workerState = root.state.copy();
+            tasks.add(() -> runWorker(worker, workerState, workers.size(), elapsedTimer));
+        }
+        MCTSPlayer.runInParallel(executor, tasks);
+        root.timeTaken = elapsedTimer.elapsedMillis();
+    }
+
+    private void runWorker(MCTSPlayer worker, AbstractGameState workerState, int nWorkers, ElapsedCpuTimer elapsedTimer) {
+        SingleTreeNode rolloutNode = createRolloutNode(worker);
+        try {
+            while (true) {
+                AbstractGameState iterationState = switch (params.information) {
+                    case Closed_Loop -> root.state;
+                    case Open_Loop -> workerState.copy();
+                    case Information_Set -> workerState.copy(root.redeterminisationPlayer);
+                };
+                Iteration iteration;
+                synchronized (root) {
+                    if (stop)
+                        return;
+                    iteration = select(iterationState);
+                }
+                double[] delta = rollout(rolloutNode, iteration);
+                synchronized (root) {
+                    backUp(rolloutNode, iteration, delta);
+                    iterations++;
+                    // with a time budget the average time of an iteration is per worker
+                    int numIters = params.budgetType == BUDGET_TIME ? Math.max(1, iterations / nWorkers) : iterations;
+                    stop = stop || root.budgetExhausted(numIters, elapsedTimer);
+                }
+            }
+        } catch (RuntimeException | Error e) {
+            synchronized (root) {
+                stop = true;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * The node that a worker uses to run its rollouts. This is not part of the tree; it has the worker's parameters
+     * and forward model, and is given the state reached in the tree before each rollout.
+     */
+    private SingleTreeNode createRolloutNode(MCTSPlayer worker) {
+        SingleTreeNode node = new SingleTreeNode();
+        node.root = node;
+        node.params = worker.getParameters();
+        node.forwardModel = worker.getForwardModel();
+        node.rnd = worker.getRnd();
+        node.decisionPlayer = root.decisionPlayer;
+        return node;
+    }
+
+    // Selection and expansion, which must be called with the lock on root held
+    private Iteration select(AbstractGameState iterationState) {
+        if (iterationState != root.state)
+            root.copyCount++;
+        root.setActionsFromOpenLoopState(iterationState);
+        root.actionsInTree = new ArrayList<>();
+        root.currentNodeTrajectory = new ArrayList<>();
+        root.actionsInRollout = new ArrayList<>();
+
+        SingleTreeNode selected = root.treePolicy();
+
+        List<SingleTreeNode> trajectory = root.currentNodeTrajectory;
+        List<Pair<Integer, AbstractAction>> actionsInTree = root.actionsInTree;
+        // other workers will change the actions available at these nodes before we back up, so we keep the ones we saw
+        List<List<AbstractAction>> actionsAvailable = new ArrayList<>(trajectory.size());
+        // there is no lowest reward until the first result has been backed up, and so no virtual loss either
+        int virtualLoss = root.lowReward == Double.POSITIVE_INFINITY ? 0 : params.virtualLoss;
+        double lossValue = virtualLoss == 0 ? 0.0 : root.lowReward;
+        for (int i = 0; i < trajectory.size(); i++) {
+            SingleTreeNode node = trajectory.get(i);
+            actionsAvailable.add(node.actionsFromOpenLoopState);
+            node.actionValues.get(actionsInTree.get(i).b).addVirtualLoss(node.decisionPlayer, virtualLoss, lossValue);
+            node.virtualVisits += virtualLoss;
+        }
+        int lastActorInTree = actionsInTree.isEmpty() ? root.decisionPlayer : actionsInTree.get(actionsInTree.size() - 1).a;
+        // another worker may visit the selected node before the rollout starts, so we keep the state to roll out from.
+        // In Closed_Loop this is the state on the node, which is shared with the other workers, so we take a private
+        // copy here while we hold the lock (copying a state, or evaluating it, may write to caches on it)
+        AbstractGameState rolloutState = selected.openLoopState;
+        if (params.information == Closed_Loop) {
+            rolloutState = selected.state.copy();
+            root.copyCount++;
+        }
+        return new Iteration(selected, rolloutState, trajectory, actionsInTree,
+                actionsAvailable, lastActorInTree, virtualLoss, lossValue);
+    }
+
+    // The rollout, which runs without the lock; nothing in the tree (or any state in it) is used here
+    private double[] rollout(SingleTreeNode rolloutNode, Iteration iteration) {
+        rolloutNode.openLoopState = iteration.rolloutState;
+        rolloutNode.actionsInRollout = new ArrayList<>();
+        rolloutNode.fmCallsCount = 0;
+        rolloutNode.copyCount = 0;
+        return rolloutNode.rollout(iteration.lastActorInTree, iteration.rolloutState);
+    }
+
+    // Back-propagation, which must be called with the lock on root held
+    private void backUp(SingleTreeNode rolloutNode, Iteration iteration, double[] delta) {
+        for (int i = 0; i < iteration.trajectory.size(); i++) {
+            SingleTreeNode node = iteration.trajectory.get(i);
+            node.actionValues.get(iteration.actionsInTree.get(i).b).removeVirtualLoss(node.decisionPlayer, iteration.virtualLoss, iteration.lossValue);
+            node.virtualVisits -= iteration.virtualLoss;
+            node.actionsFromOpenLoopState = iteration.actionsAvailable.get(i);
+        }
+        root.currentNodeTrajectory = iteration.trajectory;
+        root.actionsInTree = iteration.actionsInTree;
+        root.actionsInRollout = rolloutNode.actionsInRollout;
+        root.fmCallsCount += rolloutNode.fmCallsCount;
+        root.copyCount += rolloutNode.copyCount;
+        root.rolloutActionsTaken += rolloutNode.actionsInRollout.size();
+
+        iteration.selected.backUp(delta);
+        root.updateMASTStatistics(iteration.actionsInTree, rolloutNode.actionsInRollout, delta);
+    }
+}
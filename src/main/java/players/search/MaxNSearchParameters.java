@@ -15,12 +15,15 @@ public class MaxNSearchParameters extends PlayerParameters {
     protected SearchUnit searchUnit = SearchUnit.ACTION;
     protected IStateHeuristic heuristic;
     protected boolean paranoid = false;
+    // number of entries in the transposition table; 0 for no table. This is only used in games that keep a Zobrist key
+    protected int transpositionTableSize = 0;
 
     public MaxNSearchParameters() {
         this.addTunableParameter("searchDepth", 1);
         this.addTunableParameter("searchUnit", SearchUnit.ACTION);
         this.addTunableParameter("heuristic", IStateHeuristic.class);
         this.addTunableParameter("paranoid", false);
+        this.addTunableParameter("transpositionTableSize", 0);
     }
 
     @Override
@@ -30,6 +33,7 @@ public class MaxNSearchParameters extends PlayerParameters {
         searchUnit = (SearchUnit) getParameterValue("searchUnit");
         heuristic = (IStateHeuristic) getParameterValue("heuristic");
         paranoid = (boolean) getParameterValue("paranoid");
+        transpositionTableSize = (int) getParameterValue("transpositionTableSize");
         if (heuristic == null) {
             heuristic = new GameDefaultHeuristic();
         }
@@ -29,10 +29,17 @@ public class MaxNSearchPlayer extends AbstractPlayer {
      *
      * Additionally, the BUDGET can be specified as a cutoff for the search. If this much time passes
      * without the search finishing, the best action found so far is returned (likely to be pretty random).
+     * <p></p>
+     * If transpositionTableSize is set and the game keeps a Zobrist key (see AbstractGameState.hasZobristKey()),
+     * then the values and best action found from each state are kept in a transposition table. A state that is
+     * reached again by a different sequence of actions (or in a later decision) is then not searched again if it was
+     * already searched at least as deep, and otherwise the best action found last time is tried first.
      */
 
 
-    private long startTime;
+    protected long startTime;
+    private boolean outOfTime;
+    private TranspositionTable transpositionTable;
     public MaxNSearchPlayer(MaxNSearchParameters parameters) {
         super(parameters, "MinMaxSearch");
     }
@@ -50,9 +57,18 @@ public class MaxNSearchPlayer extends AbstractPlayer {
         // - MACRO_ACTION: only when the currentPlayer() has changed as a result of applying the action
         // - TURN: only when turn number has changed as a result of applying the action
         startTime = System.currentTimeMillis();
+        outOfTime = false;
+        if (transpositionTable != null)
+            transpositionTable.newSearch();
         return expand(gs, actions, getParameters().searchDepth).action;
     }
 
+    @Override
+    public void initializePlayer(AbstractGameState state) {
+        int size = getParameters().transpositionTableSize;
+        transpositionTable = size > 0 ? new TranspositionTable(size) : null;
+    }
+
     /**
      * This returns a Pair.
      * The first element is the best action to take, based on the recursive search.
@@ -60,26 +76,38 @@ public class MaxNSearchPlayer extends AbstractPlayer {
      */
     protected SearchResult expand(AbstractGameState state, List<AbstractAction> actions, int searchDepth) {
         MaxNSearchParameters params = getParameters();
-        if (System.currentTimeMillis() - startTime > params.budget) {
+        if (outOfTime || System.currentTimeMillis() - startTime > params.budget) {
             // out of time - return null action and a vector of zeros
+            outOfTime = true;
             return new SearchResult(null, new double[state.getNPlayers()]);
         }
+        TranspositionTable table = transpositionTable != null && state.hasZobristKey() ? transpositionTable : null;
+        long key = table == null ? 0 : state.getZobristKey();
+        int entry = table == null ? -1 : table.probe(key);
+        // the action from the table is checked against those available, in case of a collision of keys
+        AbstractAction tableAction = entry == -1 ? null : table.getAction(entry);
+        if (tableAction != null && !actions.contains(tableAction))
+            entry = -1;
+        if (entry != -1 && table.getDepth(entry) >= searchDepth && (tableAction != null || searchDepth == 0 || !state.isNotTerminal())) {
+            return new SearchResult(tableAction, table.getValues(entry));
+        }
         // if we have reached the end of the search, or the state is terminal, we evaluate the state
         if (searchDepth == 0 || !state.isNotTerminal()) {
             // when valuing a state, we need to record the full vector of values for each player
             // as all of these need to be back-propagated up so that the relevant one can be used for decision-making
             // if paranoid and this action belongs to another player, we assume they try to minimise our score
-            double[] values = new double[state.getNPlayers()];
+            double[] values;
             if (params.paranoid) {
+                values = new double[state.getNPlayers()];
                 double value = params.heuristic.evaluateState(state, getPlayerID());
                 for (int i = 0; i < state.getNPlayers(); i++) {
                     values[i] = i == getPlayerID() ? value : -value;
                 }
             } else {
-                for (int i = 0; i < state.getNPlayers(); i++) {
-                    values[i] = params.heuristic.evaluateState(state, i);
-                }
+                values = params.heuristic.evaluateAllPlayers(state);
             }
+            if (table != null)
+                table.store(key, state.isNotTerminal() ? searchDepth : Integer.MAX_VALUE, values, null);
             return new SearchResult(null, values);
         }
 
@@ -89,33 +117,51 @@ public class MaxNSearchPlayer extends AbstractPlayer {
         AbstractAction bestAction = null;
         // we shuffle the actions so that ties are broken at random
         Collections.shuffle(actions, getRnd());
+        if (tableAction != null) {
+            // the best action from the last search of this state is tried first
+            Collections.swap(actions, 0, actions.indexOf(tableAction));
+        }
+        // if the forward model can undo actions, then we apply each action to state and take it back afterwards,
+        // rather than copying state for every action
+        boolean undo = getForwardModel().supportsUndo();
+        int actingPlayer = state.getCurrentPlayer();
+        int turn = state.getTurnCounter();
         for (AbstractAction action : actions) {
-            AbstractGameState stateCopy = state.copy();
-            getForwardModel().next(stateCopy, action);
+            AbstractGameState stateCopy = undo ? state : state.copy();
+            if (undo) {
+                getForwardModel().nextWithUndo(stateCopy, action);
+            } else {
+                getForwardModel().next(stateCopy, action);
+            }
             // if we are at the bottom, then save a bit of time by not calculating the valid actions (which we'll never try)
             List<AbstractAction> nextActions = searchDepth > 0 ? getForwardModel().computeAvailableActions(stateCopy) : List.of();
 
             int newDepth = switch (params.searchUnit) {
                 case ACTION -> searchDepth - 1;
                 case MACRO_ACTION ->
-                        state.getCurrentPlayer() != stateCopy.getCurrentPlayer() ? searchDepth - 1 : searchDepth;
-                case TURN -> state.getTurnCounter() != stateCopy.getTurnCounter() ? searchDepth - 1 : searchDepth;
+                        actingPlayer != stateCopy.getCurrentPlayer() ? searchDepth - 1 : searchDepth;
+                case TURN -> turn != stateCopy.getTurnCounter() ? searchDepth - 1 : searchDepth;
             };
 
             // recurse - we are here just interested in the value of stateCopy, and hence of taking action
             // We are not interested in the best action from stateCopy
             SearchResult result = expand(stateCopy, nextActions, newDepth);
+            if (undo) {
+                getForwardModel().undo(state);
+            }
 
             // we make the decision based on the actor at state, not the actor at stateCopy
-            if (result.value[state.getCurrentPlayer()]  > bestValue) {
+            if (result.value[actingPlayer]  > bestValue) {
                 bestAction = action;
                 bestValues = result.value;
-                bestValue = bestValues[state.getCurrentPlayer()];
+                bestValue = bestValues[actingPlayer];
             }
         }
         if (bestAction == null) {
             throw new AssertionError("No best action found");
         }
+        if (table != null && !outOfTime)
+            table.store(key, searchDepth, bestValues, bestAction);
         return new SearchResult(bestAction, bestValues);
     }
 
@@ -0,0 +1,85 @@
+package players.search;
+
+import core.actions.AbstractAction;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size table of the results of searches from previously seen states, indexed by their Zobrist key
+ * (see {@link core.AbstractGameState#getZobristKey()}).
+ * <p>
+ * Each entry holds the full key of its state, the depth that state was searched to, the vector of values found
+ * (one per player) and the best action. There is one entry per slot, and a slot is found from the low bits of the key.
+ * When two states need the same slot, the entry from the deeper search is kept, as that saved the most work; except
+ * that entries from a previous decision are always replaced, so the table does not fill up with old positions.
+ */
+class TranspositionTable {
+
+    private final long[] keys;
+    private final int[] depths;
+    private final int[] generations;
+    private final double[][] values;
+    private final AbstractAction[] actions;
+    private final int mask;
+    private int generation = 1;
+
+    /**
+     * @param size - the number of entries; this is rounded up to a power of two
+     */
+    TranspositionTable(int size) {
+        int capacity = Integer.highestOneBit(Math.max(1, size - 1)) << 1;
+        keys = new long[capacity];
+        depths = new int[capacity];
+        generations = new int[capacity];
+        values = new double[capacity][];
+        actions = new AbstractAction[capacity];
+        mask = capacity - 1;
+    }
+
+    /**
+     * Marks the start of a new decision, after which entries from previous decisions may be replaced by any new entry
+     */
+    void newSearch() {
+        generation++;
+    }
+
+    void clear() {
+        Arrays.fill(generations, 0);
+        Arrays.fill(values, null);
+        Arrays.fill(actions, null);
+    }
+
+    /**
+     * @return the slot holding the entry for the key, or -1 if there is none
+     */
+    int probe(long key) {
+        int slot = (int) key & mask;
+        return generations[slot] != 0 && keys[slot] == key ? slot : -1;
+    }
+
+    int getDepth(int slot) {
+        return depths[slot];
+    }
+
+    double[] getValues(int slot) {
+        return values[slot];
+    }
+
+    /**
+     * @return the best action found from the state, or null if the entry is for a leaf of the search
+     */
+    AbstractAction getAction(int slot) {
+        return actions[slot];
+    }
+
+    void store(long key, int depth, double[] value, AbstractAction action) {
+        int slot = (int) key & mask;
+        if (generations[slot] != 0 && depths[slot] > depth && (keys[slot] == key || generations[slot] == generation))
+            return;
+        keys[slot] = key;
+        depths[slot] = depth;
+        generations[slot] = generation;
+        values[slot] = value;
+        actions[slot] = action;
+    }
+}
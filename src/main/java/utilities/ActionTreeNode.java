@@ -210,6 +210,11 @@ public class ActionTreeNode {
         this.parent.value = 1;
         this.action = action;
     }
+    // marks the node as not available, and removes its action
+    public void clearAction() {
+        this.value = 0;
+        this.action = null;
+    }
     public AbstractAction getActionByVector(int[] vector){
         ActionTreeNode node = this;
         for (int i = 0; i < vector.length; i++) {
@@ -0,0 +1,116 @@
+package utilities;
+
+import java.util.Arrays;
+
+/**
+ * Histogram of non-negative long values (such as times in nanoseconds, or numbers of bytes), that uses a fixed
+ * amount of memory however many values are added.
+ * <p>
+ * Values below 16 are counted exactly; above that each power of two is split into 16 buckets, so that percentiles
+ * are accurate to within 1/16 (6.25%) of the value. The count, mean, min and max are exact.
+ */
+public class Histogram {
+
+    private static final int SUB_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+
+    private final long[] counts = new long[(Long.SIZE - SUB_BITS + 1) * SUB_BUCKETS];
+    private long count;
+    private double sum;
+    private long min = Long.MAX_VALUE;
+    private long max = Long.MIN_VALUE;
+
+    /**
+     * @param value - the value to add; negative values are counted as zero
+     */
+    public void add(long value) {
+        value = Math.max(0, value);
+        counts[bucket(value)]++;
+        count++;
+        sum += value;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    /**
+     * Adds all the values of another histogram to this one.
+     */
+    public void merge(Histogram other) {
+        for (int i = 0; i < counts.length; i++)
+            counts[i] += other.counts[i];
+        count += other.count;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    public void reset() {
+        Arrays.fill(counts, 0);
+        count = 0;
+        sum = 0;
+        min = Long.MAX_VALUE;
+        max = Long.MIN_VALUE;
+    }
+
+    static int bucket(long value) {
+        if (value < SUB_BUCKETS)
+            return (int) value;
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    static long lowestValue(int bucket) {
+        if (bucket < SUB_BUCKETS)
+            return bucket;
+        int exponent = bucket / SUB_BUCKETS + SUB_BITS - 1;
+        long sub = bucket % SUB_BUCKETS;
+        return (SUB_BUCKETS + sub) << (exponent - SUB_BITS);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMean() {
+        return count == 0 ? 0.0 : sum / count;
+    }
+
+    public double getSum() {
+        return sum;
+    }
+
+    public long getMin() {
+        return count == 0 ? 0 : min;
+    }
+
+    public long getMax() {
+        return count == 0 ? 0 : max;
+    }
+
+    /**
+     * @param percentile - between 0 and 100
+     * @return the highest value in the bucket of the given percentile (but no more than the maximum value added),
+     * or 0 if there are no values
+     */
+    public long getPercentile(double percentile) {
+        if (count == 0)
+            return 0;
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                long highest = i + 1 < counts.length ? lowestValue(i + 1) - 1 : Long.MAX_VALUE;
+                return Math.max(min, Math.min(highest, max));
+            }
+        }
+        return max;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("n=%d mean=%.1f p50=%d p99=%d max=%d", count, getMean(), getPercentile(50),
+                getPercentile(99), getMax());
+    }
+}
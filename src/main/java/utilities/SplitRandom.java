@@ -0,0 +1,129 @@
+package utilities;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.SplittableRandom;
+
+/**
+ * A {@link Random} that generates its numbers with a {@link SplittableRandom} (the SplitMix64 algorithm), and so can
+ * be used anywhere a Random is, for example in {@link core.components.Deck#shuffle(Random)}.
+ * <p>
+ * Unlike java.util.Random this is not thread-safe, and so has no synchronisation cost: each game state and player
+ * has its own. Independent streams are made with {@link #split(long...)}, which derives the seed of the new stream
+ * from the seed of this one, the keys given (for example a player ID and game tick), and the number of streams split
+ * from this one so far. Splitting does not use any numbers from this stream, so the numbers it generates (and
+ * hence the course of a game) do not depend on how many copies of a state have been made, and runs with the same
+ * seed are reproducible.
+ * <p>
+ * The mixing used by split() can be inverted, so a stream split from another reveals it. Streams that are given to
+ * a player (who must not be able to work back to the stream of the game) are made with {@link #hiddenSplit(long...)}
+ * instead, which uses a one-way hash. The seed of a stream is never exposed.
+ */
+public class SplitRandom extends Random {
+
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private SplittableRandom source;
+    private long streamSeed;
+    private long nSplits;
+
+    public SplitRandom(long seed) {
+        super(seed);
+    }
+
+    /**
+     * Called by the Random constructor, and so before any fields of this class are initialised
+     */
+    @Override
+    public void setSeed(long seed) {
+        source = new SplittableRandom(seed);
+        streamSeed = seed;
+        nSplits = 0;
+    }
+
+    /**
+     * @param keys - any values that distinguish the new stream, such as a player ID
+     * @return a new, independent stream
+     */
+    public SplitRandom split(long... keys) {
+        long seed = seedFor(streamSeed, keys);
+        return new SplitRandom(seedFor(seed, nSplits++));
+    }
+
+    /**
+     * As {@link #split(long...)}, but the seed of the new stream is derived with a one-way hash, so that the new
+     * stream (or a seed derived from it) does not reveal this one.
+     */
+    public SplitRandom hiddenSplit(long... keys) {
+        long[] allKeys = Arrays.copyOf(keys, keys.length + 1);
+        allKeys[keys.length] = nSplits++;
+        return new SplitRandom(hiddenSeedFor(streamSeed, allKeys));
+    }
+
+    /**
+     * Combines a seed with some keys to give the seed of a different stream. This is fast, but can be inverted to
+     * recover the seed; see {@link #hiddenSeedFor(long, long...)}.
+     */
+    public static long seedFor(long seed, long... keys) {
+        long h = mix64(seed + GOLDEN_GAMMA);
+        for (long key : keys)
+            h = mix64(h ^ mix64(key + GOLDEN_GAMMA));
+        return h;
+    }
+
+    /**
+     * Combines a seed with some keys to give the seed of a different stream, with a one-way hash (SHA-256), so
+     * that the seed cannot be recovered from the result.
+     */
+    public static long hiddenSeedFor(long seed, long... keys) {
+        ByteBuffer bytes = ByteBuffer.allocate(Long.BYTES * (keys.length + 1));
+        bytes.putLong(seed);
+        for (long key : keys)
+            bytes.putLong(key);
+        try {
+            return ByteBuffer.wrap(MessageDigest.getInstance("SHA-256").digest(bytes.array())).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform must provide SHA-256
+            throw new AssertionError(e);
+        }
+    }
+
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    @Override
+    protected int next(int bits) {
+        return source.nextInt() >>> (32 - bits);
+    }
+
+    @Override
+    public int nextInt() {
+        return source.nextInt();
+    }
+
+    @Override
+    public int nextInt(int bound) {
+        return source.nextInt(bound);
+    }
+
+    @Override
+    public long nextLong() {
+        return source.nextLong();
+    }
+
+    @Override
+    public double nextDouble() {
+        return source.nextDouble();
+    }
+
+    @Override
+    public boolean nextBoolean() {
+        return source.nextBoolean();
+    }
+}
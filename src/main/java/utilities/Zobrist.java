@@ -0,0 +1,42 @@
+package utilities;
+
+/**
+ * Random 64-bit keys for Zobrist hashing of game states.
+ * <p>
+ * The key of a state is the XOR of one key for each (feature, index, value) that describes it, for example
+ * (train cards, player 2 * nColours + Red, 4). When one value changes, the state's key is updated by XOR-ing out
+ * the key for the old value and XOR-ing in the key for the new one, so the key is kept up to date at the cost of a
+ * couple of multiplications per change.
+ * <p>
+ * Rather than a table of random numbers, each key is computed by mixing the feature, index and value with the
+ * SplitMix64 finaliser. The keys are then the same in every copy of a state and every run, without needing a
+ * table sized for every game.
+ */
+public class Zobrist {
+
+    private Zobrist() {
+    }
+
+    /**
+     * @param feature - a number for the kind of thing being described; each game picks its own
+     * @param index   - which one of them (e.g. a player, a route, a grid cell)
+     * @param value   - its value
+     */
+    public static long key(int feature, int index, int value) {
+        return mix(mix(((long) feature << 32) | (index & 0xFFFFFFFFL)) + value);
+    }
+
+    /**
+     * @return the XOR of the keys for the old and new value, to apply to a state's key when the value changes
+     */
+    public static long change(int feature, int index, int oldValue, int newValue) {
+        return oldValue == newValue ? 0 : key(feature, index, oldValue) ^ key(feature, index, newValue);
+    }
+
+    private static long mix(long z) {
+        z += 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,45 @@
+package core;
+
+import core.components.Card;
+import org.junit.Test;
+import utilities.Hash;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.Assert.*;
+
+public class ConcurrentComponentIDs {
+
+    @Test
+    public void componentsCreatedOnManyThreadsHaveUniqueIDs() throws Exception {
+        int nThreads = 8, perThread = 20000;
+        ExecutorService executor = Executors.newFixedThreadPool(nThreads);
+        List<Future<int[]>> results = new ArrayList<>();
+        for (int t = 0; t < nThreads; t++) {
+            results.add(executor.submit(() -> {
+                int[] ids = new int[perThread];
+                for (int i = 0; i < perThread; i++)
+                    ids[i] = new Card().getComponentID();
+                return ids;
+            }));
+        }
+        Set<Integer> allIDs = new HashSet<>();
+        for (Future<int[]> f : results)
+            for (int id : f.get())
+                assertTrue("Duplicate component ID " + id, allIDs.add(id));
+        executor.shutdown();
+        assertEquals(nThreads * perThread, allIDs.size());
+    }
+
+    @Test
+    public void hashIsConsistentAcrossThreads() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int t = 0; t < 64; t++)
+            results.add(executor.submit(() -> Hash.GetInstance().hash("concurrentHashKey")));
+        for (Future<Integer> f : results)
+            assertEquals("concurrentHashKey".hashCode(), (int) f.get());
+        executor.shutdown();
+    }
+}
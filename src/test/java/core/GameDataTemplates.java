@@ -0,0 +1,55 @@
+package core;
+
+import core.components.Deck;
+import core.components.GraphBoardWithEdges;
+import games.battlelore.BattleloreData;
+import games.tickettoride.TicketToRideForwardModel;
+import games.tickettoride.TicketToRideGameState;
+import games.tickettoride.TicketToRideParameters;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class GameDataTemplates {
+
+    @Test
+    public void dataIsParsedOncePerDirectory() {
+        AbstractGameData data = AbstractGameData.getTemplate("data/tickettoride/");
+        assertSame(data, AbstractGameData.getTemplate("data/tickettoride"));
+        assertSame(data, AbstractGameData.getTemplate("data/../data/tickettoride/"));
+        assertNotSame(data, AbstractGameData.getTemplate("data/pandemic/"));
+        // a sub-class of game data at the same path is cached separately
+        BattleloreData battlelore = AbstractGameData.getTemplate("data/battlelore/", BattleloreData::new);
+        assertSame(battlelore, AbstractGameData.getTemplate("data/battlelore/", BattleloreData::new));
+        assertNotSame(battlelore, AbstractGameData.getTemplate("data/battlelore/"));
+    }
+
+    @Test
+    public void componentsFromTemplateAreCopies() {
+        AbstractGameData data = AbstractGameData.getTemplate("data/tickettoride/");
+        GraphBoardWithEdges board = data.findGraphBoardWithEdges("locations");
+        GraphBoardWithEdges board2 = data.findGraphBoardWithEdges("locations");
+        assertNotSame(board, board2);
+        assertEquals(board.getBoardEdges().size(), board2.getBoardEdges().size());
+        Deck<?> deck = data.findDeck("TrainCars");
+        deck.clear();
+        assertNotEquals(0, data.findDeck("TrainCars").getSize());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void templatesCannotBeReloaded() {
+        AbstractGameData.getTemplate("data/tickettoride/").load("data/pandemic/");
+    }
+
+    @Test
+    public void gamesSetUpFromTemplateAreIndependent() {
+        TicketToRideParameters params = new TicketToRideParameters("data/tickettoride/");
+        TicketToRideForwardModel fm = new TicketToRideForwardModel();
+        TicketToRideGameState state1 = new TicketToRideGameState(params, 2);
+        TicketToRideGameState state2 = new TicketToRideGameState(params, 2);
+        fm.setup(state1);
+        fm.setup(state2);
+        assertNotSame(state1.getWorld(), state2.getWorld());
+        assertEquals(state1.getWorld().getBoardEdges().size(), state2.getWorld().getBoardEdges().size());
+    }
+}
@@ -0,0 +1,102 @@
+package core;
+
+import core.actions.AbstractAction;
+import games.GameType;
+import org.junit.Test;
+import players.simple.RandomPlayer;
+import utilities.Pair;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class HistoryLogTests {
+
+    @Test
+    public void copiesShareItemsButNotAdditions() {
+        HistoryLog<Integer> log = new HistoryLog<>(0);
+        for (int i = 0; i < 5; i++)
+            log.add(i);
+        HistoryLog<Integer> copy = log.copy();
+        copy.add(50);
+        log.add(5);
+        log.add(6);
+        assertEquals(List.of(0, 1, 2, 3, 4, 5, 6), log.toList());
+        assertEquals(List.of(0, 1, 2, 3, 4, 50), copy.toList());
+        assertEquals(6, (int) log.last());
+
+        copy.set(2, 20);
+        assertEquals(List.of(0, 1, 20, 3, 4, 50), copy.toList());
+        assertEquals(2, (int) log.toList().get(2));
+
+        log.truncate(3);
+        assertEquals(List.of(0, 1, 2), log.toList());
+        log.add(7);
+        assertEquals(List.of(0, 1, 2, 7), log.toList());
+        assertEquals(List.of(0, 1, 20, 3, 4, 50), copy.toList());
+    }
+
+    @Test
+    public void boundedLogKeepsTheMostRecentItems() {
+        HistoryLog<Integer> log = new HistoryLog<>(3);
+        assertNull(log.last());
+        for (int i = 0; i < 20; i++) {
+            log.add(i);
+            assertEquals(i + 1, log.size());
+            List<Integer> items = log.toList();
+            assertEquals(Math.min(i + 1, 3), items.size());
+            assertEquals(i, (int) items.get(items.size() - 1));
+            assertEquals(i + 1 - items.size(), log.firstIndex());
+        }
+        assertEquals(List.of(17, 18, 19), log.toList());
+        log.set(18, 80);
+        assertEquals(List.of(17, 80, 19), log.toList());
+        assertThrows(IndexOutOfBoundsException.class, () -> log.set(10, 0));
+        log.truncate(19);
+        assertEquals(19, log.size());
+        assertEquals(80, (int) log.last());
+        // an older item may still be held, and so come back into view
+        List<Integer> items = log.toList();
+        assertEquals(List.of(17, 80), items.subList(items.size() - 2, items.size()));
+        assertEquals(19 - items.size(), log.firstIndex());
+    }
+
+    @Test
+    public void stateCopiesHaveTheirOwnHistory() {
+        Game game = GameType.TicTacToe.createGameInstance(2, 5);
+        AbstractGameState state = game.getGameState();
+        AbstractForwardModel fm = game.getForwardModel();
+        Random rnd = new Random(5);
+        List<AbstractAction> actions = fm.computeAvailableActions(state);
+        fm.next(state, actions.get(rnd.nextInt(actions.size())));
+        AbstractGameState copy = state.copy();
+        List<AbstractAction> copyActions = fm.computeAvailableActions(copy);
+        fm.next(copy, copyActions.get(0));
+        actions = fm.computeAvailableActions(state);
+        fm.next(state, actions.get(actions.size() - 1));
+
+        assertEquals(2, state.getHistorySize());
+        assertEquals(2, copy.getHistorySize());
+        assertEquals(state.getHistory().get(0), copy.getHistory().get(0));
+        assertNotEquals(state.getLastAction(), copy.getLastAction());
+        assertEquals(copy.getHistory().get(1), copy.getLastAction());
+        assertEquals(state.getHistoryAsText().size(), copy.getHistoryAsText().size());
+    }
+
+    @Test
+    public void historyLengthBoundsTheHistory() {
+        Game game = GameType.TicTacToe.createGameInstance(2, 6);
+        CoreParameters params = new CoreParameters();
+        params.setParameterValue("historyLength", 2);
+        game.setCoreParameters(params);
+        game.reset(List.of(new RandomPlayer(new Random(1)), new RandomPlayer(new Random(2))));
+        game.run();
+        AbstractGameState state = game.getGameState();
+        assertTrue(state.getHistorySize() > 2);
+        List<Pair<Integer, AbstractAction>> history = state.getHistory();
+        assertEquals(2, history.size());
+        assertEquals(state.getLastAction(), history.get(1));
+        assertEquals(2, state.copy().getHistory().size());
+    }
+}
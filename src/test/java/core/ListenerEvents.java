@@ -0,0 +1,77 @@
+package core;
+
+import core.interfaces.IGameEvent;
+import evaluation.listeners.IGameListener;
+import evaluation.metrics.Event;
+import games.GameType;
+import org.junit.Test;
+import players.simple.RandomPlayer;
+
+import java.util.*;
+
+import static evaluation.metrics.Event.GameEvent.*;
+import static org.junit.Assert.*;
+
+public class ListenerEvents {
+
+    static class CountingListener implements IGameListener {
+        final Set<IGameEvent> eventTypes;
+        final Map<IGameEvent, Integer> counts = new HashMap<>();
+        final List<Event> actionsTaken = new ArrayList<>();
+        Game game;
+
+        CountingListener(Set<IGameEvent> eventTypes) {
+            this.eventTypes = eventTypes;
+        }
+
+        @Override
+        public boolean listensTo(IGameEvent eventType) {
+            return eventTypes == null || eventTypes.contains(eventType);
+        }
+
+        @Override
+        public void onEvent(Event event) {
+            assertTrue(listensTo(event.type));
+            counts.merge(event.type, 1, Integer::sum);
+            if (event.type == ACTION_TAKEN)
+                actionsTaken.add(event);
+        }
+
+        @Override
+        public void report() {
+        }
+
+        @Override
+        public void setGame(Game game) {
+            this.game = game;
+        }
+
+        @Override
+        public Game getGame() {
+            return game;
+        }
+    }
+
+    @Test
+    public void listenersOnlyGetTheEventsTheyListenTo() {
+        Game game = GameType.LoveLetter.createGameInstance(3, 12);
+        CountingListener all = new CountingListener(null);
+        CountingListener gameOver = new CountingListener(Set.of(GAME_OVER));
+        CountingListener actions = new CountingListener(Set.of(ACTION_TAKEN, ROUND_OVER));
+        game.addListener(all);
+        game.addListener(gameOver);
+        game.addListener(actions);
+        game.reset(List.of(new RandomPlayer(new Random(1)), new RandomPlayer(new Random(2)), new RandomPlayer(new Random(3))));
+        game.run();
+
+        assertEquals(Map.of(GAME_OVER, 1), gameOver.counts);
+        assertEquals(Set.of(ACTION_TAKEN, ROUND_OVER), actions.counts.keySet());
+        assertEquals(all.counts.get(ACTION_TAKEN), actions.counts.get(ACTION_TAKEN));
+        assertEquals(all.counts.get(ROUND_OVER), actions.counts.get(ROUND_OVER));
+        assertTrue(all.counts.get(ACTION_CHOSEN) > 0);
+        assertTrue(game.getGameState().hasListenerFor(ROUND_OVER));
+        // the listeners share each event, and its copy of the action
+        for (int i = 0; i < all.actionsTaken.size(); i++)
+            assertSame(all.actionsTaken.get(i), actions.actionsTaken.get(i));
+    }
+}
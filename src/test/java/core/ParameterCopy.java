@@ -1,8 +1,13 @@
 package core;
 
+import games.GameType;
 import games.puertorico.PuertoRicoParameters;
+import games.tictactoe.TicTacToeGameParameters;
+import games.tictactoe.TicTacToeGameState;
 import org.junit.Test;
 
+import java.util.Collections;
+
 import static org.junit.Assert.*;
 
 public class ParameterCopy {
@@ -16,4 +21,67 @@ public class ParameterCopy {
         assertNotEquals(params.getRandomSeed(), paramsCopy.getRandomSeed());
         assertEquals(params.hashCode(), paramsCopy.hashCode());
     }
+
+    @Test
+    public void frozenParametersAreSharedByStateCopies() {
+        Game game = GameType.TicketToRide.createGameInstance(2, 42);
+        AbstractGameState state = game.getGameState();
+        AbstractParameters params = state.getGameParameters();
+        assertTrue(params.isFrozen());
+        assertSame(params, state.copy().getGameParameters());
+        // copies for a player share a single frozen copy that hides the seed of the game
+        AbstractParameters playerParams = state.copy(0).getGameParameters();
+        assertNotSame(params, playerParams);
+        assertTrue(playerParams.isFrozen());
+        assertNotEquals(params.getRandomSeed(), playerParams.getRandomSeed());
+        assertSame(playerParams, state.copy(1).getGameParameters());
+        // and the hidden seed depends only on the seed of the game, so is the same on every run
+        Game sameSeed = GameType.TicketToRide.createGameInstance(2, 42);
+        assertEquals(playerParams.getRandomSeed(), sameSeed.getGameState().copy(0).getGameParameters().getRandomSeed());
+        assertThrows(IllegalStateException.class, () -> params.setMaxRounds(10));
+        assertThrows(IllegalStateException.class, params::randomize);
+
+        // a copy of frozen parameters can be changed
+        AbstractParameters paramsCopy = params.copy();
+        assertFalse(paramsCopy.isFrozen());
+        paramsCopy.setMaxRounds(10);
+        assertEquals(10, paramsCopy.getMaxRounds());
+    }
+
+    @Test
+    public void mutableParametersAreCopiedOnWrite() {
+        Game game = GameType.TicTacToe.createGameInstance(2, 42);
+        AbstractGameState state = game.getGameState();
+        AbstractParameters params = state.getGameParameters();
+        AbstractGameState copy = state.copy();
+        assertThrows(IllegalStateException.class, () -> ((TicTacToeGameParameters) params).setParameterValue("gridSize", 4));
+
+        TicTacToeGameParameters mutable = (TicTacToeGameParameters) state.getMutableGameParameters();
+        assertNotSame(params, mutable);
+        assertEquals(params.getRandomSeed(), mutable.getRandomSeed());
+        mutable.setParameterValue("gridSize", 4);
+        assertEquals(4, mutable.gridSize);
+        assertEquals(3, ((TicTacToeGameParameters) params).gridSize);
+        assertSame(params, copy.getGameParameters());
+
+        // the new parameters are frozen when the game is next reset
+        game.reset(Collections.emptyList());
+        assertTrue(mutable.isFrozen());
+        assertEquals(4, ((TicTacToeGameState) state).getGridBoard().getWidth());
+    }
+
+    @Test
+    public void resetDoesNotChangeSharedParameters() {
+        Game game = GameType.TicTacToe.createGameInstance(2, 42);
+        AbstractGameState state = game.getGameState();
+        AbstractGameState copy = state.copy();
+        AbstractParameters params = copy.getGameParameters();
+        game.reset(Collections.emptyList(), 99);
+        // the copy from the last game keeps its seed, and the new game has its own frozen parameters
+        assertEquals(42, params.getRandomSeed());
+        assertSame(params, copy.getGameParameters());
+        assertNotSame(params, state.getGameParameters());
+        assertEquals(99, state.getGameParameters().getRandomSeed());
+        assertTrue(state.getGameParameters().isFrozen());
+    }
 }
@@ -0,0 +1,89 @@
+package core;
+
+import core.components.Card;
+import core.components.Edge;
+import core.properties.*;
+import org.junit.Test;
+import utilities.Hash;
+
+import static org.junit.Assert.*;
+
+public class PropertySchemaSlots {
+
+    PropertySchema schema = new PropertySchema.Builder()
+            .addInt("owner")
+            .addBoolean("claimed")
+            .addLong("mask")
+            .addInt("count")
+            .build();
+    int ownerSlot = schema.getSlot("owner");
+    int countSlot = schema.getSlot("count");
+    int claimedSlot = schema.getSlot("claimed");
+    int ownerHash = Hash.GetInstance().hash("owner");
+
+    @Test
+    public void slotsAreNumberedPerType() {
+        assertEquals(0, ownerSlot);
+        assertEquals(1, countSlot);
+        assertEquals(0, claimedSlot);
+        assertEquals(0, schema.getSlot("mask"));
+        assertEquals(-1, schema.getSlot("notInSchema"));
+        assertEquals(2, schema.getNInts());
+        assertEquals(1, schema.getNLongs());
+        assertEquals(1, schema.getNBooleans());
+    }
+
+    @Test
+    public void existingPropertiesMoveIntoSlots() {
+        Card card = new Card("Test");
+        card.setProperty(new PropertyInt("owner", 3));
+        card.setProperty(new PropertyString("colour", "Red"));
+        card.setSchema(schema);
+        assertEquals(3, card.getInt(ownerSlot));
+        assertEquals(0, card.getInt(countSlot));
+        assertFalse(card.getBoolean(claimedSlot));
+        assertEquals(3, ((PropertyInt) card.getProperty(ownerHash)).value);
+        assertEquals("Red", card.getProperty(Hash.GetInstance().hash("colour")).toString());
+        assertEquals(5, card.getNumProperties());
+        assertEquals(5, card.getProperties().size());
+    }
+
+    @Test
+    public void setPropertyWritesToSlot() {
+        Card card = new Card("Test");
+        card.setSchema(schema);
+        card.setProperty(new PropertyInt("owner", 2));
+        card.setProperty(new PropertyBoolean("claimed", true));
+        card.setProperty(new PropertyLong("mask", 1L << 40));
+        assertEquals(2, card.getInt(ownerSlot));
+        assertTrue(card.getBoolean(claimedSlot));
+        assertEquals(1L << 40, card.getLong(schema.getSlot("mask")));
+        card.setInt(ownerSlot, 1);
+        assertEquals(1, ((PropertyInt) card.getProperty(ownerHash)).value);
+    }
+
+    @Test
+    public void copiesHaveIndependentSlots() {
+        Card card = new Card("Test");
+        card.setSchema(schema);
+        card.setInt(ownerSlot, 4);
+        Card copy = card.copy();
+        assertSame(schema, copy.getSchema());
+        copy.setInt(ownerSlot, 1);
+        assertEquals(4, card.getInt(ownerSlot));
+        assertEquals(1, copy.getInt(ownerSlot));
+
+        Edge edge = new Edge();
+        edge.setSchema(schema);
+        edge.setBoolean(claimedSlot, true);
+        Edge edgeCopy = edge.copy();
+        edgeCopy.setBoolean(claimedSlot, false);
+        assertTrue(edge.getBoolean(claimedSlot));
+        assertFalse(edgeCopy.getBoolean(claimedSlot));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void duplicateNamesAreRejected() {
+        new PropertySchema.Builder().addInt("owner").addBoolean("owner").build();
+    }
+}
@@ -0,0 +1,84 @@
+package core;
+
+import games.GameType;
+import org.junit.Test;
+import players.PlayerConstants;
+import players.mcts.MCTSEnums;
+import players.mcts.MCTSParams;
+import players.mcts.MCTSPlayer;
+import utilities.SplitRandom;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ReproducibleRandomness {
+
+    @Test
+    public void splittingDoesNotUseTheStream() {
+        SplitRandom first = new SplitRandom(42);
+        SplitRandom second = new SplitRandom(42);
+        SplitRandom child = first.split(1, 7);
+        // splitting the first does not change its numbers
+        for (int i = 0; i < 10; i++)
+            assertEquals(first.nextLong(), second.nextLong());
+        // and the same sequence of splits gives the same streams
+        SplitRandom secondChild = second.split(1, 7);
+        assertEquals(child.nextLong(), secondChild.nextLong());
+        // but a second split with the same keys gives a different stream
+        SplitRandom again = new SplitRandom(42);
+        again.split(1, 7);
+        assertNotEquals(new SplitRandom(42).split(1, 7).nextLong(), again.split(1, 7).nextLong());
+        assertNotEquals(new SplitRandom(42).split(1, 7).nextLong(), new SplitRandom(42).split(2, 7).nextLong());
+        // hidden splits are reproducible too, but differ from the plain ones
+        assertEquals(new SplitRandom(42).hiddenSplit(1, 7).nextLong(), new SplitRandom(42).hiddenSplit(1, 7).nextLong());
+        assertNotEquals(new SplitRandom(42).split(1, 7).nextLong(), new SplitRandom(42).hiddenSplit(1, 7).nextLong());
+    }
+
+    @Test
+    public void copiesForPlayersAreReproducible() {
+        Game game = GameType.LoveLetter.createGameInstance(2, 11);
+        AbstractGameState state = game.getGameState();
+        AbstractGameState first = state.copy(0);
+        Game other = GameType.LoveLetter.createGameInstance(2, 11);
+        AbstractGameState otherFirst = other.getGameState().copy(0);
+        assertEquals(first.getRnd().nextLong(), otherFirst.getRnd().nextLong());
+        // the players cannot see the seed of the game
+        assertNotEquals(state.getGameParameters().getRandomSeed(), first.getGameParameters().getRandomSeed());
+        assertSame(first.getGameParameters(), first.copy(1).getGameParameters());
+    }
+
+    @Test
+    public void competitionCopiesForPlayersAreUnpredictable() {
+        AbstractGameState first = GameType.LoveLetter.createGameInstance(2, 11).getGameState();
+        AbstractGameState second = GameType.LoveLetter.createGameInstance(2, 11).getGameState();
+        first.getCoreGameParameters().competitionMode = true;
+        second.getCoreGameParameters().competitionMode = true;
+        assertNotEquals(first.copy(0).getGameParameters().getRandomSeed(), second.copy(0).getGameParameters().getRandomSeed());
+        assertNotEquals(first.copy(0).getRnd().nextLong(), second.copy(0).getRnd().nextLong());
+    }
+
+    private List<String> playGame(long seed) {
+        List<AbstractPlayer> players = new ArrayList<>();
+        for (int p = 0; p < 3; p++) {
+            MCTSParams params = new MCTSParams();
+            params.setParameterValue("randomSeed", 100 + p);
+            params.setParameterValue("budgetType", PlayerConstants.BUDGET_ITERATIONS);
+            params.setParameterValue("budget", 50);
+            params.setParameterValue("information", MCTSEnums.Information.Information_Set);
+            players.add(new MCTSPlayer(params));
+        }
+        Game game = GameType.LoveLetter.createGameInstance(3, seed);
+        game.reset(players, seed);
+        game.run();
+        return game.getGameState().getHistoryAsText();
+    }
+
+    @Test
+    public void gamesWithTheSameSeedsAreTheSame() {
+        List<String> history = playGame(3);
+        assertEquals(history, playGame(3));
+        assertNotEquals(history, playGame(4));
+    }
+}
@@ -0,0 +1,166 @@
+package core;
+
+import core.actions.AbstractAction;
+import core.components.Card;
+import core.components.Deck;
+import core.components.Edge;
+import games.GameType;
+import games.tickettoride.TicketToRideGameState;
+import games.tickettoride.actions.DrawTrainCards;
+import org.junit.Test;
+import players.search.MaxNSearchParameters;
+import players.search.MaxNSearchPlayer;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static games.tickettoride.TicketToRideConstants.*;
+import static org.junit.Assert.*;
+
+public class UndoActions {
+
+    private void checkState(AbstractGameState expected, AbstractGameState actual) {
+        assertEquals(expected, actual);
+        assertEquals(expected.hashCode(), actual.hashCode());
+        assertEquals(expected.getHistory().size(), actual.getHistory().size());
+        if (expected instanceof TicketToRideGameState ttrExpected) {
+            TicketToRideGameState ttrActual = (TicketToRideGameState) actual;
+            assertEquals(ttrExpected.getRouteNetworks(), ttrActual.getRouteNetworks());
+            for (int p = 0; p < expected.getNPlayers(); p++) {
+                assertArrayEquals(ttrExpected.getTrainCardCounts(p), ttrActual.getTrainCardCounts(p));
+                assertEquals(ttrExpected.getLongestRouteLength(p), ttrActual.getLongestRouteLength(p));
+                for (int c = 1; c < ttrExpected.getRouteGraph().getNCities(); c++)
+                    assertEquals(ttrExpected.getRouteNetworks().isConnected(p, 0, c), ttrActual.getRouteNetworks().isConnected(p, 0, c));
+            }
+            // components are equal if their IDs are, so the claims on the board are checked separately
+            for (Edge edge : ttrExpected.getWorld().getBoardEdges()) {
+                Edge actualEdge = (Edge) ttrActual.getComponentById(edge.getComponentID());
+                assertEquals(edge.getInt(claimedByPlayerRoute1Slot), actualEdge.getInt(claimedByPlayerRoute1Slot));
+                assertEquals(edge.getBoolean(routeClaimedSlot), actualEdge.getBoolean(routeClaimedSlot));
+                if (edge.getSchema() == doubleRouteSchema)
+                    assertEquals(edge.getInt(claimedByPlayerRoute2Slot), actualEdge.getInt(claimedByPlayerRoute2Slot));
+            }
+        }
+    }
+
+    /**
+     * Plays a game through with random actions. Before each one, every available action is applied and undone
+     * (with a second action applied and undone after it), and the state must then be as it was.
+     */
+    private void playAndUndo(GameType gameType, int nPlayers, long seed) {
+        Game game = gameType.createGameInstance(nPlayers, seed);
+        AbstractGameState state = game.getGameState();
+        AbstractForwardModel fm = game.getForwardModel();
+        assertTrue(fm.supportsUndo());
+        Random rnd = new Random(seed);
+        int steps = 0;
+        while (state.isNotTerminal() && steps++ < 1000) {
+            List<AbstractAction> actions = fm.computeAvailableActions(state);
+            AbstractGameState before = state.copy();
+            for (AbstractAction action : actions) {
+                fm.nextWithUndo(state, action);
+                if (state.isNotTerminal()) {
+                    List<AbstractAction> nextActions = fm.computeAvailableActions(state);
+                    fm.nextWithUndo(state, nextActions.get(rnd.nextInt(nextActions.size())));
+                    fm.undo(state);
+                }
+                fm.undo(state);
+                checkState(before, state);
+            }
+            assertNull(state.getUndoLog());
+            fm.next(state, actions.get(rnd.nextInt(actions.size())));
+        }
+        assertFalse(state.isNotTerminal());
+    }
+
+    @Test
+    public void ticTacToe() {
+        for (long seed = 0; seed < 5; seed++)
+            playAndUndo(GameType.TicTacToe, 2, seed);
+    }
+
+    @Test
+    public void connect4() {
+        for (long seed = 0; seed < 3; seed++)
+            playAndUndo(GameType.Connect4, 2, seed);
+    }
+
+    @Test
+    public void ticketToRide() {
+        playAndUndo(GameType.TicketToRide, 2, 372);
+        playAndUndo(GameType.TicketToRide, 4, 8012);
+    }
+
+    @Test
+    public void ticketToRideDiscardShuffle() {
+        Game game = GameType.TicketToRide.createGameInstance(3, 90);
+        TicketToRideGameState state = (TicketToRideGameState) game.getGameState();
+        AbstractForwardModel fm = game.getForwardModel();
+        // move the train card deck to the discard pile, leaving too few to draw without the discard pile
+        Deck<Card> deck = (Deck<Card>) state.getComponent(trainCardDeckHash);
+        Deck<Card> discard = (Deck<Card>) state.getComponent(trainCardDeckDiscardHash);
+        while (deck.getSize() > 1)
+            discard.add(deck.draw());
+        int nDiscarded = discard.getSize();
+        List<AbstractAction> actions = fm.computeAvailableActions(state);
+        // working out the actions does not shuffle
+        assertEquals(nDiscarded, discard.getSize());
+        AbstractAction draw = actions.stream().filter(a -> a instanceof DrawTrainCards).findFirst().orElseThrow();
+        AbstractGameState before = state.copy();
+        fm.nextWithUndo(state, draw);
+        assertEquals(0, discard.getSize());
+        assertEquals(nDiscarded - 1, deck.getSize());
+        List<Integer> shuffled = deckOrder(deck);
+        fm.undo(state);
+        assertEquals(1, deck.getSize());
+        checkState(before, state);
+
+        // the shuffle is still random: playing the action again, on this state or on copies, shuffles afresh
+        Set<List<Integer>> orders = new HashSet<>();
+        orders.add(shuffled);
+        for (int i = 0; i < 3; i++) {
+            fm.nextWithUndo(state, draw);
+            orders.add(deckOrder(deck));
+            fm.undo(state);
+            checkState(before, state);
+            TicketToRideGameState copy = (TicketToRideGameState) before.copy();
+            fm.next(copy, draw);
+            orders.add(deckOrder((Deck<Card>) copy.getComponent(trainCardDeckHash)));
+        }
+        assertTrue(orders.size() > 1);
+    }
+
+    private static List<Integer> deckOrder(Deck<Card> deck) {
+        return deck.getComponents().stream().map(Card::getComponentID).toList();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void nothingToUndo() {
+        Game game = GameType.TicTacToe.createGameInstance(2, 1);
+        game.getForwardModel().undo(game.getGameState());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void unsupportedGame() {
+        Game game = GameType.LoveLetter.createGameInstance(2, 1);
+        AbstractGameState state = game.getGameState();
+        AbstractForwardModel fm = game.getForwardModel();
+        fm.nextWithUndo(state, fm.computeAvailableActions(state).get(0));
+    }
+
+    @Test
+    public void maxNSearchLeavesStateUnchanged() {
+        Game game = GameType.Connect4.createGameInstance(2, 55);
+        AbstractGameState state = game.getGameState();
+        MaxNSearchParameters params = new MaxNSearchParameters();
+        params.setParameterValue("searchDepth", 3);
+        MaxNSearchPlayer player = new MaxNSearchPlayer(params);
+        player.setForwardModel(game.getForwardModel());
+        AbstractGameState before = state.copy();
+        List<AbstractAction> actions = game.getForwardModel().computeAvailableActions(state);
+        assertTrue(actions.contains(player.getAction(state, actions)));
+        checkState(before, state);
+    }
+}
@@ -0,0 +1,183 @@
+package core;
+
+import games.GameType;
+import org.junit.Test;
+import players.python.PythonAgent;
+import players.simple.RandomPlayer;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class VectorEnvironments {
+
+    private VectorPyTAG createEnvs(int nEnvs, int nThreads) throws Exception {
+        List<List<AbstractPlayer>> players = new ArrayList<>();
+        for (int i = 0; i < nEnvs; i++) {
+            List<AbstractPlayer> envPlayers = new ArrayList<>();
+            envPlayers.add(new PythonAgent());
+            envPlayers.add(new RandomPlayer(new Random(i)));
+            players.add(envPlayers);
+        }
+        return new VectorPyTAG(GameType.TicTacToe, null, players, 343, true, nThreads);
+    }
+
+    private int[] chooseActions(VectorPyTAG envs, VectorPyTAG.StepResult result, Random rnd) {
+        int[] actions = new int[envs.getNEnvs()];
+        for (int i = 0; i < actions.length; i++) {
+            int[] mask = new int[envs.getActionSpace()];
+            System.arraycopy(result.masks, i * mask.length, mask, 0, mask.length);
+            actions[i] = envs.getEnv(i).sampleRNDAction(mask, rnd);
+        }
+        return actions;
+    }
+
+    @Test
+    public void stepsAllEnvironmentsAndResetsFinishedOnes() throws Exception {
+        try (VectorPyTAG envs = createEnvs(8, 1)) {
+            VectorPyTAG.StepResult result = envs.resetAll();
+            assertEquals(9, envs.getActionSpace());
+            assertEquals(8 * envs.getObservationSpace(), result.observations.length);
+            assertEquals(8 * 9, result.masks.length);
+            Random rnd = new Random(5);
+            int dones = 0;
+            for (int step = 0; step < 50; step++) {
+                result = envs.stepAll(chooseActions(envs, result, rnd));
+                for (int i = 0; i < 8; i++) {
+                    PyTAG env = envs.getEnv(i);
+                    // every environment is always waiting for a decision, even straight after its episode finished
+                    assertFalse(env.isDone());
+                    assertEquals(0, result.playerIDs[i]);
+                    double[] observation = env.getObservationVector();
+                    for (int f = 0; f < observation.length; f++)
+                        assertEquals(observation[f], result.observations[i * observation.length + f], 0.0);
+                    int[] mask = env.getActionMask();
+                    for (int a = 0; a < mask.length; a++)
+                        assertEquals(mask[a], result.masks[i * mask.length + a]);
+                    if (result.dones[i]) {
+                        dones++;
+                        assertTrue(result.rewards[i] == 1.0 || result.rewards[i] == 0.0 || result.rewards[i] == -1.0
+                                || result.rewards[i] == 0.5);
+                    }
+                }
+            }
+            // a game of noughts and crosses is at most 5 moves for the first player
+            assertTrue(dones >= 8 * 50 / 5);
+            int episodes = 0;
+            for (int e : envs.getEpisodes())
+                episodes += e;
+            assertEquals(dones, episodes);
+        }
+    }
+
+    @Test
+    public void threadsDoNotChangeTheResults() throws Exception {
+        try (VectorPyTAG sequential = createEnvs(6, 1); VectorPyTAG parallel = createEnvs(6, 3)) {
+            VectorPyTAG.StepResult first = sequential.resetAll();
+            VectorPyTAG.StepResult second = parallel.resetAll();
+            Random rnd = new Random(9);
+            for (int step = 0; step < 40; step++) {
+                assertArrayEquals(first.observations, second.observations, 0.0);
+                assertArrayEquals(first.masks, second.masks);
+                assertArrayEquals(first.rewards, second.rewards, 0.0);
+                int[] actions = chooseActions(sequential, first, rnd);
+                first = sequential.stepAll(actions);
+                second = parallel.stepAll(actions);
+                assertArrayEquals(first.dones, second.dones);
+            }
+        }
+    }
+
+    private void assertRecordsMatch(VectorPyTAG envs, VectorPyTAG.StepResult result, ByteBuffer buffer) {
+        int nFeatures = envs.getObservationSpace(), nActions = envs.getActionSpace();
+        for (int i = 0; i < envs.getNEnvs(); i++) {
+            int offset = i * envs.getRecordSize();
+            assertEquals(result.rewards[i], buffer.getDouble(offset + PyTAG.REWARD_OFFSET), 0.0);
+            assertEquals(result.playerIDs[i], buffer.getInt(offset + PyTAG.PLAYER_OFFSET));
+            assertEquals(result.dones[i] ? 1 : 0, buffer.getInt(offset + PyTAG.DONE_OFFSET));
+            for (int f = 0; f < nFeatures; f++)
+                assertEquals(result.observations[i * nFeatures + f],
+                        buffer.getDouble(offset + PyTAG.FEATURES_OFFSET + f * Double.BYTES), 0.0);
+            for (int a = 0; a < nActions; a++)
+                assertEquals(result.masks[i * nActions + a],
+                        buffer.get(offset + PyTAG.FEATURES_OFFSET + nFeatures * Double.BYTES + a));
+        }
+    }
+
+    @Test
+    public void bufferHoldsTheSameAsTheArrays() throws Exception {
+        try (VectorPyTAG arrays = createEnvs(5, 1); VectorPyTAG buffered = createEnvs(5, 2)) {
+            VectorPyTAG.StepResult result = arrays.resetAll();
+            // records are padded to keep the doubles aligned
+            assertEquals(0, arrays.getRecordSize() % 8);
+            assertEquals(16 + 8 * arrays.getObservationSpace() + 16, arrays.getRecordSize());
+            ByteBuffer buffer = PyTAG.allocateObservationBuffer(5 * arrays.getRecordSize());
+            buffered.resetAll(buffer);
+            assertRecordsMatch(buffered, result, buffer);
+            Random rnd = new Random(13);
+            for (int step = 0; step < 30; step++) {
+                int[] actions = chooseActions(arrays, result, rnd);
+                result = arrays.stepAll(actions);
+                buffered.stepAll(actions, buffer);
+                assertRecordsMatch(buffered, result, buffer);
+            }
+        }
+    }
+
+    @Test
+    public void observationsCanBeWrittenToAMappedFile() throws Exception {
+        List<AbstractPlayer> players = List.of(new PythonAgent(), new RandomPlayer(new Random(3)));
+        PyTAG env = new PyTAG(GameType.TicTacToe, null, players, 21, true);
+        env.reset();
+        File file = File.createTempFile("observations", ".bin");
+        file.deleteOnExit();
+        ByteBuffer buffer = PyTAG.mapObservationFile(file.getPath(), 2 * env.getObservationRecordSize());
+        env.writeObservation(buffer, env.getObservationRecordSize());
+        assertEquals(2 * env.getObservationRecordSize(), file.length());
+        double[] observation = env.getObservationVector();
+        for (int f = 0; f < observation.length; f++)
+            assertEquals(observation[f], buffer.getDouble(env.getObservationRecordSize() + PyTAG.FEATURES_OFFSET + f * 8), 0.0);
+        // the first record is untouched
+        assertEquals(0.0, buffer.getDouble(PyTAG.FEATURES_OFFSET), 0.0);
+    }
+
+    @Test
+    public void observationFollowsTheGame() throws Exception {
+        PyTAG stepped = new PyTAG(GameType.TicTacToe, null, List.of(new PythonAgent(), new RandomPlayer(new Random(3))), 21, true);
+        PyTAG manual = new PyTAG(GameType.TicTacToe, null, List.of(new PythonAgent(), new RandomPlayer(new Random(3))), 21, true);
+        stepped.reset();
+        manual.reset();
+        stepped.step(4);
+        // the same action, with the observation queried before the other player has moved
+        manual.executeAction(4);
+        manual.getObservationVector();
+        manual.nextDecision();
+        ByteBuffer buffer = PyTAG.allocateObservationBuffer(manual.getObservationRecordSize());
+        manual.writeObservation(buffer, 0);
+        double[] expected = stepped.getObservationVector();
+        assertArrayEquals(expected, manual.getObservationVector(), 0.0);
+        for (int f = 0; f < expected.length; f++)
+            assertEquals(expected[f], buffer.getDouble(PyTAG.FEATURES_OFFSET + f * Double.BYTES), 0.0);
+        assertEquals(0, buffer.getInt(PyTAG.PLAYER_OFFSET));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void bufferMustBeLittleEndian() throws Exception {
+        List<AbstractPlayer> players = List.of(new PythonAgent(), new RandomPlayer(new Random(3)));
+        PyTAG env = new PyTAG(GameType.TicTacToe, null, players, 21, true);
+        env.reset();
+        env.writeObservation(ByteBuffer.allocate(env.getObservationRecordSize()), 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void oneActionPerEnvironment() throws Exception {
+        try (VectorPyTAG envs = createEnvs(2, 1)) {
+            envs.resetAll();
+            envs.stepAll(new int[3]);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package evaluation;
+
+import core.AbstractPlayer;
+import core.Game;
+import core.GameProfiler;
+import evaluation.listeners.IGameListener;
+import evaluation.listeners.ProfileListener;
+import games.GameType;
+import org.junit.Test;
+import players.simple.RandomPlayer;
+import utilities.Histogram;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class ProfileListenerTest {
+
+    @Test
+    public void histogramPercentiles() {
+        Histogram h = new Histogram();
+        assertEquals(0, h.getPercentile(50));
+        for (int i = 1; i <= 1000; i++)
+            h.add(i);
+        assertEquals(1000, h.getCount());
+        assertEquals(500.5, h.getMean(), 1e-9);
+        assertEquals(1, h.getMin());
+        assertEquals(1000, h.getMax());
+        assertEquals(500, h.getPercentile(50), 500 / 16.0);
+        assertEquals(990, h.getPercentile(99), 990 / 16.0);
+        assertEquals(1000, h.getPercentile(100));
+        // small values are exact
+        Histogram small = new Histogram();
+        small.add(3);
+        small.add(7);
+        assertEquals(3, small.getPercentile(50));
+        assertEquals(7, small.getPercentile(99));
+        h.merge(small);
+        assertEquals(1002, h.getCount());
+        assertEquals(1, h.getMin());
+    }
+
+    @Test
+    public void profileCoversEveryAction() throws Exception {
+        Game game = GameType.TicTacToe.createGameInstance(2, 3);
+        assertNull(game.getProfiler());
+        ProfileListener listener = new ProfileListener();
+        game.addListener(listener);
+        assertNotNull(game.getProfiler());
+        List<AbstractPlayer> players = List.of(new RandomPlayer(new Random(1)), new RandomPlayer(new Random(2)));
+        int nActions = 0;
+        for (int i = 0; i < 3; i++) {
+            game.reset(players, i);
+            game.run();
+            nActions += game.getGameState().getHistorySize();
+            // the game's own profile is reset with the game
+            assertEquals(game.getGameState().getHistorySize(), game.getProfiler().getTimes(GameProfiler.Phase.Next).getCount());
+        }
+        GameProfiler profile = listener.getProfile("TicTacToe", 2);
+        assertEquals(nActions, profile.getTimes(GameProfiler.Phase.Copy).getCount());
+        assertEquals(nActions, profile.getTimes(GameProfiler.Phase.ActionCompute).getCount());
+        assertEquals(nActions, profile.getTimes(GameProfiler.Phase.Next).getCount());
+        // the last action of a game of TicTacToe may have no choice
+        assertTrue(profile.getTimes(GameProfiler.Phase.Agent).getCount() <= nActions);
+        Histogram copy = profile.getTimes(GameProfiler.Phase.Copy);
+        assertTrue(copy.getPercentile(50) <= copy.getPercentile(99));
+        assertTrue(copy.getPercentile(99) <= copy.getMax());
+        if (GameProfiler.recordsAllocation()) {
+            assertEquals(nActions, profile.getAllocatedBytes(GameProfiler.Phase.Copy).getCount());
+            assertTrue(profile.getAllocatedBytes(GameProfiler.Phase.Copy).getMean() > 0);
+        }
+
+        File folder = Files.createTempDirectory("profile").toFile();
+        listener.setOutputDirectory(folder.getPath());
+        listener.report();
+        List<String> lines = Files.readAllLines(new File(folder, "Profile.csv").toPath());
+        int nMeasures = GameProfiler.recordsAllocation() ? 2 : 1;
+        assertEquals(1 + GameProfiler.Phase.values().length * nMeasures, lines.size());
+        assertTrue(lines.get(1).startsWith("TicTacToe,2,Copy,Time (ns)," + nActions + ","));
+        assertTrue(new File(folder, "Profile.json").exists());
+    }
+
+    @Test
+    public void listenerCanBeLoadedFromFile() {
+        IGameListener listener = IGameListener.createListener("json/listeners/profileListener.json");
+        assertTrue(listener instanceof ProfileListener);
+        assertTrue(listener.recordsProfile());
+    }
+}
@@ -132,4 +132,28 @@ public class RunGamesTest {
         assertEquals(66, tournament.getNGamesPlayed()[3], 15);
     }
 
+    @Test
+    public void parallelResultsAreIndependentOfThreadCount() {
+        config.put(RunArg.mode, "random");
+        config.put(RunArg.seed, 42L);
+        int[] threads = new int[]{1, 2, 4, 8};
+        double[][] winRates = new double[threads.length][];
+        for (int t = 0; t < threads.length; t++) {
+            agents = new ArrayList<>();
+            for (int i = 0; i < 4; i++)
+                agents.add(new RandomPlayer(new Random(i)));
+            config.put(RunArg.nThreads, threads[t]);
+            tournament = new RoundRobinTournament(agents, GameType.Poker, 3, null, config);
+            tournament.run();
+            for (int i = 0; i < agents.size(); i++)
+                assertEquals(75, tournament.getNGamesPlayed()[i]);
+            winRates[t] = new double[agents.size()];
+            for (int i = 0; i < agents.size(); i++)
+                winRates[t][i] = tournament.getWinRate(i);
+        }
+        // games run in parallel have their own copies of the players, seeded from the game, so the thread count does
+        // not matter; run serially the players carry their state from game to game, so the results differ from these
+        for (int t = 2; t < threads.length; t++)
+            assertArrayEquals(winRates[1], winRates[t], 1e-9);
+    }
 }
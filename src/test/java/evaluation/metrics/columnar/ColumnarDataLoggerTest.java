@@ -0,0 +1,145 @@
+package evaluation.metrics.columnar;
+
+import core.AbstractPlayer;
+import core.Game;
+import core.interfaces.IGameEvent;
+import evaluation.listeners.MetricsGameListener;
+import evaluation.metrics.AbstractMetric;
+import evaluation.metrics.Event;
+import evaluation.metrics.IDataLogger;
+import games.GameType;
+import org.junit.Test;
+import players.simple.RandomPlayer;
+import tech.tablesaw.api.Table;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.*;
+
+import static evaluation.metrics.IDataLogger.ReportDestination.ToFile;
+import static evaluation.metrics.IDataLogger.ReportType.*;
+import static org.junit.Assert.*;
+
+public class ColumnarDataLoggerTest {
+
+    static class TestMetric extends AbstractMetric {
+        public TestMetric() {
+            super(Event.GameEvent.ACTION_CHOSEN);
+        }
+
+        @Override
+        protected boolean _run(MetricsGameListener listener, Event e, Map<String, Object> records) {
+            records.put("Player", e.playerID);
+            records.put("Action", e.action.getClass().getSimpleName());
+            records.put("Value", e.state.getGameScore(e.playerID));
+            records.put("Terminal", !e.state.isNotTerminal());
+            return true;
+        }
+
+        @Override
+        public Set<IGameEvent> getDefaultEventTypes() {
+            return Collections.singleton(Event.GameEvent.ACTION_CHOSEN);
+        }
+
+        @Override
+        public Map<String, Class<?>> getColumns(int nPlayersPerGame, Set<String> playerNames) {
+            Map<String, Class<?>> columns = new LinkedHashMap<>();
+            columns.put("Player", Integer.class);
+            columns.put("Action", String.class);
+            columns.put("Value", Double.class);
+            columns.put("Terminal", Boolean.class);
+            for (int i = 2; i < nPlayersPerGame; i++)
+                columns.put("Extra-" + i, Integer.class);
+            return columns;
+        }
+    }
+
+    private void addRow(ColumnarDataLogger logger, int row, boolean extra) {
+        logger.addData("GameID", String.valueOf(row / 4));
+        logger.addData("GameName", "Test");
+        logger.addData("PlayerCount", extra ? "3" : "2");
+        logger.addData("GameSeed", "1");
+        logger.addData("Tick", row);
+        logger.addData("Turn", row / 2);
+        logger.addData("Round", row % 3 == 0 ? null : row / 3);
+        logger.addData("Event", "ACTION_CHOSEN");
+        logger.addData("Player", row % 2);
+        logger.addData("Action", row % 5 == 0 ? null : "Action" + (row % 3));
+        logger.addData("Value", row * 0.5);
+        logger.addData("Terminal", row % 4 == 3);
+        if (extra)
+            logger.addData("Extra-2", row);
+    }
+
+    @Test
+    public void dataIsReadBackAcrossChunksAndSchemaChanges() {
+        TestMetric metric = new TestMetric();
+        ColumnarDataLogger logger = new ColumnarDataLogger(metric, null, 3);
+        metric.setDataLogger(logger);
+        logger.init(null, 2, Set.of());
+        for (int row = 0; row < 10; row++)
+            addRow(logger, row, false);
+        // a new column is added part way through a chunk
+        logger.init(null, 3, Set.of());
+        for (int row = 10; row < 15; row++)
+            addRow(logger, row, true);
+        assertEquals(15, logger.getRowCount());
+
+        for (Table table : List.of(ColumnarDataReader.readTable(logger), ColumnarDataReader.readTable((ColumnarDataLogger) logger.copy()))) {
+            assertEquals(15, table.rowCount());
+            for (int row = 0; row < 15; row++) {
+                assertEquals(String.valueOf(row / 4), table.stringColumn("GameID").get(row));
+                assertEquals(row, (int) table.intColumn("Tick").get(row));
+                assertEquals(row % 3 == 0, table.intColumn("Round").isMissing(row));
+                assertEquals(row % 5 == 0 ? "" : "Action" + (row % 3), table.stringColumn("Action").get(row));
+                assertEquals(row * 0.5, table.doubleColumn("Value").get(row), 1e-9);
+                assertEquals(row % 4 == 3, table.booleanColumn("Terminal").get(row));
+                if (row < 10)
+                    assertTrue(table.intColumn("Extra-2").isMissing(row));
+                else
+                    assertEquals(row, (int) table.intColumn("Extra-2").get(row));
+            }
+        }
+
+        Map<String, Table> summaries = new HashMap<>();
+        for (Table t : new ColumnarDataProcessor().summarise(logger))
+            summaries.put(t.name(), t);
+        Table value = summaries.get("TestMetric_Value");
+        assertEquals(15, value.doubleColumn("Value").get(0), 1e-9);
+        assertEquals(3.5, value.doubleColumn("Value").get(2), 1e-9);
+        assertEquals(7.0, value.doubleColumn("Value").get(4), 1e-9);
+        Table action = summaries.get("TestMetric_Action");
+        assertEquals(List.of("Action0", "Action1", "Action2"), action.stringColumn("Category").asList());
+        // rows 0, 5 and 10 are missing
+        assertEquals(12, action.intColumn("Count").sum(), 1e-9);
+        assertFalse(summaries.containsKey("TestMetric_Tick"));
+
+        logger.reset();
+        assertEquals(0, logger.getRowCount());
+        assertNull(logger.getFile());
+    }
+
+    @Test
+    public void streamingListenerReports() throws Exception {
+        Game game = GameType.TicTacToe.createGameInstance(2, 3);
+        List<AbstractPlayer> players = List.of(new RandomPlayer(new Random(1)), new RandomPlayer(new Random(2)));
+        MetricsGameListener listener = new MetricsGameListener(ToFile, new IDataLogger.ReportType[]{RawData, Summary},
+                new AbstractMetric[]{new TestMetric()}, IDataLogger.Storage.Streaming);
+        game.addListener(listener);
+        int nActions = 0;
+        for (int i = 0; i < 3; i++) {
+            game.reset(players, i);
+            listener.init(game, 2, Set.of("Random"));
+            game.run();
+            nActions += game.getGameState().getHistory().size();
+        }
+        File folder = Files.createTempDirectory("metrics").toFile();
+        listener.setOutputDirectory(folder.getPath());
+        listener.report();
+
+        List<String> lines = Files.readAllLines(new File(folder, "TestMetric.csv").toPath());
+        assertEquals(nActions + 1, lines.size());
+        assertTrue(lines.get(0).contains("Action"));
+        assertTrue(new File(folder, "summaries/TestMetric/TestMetric_Value.csv").exists());
+    }
+}
@@ -4,6 +4,7 @@ import core.AbstractPlayer;
 import evaluation.loggers.SummaryLogger;
 import evaluation.metrics.AbstractMetric;
 import evaluation.listeners.MetricsGameListener;
+import core.interfaces.IGameEvent;
 import core.interfaces.IStatisticLogger;
 import evaluation.metrics.Event;
 import games.coltexpress.ColtExpressForwardModel;
@@ -50,6 +51,11 @@ public class TestRoundCardVisibilityAndShuffling {
         }
 
 
+        @Override
+        public boolean listensTo(IGameEvent eventType) {
+            return eventType == ROUND_OVER || super.listensTo(eventType);
+        }
+
         @Override
         public void onEvent(Event event) {
             if (event.type == ROUND_OVER) {
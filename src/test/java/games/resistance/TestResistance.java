@@ -28,7 +28,7 @@ public class TestResistance {
     Game resistance;
     List<AbstractPlayer> players;
     ResForwardModel fm = new ResForwardModel();
-    RandomPlayer rnd = new RandomPlayer();
+    RandomPlayer rnd = new RandomPlayer(new Random(1));
 
     private void progressGame(ResGameState state, ResGameState.ResGamePhase requiredGamePhase) {
         while (state.getGamePhase() != requiredGamePhase &&
@@ -0,0 +1,152 @@
+package games.tickettoride;
+
+import core.actions.AbstractAction;
+import core.components.Edge;
+import core.properties.PropertyBoolean;
+import core.properties.PropertyInt;
+import core.properties.PropertyStringArray;
+import games.tickettoride.actions.ClaimRoute;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static core.CoreConstants.colorHash;
+import static games.tickettoride.TicketToRideConstants.*;
+import static org.junit.Assert.*;
+
+public class ClaimRouteActionsTest {
+
+    // The tracks of each unclaimed route that the current player can pay for, found from the board edge properties
+    private Map<Edge, List<Integer>> affordableRoutesFromBoard(TicketToRideGameState state) {
+        Map<Edge, List<Integer>> affordable = new HashMap<>();
+        int playerId = state.getCurrentPlayer();
+        int trainCars = state.getTrainCars(playerId);
+        int[] trainCards = state.getTrainCardCounts(playerId);
+        int locomotives = trainCards[TicketToRideParameters.TrainCar.Locomotive.ordinal()];
+        int mostCardsForGrayRoute = state.getMostCardsForGrayRoute(playerId);
+        for (Edge edge : state.getWorld().getBoardEdges()) {
+            if (((PropertyBoolean) edge.getProperty(routeClaimedHash)).value) continue;
+            int length = ((PropertyInt) edge.getProperty(trainCardsRequiredHash)).value;
+            if (trainCars < length) continue;
+            String[] colors = ((PropertyStringArray) edge.getProperty(colorHash)).getValues();
+            int claimedBy1 = ((PropertyInt) edge.getProperty(claimedByPlayerRoute1Hash)).value;
+            boolean doubleRoute = edge.getProperty(claimedByPlayerRoute2Hash) != null;
+            int claimedBy2 = doubleRoute ? ((PropertyInt) edge.getProperty(claimedByPlayerRoute2Hash)).value : -2;
+            List<Integer> tracks = new ArrayList<>();
+            for (int i = 0; i < colors.length; i++) {
+                int cards = colors[0].equals("Gray") ? mostCardsForGrayRoute
+                        : trainCards[TicketToRideParameters.TrainCar.valueOf(colors[i]).ordinal()] + locomotives;
+                if (cards < length) continue;
+                // a player cannot claim both tracks of a route
+                if (i == 0 && claimedBy1 == -1 && claimedBy2 != playerId) tracks.add(0);
+                if (doubleRoute && (i == 1 || colors[0].equals("Gray")) && claimedBy2 == -1 && claimedBy1 != playerId
+                        && !tracks.contains(1)) tracks.add(1);
+            }
+            if (!tracks.isEmpty()) affordable.put(edge, tracks);
+        }
+        return affordable;
+    }
+
+    // The ClaimRoute actions as they are found by searching the board edge properties
+    private Set<ClaimRoute> claimRoutesFromBoard(TicketToRideGameState state) {
+        Set<ClaimRoute> retValue = new HashSet<>();
+        int playerId = state.getCurrentPlayer();
+        Map<Edge, List<Integer>> affordable = affordableRoutesFromBoard(state);
+        for (Map.Entry<Edge, List<Integer>> entry : affordable.entrySet()) {
+            Edge edge = entry.getKey();
+            String[] nodes = ((PropertyStringArray) edge.getProperty(nodesHash)).getValues();
+            String[] colors = ((PropertyStringArray) edge.getProperty(colorHash)).getValues();
+            int length = ((PropertyInt) edge.getProperty(trainCardsRequiredHash)).value;
+            boolean firstAdded = false;
+            List<Integer> tracks = entry.getValue();
+            for (int i = 0; i < tracks.size(); i++) {
+                if (i < colors.length && tracks.get(i) < colors.length) {
+                    firstAdded = true;
+                    retValue.add(new ClaimRoute(edge.getComponentID(), playerId, colors[tracks.get(i)], length, tracks.get(i), nodes[0], nodes[1]));
+                } else if (!firstAdded) {
+                    firstAdded = true;
+                    retValue.add(new ClaimRoute(edge.getComponentID(), playerId, colors[0], length, tracks.get(i), nodes[0], nodes[1]));
+                }
+            }
+        }
+        return retValue;
+    }
+
+    private void playAndCompare(int nPlayers, long seed) {
+        playAndCompare(nPlayers, seed, false);
+    }
+
+    private void playAndCompare(int nPlayers, long seed, boolean copyEachStep) {
+        TicketToRideParameters params = new TicketToRideParameters("data/tickettoride/");
+        params.setRandomSeed(seed);
+        TicketToRideGameState state = new TicketToRideGameState(params, nPlayers);
+        TicketToRideForwardModel fm = new TicketToRideForwardModel();
+        fm.setup(state);
+        Random rnd = new Random(seed);
+        int claims = 0;
+        while (state.isNotTerminal()) {
+            List<AbstractAction> actions = fm.computeAvailableActions(state);
+            Set<ClaimRoute> generated = actions.stream().filter(a -> a instanceof ClaimRoute)
+                    .map(a -> (ClaimRoute) a).collect(Collectors.toSet());
+            assertEquals(generated.size(), actions.stream().filter(a -> a instanceof ClaimRoute).count());
+            assertEquals(claimRoutesFromBoard(state), generated);
+            AbstractAction action = actions.get(rnd.nextInt(actions.size()));
+            if (action instanceof ClaimRoute) claims++;
+            if (copyEachStep) {
+                TicketToRideGameState original = state;
+                String before = boardClaims(original);
+                state = (TicketToRideGameState) state.copy();
+                fm.next(state, action);
+                assertEquals(before, boardClaims(original));
+            } else {
+                fm.next(state, action);
+            }
+        }
+        assertTrue(claims > 0);
+    }
+
+    @Test
+    public void sameActionsAsBoardSearchWithSingleRoutes() {
+        playAndCompare(3, 29);
+    }
+
+    @Test
+    public void sameActionsAsBoardSearchWithDoubleRoutes() {
+        playAndCompare(4, 83);
+        playAndCompare(5, 84);
+    }
+
+    // the claim properties of all routes on the board, in a fixed order
+    private String boardClaims(TicketToRideGameState state) {
+        return state.getWorld().getBoardEdges().stream()
+                .sorted(Comparator.comparingInt(Edge::getComponentID))
+                .map(e -> e.getComponentID() + ":" + e.getProperty(TicketToRideConstants.claimedByPlayerRoute1Hash)
+                        + "/" + e.getProperty(TicketToRideConstants.claimedByPlayerRoute2Hash)
+                        + "/" + e.getProperty(TicketToRideConstants.routeClaimedHash))
+                .collect(Collectors.joining(","));
+    }
+
+    @Test
+    public void copiesShareBoardUntilRouteClaimed() {
+        playAndCompare(4, 12, true);
+        playAndCompare(2, 13, true);
+    }
+
+    @Test
+    public void claimRouteActionsAreShared() {
+        TicketToRideParameters params = new TicketToRideParameters("data/tickettoride/");
+        TicketToRideGameState state = new TicketToRideGameState(params, 2);
+        TicketToRideForwardModel fm = new TicketToRideForwardModel();
+        fm.setup(state);
+        TicketToRideGameState copy = (TicketToRideGameState) state.copy();
+        List<AbstractAction> actions = fm.computeAvailableActions(state);
+        List<AbstractAction> copyActions = fm.computeAvailableActions(copy);
+        assertEquals(actions, copyActions);
+        for (int i = 0; i < actions.size(); i++) {
+            if (actions.get(i) instanceof ClaimRoute) {
+                assertSame(actions.get(i), copyActions.get(i));
+            }
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package games.tickettoride;
+
+import core.actions.AbstractAction;
+import core.components.Edge;
+import core.properties.PropertyInt;
+import core.properties.PropertyStringArray;
+import games.tickettoride.actions.ClaimRoute;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+
+import static games.tickettoride.TicketToRideConstants.*;
+import static org.junit.Assert.*;
+
+public class RouteNetworksTest {
+
+    TicketToRideParameters params;
+    TicketToRideGameState state;
+    TicketToRideForwardModel fm;
+    Random rnd;
+
+    @Before
+    public void setUp() {
+        params = new TicketToRideParameters("data/tickettoride/");
+        params.setRandomSeed(4392);
+        state = new TicketToRideGameState(params, 4);
+        fm = new TicketToRideForwardModel();
+        fm.setup(state);
+        rnd = new Random(4392);
+    }
+
+    // The cities joined by the routes the player has claimed, found from the board edge properties
+    private Map<String, List<String>> searchGraph(TicketToRideGameState gs, int playerId) {
+        Map<String, List<String>> searchGraph = new HashMap<>();
+        for (Edge edge : gs.getWorld().getBoardEdges()) {
+            PropertyInt claimedBy1 = (PropertyInt) edge.getProperty(claimedByPlayerRoute1Hash);
+            PropertyInt claimedBy2 = (PropertyInt) edge.getProperty(claimedByPlayerRoute2Hash);
+            if ((claimedBy1 != null && claimedBy1.value == playerId) || (claimedBy2 != null && claimedBy2.value == playerId)) {
+                String[] nodes = ((PropertyStringArray) edge.getProperty(nodesHash)).getValues();
+                searchGraph.computeIfAbsent(nodes[0], k -> new ArrayList<>()).add(nodes[1]);
+                searchGraph.computeIfAbsent(nodes[1], k -> new ArrayList<>()).add(nodes[0]);
+            }
+        }
+        return searchGraph;
+    }
+
+    private boolean isConnected(Map<String, List<String>> searchGraph, String city, String target, Set<String> visited) {
+        if (city.equals(target)) return true;
+        if (!visited.add(city)) return false;
+        for (String next : searchGraph.getOrDefault(city, List.of())) {
+            if (isConnected(searchGraph, next, target, visited)) return true;
+        }
+        return false;
+    }
+
+    private void assertMatchesGraphSearch(TicketToRideGameState gs) {
+        RouteGraph graph = gs.getRouteGraph();
+        for (int p = 0; p < gs.getNPlayers(); p++) {
+            var searchGraph = searchGraph(gs, p);
+            for (int c1 = 0; c1 < graph.getNCities(); c1++) {
+                for (int c2 = c1 + 1; c2 < graph.getNCities(); c2++) {
+                    String city1 = graph.getCityName(c1);
+                    String city2 = graph.getCityName(c2);
+                    assertEquals(city1 + " to " + city2 + " for player " + p,
+                            isConnected(searchGraph, city1, city2, new HashSet<>()),
+                            gs.isConnected(p, city1, city2));
+                }
+            }
+        }
+    }
+
+    // Exhaustive search with no pruning, over every edge of the player's network
+    private int referenceLongestRoute(RouteGraph graph, long[] claimed, int city, boolean[] used) {
+        int best = 0;
+        for (int e : graph.getCityEdges(city)) {
+            if ((claimed[e >>> 6] & (1L << e)) != 0 && !used[e]) {
+                used[e] = true;
+                best = Math.max(best, graph.getEdgeLength(e) + referenceLongestRoute(graph, claimed, graph.getOtherCity(e, city), used));
+                used[e] = false;
+            }
+        }
+        return best;
+    }
+
+    private void assertLongestRoutesCorrect(TicketToRideGameState gs) {
+        RouteGraph graph = gs.getRouteGraph();
+        for (int p = 0; p < gs.getNPlayers(); p++) {
+            long[] claimed = gs.getRouteNetworks().getClaimedEdges(p);
+            int expected = 0;
+            for (int c = 0; c < graph.getNCities(); c++) {
+                expected = Math.max(expected, referenceLongestRoute(graph, claimed, c, new boolean[graph.getNEdges()]));
+            }
+            assertEquals("player " + p, expected, gs.getLongestRouteLength(p));
+        }
+    }
+
+    @Test
+    public void longestRouteIsCachedUntilPlayerClaims() {
+        RouteGraph graph = state.getRouteGraph();
+        RouteNetworks networks = new RouteNetworks(graph, 2);
+        // two routes that share a city join into one continuous route
+        int city = graph.getOtherCity(graph.getCityEdges(0)[0], 0);
+        int e1 = graph.getCityEdges(city)[0];
+        int e2 = graph.getCityEdges(city)[1];
+        networks.addRoute(0, e1, 0);
+        assertEquals(graph.getEdgeLength(e1), networks.getLongestRoute(0));
+        assertEquals(0, networks.getLongestRoute(1));
+        RouteNetworks copy = networks.copy();
+        networks.addRoute(0, e2, 0);
+        assertEquals(graph.getEdgeLength(e1) + graph.getEdgeLength(e2), networks.getLongestRoute(0));
+        assertEquals(graph.getEdgeLength(e1), copy.getLongestRoute(0));
+        assertEquals(0, networks.getLongestRoute(1));
+    }
+
+    @Test
+    public void routeGraphIndexesWholeBoard() {
+        RouteGraph graph = state.getRouteGraph();
+        assertEquals(state.getWorld().getBoardNodes().size(), graph.getNCities());
+        assertEquals(state.getWorld().getBoardEdges().size(), graph.getNEdges());
+        for (int e = 0; e < graph.getNEdges(); e++) {
+            assertEquals(e, graph.getEdgeIndex(graph.getEdgeComponentID(e)));
+        }
+    }
+
+    @Test
+    public void connectivityMatchesGraphSearchThroughoutGame() {
+        int claims = 0;
+        while (state.isNotTerminal() && claims < 40) {
+            List<AbstractAction> actions = fm.computeAvailableActions(state);
+            // prefer claiming routes, so that the networks grow quickly
+            List<AbstractAction> claimActions = actions.stream().filter(a -> a instanceof ClaimRoute).toList();
+            AbstractAction action = claimActions.isEmpty() ? actions.get(rnd.nextInt(actions.size()))
+                    : claimActions.get(rnd.nextInt(claimActions.size()));
+            fm.next(state, action);
+            if (action instanceof ClaimRoute) {
+                claims++;
+                assertMatchesGraphSearch(state);
+                assertLongestRoutesCorrect(state);
+            }
+        }
+        assertTrue(claims > 10);
+    }
+
+    @Test
+    public void copiesHaveIndependentNetworks() {
+        TicketToRideGameState copy = (TicketToRideGameState) state.copy();
+        assertSame(state.getRouteGraph(), copy.getRouteGraph());
+        for (int i = 0; i < 200 && copy.isNotTerminal(); i++) {
+            List<AbstractAction> actions = fm.computeAvailableActions(copy);
+            fm.next(copy, actions.get(rnd.nextInt(actions.size())));
+        }
+        assertMatchesGraphSearch(copy);
+        assertMatchesGraphSearch(state);
+        for (int p = 0; p < state.getNPlayers(); p++) {
+            for (long bits : state.getRouteNetworks().getClaimedEdges(p)) {
+                assertEquals(0, bits);
+            }
+        }
+    }
+}
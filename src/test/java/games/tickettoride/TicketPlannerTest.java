@@ -0,0 +1,152 @@
+package games.tickettoride;
+
+import core.actions.AbstractAction;
+import games.tickettoride.actions.ClaimRoute;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class TicketPlannerTest {
+
+    TicketToRideParameters params;
+    TicketToRideGameState state;
+    TicketToRideForwardModel fm;
+    Random rnd;
+
+    @Before
+    public void setUp() {
+        params = new TicketToRideParameters("data/tickettoride/");
+        params.setRandomSeed(2291);
+        rnd = new Random(2291);
+    }
+
+    private void setUpGame(int nPlayers) {
+        state = new TicketToRideGameState(params, nPlayers);
+        fm = new TicketToRideForwardModel();
+        fm.setup(state);
+    }
+
+    // Relaxes every route until nothing changes, with the player's own routes costing nothing
+    private int[] referenceDistances(TicketToRideGameState gs, int playerId, int from) {
+        RouteGraph graph = gs.getRouteGraph();
+        RouteNetworks networks = gs.getRouteNetworks();
+        boolean doubleRoutes = gs.getNPlayers() >= 4;
+        int[] dist = new int[graph.getNCities()];
+        Arrays.fill(dist, RouteGraph.NO_PATH);
+        dist[from] = 0;
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int e = 0; e < graph.getNEdges(); e++) {
+                int cost;
+                if (networks.hasClaimed(playerId, e)) {
+                    cost = 0;
+                } else if (networks.isTrackClaimable(playerId, e, 0, doubleRoutes)
+                        || networks.isTrackClaimable(playerId, e, 1, doubleRoutes)) {
+                    cost = graph.getEdgeLength(e);
+                } else {
+                    continue;
+                }
+                int c1 = graph.getEdgeCity1(e), c2 = graph.getEdgeCity2(e);
+                if (dist[c1] + cost < dist[c2]) {
+                    dist[c2] = dist[c1] + cost;
+                    changed = true;
+                }
+                if (dist[c2] + cost < dist[c1]) {
+                    dist[c1] = dist[c2] + cost;
+                    changed = true;
+                }
+            }
+        }
+        return dist;
+    }
+
+    private void assertMatchesReference(TicketToRideGameState gs) {
+        RouteGraph graph = gs.getRouteGraph();
+        for (int p = 0; p < gs.getNPlayers(); p++) {
+            for (int c1 = 0; c1 < graph.getNCities(); c1++) {
+                int[] expected = referenceDistances(gs, p, c1);
+                for (int c2 = 0; c2 < graph.getNCities(); c2++) {
+                    assertEquals(graph.getCityName(c1) + " to " + graph.getCityName(c2) + " for player " + p,
+                            expected[c2] == RouteGraph.NO_PATH ? -1 : expected[c2], gs.getCarsToConnect(p, c1, c2));
+                }
+            }
+        }
+    }
+
+    private AbstractAction chooseAction(TicketToRideGameState gs) {
+        List<AbstractAction> actions = fm.computeAvailableActions(gs);
+        // prefer claiming routes, so that the networks grow quickly
+        List<AbstractAction> claimActions = actions.stream().filter(a -> a instanceof ClaimRoute).toList();
+        return claimActions.isEmpty() ? actions.get(rnd.nextInt(actions.size()))
+                : claimActions.get(rnd.nextInt(claimActions.size()));
+    }
+
+    @Test
+    public void emptyBoardDistancesAreShortestPaths() {
+        setUpGame(2);
+        RouteGraph graph = state.getRouteGraph();
+        for (int c1 = 0; c1 < graph.getNCities(); c1++) {
+            int[] expected = referenceDistances(state, 0, c1);
+            for (int c2 = 0; c2 < graph.getNCities(); c2++) {
+                assertEquals(expected[c2], graph.getDistance(c1, c2));
+                assertEquals(graph.getDistance(c1, c2), graph.getDistance(c2, c1));
+            }
+        }
+        int edge = 0;
+        assertTrue(graph.getDistance(graph.getEdgeCity1(edge), graph.getEdgeCity2(edge)) <= graph.getEdgeLength(edge));
+    }
+
+    @Test
+    public void distancesMatchSearchThroughoutGame() {
+        for (int nPlayers : new int[]{2, 4}) {
+            setUpGame(nPlayers);
+            int claims = 0;
+            while (state.isNotTerminal() && claims < 40) {
+                AbstractAction action = chooseAction(state);
+                fm.next(state, action);
+                if (action instanceof ClaimRoute) {
+                    claims++;
+                    assertMatchesReference(state);
+                }
+            }
+            assertTrue(claims > 10);
+        }
+    }
+
+    @Test
+    public void copiesHaveIndependentDistances() {
+        setUpGame(3);
+        TicketToRideGameState copy = (TicketToRideGameState) state.copy();
+        for (int i = 0; i < 200 && copy.isNotTerminal(); i++) {
+            fm.next(copy, chooseAction(copy));
+        }
+        assertMatchesReference(copy);
+        assertMatchesReference(state);
+        RouteGraph graph = state.getRouteGraph();
+        for (int p = 0; p < state.getNPlayers(); p++) {
+            assertEquals(graph.getDistance(0, 1), state.getCarsToConnect(p, 0, 1));
+        }
+    }
+
+    @Test
+    public void undoRestoresDistances() {
+        setUpGame(3);
+        for (int i = 0; i < 60 && state.isNotTerminal(); i++) {
+            fm.next(state, chooseAction(state));
+        }
+        assertMatchesReference(state);
+        for (int i = 0; i < 20 && state.isNotTerminal(); i++) {
+            fm.nextWithUndo(state, chooseAction(state));
+            // this recomputes any distances the action made stale, which undo must then mark stale again
+            assertMatchesReference(state);
+            fm.undo(state);
+            assertMatchesReference(state);
+        }
+    }
+}
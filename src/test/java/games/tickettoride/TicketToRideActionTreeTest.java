@@ -0,0 +1,85 @@
+package games.tickettoride;
+
+import core.actions.AbstractAction;
+import org.junit.Test;
+import utilities.ActionTreeNode;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class TicketToRideActionTreeTest {
+
+    private void playWithActionTree(int nPlayers, long seed) {
+        TicketToRideParameters params = new TicketToRideParameters("data/tickettoride/");
+        params.setRandomSeed(seed);
+        TicketToRideGameState state = new TicketToRideGameState(params, nPlayers);
+        TicketToRideForwardModel fm = new TicketToRideForwardModel();
+        fm.setup(state);
+        Random rnd = new Random(seed);
+
+        ActionTreeNode root = fm.initActionTree(state);
+        int nLeaves = root.getLeafNodes().size();
+        // two draw actions, and one leaf per track
+        RouteGraph graph = state.getRouteGraph();
+        int nTracks = 0;
+        for (int e = 0; e < graph.getNEdges(); e++)
+            nTracks += graph.getNTracks(e);
+        assertEquals(2 + nTracks, nLeaves);
+        int maskLength = root.getActionMask().length;
+
+        int steps = 0;
+        while (state.isNotTerminal() && steps < 300) {
+            assertSame(root, fm.updateActionTree(root, state));
+            List<AbstractAction> expected = fm.computeAvailableActions(state);
+            List<ActionTreeNode> leaves = root.getLeafNodes();
+            assertEquals(nLeaves, leaves.size());
+            assertEquals(maskLength, root.getActionMask().length);
+
+            Set<AbstractAction> available = new HashSet<>();
+            for (ActionTreeNode leaf : root.getValidLeaves()) {
+                assertNotNull(leaf.getAction());
+                available.add(leaf.getAction());
+            }
+            assertEquals(new HashSet<>(expected), available);
+            assertEquals(expected.size(), root.getValidLeaves().size());
+            for (ActionTreeNode leaf : leaves) {
+                if (leaf.getValue() == 0)
+                    assertNull(leaf.getAction());
+            }
+            // a route (or ClaimRoute) node is available exactly when one of its leaves is
+            ActionTreeNode claimRoute = root.getChildren().get(2);
+            boolean anyRoute = false;
+            for (ActionTreeNode route : claimRoute.getChildren()) {
+                boolean anyTrack = route.getChildren().stream().anyMatch(l -> l.getValue() == 1);
+                assertEquals(anyTrack ? 1 : 0, route.getValue());
+                anyRoute |= anyTrack;
+            }
+            assertEquals(anyRoute ? 1 : 0, claimRoute.getValue());
+
+            // play by choosing a leaf, as PyTAG does
+            List<ActionTreeNode> valid = root.getValidLeaves();
+            fm.next(state, valid.get(rnd.nextInt(valid.size())).getAction());
+            steps++;
+        }
+        assertTrue(steps > 50);
+    }
+
+    @Test
+    public void maskMatchesAvailableActions() {
+        playWithActionTree(2, 611);
+        playWithActionTree(4, 612);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void treeMustComeFromInit() {
+        TicketToRideParameters params = new TicketToRideParameters("data/tickettoride/");
+        TicketToRideGameState state = new TicketToRideGameState(params, 2);
+        TicketToRideForwardModel fm = new TicketToRideForwardModel();
+        fm.setup(state);
+        fm.updateActionTree(new ActionTreeNode(0, "root"), state);
+    }
+}
@@ -0,0 +1,96 @@
+package games.tickettoride;
+
+import core.actions.AbstractAction;
+import core.components.Card;
+import core.components.Deck;
+import core.properties.PropertyString;
+import games.tickettoride.actions.ClaimRoute;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static games.tickettoride.TicketToRideConstants.*;
+import static org.junit.Assert.*;
+
+public class TicketToRideFeaturesTest {
+
+    TicketToRideFeatures features = new TicketToRideFeatures();
+
+    private TicketToRideGameState setUpGame(int nPlayers, long seed) {
+        TicketToRideParameters params = new TicketToRideParameters("data/tickettoride/");
+        params.setRandomSeed(seed);
+        TicketToRideGameState state = new TicketToRideGameState(params, nPlayers);
+        new TicketToRideForwardModel().setup(state);
+        return state;
+    }
+
+    private int index(String name) {
+        int index = Arrays.asList(features.names()).indexOf(name);
+        assertTrue(name, index >= 0);
+        return index;
+    }
+
+    @Test
+    public void widthDoesNotDependOnPlayers() {
+        TicketToRideGameState state = setUpGame(2, 87);
+        int width = features.names().length;
+        assertEquals(width, features.featureVector(state, 0).length);
+        assertEquals(width, features.featureVector(setUpGame(5, 87), 4).length);
+        assertEquals(width, features.getObservationSpace());
+        assertEquals(30, features.getNTickets());
+        assertEquals(width, Arrays.stream(features.names()).distinct().count());
+    }
+
+    @Test
+    public void featuresMatchStateThroughoutGame() {
+        TicketToRideGameState state = setUpGame(3, 87);
+        TicketToRideForwardModel fm = new TicketToRideForwardModel();
+        Random rnd = new Random(87);
+        double[] buffer = new double[features.getObservationSpace()];
+        int claims = 0;
+        while (state.isNotTerminal() && claims < 30) {
+            List<AbstractAction> actions = fm.computeAvailableActions(state);
+            List<AbstractAction> claimActions = actions.stream().filter(a -> a instanceof ClaimRoute).toList();
+            AbstractAction action = claimActions.isEmpty() ? actions.get(rnd.nextInt(actions.size()))
+                    : claimActions.get(rnd.nextInt(claimActions.size()));
+            fm.next(state, action);
+            if (!(action instanceof ClaimRoute claim)) continue;
+            claims++;
+            RouteGraph graph = state.getRouteGraph();
+            int edge = graph.getEdgeIndex(claim.edgeID);
+            for (int p = 0; p < state.getNPlayers(); p++) {
+                // the buffer is reused, and must give the same as a new array
+                features.featureVector(state, p, buffer);
+                assertArrayEquals(features.featureVector(state, p), buffer, 0.0);
+
+                int relative = (claim.playerID - p + 3) % 3;
+                String route = graph.getCityName(graph.getEdgeCity1(edge)) + "-" + graph.getCityName(graph.getEdgeCity2(edge));
+                assertEquals(1.0, buffer[index("ROUTE_" + route + "_P" + relative)], 0.0);
+                assertEquals(state.getTrainCars(claim.playerID), buffer[index("TRAIN_CARS_P" + relative)], 0.0);
+                assertEquals(state.getLongestRouteLength(claim.playerID), buffer[index("LONGEST_ROUTE_P" + relative)], 0.0);
+                assertEquals(state.getScores()[p], buffer[index("SCORE_P0")], 0.0);
+                for (TicketToRideParameters.TrainCar color : TicketToRideParameters.TrainCar.values()) {
+                    assertEquals(state.getNumberOfSpecificTrainCard(p, color),
+                            buffer[index("HAND_" + color.name().toUpperCase())], 0.0);
+                }
+                Deck<Card> tickets = (Deck<Card>) state.getComponentActingPlayer(p, playerDestinationHandHash);
+                for (Card ticket : tickets.getComponents()) {
+                    String location1 = ((PropertyString) ticket.getProperty(location1Hash)).value;
+                    String location2 = ((PropertyString) ticket.getProperty(location2Hash)).value;
+                    int city1 = graph.getCityIndex(location1), city2 = graph.getCityIndex(location2);
+                    String name = graph.getCityName(city1) + "-" + graph.getCityName(city2);
+                    if (!Arrays.asList(features.names()).contains("TICKET_HELD_" + name))
+                        name = graph.getCityName(city2) + "-" + graph.getCityName(city1);
+                    assertEquals(1.0, buffer[index("TICKET_HELD_" + name)], 0.0);
+                    assertEquals(state.isConnected(p, location1, location2) ? 1.0 : 0.0,
+                            buffer[index("TICKET_COMPLETE_" + name)], 0.0);
+                }
+                // no player 3 or 4 in a 3 player game
+                assertEquals(0.0, buffer[index("TRAIN_CARS_P3")], 0.0);
+            }
+        }
+        assertTrue(claims > 10);
+    }
+}
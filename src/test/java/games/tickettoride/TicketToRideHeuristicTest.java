@@ -0,0 +1,33 @@
+package games.tickettoride;
+
+import core.actions.AbstractAction;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class TicketToRideHeuristicTest {
+
+    @Test
+    public void allPlayersMatchesEachPlayer() {
+        TicketToRideParameters params = new TicketToRideParameters("data/tickettoride/");
+        params.setRandomSeed(515);
+        TicketToRideGameState state = new TicketToRideGameState(params, 4);
+        TicketToRideForwardModel fm = new TicketToRideForwardModel();
+        fm.setup(state);
+        TicketToRideHeuristic heuristic = new TicketToRideHeuristic();
+        Random rnd = new Random(515);
+        while (state.isNotTerminal()) {
+            double[] values = heuristic.evaluateAllPlayers(state);
+            for (int p = 0; p < state.getNPlayers(); p++)
+                assertEquals(heuristic.evaluateState(state, p), values[p], 1e-9);
+            List<AbstractAction> actions = fm.computeAvailableActions(state);
+            fm.next(state, actions.get(rnd.nextInt(actions.size())));
+        }
+        double[] values = heuristic.evaluateAllPlayers(state);
+        for (int p = 0; p < state.getNPlayers(); p++)
+            assertEquals(heuristic.evaluateState(state, p), values[p], 1e-9);
+    }
+}
@@ -0,0 +1,79 @@
+package games.tickettoride;
+
+import core.actions.AbstractAction;
+import core.components.Card;
+import core.components.Deck;
+import games.tickettoride.TicketToRideParameters.TrainCar;
+import games.tickettoride.actions.ClaimRoute;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static core.CoreConstants.playerHandHash;
+import static org.junit.Assert.*;
+
+public class TrainCardCountsTest {
+
+    TicketToRideParameters params;
+    TicketToRideGameState state;
+    TicketToRideForwardModel fm;
+    Random rnd;
+
+    @Before
+    public void setUp() {
+        params = new TicketToRideParameters("data/tickettoride/");
+        params.setRandomSeed(771);
+        state = new TicketToRideGameState(params, 3);
+        fm = new TicketToRideForwardModel();
+        fm.setup(state);
+        rnd = new Random(771);
+    }
+
+    private void assertCountsMatchHands(TicketToRideGameState gs) {
+        for (int p = 0; p < gs.getNPlayers(); p++) {
+            int[] expected = new int[TrainCar.values().length];
+            Deck<Card> hand = (Deck<Card>) gs.getComponentActingPlayer(p, playerHandHash);
+            for (Card card : hand) {
+                expected[TrainCar.valueOf(card.toString()).ordinal()]++;
+            }
+            assertArrayEquals("player " + p, expected, gs.getTrainCardCounts(p));
+        }
+    }
+
+    @Test
+    public void initialHandsAreCounted() {
+        assertCountsMatchHands(state);
+        for (int p = 0; p < state.getNPlayers(); p++) {
+            assertEquals(params.nInitialTrainCards, Arrays.stream(state.getTrainCardCounts(p)).sum());
+        }
+    }
+
+    @Test
+    public void countsFollowHandsThroughGame() {
+        int claims = 0;
+        while (state.isNotTerminal()) {
+            List<AbstractAction> actions = fm.computeAvailableActions(state);
+            AbstractAction action = actions.get(rnd.nextInt(actions.size()));
+            fm.next(state, action);
+            if (action instanceof ClaimRoute) claims++;
+            assertCountsMatchHands(state);
+        }
+        assertTrue(claims > 0);
+    }
+
+    @Test
+    public void copyHasIndependentCounts() {
+        TicketToRideGameState copy = (TicketToRideGameState) state.copy();
+        int before = state.getNumberOfSpecificTrainCard(0, TrainCar.Red);
+        copy.drawTrainCard(0);
+        copy.drawTrainCard(0);
+        assertEquals(before, state.getNumberOfSpecificTrainCard(0, TrainCar.Red));
+        assertEquals(params.nInitialTrainCards, Arrays.stream(state.getTrainCardCounts(0)).sum());
+        assertEquals(params.nInitialTrainCards + 2, Arrays.stream(copy.getTrainCardCounts(0)).sum());
+        assertCountsMatchHands(copy);
+        assertEquals(state.getNumberOfSpecificTrainCard(1, TrainCar.Pink), state.getNumberOfSpecificTrainCard(1, "pink"));
+    }
+}
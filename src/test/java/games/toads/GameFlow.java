@@ -25,7 +25,7 @@ public class GameFlow {
     @Before
     public void setUp() {
         params = new ToadParameters();
-        params.setRandomSeed(933);
+        params.setRandomSeed(935);
         params.setParameterValue("useTactics", false);
         params.setParameterValue("discardOption", false);
         state = new ToadGameState(params, 2);
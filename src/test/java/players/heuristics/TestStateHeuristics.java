@@ -19,6 +19,7 @@ import org.junit.Test;
 import java.util.ArrayList;
 import java.util.List;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 
 public class TestStateHeuristics {
@@ -70,6 +71,24 @@ public class TestStateHeuristics {
         assertEquals(36.2, linearStateHeuristic.evaluateState(domState, 1), 0.01);
     }
 
+    @Test
+    public void testBatchEvaluation() {
+        LogisticStateHeuristic heuristic = new LogisticStateHeuristic(dominionFeaturedReduced,
+                "src/test/java/players/heuristics/DominionFeatureWeightsLogistic.json",
+                new WinOnlyHeuristic());
+        DominionGameState afterBuy = (DominionGameState) domState.copy();
+        fm.next(afterBuy, new EndPhase(DominionGameState.DominionGamePhase.Play));
+        fm.next(afterBuy, new BuyCard(CardType.SILVER, 0));
+        List<DominionGameState> states = List.of(domState, afterBuy);
+        double[][] values = heuristic.evaluateStates(states);
+        assertEquals(2, values.length);
+        for (int s = 0; s < states.size(); s++) {
+            assertArrayEquals(heuristic.evaluateAllPlayers(states.get(s)), values[s], 1e-9);
+            for (int p = 0; p < states.get(s).getNPlayers(); p++)
+                assertEquals(heuristic.evaluateState(states.get(s), p), values[s][p], 1e-9);
+        }
+    }
+
     @Test
     public void testLogisticStateHeuristic() {
         LogisticStateHeuristic logisticStateHeuristic = new LogisticStateHeuristic(dominionFeaturedReduced,
@@ -0,0 +1,142 @@
+package players.mcts;
+
+import core.AbstractForwardModel;
+import core.AbstractGameState;
+import core.Game;
+import core.actions.AbstractAction;
+import games.GameType;
+import org.junit.Before;
+import org.junit.Test;
+import players.PlayerConstants;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class ParallelMCTSTests {
+
+    MCTSParams params;
+    AbstractGameState state;
+    AbstractForwardModel forwardModel;
+
+    @Before
+    public void setup() {
+        params = new MCTSParams();
+        params.setParameterValue("randomSeed", 4402);
+        params.setParameterValue("budgetType", PlayerConstants.BUDGET_ITERATIONS);
+        params.setParameterValue("budget", 400);
+        params.setParameterValue("nThreads", 4);
+        params.setParameterValue("information", MCTSEnums.Information.Information_Set);
+        Game game = GameType.LoveLetter.createGameInstance(3, 881);
+        state = game.getGameState();
+        forwardModel = game.getForwardModel();
+        // move on a few actions, and until there is a choice to make, so that there is something to search
+        Random rnd = new Random(881);
+        for (int i = 0; i < 3 || forwardModel.computeAvailableActions(state).size() < 2; i++) {
+            List<AbstractAction> actions = forwardModel.computeAvailableActions(state);
+            forwardModel.next(state, actions.get(rnd.nextInt(actions.size())));
+        }
+    }
+
+    private TestMCTSPlayer createPlayer() {
+        TestMCTSPlayer player = new TestMCTSPlayer(params, null);
+        player.setForwardModel(forwardModel);
+        player.initializePlayer(state);
+        return player;
+    }
+
+    private void checkVisitsAddUp(SingleTreeNode node) {
+        int actionVisits = node.actionValues.values().stream().mapToInt(s -> s.nVisits).sum();
+        assertEquals(node.getVisits(), actionVisits);
+    }
+
+    @Test
+    public void treeParallelSharesBudget() {
+        params.setParameterValue("parallelisation", MCTSEnums.Parallelisation.Tree);
+        TestMCTSPlayer player = createPlayer();
+        for (int decision = 0; decision < 3; decision++) {
+            List<AbstractAction> actions = forwardModel.computeAvailableActions(state);
+            AbstractAction action = player.getAction(state, actions);
+            assertTrue(actions.contains(action));
+            SingleTreeNode root = player.getRoot();
+            // workers may each finish the iteration they are in when the budget runs out
+            assertTrue(root.getVisits() >= 400);
+            assertTrue(root.getVisits() < 400 + 4);
+            // and all the virtual losses have been removed
+            for (SingleTreeNode node : root.allNodesInTree())
+                checkVisitsAddUp(node);
+            forwardModel.next(state, action);
+        }
+    }
+
+    @Test
+    public void treeParallelWithSelfOnlyTree() {
+        params.setParameterValue("parallelisation", MCTSEnums.Parallelisation.Tree);
+        params.setParameterValue("opponentTreePolicy", MCTSEnums.OpponentTreePolicy.SelfOnly);
+        params.setParameterValue("virtualLoss", 3);
+        TestMCTSPlayer player = createPlayer();
+        List<AbstractAction> actions = forwardModel.computeAvailableActions(state);
+        assertTrue(actions.contains(player.getAction(state, actions)));
+        for (SingleTreeNode node : player.getRoot().allNodesInTree())
+            checkVisitsAddUp(node);
+    }
+
+    @Test
+    public void treeParallelClosedLoopLeavesTreeStatesAlone() {
+        params.setParameterValue("parallelisation", MCTSEnums.Parallelisation.Tree);
+        params.setParameterValue("information", MCTSEnums.Information.Closed_Loop);
+        for (int rolloutLength : new int[]{0, 10}) {
+            params.setParameterValue("rolloutLength", rolloutLength);
+            TestMCTSPlayer player = createPlayer();
+            List<AbstractAction> actions = forwardModel.computeAvailableActions(state);
+            int tick = state.getGameTick();
+            assertTrue(actions.contains(player.getAction(state, actions)));
+            // the rollouts are each from a private copy, so the states held in the tree are never advanced
+            SingleTreeNode root = player.getRoot();
+            assertEquals(tick, root.state.getGameTick());
+            for (SingleTreeNode node : root.allNodesInTree())
+                assertTrue(node.state.getGameTick() <= tick + node.depth);
+            for (SingleTreeNode node : root.allNodesInTree())
+                checkVisitsAddUp(node);
+        }
+    }
+
+    @Test
+    public void rootParallelMergesTrees() {
+        for (MCTSEnums.RootMerge merge : MCTSEnums.RootMerge.values()) {
+            params.setParameterValue("parallelisation", MCTSEnums.Parallelisation.Root);
+            params.setParameterValue("rootMerge", merge);
+            TestMCTSPlayer player = createPlayer();
+            List<AbstractAction> actions = forwardModel.computeAvailableActions(state);
+            AbstractAction action = player.getAction(state, actions);
+            assertTrue(actions.contains(action));
+            assertEquals(4, player.workers.size());
+            for (MCTSPlayer worker : player.workers) {
+                // each tree has the full budget
+                assertEquals(400, worker.root.getVisits());
+                assertEquals(MCTSEnums.Parallelisation.None, worker.getParameters().parallelisation);
+                assertEquals(action, worker.lastAction.b);
+            }
+            assertSame(player.workers.get(0).root, player.getRoot());
+            if (merge == MCTSEnums.RootMerge.VisitSum) {
+                int visits = player.workers.stream().mapToInt(w -> w.root.actionVisits(action)).sum();
+                for (AbstractAction other : actions)
+                    assertTrue(visits >= player.workers.stream().mapToInt(w -> w.root.actionVisits(other)).sum());
+            }
+        }
+    }
+
+    @Test
+    public void virtualLossIsRemovedExactly() {
+        ActionStats stats = new ActionStats(2);
+        stats.update(new double[]{0.5, -1.0});
+        stats.addVirtualLoss(0, 3, 0.0);
+        assertEquals(4, stats.nVisits);
+        assertEquals(0.125, stats.totValue[0] / stats.nVisits, 1e-9);
+        stats.removeVirtualLoss(0, 3, 0.0);
+        assertEquals(1, stats.nVisits);
+        assertEquals(0.5, stats.totValue[0], 1e-9);
+        assertEquals(-1.0, stats.totValue[1], 1e-9);
+    }
+}
@@ -0,0 +1,129 @@
+package players.search;
+
+import core.AbstractForwardModel;
+import core.AbstractGameState;
+import core.Game;
+import core.actions.AbstractAction;
+import core.actions.SetGridValueAction;
+import core.components.Token;
+import core.interfaces.IStateHeuristic;
+import games.GameType;
+import games.tictactoe.TicTacToeConstants;
+import games.tictactoe.TicTacToeGameState;
+import org.junit.Test;
+import players.heuristics.GameDefaultHeuristic;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class TranspositionTableTests {
+
+    static class CountingHeuristic implements IStateHeuristic {
+        final IStateHeuristic heuristic = new GameDefaultHeuristic();
+        int calls;
+
+        @Override
+        public double evaluateState(AbstractGameState gs, int playerId) {
+            calls++;
+            return heuristic.evaluateState(gs, playerId);
+        }
+    }
+
+    /**
+     * Plays a game with random actions, checking that the incrementally kept Zobrist key matches the one computed from
+     * scratch by a copy for a player (and that copying and undo keep the key)
+     */
+    private void checkKeys(GameType gameType, int nPlayers, long seed) {
+        Game game = gameType.createGameInstance(nPlayers, seed);
+        AbstractGameState state = game.getGameState();
+        AbstractForwardModel fm = game.getForwardModel();
+        assertTrue(state.hasZobristKey());
+        Random rnd = new Random(seed);
+        while (state.isNotTerminal()) {
+            List<AbstractAction> actions = fm.computeAvailableActions(state);
+            long key = state.getZobristKey();
+            assertEquals(key, state.copy().getZobristKey());
+            assertEquals(key, state.copy(state.getCurrentPlayer()).getZobristKey());
+            AbstractAction action = actions.get(rnd.nextInt(actions.size()));
+            fm.nextWithUndo(state, action);
+            assertNotEquals(key, state.getZobristKey());
+            fm.undo(state);
+            assertEquals(key, state.getZobristKey());
+            fm.next(state, action);
+        }
+    }
+
+    @Test
+    public void keysAreKeptUpToDate() {
+        checkKeys(GameType.TicTacToe, 2, 31);
+        checkKeys(GameType.Connect4, 2, 32);
+        checkKeys(GameType.TicketToRide, 3, 33);
+    }
+
+    @Test
+    public void transpositionsHaveTheSameKey() {
+        Game game = GameType.TicTacToe.createGameInstance(2, 4);
+        TicTacToeGameState state = (TicTacToeGameState) game.getGameState();
+        AbstractForwardModel fm = game.getForwardModel();
+        int board = state.getGridBoard().getComponentID();
+        Token x = TicTacToeConstants.playerMapping.get(0);
+        Token o = TicTacToeConstants.playerMapping.get(1);
+        // the same cells taken in a different order
+        AbstractGameState first = state.copy();
+        fm.next(first, new SetGridValueAction<>(board, 0, 0, x));
+        fm.next(first, new SetGridValueAction<>(board, 1, 1, o));
+        fm.next(first, new SetGridValueAction<>(board, 2, 0, x));
+        AbstractGameState second = state.copy();
+        fm.next(second, new SetGridValueAction<>(board, 2, 0, x));
+        fm.next(second, new SetGridValueAction<>(board, 1, 1, o));
+        fm.next(second, new SetGridValueAction<>(board, 0, 0, x));
+        assertEquals(first.getZobristKey(), second.getZobristKey());
+        assertNotEquals(state.getZobristKey(), first.getZobristKey());
+        fm.next(second, new SetGridValueAction<>(board, 0, 1, o));
+        assertNotEquals(first.getZobristKey(), second.getZobristKey());
+    }
+
+    @Test
+    public void tableGivesTheSameValuesWithFewerEvaluations() {
+        Game game = GameType.Connect4.createGameInstance(2, 77);
+        AbstractGameState state = game.getGameState();
+        double[][] results = new double[2][];
+        int[] calls = new int[2];
+        for (int i = 0; i < 2; i++) {
+            CountingHeuristic heuristic = new CountingHeuristic();
+            MaxNSearchParameters params = new MaxNSearchParameters();
+            params.setParameterValue("searchDepth", 4);
+            params.setParameterValue("budget", 1000000);
+            params.setParameterValue("heuristic", heuristic);
+            params.setParameterValue("transpositionTableSize", i == 0 ? 0 : 1 << 16);
+            MaxNSearchPlayer player = new MaxNSearchPlayer(params);
+            player.setForwardModel(game.getForwardModel());
+            player.initializePlayer(state);
+            player.startTime = System.currentTimeMillis();
+            results[i] = player.expand(state.copy(), game.getForwardModel().computeAvailableActions(state), 4).value();
+            calls[i] = heuristic.calls;
+        }
+        assertEquals(results[0][0], results[1][0], 1e-9);
+        assertTrue(calls[1] < calls[0]);
+    }
+
+    @Test
+    public void deeperEntriesAreKept() {
+        TranspositionTable table = new TranspositionTable(5);
+        long key = 3;
+        long other = key + 8; // same slot in a table of 8
+        table.store(key, 4, new double[]{1.0}, null);
+        table.store(other, 2, new double[]{2.0}, null);
+        assertEquals(-1, table.probe(other));
+        assertEquals(4, table.getDepth(table.probe(key)));
+        table.store(key, 1, new double[]{3.0}, null);
+        assertEquals(1.0, table.getValues(table.probe(key))[0], 1e-9);
+        // but entries from an earlier decision are replaced
+        table.newSearch();
+        table.store(other, 2, new double[]{2.0}, null);
+        assertEquals(-1, table.probe(key));
+        assertEquals(2.0, table.getValues(table.probe(other))[0], 1e-9);
+    }
+}